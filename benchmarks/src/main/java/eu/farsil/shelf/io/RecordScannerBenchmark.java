@@ -0,0 +1,109 @@
+package eu.farsil.shelf.io;
+
+import eu.farsil.shelf.lambda.Try;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scan of the lines of a log file with a {@link RecordScanner}
+ * with {@code Files.readAllLines()} wrapped in a {@code Try}, and with a
+ * {@link BufferedReader}. Each benchmark counts the lines that contain an
+ * error, so that every line is inspected.
+ * <p>
+ * Run with {@code -prof gc} to compare the allocations, which grow with the
+ * size of the file, except for the scanner.
+ *
+ * @author Marco Buzzanca
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecordScannerBenchmark {
+	/**
+	 * The number of lines of the file.
+	 */
+	@Param({"200000"})
+	public int lines;
+
+	/**
+	 * The file.
+	 */
+	private Path path;
+
+	/**
+	 * Returns whether a line reports an error.
+	 *
+	 * @param line the line.
+	 * @return whether the line reports an error.
+	 */
+	private static boolean isError(final CharSequence line) {
+		return line.length() > 24 && line.charAt(24) == 'E';
+	}
+
+	@Setup
+	public void setUp() throws IOException {
+		path = Files.createTempFile("records", ".log");
+		try (final Writer out = Files.newBufferedWriter(path,
+				StandardCharsets.US_ASCII)) {
+			for (int i = 0; i < lines; i++) {
+				out.write(String.format(
+						"2024-01-01T00:00:%02d.000 %s worker-%d request %d done%n",
+						i % 60, i % 16 == 0 ? "ERROR" : "INFO ", i % 8, i));
+			}
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		Files.delete(path);
+	}
+
+	@Benchmark
+	public long bufferedReader() throws IOException {
+		long errors = 0;
+		try (final BufferedReader in = Files.newBufferedReader(path,
+				StandardCharsets.US_ASCII)) {
+			String line;
+			while ((line = in.readLine()) != null) {
+				if (isError(line)) {
+					errors++;
+				}
+			}
+		}
+		return errors;
+	}
+
+	@Benchmark
+	public long readAllLines() {
+		final Try<List<String>> all = Try.get(
+				() -> Files.readAllLines(path, StandardCharsets.US_ASCII));
+		return all.map(l -> l.stream()
+				.filter(RecordScannerBenchmark::isError)
+				.count())
+				.orElse(-1L);
+	}
+
+	@Benchmark
+	public long scanner() {
+		final long[] errors = new long[1];
+		return RecordScanner.lines()
+				.scanText(path, line -> {
+					if (isError(line)) {
+						errors[0]++;
+					}
+				})
+				.map(r -> errors[0])
+				.orElse(-1L);
+	}
+}
@@ -0,0 +1,64 @@
+package eu.farsil.shelf.lambda;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of an {@link AsyncTry} chain with the equivalent
+ * chain written by hand with {@link CompletableFuture}.
+ *
+ * @author Marco Buzzanca
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AsyncTryBenchmark {
+	/**
+	 * The string to parse.
+	 */
+	@Param({"12345", "abcde"})
+	public String input;
+
+	/**
+	 * The executor of the chains.
+	 */
+	private ExecutorService executor;
+
+	@Setup
+	public void setUp() {
+		executor = Executors.newFixedThreadPool(
+				Runtime.getRuntime().availableProcessors());
+	}
+
+	@TearDown
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Benchmark
+	public int completableFuture() {
+		return CompletableFuture.supplyAsync(
+				() -> Integer.parseInt(input), executor)
+				.thenApplyAsync(x -> x + 1, executor)
+				.exceptionally(e -> -1)
+				.thenApplyAsync(x -> x * 2, executor)
+				.join();
+	}
+
+	@Benchmark
+	public int asyncTry() {
+		return AsyncTry.get(() -> Integer.parseInt(input), executor)
+				.map(x -> x + 1)
+				.recover(e -> -1)
+				.map(x -> x * 2)
+				.join()
+				.orElse(0);
+	}
+}
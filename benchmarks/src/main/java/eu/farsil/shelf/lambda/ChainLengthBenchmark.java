@@ -0,0 +1,100 @@
+package eu.farsil.shelf.lambda;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how the cost of a {@link Try} chain grows with the number of
+ * chained {@link Try#map map()} calls, compared to {@link Optional} and to a
+ * plain loop.
+ * <p>
+ * The allocation rate is the interesting figure here: run the benchmark with
+ * the {@code -prof gc} option, or through {@link #main(String[])}, which
+ * enables the {@link GCProfiler}.
+ *
+ * @author Marco Buzzanca
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChainLengthBenchmark {
+	/**
+	 * The number of chained calls.
+	 */
+	@Param({"1", "2", "4", "8", "16"})
+	public int length;
+
+	/**
+	 * Whether the chain starts from a success or a failure.
+	 */
+	@Param({"true", "false"})
+	public boolean successful;
+
+	/**
+	 * The value the chain starts from. Not a constant to prevent folding.
+	 */
+	public int value = 42;
+
+	/**
+	 * The cause of the failure when the chain starts from a failure.
+	 */
+	private final Exception cause = new Exception();
+
+	/**
+	 * Runs this benchmark with the {@link GCProfiler} enabled.
+	 *
+	 * @param args ignored.
+	 * @throws RunnerException if the benchmark cannot be run.
+	 */
+	public static void main(final String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(ChainLengthBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+
+	@Benchmark
+	public int loop() {
+		if (!successful) {
+			return 0;
+		}
+		int x = value;
+		for (int i = 0; i < length; i++) {
+			x = x + 1;
+		}
+		return x;
+	}
+
+	@Benchmark
+	public int optional() {
+		Optional<Integer> result = Optional.ofNullable(
+				successful ? value : null);
+		for (int i = 0; i < length; i++) {
+			result = result.map(x -> x + 1);
+		}
+		return result.orElse(0);
+	}
+
+	@Benchmark
+	public int attempt() {
+		Try<Integer> result = Try.get(() -> {
+			if (successful) {
+				return value;
+			}
+			throw cause;
+		});
+		for (int i = 0; i < length; i++) {
+			result = result.map(x -> x + 1);
+		}
+		return result.orElse(0);
+	}
+}
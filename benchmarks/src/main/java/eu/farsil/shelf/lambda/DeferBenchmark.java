@@ -0,0 +1,60 @@
+package eu.farsil.shelf.lambda;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of the deferred evaluation of {@link
+ * Try#defer(eu.farsil.shelf.lambda.function.ThrowingSupplier) Try.defer()}
+ * compared to the eager evaluation of {@link Try#get
+ * Try.get()}, on a chain of {@link Try#flatMap flatMap()} calls short enough
+ * to be evaluated recursively.
+ *
+ * @author Marco Buzzanca
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DeferBenchmark {
+	/**
+	 * The number of chained calls.
+	 */
+	@Param({"1", "10", "100"})
+	public int length;
+
+	/**
+	 * Counts down from {@code n} to zero, eagerly.
+	 *
+	 * @param n the counter.
+	 * @return the outcome of the countdown.
+	 */
+	private static Try<Integer> eager(final int n) {
+		return Try.get(() -> n)
+				.flatMap(x -> x == 0 ? Try.get(() -> 0) : eager(x - 1));
+	}
+
+	/**
+	 * Counts down from {@code n} to zero, deferring the evaluation.
+	 *
+	 * @param n the counter.
+	 * @return the outcome of the countdown.
+	 */
+	private static Try<Integer> deferred(final int n) {
+		return Try.defer(() -> Try.get(() -> n))
+				.flatMap(x -> x == 0 ? Try.get(() -> 0) : deferred(x - 1));
+	}
+
+	@Benchmark
+	public int eager() {
+		return eager(length).orElse(-1);
+	}
+
+	@Benchmark
+	public int deferred() {
+		return deferred(length).orElse(-1);
+	}
+}
@@ -0,0 +1,82 @@
+package eu.farsil.shelf.lambda;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the allocations of a rejected {@link Try#filter filter()} on a
+ * value whose string representation is expensive to build. The detail
+ * message of the resulting exception should only be paid for when it is
+ * actually read.
+ * <p>
+ * Run with the {@code -prof gc} option, or through {@link #main(String[])},
+ * which enables the {@link GCProfiler}.
+ *
+ * @author Marco Buzzanca
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1,
+		jvmArgsAppend = "-Deu.farsil.shelf.lambda.stackless=true")
+@State(Scope.Thread)
+public class FilterAllocationBenchmark {
+	/**
+	 * A value with a large string representation.
+	 */
+	private final Dto dto = new Dto(new int[1024]);
+
+	/**
+	 * Runs this benchmark with the {@link GCProfiler} enabled.
+	 *
+	 * @param args ignored.
+	 * @throws RunnerException if the benchmark cannot be run.
+	 */
+	public static void main(final String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(FilterAllocationBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+
+	@Benchmark
+	public Try<Dto> rejected() {
+		return Try.get(() -> dto).filter(d -> d.fields.length == 0);
+	}
+
+	@Benchmark
+	public String rejectedWithMessage() {
+		return rejected().getCause().getMessage();
+	}
+
+	/**
+	 * A payload whose {@code toString()} allocates a few kilobytes.
+	 */
+	public static final class Dto {
+		/**
+		 * The payload.
+		 */
+		private final int[] fields;
+
+		/**
+		 * Builds a payload.
+		 *
+		 * @param fields the payload.
+		 */
+		Dto(final int[] fields) {
+			this.fields = fields;
+		}
+
+		@Override
+		public String toString() {
+			return "Dto" + Arrays.toString(fields);
+		}
+	}
+}
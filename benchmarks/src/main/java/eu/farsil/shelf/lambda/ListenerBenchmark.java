@@ -0,0 +1,67 @@
+package eu.farsil.shelf.lambda;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of the notifications of a {@link TryListener} on the
+ * failure path of {@link Try#get}, without a listener and with a {@link
+ * TryMetrics} installed, and the cost of the successful path, which does not
+ * notify.
+ * <p>
+ * Run with {@code -t} to see how the counters of {@code TryMetrics} scale
+ * with the number of threads.
+ *
+ * @author Marco Buzzanca
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListenerBenchmark {
+	/**
+	 * The cause of the failures, preallocated so that only the notification
+	 * is measured.
+	 */
+	private static final IOException CAUSE = new IOException();
+
+	/**
+	 * Whether a {@link TryMetrics} is installed.
+	 */
+	@Param({"false", "true"})
+	public boolean installed;
+
+	/**
+	 * The value returned by the successful computations. Not a constant to
+	 * prevent folding.
+	 */
+	public int value = 42;
+
+	@Setup
+	public void setUp() {
+		if (installed) {
+			TryListener.install(TryMetrics.create());
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		TryListener.uninstall();
+	}
+
+	@Benchmark
+	public Try<Integer> failure() {
+		return Try.get(() -> {
+			throw CAUSE;
+		});
+	}
+
+	@Benchmark
+	public Try<Integer> success() {
+		return Try.get(() -> value);
+	}
+}
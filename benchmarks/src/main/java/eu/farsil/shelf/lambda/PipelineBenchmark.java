@@ -0,0 +1,74 @@
+package eu.farsil.shelf.lambda;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a six-step chain of {@link Try#map map()} and {@link Try#filter
+ * filter()} calls with the equivalent {@link Pipeline}, built once and
+ * applied to each input.
+ * <p>
+ * The chain allocates an attempt per step, while the pipeline only
+ * allocates the result: run the benchmark with the {@code -prof gc} option,
+ * or through {@link #main(String[])}, which enables the {@link GCProfiler},
+ * to compare the allocation rates.
+ *
+ * @author Marco Buzzanca
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PipelineBenchmark {
+	/**
+	 * The pipeline, equivalent to the chain of {@link #chain()}.
+	 */
+	private final Pipeline<Integer, Integer> pipeline = Try.<Integer>pipeline()
+			.map(x -> x + 1)
+			.filter(x -> x > 0)
+			.map(x -> x * 3)
+			.map(x -> x - 2)
+			.filter(x -> x % 7 != 0)
+			.map(x -> x + 5);
+
+	/**
+	 * The input. Not a constant to prevent folding.
+	 */
+	public int value = 42;
+
+	/**
+	 * Runs this benchmark with the {@link GCProfiler} enabled.
+	 *
+	 * @param args ignored.
+	 * @throws RunnerException if the benchmark cannot be run.
+	 */
+	public static void main(final String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(PipelineBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+
+	@Benchmark
+	public Try<Integer> chain() {
+		return Try.success(value)
+				.map(x -> x + 1)
+				.filter(x -> x > 0)
+				.map(x -> x * 3)
+				.map(x -> x - 2)
+				.filter(x -> x % 7 != 0)
+				.map(x -> x + 5);
+	}
+
+	@Benchmark
+	public Try<Integer> fused() {
+		return pipeline.apply(value);
+	}
+}
@@ -0,0 +1,44 @@
+package eu.farsil.shelf.lambda;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a numeric chain on a boxed {@link Try} with the same chain on an
+ * {@link IntTry}. Run with the {@code -prof gc} option to compare the
+ * allocation rates.
+ *
+ * @author Marco Buzzanca
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PrimitiveTryBenchmark {
+	/**
+	 * The string to parse.
+	 */
+	@Param({"12345", "abcde"})
+	public String input;
+
+	@Benchmark
+	public int boxed() {
+		return Try.get(() -> Integer.parseInt(input))
+				.map(x -> x * 2)
+				.filter(x -> x > 0)
+				.map(x -> x + 1)
+				.orElse(0);
+	}
+
+	@Benchmark
+	public int primitive() {
+		return IntTry.get(() -> Integer.parseInt(input))
+				.map(x -> x * 2)
+				.filter(x -> x > 0)
+				.map(x -> x + 1)
+				.orElse(0);
+	}
+}
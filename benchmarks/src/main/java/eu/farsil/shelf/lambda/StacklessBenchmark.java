@@ -0,0 +1,99 @@
+package eu.farsil.shelf.lambda;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the failure paths that create exceptions within
+ * the library, with and without the stackless mode enabled by the {@code
+ * eu.farsil.shelf.lambda.stackless} system property, and of the preallocated
+ * failures returned by {@link Try#empty()} and {@link
+ * Try#failureOf(CachedFailure)}, compared to a failure caused by a new
+ * exception.
+ *
+ * @author Marco Buzzanca
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class StacklessBenchmark {
+	/**
+	 * The value to filter. Not a constant to prevent folding.
+	 */
+	public int value = 42;
+
+	/**
+	 * The key to look up. Not a constant to prevent folding.
+	 */
+	public String key = "missing";
+
+	/**
+	 * Attempts to filter a value that does not match the predicate.
+	 *
+	 * @return the resulting failure.
+	 */
+	private Try<Integer> rejected() {
+		return Try.get(() -> value).filter(x -> x < 0);
+	}
+
+	/**
+	 * Attempts to throw from a failure.
+	 *
+	 * @return the exception thrown.
+	 */
+	private RuntimeException thrown() {
+		try {
+			rejected().orElseThrow();
+			throw new AssertionError();
+		} catch (final AttemptFailedException e) {
+			return e;
+		}
+	}
+
+	@Benchmark
+	@Fork(1)
+	public Try<Integer> filterRejected() {
+		return rejected();
+	}
+
+	@Benchmark
+	@Fork(value = 1,
+			jvmArgsAppend = "-Deu.farsil.shelf.lambda.stackless=true")
+	public Try<Integer> filterRejectedStackless() {
+		return rejected();
+	}
+
+	@Benchmark
+	@Fork(1)
+	public RuntimeException orElseThrow() {
+		return thrown();
+	}
+
+	@Benchmark
+	@Fork(value = 1,
+			jvmArgsAppend = "-Deu.farsil.shelf.lambda.stackless=true")
+	public RuntimeException orElseThrowStackless() {
+		return thrown();
+	}
+
+	@Benchmark
+	@Fork(1)
+	public Try<Integer> lookupMissNewException() {
+		return Try.failure(new IllegalArgumentException(key));
+	}
+
+	@Benchmark
+	@Fork(1)
+	public Try<Integer> lookupMissCached() {
+		return Try.failureOf(CachedFailure.NOT_FOUND);
+	}
+
+	@Benchmark
+	@Fork(1)
+	public Try<Integer> nullResult() {
+		return Try.get(() -> value > 0 ? null : value);
+	}
+}
@@ -0,0 +1,123 @@
+package eu.farsil.shelf.lambda;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the operations of {@link Try} with equivalent code written with
+ * plain {@code try/catch} blocks or with {@link Optional}.
+ * <p>
+ * The {@code input} parameter selects whether the attempt is successful (a
+ * parsable number) or unsuccessful (an unparsable string), so that both
+ * {@link Success} and {@link Failure} are measured.
+ *
+ * @author Marco Buzzanca
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TryBenchmark {
+	/**
+	 * The string to parse.
+	 */
+	@Param({"12345", "abcde"})
+	public String input;
+
+	/**
+	 * Parses the input, returning {@code null} if it cannot be parsed.
+	 *
+	 * @param s the input.
+	 * @return the parsed value, or {@code null}.
+	 */
+	private static Integer parseOrNull(final String s) {
+		try {
+			return Integer.parseInt(s);
+		} catch (final NumberFormatException e) {
+			return null;
+		}
+	}
+
+	@Benchmark
+	public int baselineTryCatch() {
+		try {
+			return Integer.parseInt(input);
+		} catch (final NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	@Benchmark
+	public int baselineOptional() {
+		return Optional.ofNullable(parseOrNull(input)).orElse(0);
+	}
+
+	@Benchmark
+	public int get() {
+		return Try.get(() -> Integer.parseInt(input)).orElse(0);
+	}
+
+	@Benchmark
+	public int map() {
+		return Try.get(() -> Integer.parseInt(input))
+				.map(x -> x + 1)
+				.orElse(0);
+	}
+
+	@Benchmark
+	public int flatMap() {
+		return Try.get(() -> Integer.parseInt(input))
+				.flatMap(x -> Try.get(() -> x + 1))
+				.orElse(0);
+	}
+
+	@Benchmark
+	public int filter() {
+		return Try.get(() -> Integer.parseInt(input))
+				.filter(x -> x > 0)
+				.orElse(0);
+	}
+
+	@Benchmark
+	public int recover() {
+		return Try.get(() -> Integer.parseInt(input))
+				.recover(e -> -1)
+				.orElse(0);
+	}
+
+	@Benchmark
+	public int chainTryCatch() {
+		int x;
+		try {
+			x = Integer.parseInt(input);
+		} catch (final NumberFormatException e) {
+			x = -1;
+		}
+		x = x + 1;
+		return x > 0 ? x * 2 : 0;
+	}
+
+	@Benchmark
+	public int chainOptional() {
+		final Integer parsed = parseOrNull(input);
+		return Optional.of(parsed == null ? -1 : parsed)
+				.map(x -> x + 1)
+				.filter(x -> x > 0)
+				.map(x -> x * 2)
+				.orElse(0);
+	}
+
+	@Benchmark
+	public int chainTry() {
+		return Try.get(() -> Integer.parseInt(input))
+				.recover(e -> -1)
+				.map(x -> x + 1)
+				.filter(x -> x > 0)
+				.map(x -> x * 2)
+				.orElse(0);
+	}
+}
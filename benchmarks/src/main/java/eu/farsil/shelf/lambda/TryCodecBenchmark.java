@@ -0,0 +1,116 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.TryCodec.ExceptionPolicy;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the round trip of an attempt through a {@link TryCodec}, with
+ * each {@link ExceptionPolicy}, with the one through Java serialization.
+ * <p>
+ * The serialization benchmark does not depend on the policy. The sizes of
+ * the encoded attempts are checked by {@code TryCodecTest}.
+ *
+ * @author Marco Buzzanca
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TryCodecBenchmark {
+	/**
+	 * Writes strings as their length followed by their UTF-8 bytes.
+	 */
+	private static final TryCodec.ValueCodec<String> STRINGS =
+			new TryCodec.ValueCodec<String>() {
+				@Override
+				public String decode(final ByteBuffer buffer) {
+					final byte[] bytes = new byte[buffer.getInt()];
+					buffer.get(bytes);
+					return new String(bytes, StandardCharsets.UTF_8);
+				}
+
+				@Override
+				public void encode(final String value, final ByteBuffer buffer) {
+					final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+					buffer.putInt(bytes.length);
+					buffer.put(bytes);
+				}
+			};
+
+	/**
+	 * Whether the attempt is a success.
+	 */
+	@Param({"true", "false"})
+	public boolean successful;
+
+	/**
+	 * The policy for the causes.
+	 */
+	@Param({"STACK_TRACE", "CLASS_AND_MESSAGE", "CLASS_ONLY"})
+	public ExceptionPolicy policy;
+
+	/**
+	 * The buffer the attempt is encoded to.
+	 */
+	private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+
+	/**
+	 * The attempt.
+	 */
+	private Try<String> attempt;
+
+	/**
+	 * The codec.
+	 */
+	private TryCodec<String> codec;
+
+	/**
+	 * Serializes an object.
+	 *
+	 * @param object the object.
+	 * @return the serialized form.
+	 * @throws IOException if the object cannot be serialized.
+	 */
+	private static byte[] serialize(final Object object) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (final ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(object);
+		}
+		return bytes.toByteArray();
+	}
+
+	@Setup
+	public void setUp() {
+		attempt = successful
+				? Try.success("order #1234 shipped")
+				: Try.failure(new IOException("connection reset"));
+		codec = TryCodec.of(STRINGS, policy);
+	}
+
+	@Benchmark
+	public Try<String> codec() {
+		buffer.clear();
+		codec.encode(attempt, buffer);
+		buffer.flip();
+		return codec.decode(buffer);
+	}
+
+	@Benchmark
+	public Object serialization() throws IOException, ClassNotFoundException {
+		try (final ObjectInputStream in = new ObjectInputStream(
+				new ByteArrayInputStream(serialize(attempt)))) {
+			return in.readObject();
+		}
+	}
+}
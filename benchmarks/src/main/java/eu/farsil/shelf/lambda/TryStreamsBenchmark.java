@@ -0,0 +1,99 @@
+package eu.farsil.shelf.lambda;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares {@link TryStreams#mapTry} with mapping the elements of a stream to
+ * instances of {@link Try}, and then splitting the successes from the
+ * failures, on {@link #SIZE} rows of which one out of ten cannot be parsed.
+ * <p>
+ * The causes of the failures are preallocated, so that only the stream
+ * operations are measured. Run with {@code -prof gc} to compare the
+ * allocations.
+ *
+ * @author Marco Buzzanca
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TryStreamsBenchmark {
+	/**
+	 * The number of rows.
+	 */
+	private static final int SIZE = 100_000;
+
+	/**
+	 * The cause of the failures.
+	 */
+	private static final NumberFormatException CAUSE =
+			new NumberFormatException();
+
+	/**
+	 * Whether the streams are parallel.
+	 */
+	@Param({"false", "true"})
+	public boolean parallel;
+
+	/**
+	 * The rows.
+	 */
+	private Integer[] rows;
+
+	/**
+	 * Parses a row.
+	 *
+	 * @param row the row.
+	 * @return the parsed row.
+	 */
+	private static long parse(final Integer row) {
+		if (row % 10 == 0) {
+			throw CAUSE;
+		}
+		return row * 3L;
+	}
+
+	@Setup
+	public void setUp() {
+		rows = new Integer[SIZE];
+		for (int i = 0; i < SIZE; i++) {
+			rows[i] = i;
+		}
+	}
+
+	@Benchmark
+	public long mapTry() {
+		final LongAdder failures = new LongAdder();
+		final long sum = TryStreams.mapTry(
+				parallel ? Arrays.stream(rows).parallel() : Arrays.stream(rows),
+				TryStreamsBenchmark::parse, e -> failures.increment())
+				.mapToLong(Long::longValue)
+				.sum();
+		return sum + failures.sum();
+	}
+
+	@Benchmark
+	public long mapToTry() {
+		final LongAdder failures = new LongAdder();
+		final long sum = (parallel
+				? Arrays.stream(rows).parallel()
+				: Arrays.stream(rows))
+				.map(row -> Try.get(() -> parse(row)))
+				.filter(attempt -> {
+					if (attempt.isUnsuccessful()) {
+						failures.increment();
+						return false;
+					}
+					return true;
+				})
+				.mapToLong(Try::orElseThrow)
+				.sum();
+		return sum + failures.sum();
+	}
+}
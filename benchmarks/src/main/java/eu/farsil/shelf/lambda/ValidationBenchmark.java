@@ -0,0 +1,117 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.ThrowingPredicate;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a {@link Validator} with {@link #RULES} rules against the
+ * equivalent chain of {@link Try#filter filter()} calls, on a valid record
+ * and on a record that breaks {@link #BROKEN} rules.
+ * <p>
+ * On the invalid record, the chain stops at the first broken rule, so the
+ * {@code filterAll} benchmark applies each rule to its own attempt to
+ * collect all the errors, which is what the validator does in one pass.
+ *
+ * @author Marco Buzzanca
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidationBenchmark {
+	/**
+	 * The number of rules, one per field.
+	 */
+	private static final int RULES = 30;
+
+	/**
+	 * The number of rules broken by the invalid record.
+	 */
+	private static final int BROKEN = 5;
+
+	/**
+	 * The rules.
+	 */
+	private final List<ThrowingPredicate<int[]>> rules = new ArrayList<>();
+
+	/**
+	 * The validator.
+	 */
+	private Validator<int[]> validator;
+
+	/**
+	 * A record that breaks no rule.
+	 */
+	private int[] valid;
+
+	/**
+	 * A record that breaks {@link #BROKEN} rules.
+	 */
+	private int[] invalid;
+
+	/**
+	 * Whether the record is valid.
+	 */
+	@Param({"true", "false"})
+	public boolean isValid;
+
+	@Setup
+	public void setUp() {
+		final Validator.Builder<int[]> builder = Validator.builder();
+		for (int i = 0; i < RULES; i++) {
+			final int field = i;
+			final ThrowingPredicate<int[]> rule = r -> r[field] >= 0;
+			rules.add(rule);
+			builder.rule("field " + i + " must not be negative", rule);
+		}
+		validator = builder.build();
+		valid = new int[RULES];
+		invalid = new int[RULES];
+		for (int i = 0; i < RULES; i++) {
+			valid[i] = i;
+			invalid[i] = i % (RULES / BROKEN) == 0 ? -1 : i;
+		}
+	}
+
+	/**
+	 * Returns the record to validate.
+	 *
+	 * @return the record.
+	 */
+	private int[] record() {
+		return isValid ? valid : invalid;
+	}
+
+	@Benchmark
+	public Try<int[]> filterChain() {
+		Try<int[]> attempt = Try.success(record());
+		for (final ThrowingPredicate<int[]> rule : rules) {
+			attempt = attempt.filter(rule);
+		}
+		return attempt;
+	}
+
+	@Benchmark
+	public List<Exception> filterAll() {
+		final int[] record = record();
+		final List<Exception> errors = new ArrayList<>();
+		for (final ThrowingPredicate<int[]> rule : rules) {
+			final Exception cause = Try.success(record).filter(rule).getCause();
+			if (cause != null) {
+				errors.add(cause);
+			}
+		}
+		return errors;
+	}
+
+	@Benchmark
+	public Validation<int[]> validator() {
+		return validator.validate(record());
+	}
+}
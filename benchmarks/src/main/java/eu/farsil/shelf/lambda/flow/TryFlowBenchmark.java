@@ -0,0 +1,158 @@
+package eu.farsil.shelf.lambda.flow;
+
+import eu.farsil.shelf.lambda.Try;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the processor returned by {@link
+ * TryFlow#map(eu.farsil.shelf.lambda.function.ThrowingFunction, int)}, fed by
+ * a synchronous in-memory publisher, against a subscriber that maps the items
+ * itself. One item out of {@link #FAILURE_RATE} fails.
+ * <p>
+ * The {@code batch} parameter shows the cost of signalling demand upstream:
+ * a batch of 1 requests every item on its own.
+ *
+ * @author Marco Buzzanca
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TryFlowBenchmark {
+	/**
+	 * The number of items of each stream.
+	 */
+	private static final int ITEMS = 1024;
+
+	/**
+	 * One item out of this many fails.
+	 */
+	private static final int FAILURE_RATE = 16;
+
+	/**
+	 * The cause of the failures, preallocated so that only the stream is
+	 * measured.
+	 */
+	private static final IOException CAUSE = new IOException();
+
+	/**
+	 * The number of items requested upstream in advance.
+	 */
+	@Param({"1", "16", "256"})
+	public int batch;
+
+	/**
+	 * Maps an item, failing on one out of {@link #FAILURE_RATE}.
+	 *
+	 * @param value the item.
+	 * @return the mapped item.
+	 * @throws IOException on one item out of {@link #FAILURE_RATE}.
+	 */
+	private static int map(final int value) throws IOException {
+		if (value % FAILURE_RATE == 0) {
+			throw CAUSE;
+		}
+		return value + 1;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ITEMS)
+	public void baseline(final Blackhole blackhole) {
+		new Source().subscribe(new Flow.Subscriber<Integer>() {
+			@Override
+			public void onComplete() {
+			}
+
+			@Override
+			public void onError(final Throwable throwable) {
+			}
+
+			@Override
+			public void onNext(final Integer item) {
+				blackhole.consume(Try.get(() -> map(item)));
+			}
+
+			@Override
+			public void onSubscribe(final Flow.Subscription subscription) {
+				subscription.request(Long.MAX_VALUE);
+			}
+		});
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ITEMS)
+	public void processor(final Blackhole blackhole) {
+		final Flow.Processor<Integer, Try<Integer>> processor =
+				TryFlow.map(TryFlowBenchmark::map, batch);
+		processor.subscribe(new Flow.Subscriber<Try<Integer>>() {
+			@Override
+			public void onComplete() {
+			}
+
+			@Override
+			public void onError(final Throwable throwable) {
+			}
+
+			@Override
+			public void onNext(final Try<Integer> item) {
+				blackhole.consume(item);
+			}
+
+			@Override
+			public void onSubscribe(final Flow.Subscription subscription) {
+				subscription.request(Long.MAX_VALUE);
+			}
+		});
+		new Source().subscribe(processor);
+	}
+
+	/**
+	 * A synchronous publisher of {@link #ITEMS} integers, which honors the
+	 * demand of its subscriber. Requests made while emitting are added to
+	 * the demand, instead of emitting recursively.
+	 */
+	private static final class Source implements Flow.Publisher<Integer> {
+		@Override
+		public void subscribe(final Flow.Subscriber<? super Integer> subscriber) {
+			subscriber.onSubscribe(new Flow.Subscription() {
+				private int index;
+
+				private long demand;
+
+				private boolean emitting;
+
+				private boolean cancelled;
+
+				@Override
+				public void cancel() {
+					cancelled = true;
+				}
+
+				@Override
+				public void request(final long n) {
+					demand += n;
+					if (emitting) {
+						return;
+					}
+					emitting = true;
+					while (demand > 0 && index < ITEMS && !cancelled) {
+						demand--;
+						subscriber.onNext(index++);
+					}
+					if (index == ITEMS && !cancelled) {
+						cancelled = true;
+						subscriber.onComplete();
+					}
+					emitting = false;
+				}
+			});
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package eu.farsil.shelf.lambda.function;
+
+import eu.farsil.shelf.lambda.Try;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Compares the adapters of the functional interfaces with the equivalent
+ * hand-written lambdas.
+ * <p>
+ * The stream benchmarks map {@link #SIZE} preallocated integers: the
+ * unchecked and sneaky pipelines only see valid inputs, since they stop at
+ * the first failure, while the lifted pipelines see one invalid input out of
+ * four. The failure benchmarks measure a single invocation on an invalid
+ * input, which shows the cost of wrapping the checked exception.
+ *
+ * @author Marco Buzzanca
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AdapterBenchmark {
+	/**
+	 * The number of inputs of the stream.
+	 */
+	private static final int SIZE = 1024;
+
+	/**
+	 * The cause of the failures, preallocated so that only the adapters are
+	 * measured.
+	 */
+	private static final IOException CAUSE = new IOException();
+
+	/**
+	 * The valid inputs.
+	 */
+	private Integer[] valid;
+
+	/**
+	 * The inputs, one out of four of which is invalid.
+	 */
+	private Integer[] mixed;
+
+	/**
+	 * An invalid input. Not a constant to prevent folding.
+	 */
+	public Integer invalid = -1;
+
+	/**
+	 * Returns its input, or throws {@link #CAUSE} if it is negative.
+	 *
+	 * @param value the input.
+	 * @return the input.
+	 * @throws IOException if the input is negative.
+	 */
+	private static Integer check(final Integer value) throws IOException {
+		if (value < 0) {
+			throw CAUSE;
+		}
+		return value;
+	}
+
+	@Setup
+	public void setUp() {
+		valid = new Integer[SIZE];
+		mixed = new Integer[SIZE];
+		for (int i = 0; i < SIZE; i++) {
+			valid[i] = i;
+			mixed[i] = i % 4 == 0 ? -i - 1 : i;
+		}
+	}
+
+	@Benchmark
+	public long lifted() {
+		return Arrays.stream(mixed)
+				.map(ThrowingFunction.lifted(AdapterBenchmark::check))
+				.filter(Try::isSuccessful)
+				.count();
+	}
+
+	@Benchmark
+	public long liftedByHand() {
+		return Arrays.stream(mixed)
+				.map(x -> Try.get(() -> check(x)))
+				.filter(Try::isSuccessful)
+				.count();
+	}
+
+	@Benchmark
+	public long sneaky() {
+		return Arrays.stream(valid)
+				.map(ThrowingFunction.sneaky(AdapterBenchmark::check))
+				.mapToLong(Integer::longValue)
+				.sum();
+	}
+
+	@Benchmark
+	public Object sneakyFailure() {
+		final Function<Integer, Integer> function =
+				ThrowingFunction.sneaky(AdapterBenchmark::check);
+		try {
+			return function.apply(invalid);
+		} catch (final Exception e) {
+			return e;
+		}
+	}
+
+	@Benchmark
+	public long unchecked() {
+		return Arrays.stream(valid)
+				.map(ThrowingFunction.unchecked(AdapterBenchmark::check))
+				.mapToLong(Integer::longValue)
+				.sum();
+	}
+
+	@Benchmark
+	public long uncheckedByHand() {
+		return Arrays.stream(valid)
+				.map(x -> {
+					try {
+						return check(x);
+					} catch (final IOException e) {
+						throw new RuntimeException(e);
+					}
+				})
+				.mapToLong(Integer::longValue)
+				.sum();
+	}
+
+	@Benchmark
+	public Object uncheckedFailure() {
+		final Function<Integer, Integer> function =
+				ThrowingFunction.unchecked(AdapterBenchmark::check);
+		try {
+			return function.apply(invalid);
+		} catch (final RuntimeException e) {
+			return e;
+		}
+	}
+
+	@Benchmark
+	public Object uncheckedFailureByHand() {
+		final Function<Integer, Integer> function = x -> {
+			try {
+				return check(x);
+			} catch (final IOException e) {
+				throw new RuntimeException(e);
+			}
+		};
+		try {
+			return function.apply(invalid);
+		} catch (final RuntimeException e) {
+			return e;
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package eu.farsil.shelf.lambda.resilience;
+
+import eu.farsil.shelf.lambda.Try;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of a {@link CircuitBreaker} shared by all the
+ * benchmark threads, both when the circuit is closed, where every call
+ * records its outcome in the sliding window, and when it is open, where
+ * every call is rejected.
+ * <p>
+ * Run with {@code -t} to change the number of threads, for instance {@code
+ * -t 1} to compare with the uncontended case.
+ *
+ * @author Marco Buzzanca
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class CircuitBreakerBenchmark {
+	/**
+	 * The cause of the failures, preallocated so that only the circuit
+	 * breaker is measured.
+	 */
+	private static final IOException CAUSE = new IOException();
+
+	/**
+	 * A circuit breaker that never opens.
+	 */
+	private CircuitBreaker closed;
+
+	/**
+	 * A circuit breaker that stays open.
+	 */
+	private CircuitBreaker open;
+
+	/**
+	 * The value returned by the calls. Not a constant to prevent folding.
+	 */
+	public int value = 42;
+
+	@Setup
+	public void setUp() {
+		closed = CircuitBreaker.builder()
+				.failureRateThreshold(1.0)
+				.minimumCalls(Integer.MAX_VALUE)
+				.build();
+		open = CircuitBreaker.builder()
+				.minimumCalls(1)
+				.cooldown(Duration.ofDays(1))
+				.build();
+		open.get(() -> {
+			throw CAUSE;
+		});
+	}
+
+	@Benchmark
+	public Try<Integer> baseline() {
+		return Try.get(() -> value);
+	}
+
+	@Benchmark
+	public Try<Integer> closedSuccess() {
+		return closed.get(() -> value);
+	}
+
+	@Benchmark
+	public Try<Integer> closedFailure() {
+		return closed.get(() -> {
+			throw CAUSE;
+		});
+	}
+
+	@Benchmark
+	public Try<Integer> openRejected() {
+		return open.get(() -> value);
+	}
+}
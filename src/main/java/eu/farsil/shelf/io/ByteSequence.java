@@ -0,0 +1,106 @@
+package eu.farsil.shelf.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A view of a range of a buffer as a sequence of characters, each of which
+ * is a byte decoded as ISO-8859-1. The range can be moved, so that a single
+ * instance can view many records.
+ *
+ * @author Marco Buzzanca
+ */
+final class ByteSequence implements CharSequence {
+	/**
+	 * The buffer.
+	 */
+	private ByteBuffer buffer;
+
+	/**
+	 * The start of the range.
+	 */
+	private int start;
+
+	/**
+	 * The length of the range.
+	 */
+	private int length;
+
+	/**
+	 * Builds an empty view.
+	 */
+	ByteSequence() {
+		this(null, 0, 0);
+	}
+
+	/**
+	 * Builds a view of the specified range.
+	 *
+	 * @param buffer the buffer.
+	 * @param start the start of the range.
+	 * @param length the length of the range.
+	 */
+	private ByteSequence(final ByteBuffer buffer, final int start,
+			final int length) {
+		this.buffer = buffer;
+		this.start = start;
+		this.length = length;
+	}
+
+	@Override
+	public char charAt(final int index) {
+		if (index < 0 || index >= length) {
+			throw new IndexOutOfBoundsException("index: " + index);
+		}
+		return (char) (buffer.get(start + index) & 0xff);
+	}
+
+	@Override
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * Moves this view to the specified range.
+	 *
+	 * @param buffer the buffer.
+	 * @param start the start of the range.
+	 * @param end the end of the range.
+	 */
+	void set(final ByteBuffer buffer, final int start, final int end) {
+		this.buffer = buffer;
+		this.start = start;
+		this.length = end - start;
+	}
+
+	/**
+	 * Returns a view of the specified range of this sequence, which does not
+	 * follow this view when it is moved.
+	 *
+	 * @param from the start of the range.
+	 * @param to the end of the range.
+	 * @return the view.
+	 */
+	@Override
+	public CharSequence subSequence(final int from, final int to) {
+		if (from < 0 || to > length || from > to) {
+			throw new IndexOutOfBoundsException(
+					"from: " + from + ", to: " + to);
+		}
+		return new ByteSequence(buffer, start + from, to - from);
+	}
+
+	/**
+	 * Returns a copy of the characters of this view.
+	 *
+	 * @return a copy of the characters of this view.
+	 */
+	@Override
+	public String toString() {
+		final byte[] bytes = new byte[length];
+		for (int i = 0; i < length; i++) {
+			bytes[i] = buffer.get(start + i);
+		}
+		return new String(bytes, StandardCharsets.ISO_8859_1);
+	}
+}
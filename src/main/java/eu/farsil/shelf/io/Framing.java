@@ -0,0 +1,103 @@
+package eu.farsil.shelf.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Locates the records in a window of a file.
+ *
+ * @author Marco Buzzanca
+ */
+interface Framing {
+	/**
+	 * Locates the record whose frame starts at the specified index of the
+	 * window.
+	 *
+	 * @param window the window, whose limit is its end.
+	 * @param from the start of the frame.
+	 * @param last whether the window ends at the end of the file.
+	 * @param bounds where the start and the end of the record, excluding its
+	 * framing, are stored.
+	 * @return the end of the frame, or {@code -1} if the frame does not end
+	 * in the window.
+	 * @throws IllegalArgumentException if the frame is not valid.
+	 */
+	int frame(ByteBuffer window, int from, boolean last, int[] bounds);
+
+	/**
+	 * Records of a fixed size.
+	 */
+	final class Fixed implements Framing {
+		/**
+		 * The size of the records.
+		 */
+		private final int size;
+
+		/**
+		 * Builds the framing.
+		 *
+		 * @param size the size of the records.
+		 */
+		Fixed(final int size) {
+			this.size = size;
+		}
+
+		@Override
+		public int frame(final ByteBuffer window, final int from,
+				final boolean last, final int[] bounds) {
+			if (window.limit() - from < size) {
+				return -1;
+			}
+			bounds[0] = from;
+			bounds[1] = from + size;
+			return from + size;
+		}
+	}
+
+	/**
+	 * Records preceded by their length, as a big-endian {@code int}.
+	 */
+	final class LengthPrefixed implements Framing {
+		@Override
+		public int frame(final ByteBuffer window, final int from,
+				final boolean last, final int[] bounds) {
+			final int available = window.limit() - from - Integer.BYTES;
+			if (available < 0) {
+				return -1;
+			}
+			final int length = window.getInt(from);
+			if (length < 0) {
+				throw new IllegalArgumentException("invalid length: " + length);
+			}
+			if (available < length) {
+				return -1;
+			}
+			bounds[0] = from + Integer.BYTES;
+			bounds[1] = bounds[0] + length;
+			return bounds[1];
+		}
+	}
+
+	/**
+	 * Lines terminated by {@code \n} or {@code \r\n}. The last line may not
+	 * be terminated.
+	 */
+	final class Lines implements Framing {
+		@Override
+		public int frame(final ByteBuffer window, final int from,
+				final boolean last, final int[] bounds) {
+			final int limit = window.limit();
+			int end = from;
+			while (end < limit && window.get(end) != '\n') {
+				end++;
+			}
+			if (end == limit && !last) {
+				return -1;
+			}
+			bounds[0] = from;
+			bounds[1] = end > from && window.get(end - 1) == '\r'
+					? end - 1
+					: end;
+			return end == limit ? end : end + 1;
+		}
+	}
+}
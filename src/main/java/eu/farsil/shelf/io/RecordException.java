@@ -0,0 +1,86 @@
+package eu.farsil.shelf.io;
+
+import org.apiguardian.api.API;
+
+import java.io.Serializable;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Exception that reports the failure of a single record scanned by a {@link
+ * RecordScanner}, either because the action performed on it threw an
+ * exception, which is the cause of this exception, or because the record
+ * is not framed correctly.
+ * <p>
+ * This exception does not have a stack trace of its own: the index and the
+ * position of the record tell where the failure happened, and the stack
+ * trace of the cause, if any, tells why.
+ *
+ * @author Marco Buzzanca
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public class RecordException extends Exception {
+	/**
+	 * Required by {@link Serializable}.
+	 */
+	private static final long serialVersionUID = 2360710325744263540L;
+
+	/**
+	 * The index of the record.
+	 */
+	private final long index;
+
+	/**
+	 * The position of the record in the file.
+	 */
+	private final long position;
+
+	/**
+	 * Builds an instance that reports the failure of the specified record.
+	 *
+	 * @param index the index of the record, starting from zero.
+	 * @param position the position of the record in the file, in bytes.
+	 * @param message the detail message, or {@code null} to use the one of
+	 * the cause.
+	 * @param cause the exception thrown by the action performed on the
+	 * record, or {@code null} if the record is not framed correctly.
+	 */
+	// end-users are not supposed to create instances of this exception
+	RecordException(final long index, final long position,
+			final String message, final Throwable cause) {
+		super(message != null || cause == null ? message : cause.toString(),
+				cause, true, false);
+		this.index = index;
+		this.position = position;
+	}
+
+	/**
+	 * Returns the index of the record, starting from zero.
+	 *
+	 * @return the index of the record.
+	 */
+	public long getIndex() {
+		return index;
+	}
+
+	/**
+	 * Returns the position of the record in the file, in bytes, which is the
+	 * position of its frame, including any length prefix.
+	 *
+	 * @return the position of the record.
+	 */
+	public long getPosition() {
+		return position;
+	}
+
+	/**
+	 * Returns the detail message, preceded by the index and the position of
+	 * the record.
+	 *
+	 * @return the detail message.
+	 */
+	@Override
+	public String getMessage() {
+		return "record " + index + " at " + position + ": " + super.getMessage();
+	}
+}
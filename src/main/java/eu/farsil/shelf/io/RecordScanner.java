@@ -0,0 +1,363 @@
+package eu.farsil.shelf.io;
+
+import eu.farsil.shelf.lambda.Try;
+import eu.farsil.shelf.lambda.function.ThrowingConsumer;
+import org.apiguardian.api.API;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Scans the records of a file, such as its lines, and performs an action on
+ * each of them.
+ * <p>
+ * The file is mapped in memory, one window at a time, and each record is
+ * passed to the action as a view of the mapped window: no record is copied
+ * to the heap, and no object is allocated per record, so that files of any
+ * size can be scanned in constant heap space:
+ * <pre>{@code final Try<ScanResult> result = RecordScanner.lines().scanText(
+ *      path, line -> index(parse(line)), e -> log.warn(e.getMessage()));}</pre>
+ * A record whose action throws an exception does not stop the scan: the
+ * failure is reported as a {@link RecordException}, which tells the index
+ * and the position of the record, to the failure handler, if any, and it is
+ * counted in the {@link ScanResult}. The scan stops early only if a record
+ * is not framed correctly, for instance if the file ends in the middle of a
+ * record, since the following records cannot be located: that record is
+ * reported as a failure as well, and the result is not {@linkplain
+ * ScanResult#isComplete() complete}. The {@code Try} returned by the scan
+ * fails only if the file cannot be read.
+ * <p>
+ * The buffer or the character sequence passed to the action is reused for
+ * the following records, so the action must not retain it: it must copy the
+ * contents it needs to keep, for instance with {@code toString()}. The buffer
+ * is read-only, and the action may freely change its position and limit.
+ * <p>
+ * Note that the file must not be truncated while it is being scanned, since
+ * accessing a mapped region that is no longer part of the file makes the
+ * virtual machine throw an error at an unspecified point.
+ * <p>
+ * Instances of this class are immutable and thread-safe.
+ *
+ * @author Marco Buzzanca
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public final class RecordScanner {
+	/**
+	 * The maximum size of a window.
+	 */
+	private static final int MAX_WINDOW = Integer.MAX_VALUE;
+
+	/**
+	 * The scanner of lines.
+	 */
+	private static final RecordScanner LINES =
+			new RecordScanner(new Framing.Lines(), MAX_WINDOW);
+
+	/**
+	 * The scanner of length-prefixed records.
+	 */
+	private static final RecordScanner LENGTH_PREFIXED =
+			new RecordScanner(new Framing.LengthPrefixed(), MAX_WINDOW);
+
+	/**
+	 * How the records are located.
+	 */
+	private final Framing framing;
+
+	/**
+	 * The size of the windows, which bounds the size of a frame.
+	 */
+	private final int window;
+
+	/**
+	 * Builds a scanner.
+	 *
+	 * @param framing how the records are located.
+	 * @param window the size of the windows.
+	 */
+	RecordScanner(final Framing framing, final int window) {
+		this.framing = framing;
+		this.window = window;
+	}
+
+	/**
+	 * Returns a scanner of records of the specified size.
+	 *
+	 * @param size the size of the records, in bytes.
+	 * @return the scanner.
+	 * @throws IllegalArgumentException if the size is not positive.
+	 */
+	public static RecordScanner fixed(final int size) {
+		if (size <= 0) {
+			throw new IllegalArgumentException("size: " + size);
+		}
+		return new RecordScanner(new Framing.Fixed(size), MAX_WINDOW);
+	}
+
+	/**
+	 * Returns a scanner of records preceded by their length in bytes, which
+	 * is written as a big-endian {@code int}, such as the records written by
+	 * {@link java.io.DataOutputStream#writeInt(int)} followed by their
+	 * contents. The records passed to the action do not include their
+	 * length.
+	 *
+	 * @return the scanner.
+	 */
+	public static RecordScanner lengthPrefixed() {
+		return LENGTH_PREFIXED;
+	}
+
+	/**
+	 * Returns a scanner of lines, which are terminated by {@code \n} or
+	 * {@code \r\n}. The last line of the file may not be terminated. The
+	 * records passed to the action do not include the line terminators.
+	 *
+	 * @return the scanner.
+	 */
+	public static RecordScanner lines() {
+		return LINES;
+	}
+
+	/**
+	 * Scans the records of the specified file, and performs the specified
+	 * action on each of them. Failed records are only counted.
+	 *
+	 * @param path the file.
+	 * @param action the action to perform on each record.
+	 * @return an instance of {@link Try} in a <i>successful</i> state holding
+	 * the result of the scan, or in a <i>failed</i> state if the file cannot
+	 * be read.
+	 * @throws NullPointerException if any argument is {@code null}.
+	 */
+	public Try<ScanResult> scan(final Path path,
+			final ThrowingConsumer<? super ByteBuffer> action) {
+		return scan(path, action, e -> {
+		});
+	}
+
+	/**
+	 * Scans the records of the specified file, performs the specified action
+	 * on each of them, and reports the failed records to the specified
+	 * handler.
+	 *
+	 * @param path the file.
+	 * @param action the action to perform on each record.
+	 * @param handler the handler of the failed records.
+	 * @return an instance of {@link Try} in a <i>successful</i> state holding
+	 * the result of the scan, or in a <i>failed</i> state if the file cannot
+	 * be read, or if the handler throws an exception.
+	 * @throws NullPointerException if any argument is {@code null}.
+	 */
+	public Try<ScanResult> scan(final Path path,
+			final ThrowingConsumer<? super ByteBuffer> action,
+			final Consumer<? super RecordException> handler) {
+		Objects.requireNonNull(path);
+		Objects.requireNonNull(action);
+		Objects.requireNonNull(handler);
+		return Try.get(() -> new Scan(handler) {
+			@Override
+			void accept(final ByteBuffer view, final int start, final int end)
+					throws Exception {
+				// Buffer methods are not covariant on Java 8
+				((Buffer) view).limit(end).position(start);
+				action.accept(view);
+			}
+		}.run(path));
+	}
+
+	/**
+	 * Scans the records of the specified file, and performs the specified
+	 * action on each of them, viewed as a sequence of characters. Failed
+	 * records are only counted.
+	 *
+	 * @param path the file.
+	 * @param action the action to perform on each record.
+	 * @return an instance of {@link Try} in a <i>successful</i> state holding
+	 * the result of the scan, or in a <i>failed</i> state if the file cannot
+	 * be read.
+	 * @throws NullPointerException if any argument is {@code null}.
+	 * @see #scanText(Path, ThrowingConsumer, Consumer)
+	 */
+	public Try<ScanResult> scanText(final Path path,
+			final ThrowingConsumer<? super CharSequence> action) {
+		return scanText(path, action, e -> {
+		});
+	}
+
+	/**
+	 * Scans the records of the specified file, performs the specified action
+	 * on each of them, viewed as a sequence of characters, and reports the
+	 * failed records to the specified handler.
+	 * <p>
+	 * Each byte of the record is viewed as a character, as if it was decoded
+	 * as ISO-8859-1, which is exact for ASCII text, such as most logs. Text
+	 * in other encodings, such as UTF-8 text that is not plain ASCII, must be
+	 * scanned with {@link #scan(Path, ThrowingConsumer, Consumer) scan()} and
+	 * decoded by the action.
+	 *
+	 * @param path the file.
+	 * @param action the action to perform on each record.
+	 * @param handler the handler of the failed records.
+	 * @return an instance of {@link Try} in a <i>successful</i> state holding
+	 * the result of the scan, or in a <i>failed</i> state if the file cannot
+	 * be read, or if the handler throws an exception.
+	 * @throws NullPointerException if any argument is {@code null}.
+	 */
+	public Try<ScanResult> scanText(final Path path,
+			final ThrowingConsumer<? super CharSequence> action,
+			final Consumer<? super RecordException> handler) {
+		Objects.requireNonNull(path);
+		Objects.requireNonNull(action);
+		Objects.requireNonNull(handler);
+		final ByteSequence text = new ByteSequence();
+		return Try.get(() -> new Scan(handler) {
+			@Override
+			void accept(final ByteBuffer view, final int start, final int end)
+					throws Exception {
+				text.set(view, start, end);
+				action.accept(text);
+			}
+		}.run(path));
+	}
+
+	/**
+	 * A single scan, which holds its state.
+	 */
+	private abstract class Scan {
+		/**
+		 * The start and the end of the current record.
+		 */
+		private final int[] bounds = new int[2];
+
+		/**
+		 * The handler of the failed records.
+		 */
+		private final Consumer<? super RecordException> handler;
+
+		/**
+		 * The number of records.
+		 */
+		private long records;
+
+		/**
+		 * The number of failed records.
+		 */
+		private long failures;
+
+		/**
+		 * Builds a scan.
+		 *
+		 * @param handler the handler of the failed records.
+		 */
+		Scan(final Consumer<? super RecordException> handler) {
+			this.handler = handler;
+		}
+
+		/**
+		 * Performs the action on a record.
+		 *
+		 * @param view the view of the window passed to the action, which is
+		 * distinct from the one the records are located in.
+		 * @param start the start of the record in the window.
+		 * @param end the end of the record in the window.
+		 * @throws Exception if the action throws an exception.
+		 */
+		abstract void accept(ByteBuffer view, int start, int end)
+				throws Exception;
+
+		/**
+		 * Reports a failed record.
+		 *
+		 * @param position the position of the record in the file.
+		 * @param message the detail message.
+		 * @param cause the cause, if any.
+		 */
+		private void fail(final long position, final String message,
+				final Throwable cause) {
+			failures++;
+			handler.accept(new RecordException(records++, position, message,
+					cause));
+		}
+
+		/**
+		 * Scans the specified file.
+		 *
+		 * @param path the file.
+		 * @return the result of the scan.
+		 * @throws IOException if the file cannot be read.
+		 */
+		ScanResult run(final Path path) throws IOException {
+			try (final FileChannel channel =
+					     FileChannel.open(path, StandardOpenOption.READ)) {
+				final long size = channel.size();
+				long base = 0;
+				while (base < size) {
+					final int length = (int) Math.min(window, size - base);
+					final boolean last = base + length == size;
+					final ByteBuffer view = channel.map(
+							FileChannel.MapMode.READ_ONLY, base, length);
+					final int consumed = scan(view, base, last);
+					if (consumed < 0) {
+						return new ScanResult(records, failures, false);
+					}
+					base += consumed;
+				}
+			}
+			return new ScanResult(records, failures, true);
+		}
+
+		/**
+		 * Scans the records whose frames are entirely contained in the
+		 * specified window.
+		 *
+		 * @param view the view of the window.
+		 * @param base the position of the window in the file.
+		 * @param last whether the window ends at the end of the file.
+		 * @return the number of bytes scanned, or {@code -1} if a record is
+		 * not framed correctly, and the scan must stop.
+		 */
+		private int scan(final ByteBuffer view, final long base,
+				final boolean last) {
+			final int length = view.limit();
+			final ByteBuffer record = view.duplicate();
+			int from = 0;
+			while (from < length) {
+				final int next;
+				try {
+					next = framing.frame(view, from, last, bounds);
+				} catch (final IllegalArgumentException e) {
+					fail(base + from, e.getMessage(), null);
+					return -1;
+				}
+				if (next < 0) {
+					if (last) {
+						fail(base + from, "truncated record", null);
+						return -1;
+					}
+					if (from == 0) {
+						fail(base, "record larger than " + window + " bytes",
+								null);
+						return -1;
+					}
+					return from;
+				}
+				try {
+					accept(record, bounds[0], bounds[1]);
+					records++;
+				} catch (final Exception e) {
+					fail(base + from, null, e);
+				}
+				from = next;
+			}
+			return from;
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package eu.farsil.shelf.io;
+
+import org.apiguardian.api.API;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * The outcome of a scan performed by a {@link RecordScanner}, which
+ * completed even if some of the records failed.
+ *
+ * @author Marco Buzzanca
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public final class ScanResult {
+	/**
+	 * The number of records.
+	 */
+	private final long records;
+
+	/**
+	 * The number of failed records.
+	 */
+	private final long failures;
+
+	/**
+	 * Whether the whole file was scanned.
+	 */
+	private final boolean complete;
+
+	/**
+	 * Builds a result.
+	 *
+	 * @param records the number of records.
+	 * @param failures the number of failed records.
+	 * @param complete whether the whole file was scanned.
+	 */
+	ScanResult(final long records, final long failures,
+			final boolean complete) {
+		this.records = records;
+		this.failures = failures;
+		this.complete = complete;
+	}
+
+	/**
+	 * Returns the number of failed records, including the one that is not
+	 * framed correctly, if the scan is not complete.
+	 *
+	 * @return the number of failed records.
+	 */
+	public long getFailureCount() {
+		return failures;
+	}
+
+	/**
+	 * Returns the number of records that have been scanned, including the
+	 * failed ones.
+	 *
+	 * @return the number of records.
+	 */
+	public long getRecordCount() {
+		return records;
+	}
+
+	/**
+	 * Returns whether the whole file has been scanned. A scan stops early
+	 * when a record is not framed correctly, since the following records
+	 * cannot be located.
+	 *
+	 * @return {@code true} if the whole file has been scanned, {@code false}
+	 * otherwise.
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+
+	@Override
+	public String toString() {
+		return "ScanResult[records: " + records + ", failures: " + failures
+				+ ", complete: " + complete + "]";
+	}
+}
@@ -0,0 +1,10 @@
+/**
+ * Contains classes that deal with input and output, which report their
+ * outcome as instances of {@link eu.farsil.shelf.lambda.Try}.
+ * <p>
+ * The {@link eu.farsil.shelf.io.RecordScanner} streams the records of a file,
+ * such as lines or length-prefixed frames, straight from a memory-mapped view
+ * of the file, so that files of any size can be processed without loading
+ * them into the heap.
+ */
+package eu.farsil.shelf.io;
@@ -0,0 +1,337 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.ThrowingFunction;
+import eu.farsil.shelf.lambda.function.ThrowingPredicate;
+import eu.farsil.shelf.lambda.function.ThrowingSupplier;
+import org.apiguardian.api.API;
+
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Provides an abstraction of a computation attempt that is performed
+ * asynchronously.
+ * <p>
+ * An {@code AsyncTry} is the asynchronous counterpart of {@link Try}: it
+ * is backed by a {@link CompletableFuture} that always completes normally
+ * with a {@code Try}, in a successful or failed state. Its fluent interface
+ * mirrors the one of {@code Try}, and every function passed to it runs on
+ * the {@link Executor} associated with the instance, without blocking the
+ * caller:
+ * <pre>{@code final AsyncTry<Integer> result = AsyncTry.get(() -> fetch(url), executor)
+ *      .map(Integer::parseInt)
+ *      .recover(e -> 0)
+ *      .withTimeout(1, TimeUnit.SECONDS);}</pre>
+ * The outcome is obtained by {@link #join()}, which blocks until the
+ * computation completes, or by {@link #toCompletableFuture()}, which allows
+ * further composition with the standard library.
+ *
+ * @param <T> the type of the result.
+ * @author Marco Buzzanca
+ * @see Try
+ * @see CompletableFuture
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public final class AsyncTry<T> {
+	/**
+	 * The future that completes with the outcome of the computation.
+	 */
+	private final CompletableFuture<Try<T>> future;
+
+	/**
+	 * The executor of the chained functions.
+	 */
+	private final Executor executor;
+
+	/**
+	 * Builds an {@code AsyncTry} backed by the specified future.
+	 *
+	 * @param future the future that completes with the outcome.
+	 * @param executor the executor of the chained functions.
+	 */
+	private AsyncTry(final CompletableFuture<Try<T>> future,
+			final Executor executor) {
+		this.future = future;
+		this.executor = executor;
+	}
+
+	/**
+	 * Asynchronously attempts to perform a computation that returns a value,
+	 * which is represented by the specified supplier, using the specified
+	 * executor. If it throws an exception, the outcome will be in a
+	 * <i>failed</i> state, otherwise it will be in a <i>successful</i> state.
+	 *
+	 * @param supplier the computation that returns a value.
+	 * @param executor the executor that performs the computation and the
+	 * functions chained to the returned instance.
+	 * @param <T> the type of the result.
+	 * @return an instance of {@link AsyncTry} that completes with the outcome
+	 * of the computation.
+	 * @throws NullPointerException if the supplier or the executor are
+	 * {@code null}.
+	 */
+	public static <T> AsyncTry<T> get(
+			final ThrowingSupplier<? extends T> supplier,
+			final Executor executor) {
+		Objects.requireNonNull(supplier);
+		Objects.requireNonNull(executor);
+		return new AsyncTry<>(CompletableFuture.supplyAsync(
+				() -> Try.get(supplier), executor), executor);
+	}
+
+	/**
+	 * Returns an already completed {@code AsyncTry} holding the specified
+	 * outcome.
+	 *
+	 * @param attempt the outcome.
+	 * @param executor the executor of the functions chained to the returned
+	 * instance.
+	 * @param <T> the type of the result.
+	 * @return an instance of {@link AsyncTry} completed with the outcome.
+	 * @throws NullPointerException if the outcome or the executor are
+	 * {@code null}.
+	 */
+	public static <T> AsyncTry<T> of(final Try<T> attempt,
+			final Executor executor) {
+		Objects.requireNonNull(attempt);
+		Objects.requireNonNull(executor);
+		return new AsyncTry<>(CompletableFuture.completedFuture(attempt),
+				executor);
+	}
+
+	/**
+	 * Returns an {@code AsyncTry} that completes with the outcome of the
+	 * specified {@link CompletionStage}. If the stage completes
+	 * exceptionally, the outcome will be in a failed state.
+	 *
+	 * @param stage the stage.
+	 * @param executor the executor of the functions chained to the returned
+	 * instance.
+	 * @param <T> the type of the result.
+	 * @return an instance of {@link AsyncTry} that completes with the outcome
+	 * of the stage.
+	 * @throws NullPointerException if the stage or the executor are
+	 * {@code null}.
+	 */
+	public static <T> AsyncTry<T> from(final CompletionStage<? extends T> stage,
+			final Executor executor) {
+		Objects.requireNonNull(stage);
+		Objects.requireNonNull(executor);
+		return new AsyncTry<>(stage.<Try<T>>handle((value, t) -> t == null
+				? Try.get(() -> value)
+				: new Failure<>(unwrap(t))).toCompletableFuture(), executor);
+	}
+
+	/**
+	 * Returns the future of the {@code AsyncTry} obtained from the specified
+	 * supplier, or a completed failure if the supplier throws.
+	 *
+	 * @param supplier the supplier of the {@code AsyncTry}.
+	 * @param <V> the type of the result.
+	 * @return the future that completes with the outcome.
+	 */
+	private static <V> CompletableFuture<Try<V>> compose(
+			final ThrowingSupplier<? extends AsyncTry<? extends V>> supplier) {
+		try {
+			@SuppressWarnings("unchecked")
+			final AsyncTry<V> result = (AsyncTry<V>) supplier.get();
+			return result.future;
+		} catch (final Exception e) {
+			return CompletableFuture.completedFuture(new Failure<>(e));
+		}
+	}
+
+	/**
+	 * Returns the exception that caused a future to complete exceptionally.
+	 * {@link Error}s are not handled, consistently with {@link Try}.
+	 *
+	 * @param t the throwable the future completed with.
+	 * @return the cause of the failure.
+	 * @throws Error if the cause of the failure is an error.
+	 */
+	private static Exception unwrap(final Throwable t) {
+		final Throwable cause = t instanceof CompletionException &&
+				t.getCause() != null ? t.getCause() : t;
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		return (Exception) cause;
+	}
+
+	/**
+	 * Asynchronously applies {@link Try#filter(ThrowingPredicate)} to the
+	 * outcome of the computation.
+	 *
+	 * @param predicate the predicate to match the result against.
+	 * @return an {@code AsyncTry} that completes with the filtered outcome.
+	 * @throws NullPointerException if the predicate is {@code null}.
+	 */
+	public AsyncTry<T> filter(final ThrowingPredicate<? super T> predicate) {
+		Objects.requireNonNull(predicate);
+		return new AsyncTry<>(future.thenApplyAsync(
+				attempt -> attempt.filter(predicate), executor), executor);
+	}
+
+	/**
+	 * Asynchronously applies the given mapping function to the computed
+	 * value if the computation was successful. The returned instance
+	 * completes when the {@code AsyncTry} returned by the function does.
+	 *
+	 * @param mapper the function to apply.
+	 * @param <V> the type of the result of the returned instance.
+	 * @return an {@code AsyncTry} that completes with the outcome of the
+	 * {@code AsyncTry} returned by the function if the computation was
+	 * successful, a failure otherwise.
+	 * @throws NullPointerException if the function is {@code null}.
+	 */
+	public <V> AsyncTry<V> flatMap(
+			final ThrowingFunction<? super T, ? extends AsyncTry<? extends V>> mapper) {
+		Objects.requireNonNull(mapper);
+		return new AsyncTry<>(future.thenComposeAsync(attempt -> {
+			if (attempt.isUnsuccessful()) {
+				return CompletableFuture.completedFuture(
+						new Failure<>(attempt.getCause()));
+			}
+			return compose(() -> mapper.apply(attempt.orElseThrow()));
+		}, executor), executor);
+	}
+
+	/**
+	 * Asynchronously applies the given mapping function to the cause of the
+	 * failure if the computation was unsuccessful. The returned instance
+	 * completes when the {@code AsyncTry} returned by the function does.
+	 *
+	 * @param mapper the function to apply.
+	 * @return an {@code AsyncTry} that completes with the outcome of the
+	 * {@code AsyncTry} returned by the function if the computation was
+	 * unsuccessful, a success otherwise.
+	 * @throws NullPointerException if the function is {@code null}.
+	 */
+	public AsyncTry<T> flatRecover(
+			final ThrowingFunction<? super Exception, ? extends AsyncTry<? extends T>> mapper) {
+		Objects.requireNonNull(mapper);
+		return new AsyncTry<>(future.thenComposeAsync(attempt ->
+				attempt.isSuccessful()
+						? CompletableFuture.completedFuture(attempt)
+						: compose(() -> mapper.apply(attempt.getCause())),
+				executor), executor);
+	}
+
+	/**
+	 * Waits for the computation to complete, and returns its outcome.
+	 * <p>
+	 * If the waiting thread is interrupted, the outcome will be in a failed
+	 * state with an {@link InterruptedException} as cause, and the interrupt
+	 * status of the thread is preserved. If the backing future has been
+	 * cancelled, the outcome will be in a failed state with a {@link
+	 * CancellationException} as cause.
+	 *
+	 * @return the outcome of the computation.
+	 */
+	public Try<T> join() {
+		try {
+			return future.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return new Failure<>(e);
+		} catch (final Exception e) {
+			return new Failure<>(unwrap(e.getCause() != null
+					? e.getCause()
+					: e));
+		}
+	}
+
+	/**
+	 * Asynchronously applies {@link Try#map(ThrowingFunction)} to the outcome
+	 * of the computation.
+	 *
+	 * @param mapper the function to apply.
+	 * @param <V> the type of the result of the returned instance.
+	 * @return an {@code AsyncTry} that completes with the mapped outcome.
+	 * @throws NullPointerException if the function is {@code null}.
+	 */
+	public <V> AsyncTry<V> map(
+			final ThrowingFunction<? super T, ? extends V> mapper) {
+		Objects.requireNonNull(mapper);
+		return new AsyncTry<>(future.thenApplyAsync(
+				attempt -> attempt.map(mapper), executor), executor);
+	}
+
+	/**
+	 * Asynchronously applies {@link Try#recover(ThrowingFunction)} to the
+	 * outcome of the computation.
+	 *
+	 * @param mapper the function to apply.
+	 * @return an {@code AsyncTry} that completes with the recovered outcome.
+	 * @throws NullPointerException if the function is {@code null}.
+	 */
+	public AsyncTry<T> recover(
+			final ThrowingFunction<? super Exception, ? extends T> mapper) {
+		Objects.requireNonNull(mapper);
+		return new AsyncTry<>(future.thenApplyAsync(
+				attempt -> attempt.recover(mapper), executor), executor);
+	}
+
+	/**
+	 * Returns a new {@link CompletableFuture} that completes with the
+	 * outcome of the computation. Completing the returned future does not
+	 * affect this instance.
+	 *
+	 * @return a future that completes with the outcome of the computation.
+	 */
+	public CompletableFuture<Try<T>> toCompletableFuture() {
+		return future.thenApply(attempt -> attempt);
+	}
+
+	/**
+	 * Returns an {@code AsyncTry} with the same outcome as this instance,
+	 * whose chained functions run on the specified executor.
+	 *
+	 * @param executor the executor of the chained functions.
+	 * @return an {@code AsyncTry} that runs chained functions on the
+	 * specified executor.
+	 * @throws NullPointerException if the executor is {@code null}.
+	 */
+	public AsyncTry<T> withExecutor(final Executor executor) {
+		return new AsyncTry<>(future, Objects.requireNonNull(executor));
+	}
+
+	/**
+	 * Returns an {@code AsyncTry} that completes with the outcome of the
+	 * computation, or with a failure holding a {@link TimeoutException} if
+	 * the computation does not complete before the given timeout.
+	 * <p>
+	 * The computation itself is not interrupted when the timeout expires:
+	 * its outcome is simply discarded.
+	 *
+	 * @param timeout the timeout.
+	 * @param unit the time unit of the timeout.
+	 * @return an {@code AsyncTry} that fails if the timeout expires.
+	 * @throws NullPointerException if the time unit is {@code null}.
+	 */
+	public AsyncTry<T> withTimeout(final long timeout, final TimeUnit unit) {
+		Objects.requireNonNull(unit);
+		final CompletableFuture<Try<T>> result = new CompletableFuture<>();
+		final ScheduledFuture<?> timer = Delayer.schedule(
+				() -> result.complete(new Failure<>(new TimeoutException())),
+				timeout, unit);
+		future.whenComplete((attempt, t) -> {
+			timer.cancel(false);
+			if (t == null) {
+				result.complete(attempt);
+			} else {
+				result.completeExceptionally(t);
+			}
+		});
+		return new AsyncTry<>(result, executor);
+	}
+}
@@ -21,13 +21,18 @@ public class AttemptFailedException extends RuntimeException {
 	private static final long serialVersionUID = -6198901905401795069L;
 
 	/**
-	 * Builds an instance that holds the cause of the failure.
+	 * Builds an instance that holds the cause of the failure, optionally
+	 * without a stack trace.
 	 *
 	 * @param cause the cause of the failure.
+	 * @param writableStackTrace whether the stack trace should be writable.
 	 * @throws NullPointerException if the cause is {@code null}.
+	 * @see Exceptions
 	 */
 	// end-users are not supposed to create instances of this exception
-	AttemptFailedException(final Throwable cause) {
-		super(Objects.requireNonNull(cause));
+	AttemptFailedException(final Throwable cause,
+			final boolean writableStackTrace) {
+		super(Objects.requireNonNull(cause).toString(), cause, true,
+				writableStackTrace);
 	}
 }
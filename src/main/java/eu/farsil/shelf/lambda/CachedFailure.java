@@ -0,0 +1,123 @@
+package eu.farsil.shelf.lambda;
+
+import org.apiguardian.api.API;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Exception that causes failures which are expected rather than
+ * exceptional, such as a lookup miss, and must therefore be cheap.
+ * <p>
+ * Instances of this exception are constants: they have no stack trace and
+ * no suppressed exceptions, and each of them preallocates the only failure
+ * that {@link Try#failureOf(CachedFailure)} returns, so that returning it
+ * does not allocate anything. Constants are obtained with {@link
+ * #of(String)}, which returns the same instance for the same name, and
+ * should be stored in {@code static final} fields:
+ * <pre>{@code static final CachedFailure EXPIRED = CachedFailure.of("expired");
+ *
+ *  Try<Session> find(final String id) {
+ *      final Session session = sessions.get(id);
+ *      if (session == null) {
+ *          return Try.failureOf(CachedFailure.NOT_FOUND);
+ *      }
+ *      return session.isExpired()
+ *          ? Try.failureOf(EXPIRED)
+ *          : Try.success(session);
+ *  }}</pre>
+ * Since instances are shared, the identity of the cause can be tested with
+ * {@code ==}, but a failure caused by an instance of this exception carries
+ * no information about where it happened.
+ *
+ * @author Marco Buzzanca
+ * @see Try#empty()
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public class CachedFailure extends RuntimeException {
+	/**
+	 * Required by {@link Serializable}.
+	 */
+	private static final long serialVersionUID = -1757407981547829315L;
+
+	/**
+	 * The registered constants, by name.
+	 */
+	private static final ConcurrentMap<String, CachedFailure> REGISTRY =
+			new ConcurrentHashMap<>();
+
+	/**
+	 * The cause of failures due to something that could not be found.
+	 */
+	public static final CachedFailure NOT_FOUND = of("not found");
+
+	/**
+	 * The failure caused by this instance.
+	 */
+	private final transient Try<?> failure = new Failure<>(this);
+
+	/**
+	 * Builds an instance with the specified name, which is also the detail
+	 * message.
+	 *
+	 * @param name the name.
+	 * @throws NullPointerException if the name is {@code null}.
+	 */
+	// end-users obtain instances from of(), which keeps them unique
+	CachedFailure(final String name) {
+		super(Objects.requireNonNull(name), null, false, false);
+	}
+
+	/**
+	 * Returns the constant with the specified name, registering it if it
+	 * does not exist yet.
+	 *
+	 * @param name the name, which is also the detail message.
+	 * @return the constant with the specified name.
+	 * @throws NullPointerException if the name is {@code null}.
+	 */
+	public static CachedFailure of(final String name) {
+		Objects.requireNonNull(name);
+		final CachedFailure cached = REGISTRY.get(name);
+		return cached != null
+				? cached
+				: REGISTRY.computeIfAbsent(name, CachedFailure::new);
+	}
+
+	/**
+	 * Returns the constant with the specified name, without registering it
+	 * if it does not exist.
+	 *
+	 * @param name the name.
+	 * @return the constant with the specified name, or {@code null} if it
+	 * does not exist.
+	 */
+	static CachedFailure lookup(final String name) {
+		return REGISTRY.get(name);
+	}
+
+	/**
+	 * Replaces a deserialized instance with the registered constant, so that
+	 * constants stay unique.
+	 *
+	 * @return the constant with the same name.
+	 */
+	private Object readResolve() {
+		return of(getMessage());
+	}
+
+	/**
+	 * Returns the failure caused by this instance.
+	 *
+	 * @param <T> the type of the result.
+	 * @return the failure caused by this instance.
+	 */
+	@SuppressWarnings("unchecked")
+	<T> Try<T> toFailure() {
+		return (Try<T>) failure;
+	}
+}
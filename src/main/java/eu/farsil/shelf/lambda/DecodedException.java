@@ -0,0 +1,70 @@
+package eu.farsil.shelf.lambda;
+
+import org.apiguardian.api.API;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Exception that stands for the cause of a failure decoded by a {@link
+ * TryCodec}, when the cause was encoded without its stack trace.
+ * <p>
+ * The original exception is not instantiated on decoding: this exception
+ * holds the name of its class and, if it was encoded, its detail message.
+ * Its string representation is the same as the one of the original
+ * exception, and it has no stack trace.
+ *
+ * @author Marco Buzzanca
+ * @see TryCodec.ExceptionPolicy
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public class DecodedException extends Exception {
+	/**
+	 * Required by {@link Serializable}.
+	 */
+	private static final long serialVersionUID = -4528180675420337905L;
+
+	/**
+	 * The name of the class of the original exception.
+	 */
+	private final String className;
+
+	/**
+	 * Builds an instance that stands for an exception of the specified
+	 * class.
+	 *
+	 * @param className the name of the class of the original exception.
+	 * @param message the detail message of the original exception, or
+	 * {@code null} if it was not encoded.
+	 * @throws NullPointerException if the class name is {@code null}.
+	 */
+	// end-users are not supposed to create instances of this exception
+	DecodedException(final String className, final String message) {
+		super(message, null, false, false);
+		this.className = Objects.requireNonNull(className);
+	}
+
+	/**
+	 * Returns the name of the class of the original exception.
+	 *
+	 * @return the name of the class of the original exception.
+	 */
+	public String getClassName() {
+		return className;
+	}
+
+	/**
+	 * Returns the string representation of the original exception, which is
+	 * the name of its class, followed by its detail message, if it was
+	 * encoded.
+	 *
+	 * @return the string representation of the original exception.
+	 */
+	@Override
+	public String toString() {
+		final String message = getLocalizedMessage();
+		return message != null ? className + ": " + message : className;
+	}
+}
@@ -0,0 +1,449 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.ThrowingFunction;
+import eu.farsil.shelf.lambda.function.ThrowingPredicate;
+import eu.farsil.shelf.lambda.function.ThrowingSupplier;
+import eu.farsil.shelf.lambda.function.ThrowingToDoubleFunction;
+import eu.farsil.shelf.lambda.function.ThrowingToIntFunction;
+import eu.farsil.shelf.lambda.function.ThrowingToLongFunction;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of {@link Try} whose outcome is computed on demand.
+ * <p>
+ * The methods that return a {@code Try} do not perform any computation:
+ * they return a new {@code Deferred} which describes the step to perform.
+ * The steps are evaluated by the first method that needs the outcome, with
+ * a loop that keeps the pending steps on the heap, so that arbitrarily deep
+ * chains of {@link #flatMap flatMap()} and {@link #flatRecover flatRecover()}
+ * are evaluated in constant stack space. Once computed, the outcome is
+ * memoized.
+ * <p>
+ * Evaluation is thread-safe: the first thread that reaches an instance
+ * claims it and computes its outcome, while the other threads that need
+ * the same outcome wait for it, so that each step is performed exactly once.
+ * The outcome is published through a {@code volatile} field, so reading an
+ * outcome that has already been computed does not involve any lock.
+ *
+ * @param <T> the type of the result.
+ * @author Marco Buzzanca
+ * @see Try#defer(ThrowingSupplier)
+ */
+class Deferred<T> implements Try<T> {
+	/**
+	 * Required by {@link java.io.Serializable}, never serialized.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Atomically claims an instance for evaluation.
+	 */
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<Deferred, Thread> OWNER =
+			AtomicReferenceFieldUpdater.newUpdater(Deferred.class,
+					Thread.class, "owner");
+
+	/**
+	 * The source of a step that does not depend on a previous outcome.
+	 */
+	private static final Try<Object> UNIT = new Success<>(new Object());
+
+	/**
+	 * The outcome, or {@code null} if it has not been computed yet.
+	 */
+	private volatile Try<T> result;
+
+	/**
+	 * The step to perform, or {@code null} once the outcome is computed.
+	 */
+	private volatile Step step;
+
+	/**
+	 * The thread that claimed this instance for evaluation, or {@code null}
+	 * if no thread has claimed it yet.
+	 */
+	private volatile Thread owner;
+
+	/**
+	 * Whether a thread is waiting for the outcome.
+	 */
+	private volatile boolean waiting;
+
+	/**
+	 * Builds a {@link Deferred} whose outcome is the one of the {@code Try}
+	 * returned by the specified supplier.
+	 *
+	 * @param supplier the supplier of the outcome.
+	 */
+	Deferred(final ThrowingSupplier<? extends Try<? extends T>> supplier) {
+		this(UNIT, attempt -> supplier.get());
+	}
+
+	/**
+	 * Builds a {@link Deferred} whose outcome is obtained by applying the
+	 * specified continuation to the outcome of the source.
+	 *
+	 * @param source the source.
+	 * @param continuation the continuation.
+	 */
+	private Deferred(final Try<?> source,
+			final ThrowingFunction<Try<?>, Try<?>> continuation) {
+		this.step = new Step(source, continuation);
+	}
+
+	/**
+	 * Computes the outcome of the specified instance, iteratively.
+	 * <p>
+	 * The stack holds the continuations still to apply, along with the
+	 * instances claimed by the current thread, whose outcome is the result of
+	 * the continuations above them.
+	 *
+	 * @param root the instance to evaluate.
+	 * @return the outcome.
+	 * @throws IllegalStateException if the outcome of an instance is needed
+	 * by its own evaluation.
+	 */
+	@SuppressWarnings("unchecked")
+	private static Try<?> evaluate(final Deferred<?> root) {
+		final Thread self = Thread.currentThread();
+		final Deque<Object> stack = new ArrayDeque<>();
+		Try<?> current = root;
+		try {
+			for (; ; ) {
+				if (current instanceof Deferred) {
+					final Deferred<?> deferred = (Deferred<?>) current;
+					final Step step = deferred.claim(self);
+					if (step == null) {
+						// evaluated, possibly by another thread
+						current = deferred.result;
+					} else {
+						stack.push(deferred);
+						stack.push(step.continuation);
+						current = step.source;
+					}
+					continue;
+				}
+				final Object top = stack.poll();
+				if (top == null) {
+					return current;
+				}
+				if (top instanceof Deferred) {
+					((Deferred<?>) top).complete(current);
+				} else {
+					current = apply((ThrowingFunction<Try<?>, Try<?>>) top,
+							current);
+				}
+			}
+		} catch (final Throwable t) {
+			// lets other threads evaluate what this thread could not
+			for (final Object element : stack) {
+				if (element instanceof Deferred) {
+					((Deferred<?>) element).release();
+				}
+			}
+			throw t;
+		}
+	}
+
+	/**
+	 * Applies a continuation to an outcome.
+	 *
+	 * @param continuation the continuation.
+	 * @param attempt the outcome.
+	 * @return the result of the continuation, or a failure if it throws or
+	 * returns {@code null}.
+	 */
+	private static Try<?> apply(
+			final ThrowingFunction<Try<?>, Try<?>> continuation,
+			final Try<?> attempt) {
+		try {
+			final Try<?> result = continuation.apply(attempt);
+			return result != null ? result : Failure.of(Exceptions.NO_VALUE);
+		} catch (final Exception e) {
+			return Failure.of(e);
+		}
+	}
+
+	/**
+	 * Waits until the outcome is computed or the owner releases this
+	 * instance. Interrupts are deferred until the wait is over.
+	 */
+	private void await() {
+		boolean interrupted = false;
+		waiting = true;
+		synchronized (this) {
+			while (result == null && owner != null) {
+				try {
+					wait();
+				} catch (final InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Claims this instance for evaluation by the specified thread, waiting
+	 * if another thread has already claimed it.
+	 *
+	 * @param self the current thread.
+	 * @return the step to perform if this instance has been claimed, or
+	 * {@code null} if its outcome has been computed.
+	 * @throws IllegalStateException if the current thread has already
+	 * claimed this instance.
+	 */
+	private Step claim(final Thread self) {
+		for (; ; ) {
+			if (result != null) {
+				return null;
+			}
+			final Thread current = owner;
+			if (current == null) {
+				if (OWNER.compareAndSet(this, null, self)) {
+					return step;
+				}
+			} else if (current == self) {
+				throw new IllegalStateException("recursive evaluation");
+			} else {
+				await();
+			}
+		}
+	}
+
+	/**
+	 * Sets the outcome of this instance, which must be claimed by the
+	 * current thread, and wakes up the waiting threads.
+	 *
+	 * @param attempt the outcome.
+	 */
+	@SuppressWarnings("unchecked")
+	private void complete(final Try<?> attempt) {
+		result = (Try<T>) attempt;
+		// releases the resources held by the step, and the owner thread,
+		// after publishing the outcome, so that no thread claims it again
+		step = null;
+		owner = null;
+		signal();
+	}
+
+	/**
+	 * Returns the outcome, computing it if necessary.
+	 *
+	 * @return the outcome.
+	 */
+	@SuppressWarnings("unchecked")
+	private Try<T> get() {
+		final Try<T> attempt = result;
+		return attempt != null ? attempt : (Try<T>) evaluate(this);
+	}
+
+	/**
+	 * Replaces this instance with its outcome when it is serialized, since
+	 * the pending steps cannot be serialized. The outcome is computed if
+	 * necessary.
+	 *
+	 * @return the outcome.
+	 */
+	private Object writeReplace() {
+		return get();
+	}
+
+	/**
+	 * Releases this instance, which must be claimed by the current thread,
+	 * without setting its outcome.
+	 */
+	private void release() {
+		owner = null;
+		signal();
+	}
+
+	/**
+	 * Wakes up the threads waiting for this instance, if there are any.
+	 */
+	private void signal() {
+		if (waiting) {
+			synchronized (this) {
+				notifyAll();
+			}
+		}
+	}
+
+	@Override
+	public Try<T> filter(final ThrowingPredicate<? super T> predicate) {
+		Objects.requireNonNull(predicate);
+		return then(attempt -> attempt.filter(predicate));
+	}
+
+	@Override
+	public <V> Try<V> flatMap(
+			final ThrowingFunction<? super T, ? extends Try<? extends V>> mapper) {
+		Objects.requireNonNull(mapper);
+		return then(attempt -> attempt.flatMap(mapper));
+	}
+
+	@Override
+	public Try<T> flatRecover(
+			final ThrowingFunction<? super Exception, ? extends Try<? extends T>> mapper) {
+		Objects.requireNonNull(mapper);
+		return then(attempt -> attempt.flatRecover(mapper));
+	}
+
+	@Override
+	public Exception getCause() {
+		return get().getCause();
+	}
+
+	@Override
+	public Try<T> ifSuccessful(final Consumer<? super T> action) {
+		Objects.requireNonNull(action);
+		get().ifSuccessful(action);
+		return this;
+	}
+
+	@Override
+	public Try<T> ifUnsuccessful(final Consumer<? super Exception> action) {
+		Objects.requireNonNull(action);
+		get().ifUnsuccessful(action);
+		return this;
+	}
+
+	@Override
+	public boolean isSuccessful() {
+		return get().isSuccessful();
+	}
+
+	@Override
+	public boolean isUnsuccessful() {
+		return get().isUnsuccessful();
+	}
+
+	@Override
+	public <V> Try<V> map(
+			final ThrowingFunction<? super T, ? extends V> mapper) {
+		Objects.requireNonNull(mapper);
+		return then(attempt -> attempt.map(mapper));
+	}
+
+	@Override
+	public IntTry mapToInt(final ThrowingToIntFunction<? super T> mapper) {
+		Objects.requireNonNull(mapper);
+		return get().mapToInt(mapper);
+	}
+
+	@Override
+	public LongTry mapToLong(final ThrowingToLongFunction<? super T> mapper) {
+		Objects.requireNonNull(mapper);
+		return get().mapToLong(mapper);
+	}
+
+	@Override
+	public DoubleTry mapToDouble(
+			final ThrowingToDoubleFunction<? super T> mapper) {
+		Objects.requireNonNull(mapper);
+		return get().mapToDouble(mapper);
+	}
+
+	@Override
+	public T orElse(final T value) {
+		return get().orElse(value);
+	}
+
+	@Override
+	public T orElseGet(final Supplier<? extends T> supplier) {
+		Objects.requireNonNull(supplier);
+		return get().orElseGet(supplier);
+	}
+
+	@Override
+	public T orElseThrow() {
+		return get().orElseThrow();
+	}
+
+	@Override
+	public <E extends Exception> T orElseThrow(
+			final Function<? super Exception, E> function) throws E {
+		Objects.requireNonNull(function);
+		return get().orElseThrow(function);
+	}
+
+	@Override
+	public Try<T> recover(
+			final ThrowingFunction<? super Exception, ? extends T> mapper) {
+		Objects.requireNonNull(mapper);
+		return then(attempt -> attempt.recover(mapper));
+	}
+
+	@Override
+	public Stream<T> stream() {
+		return get().stream();
+	}
+
+	/**
+	 * Returns a {@link Deferred} whose outcome is the one of this instance,
+	 * which is passed to the specified action once it is computed.
+	 *
+	 * @param action the action to perform on the outcome.
+	 * @return the deferred outcome.
+	 */
+	Try<T> peek(final Consumer<? super Try<T>> action) {
+		return then(attempt -> {
+			action.accept(attempt);
+			return attempt;
+		});
+	}
+
+	/**
+	 * Returns a {@link Deferred} whose outcome is obtained by applying the
+	 * specified continuation to the outcome of this instance.
+	 *
+	 * @param continuation the continuation.
+	 * @param <V> the type of the result of the continuation.
+	 * @return the deferred continuation.
+	 */
+	@SuppressWarnings("unchecked")
+	private <V> Try<V> then(
+			final ThrowingFunction<Try<T>, Try<? extends V>> continuation) {
+		return new Deferred<>(this,
+				(ThrowingFunction<Try<?>, Try<?>>) (ThrowingFunction<?, ?>)
+						continuation);
+	}
+
+	/**
+	 * A step of the computation.
+	 */
+	private static final class Step {
+		/**
+		 * The instance whose outcome is passed to the continuation.
+		 */
+		final Try<?> source;
+
+		/**
+		 * The function that computes the outcome from the outcome of the
+		 * source.
+		 */
+		final ThrowingFunction<Try<?>, Try<?>> continuation;
+
+		/**
+		 * Builds a step.
+		 *
+		 * @param source the source.
+		 * @param continuation the continuation.
+		 */
+		Step(final Try<?> source,
+				final ThrowingFunction<Try<?>, Try<?>> continuation) {
+			this.source = source;
+			this.continuation = continuation;
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package eu.farsil.shelf.lambda;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules the actions that must run after a delay, such as the expiration
+ * of a timeout. The actions run on a single daemon thread, so they are
+ * expected to be short: typically they just complete a future.
+ *
+ * @author Marco Buzzanca
+ */
+final class Delayer {
+	/**
+	 * The scheduler, created lazily by the holder idiom.
+	 */
+	private static final class Holder {
+		/**
+		 * The scheduler instance.
+		 */
+		static final ScheduledThreadPoolExecutor SCHEDULER;
+
+		static {
+			SCHEDULER = new ScheduledThreadPoolExecutor(1, r -> {
+				final Thread thread = new Thread(r, "shelf-delayer");
+				thread.setDaemon(true);
+				return thread;
+			});
+			// cancelled timeouts would otherwise linger until they expire
+			SCHEDULER.setRemoveOnCancelPolicy(true);
+		}
+	}
+
+	/**
+	 * Utility class.
+	 */
+	private Delayer() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Schedules an action that runs after the given delay.
+	 *
+	 * @param action the action.
+	 * @param delay the delay.
+	 * @param unit the time unit of the delay.
+	 * @return a future that can be used to cancel the action.
+	 */
+	static ScheduledFuture<?> schedule(final Runnable action, final long delay,
+			final TimeUnit unit) {
+		return Holder.SCHEDULER.schedule(action, delay, unit);
+	}
+}
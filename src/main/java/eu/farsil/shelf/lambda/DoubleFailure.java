@@ -0,0 +1,132 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.ThrowingDoubleFunction;
+import eu.farsil.shelf.lambda.function.ThrowingDoublePredicate;
+import eu.farsil.shelf.lambda.function.ThrowingDoubleUnaryOperator;
+import eu.farsil.shelf.lambda.function.ThrowingFunction;
+import eu.farsil.shelf.lambda.function.ThrowingToDoubleFunction;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Implementation of {@link DoubleTry} that represents an unsuccessful attempt.
+ *
+ * @author Marco Buzzanca
+ */
+class DoubleFailure implements DoubleTry {
+	/**
+	 * The cause of the failure.
+	 */
+	private final Exception cause;
+
+	/**
+	 * Builds a {@link DoubleFailure} holding the cause of the failure.
+	 *
+	 * @param cause the cause of the failure.
+	 */
+	DoubleFailure(final Exception cause) {
+		this.cause = Objects.requireNonNull(cause);
+	}
+
+	@Override
+	public Try<Double> boxed() {
+		return new Failure<>(cause);
+	}
+
+	@Override
+	public DoubleTry filter(final ThrowingDoublePredicate predicate) {
+		Objects.requireNonNull(predicate);
+		return this;
+	}
+
+	@Override
+	public DoubleTry flatMap(final ThrowingDoubleFunction<? extends DoubleTry> mapper) {
+		Objects.requireNonNull(mapper);
+		return this;
+	}
+
+	@Override
+	public DoubleTry flatRecover(
+			final ThrowingFunction<? super Exception, ? extends DoubleTry> mapper) {
+		Objects.requireNonNull(mapper);
+		try {
+			return mapper.apply(cause);
+		} catch (final Exception e) {
+			return new DoubleFailure(e);
+		}
+	}
+
+	@Override
+	public Exception getCause() {
+		return cause;
+	}
+
+	@Override
+	public DoubleTry ifSuccessful(final DoubleConsumer action) {
+		Objects.requireNonNull(action);
+		return this;
+	}
+
+	@Override
+	public DoubleTry ifUnsuccessful(final Consumer<? super Exception> action) {
+		action.accept(cause);
+		return this;
+	}
+
+	@Override
+	public boolean isSuccessful() {
+		return false;
+	}
+
+	@Override
+	public boolean isUnsuccessful() {
+		return true;
+	}
+
+	@Override
+	public DoubleTry map(final ThrowingDoubleUnaryOperator mapper) {
+		Objects.requireNonNull(mapper);
+		return this;
+	}
+
+	@Override
+	public <V> Try<V> mapToObj(final ThrowingDoubleFunction<? extends V> mapper) {
+		Objects.requireNonNull(mapper);
+		return new Failure<>(cause);
+	}
+
+	@Override
+	public double orElse(final double value) {
+		return value;
+	}
+
+	@Override
+	public double orElseGet(final DoubleSupplier supplier) {
+		return supplier.getAsDouble();
+	}
+
+	@Override
+	public double orElseThrow() {
+		throw Exceptions.attemptFailed(cause);
+	}
+
+	@Override
+	public <E extends Exception> double orElseThrow(
+			final Function<? super Exception, E> function) throws E {
+		throw function.apply(cause);
+	}
+
+	@Override
+	public DoubleTry recover(final ThrowingToDoubleFunction<? super Exception> mapper) {
+		Objects.requireNonNull(mapper);
+		try {
+			return new DoubleSuccess(mapper.applyAsDouble(cause));
+		} catch (final Exception e) {
+			return new DoubleFailure(e);
+		}
+	}
+}
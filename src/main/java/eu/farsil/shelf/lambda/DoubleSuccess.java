@@ -0,0 +1,147 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.ThrowingDoubleFunction;
+import eu.farsil.shelf.lambda.function.ThrowingDoublePredicate;
+import eu.farsil.shelf.lambda.function.ThrowingDoubleUnaryOperator;
+import eu.farsil.shelf.lambda.function.ThrowingFunction;
+import eu.farsil.shelf.lambda.function.ThrowingToDoubleFunction;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Implementation of {@link DoubleTry} that represents a successful attempt.
+ *
+ * @author Marco Buzzanca
+ */
+class DoubleSuccess implements DoubleTry {
+	/**
+	 * The result value.
+	 */
+	private final double value;
+
+	/**
+	 * Builds a {@link DoubleSuccess} holding the specified value.
+	 *
+	 * @param value the result value.
+	 */
+	DoubleSuccess(final double value) {
+		this.value = value;
+	}
+
+	@Override
+	public Try<Double> boxed() {
+		return new Success<>(value);
+	}
+
+	@Override
+	public DoubleTry filter(final ThrowingDoublePredicate predicate) {
+		Objects.requireNonNull(predicate);
+		try {
+			return predicate.test(value)
+					? this
+					: new DoubleFailure(Exceptions.predicateFailed(value));
+		} catch (final Exception e) {
+			return new DoubleFailure(e);
+		}
+	}
+
+	@Override
+	public DoubleTry flatMap(final ThrowingDoubleFunction<? extends DoubleTry> mapper) {
+		Objects.requireNonNull(mapper);
+		try {
+			return mapper.apply(value);
+		} catch (final Exception e) {
+			return new DoubleFailure(e);
+		}
+	}
+
+	@Override
+	public DoubleTry flatRecover(
+			final ThrowingFunction<? super Exception, ? extends DoubleTry> mapper) {
+		Objects.requireNonNull(mapper);
+		return this;
+	}
+
+	@Override
+	public Exception getCause() {
+		return null;
+	}
+
+	@Override
+	public DoubleTry ifSuccessful(final DoubleConsumer action) {
+		action.accept(value);
+		return this;
+	}
+
+	@Override
+	public DoubleTry ifUnsuccessful(final Consumer<? super Exception> action) {
+		Objects.requireNonNull(action);
+		return this;
+	}
+
+	@Override
+	public boolean isSuccessful() {
+		return true;
+	}
+
+	@Override
+	public boolean isUnsuccessful() {
+		return false;
+	}
+
+	@Override
+	public DoubleTry map(final ThrowingDoubleUnaryOperator mapper) {
+		Objects.requireNonNull(mapper);
+		try {
+			return new DoubleSuccess(mapper.applyAsDouble(value));
+		} catch (final Exception e) {
+			return new DoubleFailure(e);
+		}
+	}
+
+	@Override
+	public <V> Try<V> mapToObj(final ThrowingDoubleFunction<? extends V> mapper) {
+		Objects.requireNonNull(mapper);
+		try {
+			final V result = mapper.apply(value);
+			return result != null
+					? new Success<>(result)
+					: Failure.of(Exceptions.NO_VALUE);
+		} catch (final Exception e) {
+			return new Failure<>(e);
+		}
+	}
+
+	@Override
+	public double orElse(final double value) {
+		return this.value;
+	}
+
+	@Override
+	public double orElseGet(final DoubleSupplier supplier) {
+		Objects.requireNonNull(supplier);
+		return value;
+	}
+
+	@Override
+	public double orElseThrow() {
+		return value;
+	}
+
+	@Override
+	public <E extends Exception> double orElseThrow(
+			final Function<? super Exception, E> function) {
+		Objects.requireNonNull(function);
+		return value;
+	}
+
+	@Override
+	public DoubleTry recover(final ThrowingToDoubleFunction<? super Exception> mapper) {
+		Objects.requireNonNull(mapper);
+		return this;
+	}
+}
@@ -0,0 +1,89 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.PredicateFailedException;
+
+/**
+ * Creates the exceptions that this package throws or wraps in a
+ * {@link Failure} on its own.
+ * <p>
+ * By default these exceptions capture the stack trace like any other
+ * exception. Setting the system property {@value #STACKLESS_PROPERTY} to
+ * {@code true} enables the <i>stackless</i> mode, in which they are created
+ * with a non-writable stack trace: this avoids the cost of filling in the
+ * stack trace on paths that fail often, at the price of less informative
+ * traces.
+ * <p>
+ * The system property {@value #MAX_VALUE_LENGTH_PROPERTY} bounds the length
+ * of the string representation of the value held by a {@link
+ * PredicateFailedException} in its detail message.
+ * <p>
+ * The properties are read once, when this class is initialized.
+ *
+ * @author Marco Buzzanca
+ */
+final class Exceptions {
+	/**
+	 * The name of the system property that enables the stackless mode.
+	 */
+	static final String STACKLESS_PROPERTY = "eu.farsil.shelf.lambda.stackless";
+
+	/**
+	 * The name of the system property that bounds the length of the value in
+	 * the message of a {@link PredicateFailedException}.
+	 */
+	static final String MAX_VALUE_LENGTH_PROPERTY =
+			"eu.farsil.shelf.lambda.maxValueLength";
+
+	/**
+	 * The maximum length of the value in the message of a {@link
+	 * PredicateFailedException}.
+	 */
+	static final int MAX_VALUE_LENGTH =
+			Math.max(0, Integer.getInteger(MAX_VALUE_LENGTH_PROPERTY,
+					Integer.MAX_VALUE));
+
+	/**
+	 * Whether the exceptions created by this class have a writable stack
+	 * trace.
+	 */
+	static final boolean WRITABLE_STACK_TRACE =
+			!Boolean.getBoolean(STACKLESS_PROPERTY);
+
+	/**
+	 * The cause of the failures due to a missing value. Since it is shared,
+	 * it has no stack trace, regardless of the stackless mode, and no
+	 * suppressed exceptions.
+	 */
+	static final NoValueException NO_VALUE = new NoValueException();
+
+	/**
+	 * Utility class.
+	 */
+	private Exceptions() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Returns a new {@link AttemptFailedException} holding the specified
+	 * cause.
+	 *
+	 * @param cause the cause of the failure.
+	 * @return the exception.
+	 * @throws NullPointerException if the cause is {@code null}.
+	 */
+	static AttemptFailedException attemptFailed(final Throwable cause) {
+		return new AttemptFailedException(cause, WRITABLE_STACK_TRACE);
+	}
+
+	/**
+	 * Returns a new {@link PredicateFailedException} holding the value that
+	 * failed to match the predicate.
+	 *
+	 * @param value the value that failed to match the predicate.
+	 * @return the exception.
+	 */
+	static PredicateFailedException predicateFailed(final Object value) {
+		return new PredicateFailedException(value, WRITABLE_STACK_TRACE,
+				MAX_VALUE_LENGTH);
+	}
+}
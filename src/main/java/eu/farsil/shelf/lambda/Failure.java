@@ -2,11 +2,15 @@ package eu.farsil.shelf.lambda;
 
 import eu.farsil.shelf.lambda.function.ThrowingFunction;
 import eu.farsil.shelf.lambda.function.ThrowingPredicate;
+import eu.farsil.shelf.lambda.function.ThrowingToDoubleFunction;
+import eu.farsil.shelf.lambda.function.ThrowingToIntFunction;
+import eu.farsil.shelf.lambda.function.ThrowingToLongFunction;
 
 import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Implementation of {@link Try} that represents an unsuccessful attempt.
@@ -15,6 +19,16 @@ import java.util.function.Supplier;
  * @author Marco Buzzanca
  */
 class Failure<T> implements Try<T> {
+	/**
+	 * Required by {@link java.io.Serializable}.
+	 */
+	private static final long serialVersionUID = -3317805247214856650L;
+
+	/**
+	 * The failure due to a missing value.
+	 */
+	private static final Failure<?> EMPTY = new Failure<>(Exceptions.NO_VALUE);
+
 	/**
 	 * The cause of the failure.
 	 */
@@ -29,6 +43,62 @@ class Failure<T> implements Try<T> {
 		this.cause = Objects.requireNonNull(cause);
 	}
 
+	/**
+	 * Returns a failure holding the specified cause, which has been caught
+	 * while performing a computation, and notifies the installed {@link
+	 * TryListener}, if any.
+	 *
+	 * @param cause the cause of the failure.
+	 * @param <T> the type of the result.
+	 * @return the failure, which is the shared one returned by {@link
+	 * #empty()} if the cause is {@link Exceptions#NO_VALUE}.
+	 */
+	static <T> Try<T> of(final Exception cause) {
+		Listeners.failed(cause);
+		return cause == Exceptions.NO_VALUE ? empty() : new Failure<>(cause);
+	}
+
+	/**
+	 * Returns a failure holding the specified cause, which is the cause of
+	 * another failure, so the installed {@link TryListener} is not notified
+	 * again.
+	 *
+	 * @param cause the cause of the failure.
+	 * @param <T> the type of the result.
+	 * @return the failure, which is the shared one returned by {@link
+	 * #empty()} if the cause is {@link Exceptions#NO_VALUE}.
+	 */
+	static <T> Try<T> propagate(final Exception cause) {
+		return cause == Exceptions.NO_VALUE ? empty() : new Failure<>(cause);
+	}
+
+	/**
+	 * Returns the failure due to a missing value, which is shared.
+	 *
+	 * @param <T> the type of the result.
+	 * @return the failure due to a missing value.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> Try<T> empty() {
+		return (Try<T>) EMPTY;
+	}
+
+	/**
+	 * Replaces a deserialized instance with the shared failure, if its cause
+	 * is shared, so that failures caused by the same shared exception are
+	 * still the same instance.
+	 *
+	 * @return the shared failure, or this instance.
+	 */
+	private Object readResolve() {
+		if (cause == Exceptions.NO_VALUE) {
+			return EMPTY;
+		}
+		return cause instanceof CachedFailure
+				? ((CachedFailure) cause).toFailure()
+				: this;
+	}
+
 	@Override
 	public Try<T> filter(final ThrowingPredicate<? super T> predicate) {
 		Objects.requireNonNull(predicate);
@@ -48,12 +118,38 @@ class Failure<T> implements Try<T> {
 	public Try<T> flatRecover(
 			final ThrowingFunction<? super Exception, ? extends Try<? extends T>> mapper) {
 		Objects.requireNonNull(mapper);
+		final Try<T> result;
 		try {
 			@SuppressWarnings("unchecked")
-			final Try<T> result = (Try<T>) mapper.apply(cause);
-			return result;
+			final Try<T> attempt = (Try<T>) mapper.apply(cause);
+			result = attempt;
 		} catch (final Exception e) {
-			return new Failure<>(e);
+			return of(e);
+		}
+		// inspecting a deferred outcome would compute it, so the listener is
+		// notified once it is computed
+		if (result instanceof Deferred) {
+			return ((Deferred<T>) result).peek(this::notifyRecovery);
+		}
+		if (result != null) {
+			notifyRecovery(result);
+		}
+		return result;
+	}
+
+	/**
+	 * Notifies the installed {@link TryListener}, if any, of the outcome of
+	 * {@link #flatRecover flatRecover()}: the failure is only recovered if
+	 * the outcome is successful, otherwise the outcome is a new failure,
+	 * unless it has the same cause.
+	 *
+	 * @param outcome the outcome of the mapper.
+	 */
+	private void notifyRecovery(final Try<?> outcome) {
+		if (outcome.isSuccessful()) {
+			Listeners.recovered(cause);
+		} else if (outcome.getCause() != cause) {
+			Listeners.failed(outcome.getCause());
 		}
 	}
 
@@ -93,6 +189,24 @@ class Failure<T> implements Try<T> {
 		return result;
 	}
 
+	@Override
+	public IntTry mapToInt(final ThrowingToIntFunction<? super T> mapper) {
+		Objects.requireNonNull(mapper);
+		return new IntFailure(cause);
+	}
+
+	@Override
+	public LongTry mapToLong(final ThrowingToLongFunction<? super T> mapper) {
+		Objects.requireNonNull(mapper);
+		return new LongFailure(cause);
+	}
+
+	@Override
+	public DoubleTry mapToDouble(final ThrowingToDoubleFunction<? super T> mapper) {
+		Objects.requireNonNull(mapper);
+		return new DoubleFailure(cause);
+	}
+
 	@Override
 	public T orElse(final T value) {
 		return value;
@@ -105,7 +219,7 @@ class Failure<T> implements Try<T> {
 
 	@Override
 	public T orElseThrow() {
-		throw new AttemptFailedException(cause);
+		throw Exceptions.attemptFailed(cause);
 	}
 
 	@Override
@@ -119,9 +233,19 @@ class Failure<T> implements Try<T> {
 			final ThrowingFunction<? super Exception, ? extends T> mapper) {
 		Objects.requireNonNull(mapper);
 		try {
-			return new Success<>(mapper.apply(cause));
+			final T value = mapper.apply(cause);
+			if (value == null) {
+				return of(Exceptions.NO_VALUE);
+			}
+			Listeners.recovered(cause);
+			return new Success<>(value);
 		} catch (final Exception e) {
-			return new Failure<>(e);
+			return of(e);
 		}
 	}
+
+	@Override
+	public Stream<T> stream() {
+		return Stream.empty();
+	}
 }
@@ -0,0 +1,132 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.ThrowingFunction;
+import eu.farsil.shelf.lambda.function.ThrowingIntFunction;
+import eu.farsil.shelf.lambda.function.ThrowingIntPredicate;
+import eu.farsil.shelf.lambda.function.ThrowingIntUnaryOperator;
+import eu.farsil.shelf.lambda.function.ThrowingToIntFunction;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+
+/**
+ * Implementation of {@link IntTry} that represents an unsuccessful attempt.
+ *
+ * @author Marco Buzzanca
+ */
+class IntFailure implements IntTry {
+	/**
+	 * The cause of the failure.
+	 */
+	private final Exception cause;
+
+	/**
+	 * Builds a {@link IntFailure} holding the cause of the failure.
+	 *
+	 * @param cause the cause of the failure.
+	 */
+	IntFailure(final Exception cause) {
+		this.cause = Objects.requireNonNull(cause);
+	}
+
+	@Override
+	public Try<Integer> boxed() {
+		return new Failure<>(cause);
+	}
+
+	@Override
+	public IntTry filter(final ThrowingIntPredicate predicate) {
+		Objects.requireNonNull(predicate);
+		return this;
+	}
+
+	@Override
+	public IntTry flatMap(final ThrowingIntFunction<? extends IntTry> mapper) {
+		Objects.requireNonNull(mapper);
+		return this;
+	}
+
+	@Override
+	public IntTry flatRecover(
+			final ThrowingFunction<? super Exception, ? extends IntTry> mapper) {
+		Objects.requireNonNull(mapper);
+		try {
+			return mapper.apply(cause);
+		} catch (final Exception e) {
+			return new IntFailure(e);
+		}
+	}
+
+	@Override
+	public Exception getCause() {
+		return cause;
+	}
+
+	@Override
+	public IntTry ifSuccessful(final IntConsumer action) {
+		Objects.requireNonNull(action);
+		return this;
+	}
+
+	@Override
+	public IntTry ifUnsuccessful(final Consumer<? super Exception> action) {
+		action.accept(cause);
+		return this;
+	}
+
+	@Override
+	public boolean isSuccessful() {
+		return false;
+	}
+
+	@Override
+	public boolean isUnsuccessful() {
+		return true;
+	}
+
+	@Override
+	public IntTry map(final ThrowingIntUnaryOperator mapper) {
+		Objects.requireNonNull(mapper);
+		return this;
+	}
+
+	@Override
+	public <V> Try<V> mapToObj(final ThrowingIntFunction<? extends V> mapper) {
+		Objects.requireNonNull(mapper);
+		return new Failure<>(cause);
+	}
+
+	@Override
+	public int orElse(final int value) {
+		return value;
+	}
+
+	@Override
+	public int orElseGet(final IntSupplier supplier) {
+		return supplier.getAsInt();
+	}
+
+	@Override
+	public int orElseThrow() {
+		throw Exceptions.attemptFailed(cause);
+	}
+
+	@Override
+	public <E extends Exception> int orElseThrow(
+			final Function<? super Exception, E> function) throws E {
+		throw function.apply(cause);
+	}
+
+	@Override
+	public IntTry recover(final ThrowingToIntFunction<? super Exception> mapper) {
+		Objects.requireNonNull(mapper);
+		try {
+			return new IntSuccess(mapper.applyAsInt(cause));
+		} catch (final Exception e) {
+			return new IntFailure(e);
+		}
+	}
+}
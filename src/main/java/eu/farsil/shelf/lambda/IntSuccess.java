@@ -0,0 +1,147 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.ThrowingFunction;
+import eu.farsil.shelf.lambda.function.ThrowingIntFunction;
+import eu.farsil.shelf.lambda.function.ThrowingIntPredicate;
+import eu.farsil.shelf.lambda.function.ThrowingIntUnaryOperator;
+import eu.farsil.shelf.lambda.function.ThrowingToIntFunction;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+
+/**
+ * Implementation of {@link IntTry} that represents a successful attempt.
+ *
+ * @author Marco Buzzanca
+ */
+class IntSuccess implements IntTry {
+	/**
+	 * The result value.
+	 */
+	private final int value;
+
+	/**
+	 * Builds a {@link IntSuccess} holding the specified value.
+	 *
+	 * @param value the result value.
+	 */
+	IntSuccess(final int value) {
+		this.value = value;
+	}
+
+	@Override
+	public Try<Integer> boxed() {
+		return new Success<>(value);
+	}
+
+	@Override
+	public IntTry filter(final ThrowingIntPredicate predicate) {
+		Objects.requireNonNull(predicate);
+		try {
+			return predicate.test(value)
+					? this
+					: new IntFailure(Exceptions.predicateFailed(value));
+		} catch (final Exception e) {
+			return new IntFailure(e);
+		}
+	}
+
+	@Override
+	public IntTry flatMap(final ThrowingIntFunction<? extends IntTry> mapper) {
+		Objects.requireNonNull(mapper);
+		try {
+			return mapper.apply(value);
+		} catch (final Exception e) {
+			return new IntFailure(e);
+		}
+	}
+
+	@Override
+	public IntTry flatRecover(
+			final ThrowingFunction<? super Exception, ? extends IntTry> mapper) {
+		Objects.requireNonNull(mapper);
+		return this;
+	}
+
+	@Override
+	public Exception getCause() {
+		return null;
+	}
+
+	@Override
+	public IntTry ifSuccessful(final IntConsumer action) {
+		action.accept(value);
+		return this;
+	}
+
+	@Override
+	public IntTry ifUnsuccessful(final Consumer<? super Exception> action) {
+		Objects.requireNonNull(action);
+		return this;
+	}
+
+	@Override
+	public boolean isSuccessful() {
+		return true;
+	}
+
+	@Override
+	public boolean isUnsuccessful() {
+		return false;
+	}
+
+	@Override
+	public IntTry map(final ThrowingIntUnaryOperator mapper) {
+		Objects.requireNonNull(mapper);
+		try {
+			return new IntSuccess(mapper.applyAsInt(value));
+		} catch (final Exception e) {
+			return new IntFailure(e);
+		}
+	}
+
+	@Override
+	public <V> Try<V> mapToObj(final ThrowingIntFunction<? extends V> mapper) {
+		Objects.requireNonNull(mapper);
+		try {
+			final V result = mapper.apply(value);
+			return result != null
+					? new Success<>(result)
+					: Failure.of(Exceptions.NO_VALUE);
+		} catch (final Exception e) {
+			return new Failure<>(e);
+		}
+	}
+
+	@Override
+	public int orElse(final int value) {
+		return this.value;
+	}
+
+	@Override
+	public int orElseGet(final IntSupplier supplier) {
+		Objects.requireNonNull(supplier);
+		return value;
+	}
+
+	@Override
+	public int orElseThrow() {
+		return value;
+	}
+
+	@Override
+	public <E extends Exception> int orElseThrow(
+			final Function<? super Exception, E> function) {
+		Objects.requireNonNull(function);
+		return value;
+	}
+
+	@Override
+	public IntTry recover(final ThrowingToIntFunction<? super Exception> mapper) {
+		Objects.requireNonNull(mapper);
+		return this;
+	}
+}
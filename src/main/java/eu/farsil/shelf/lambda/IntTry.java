@@ -0,0 +1,253 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.ThrowingFunction;
+import eu.farsil.shelf.lambda.function.ThrowingIntFunction;
+import eu.farsil.shelf.lambda.function.ThrowingIntPredicate;
+import eu.farsil.shelf.lambda.function.ThrowingIntSupplier;
+import eu.farsil.shelf.lambda.function.ThrowingIntUnaryOperator;
+import eu.farsil.shelf.lambda.function.ThrowingToIntFunction;
+import org.apiguardian.api.API;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A primitive specialization of {@link Try} for {@code int} values.
+ * <p>
+ * Instances of {@code IntTry} in a successful state hold the computed value
+ * without boxing it, so that chains of numeric computations do not allocate
+ * a {@link Integer} at every step:
+ * <pre>{@code final int result = IntTry.get(() -> Integer.parseInt(someString))
+ *      .map(Math::abs)
+ *      .orElse(0);}</pre>
+ * The conversion methods {@link #boxed()} and {@link #mapToObj
+ * mapToObj()}, together with {@link Try#mapToInt Try.mapToInt()}, allow
+ * moving between {@code IntTry} and {@code Try}.
+ *
+ * @author Marco Buzzanca
+ * @see Try
+ * @see java.util.OptionalInt
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public interface IntTry {
+	/**
+	 * Attempts to perform a computation that returns an {@code int} value,
+	 * which is represented by the specified supplier. If it throws an
+	 * exception, the result returned will be in a <i>failed</i> state,
+	 * otherwise it will be in a <i>successful</i> state.
+	 *
+	 * @param supplier the computation that returns a value.
+	 * @return an instance of {@link IntTry}, which represents the outcome of
+	 * the computation, in a successful or failed state.
+	 * @throws NullPointerException if the supplier is {@code null}.
+	 */
+	static IntTry get(final ThrowingIntSupplier supplier) {
+		Objects.requireNonNull(supplier);
+		try {
+			return new IntSuccess(supplier.getAsInt());
+		} catch (final Exception e) {
+			return new IntFailure(e);
+		}
+	}
+
+	/**
+	 * Returns a {@link Try} holding the boxed computed value if the
+	 * computation was successful, a failure with the same cause otherwise.
+	 *
+	 * @return the boxed {@code Try}.
+	 */
+	Try<Integer> boxed();
+
+	/**
+	 * Returns a failure if the computed value does not match
+	 * the predicate, or if the predicate throws an exception, otherwise
+	 * returns a success holding the value.
+	 *
+	 * @param predicate the predicate to match the result against.
+	 * @return a failure if the result does not match the predicate or the
+	 * predicate throws, a success otherwise.
+	 * @throws NullPointerException if the predicate is {@code null}.
+	 * @see ThrowingIntPredicate
+	 */
+	IntTry filter(final ThrowingIntPredicate predicate);
+
+	/**
+	 * Applies the given mapping function to the computed value if the
+	 * computation was successful.
+	 * <p>
+	 * If the computation was successful, and the given function throws an
+	 * exception, or if the computation was unsuccessful, it returns a failure.
+	 *
+	 * @param mapper the function to apply.
+	 * @return an instance of {@code IntTry} obtained by applying the given
+	 * function if the computation was successful, a failure otherwise.
+	 * @throws NullPointerException if the function is {@code null}.
+	 * @see ThrowingIntFunction
+	 */
+	IntTry flatMap(final ThrowingIntFunction<? extends IntTry> mapper);
+
+	/**
+	 * Applies the given mapping function to the cause of the failure if the
+	 * computation was unsuccessful.
+	 * <p>
+	 * If the computation was unsuccessful, and the given function throws an
+	 * exception, it returns a failure.
+	 *
+	 * @param mapper the function to apply.
+	 * @return an instance of {@link IntTry} obtained by applying the given
+	 * function if the computation was unsuccessful, a success otherwise.
+	 * @throws NullPointerException if the function is {@code null}.
+	 * @see ThrowingFunction
+	 */
+	IntTry flatRecover(
+			final ThrowingFunction<? super Exception, ? extends IntTry> mapper);
+
+	/**
+	 * Returns the cause of the failure or {@code null} if the
+	 * computation was successful.
+	 *
+	 * @return the cause of the failure, or {@code null} if the computation
+	 * was successful.
+	 * @see #isSuccessful()
+	 */
+	Exception getCause();
+
+	/**
+	 * Performs the given action only if the computation was successful.
+	 *
+	 * @param action the action to perform. The computed value is passed as a
+	 * parameter.
+	 * @return this instance.
+	 * @throws NullPointerException if the action is {@code null}.
+	 * @see IntConsumer
+	 */
+	IntTry ifSuccessful(final IntConsumer action);
+
+	/**
+	 * Performs the given action only if the computation was unsuccessful.
+	 *
+	 * @param action the action to perform. The cause of the failure is passed
+	 * as a parameter.
+	 * @return this instance.
+	 * @throws NullPointerException if the action is {@code null}.
+	 * @see Consumer
+	 */
+	IntTry ifUnsuccessful(final Consumer<? super Exception> action);
+
+	/**
+	 * Returns whether the computation was successful.
+	 *
+	 * @return {@code true} if the computation was successful, {@code false}
+	 * otherwise.
+	 */
+	boolean isSuccessful();
+
+	/**
+	 * Returns whether the computation was unsuccessful.
+	 *
+	 * @return {@code true} if the computation was unsuccessful, {@code false}
+	 * otherwise.
+	 */
+	boolean isUnsuccessful();
+
+	/**
+	 * Applies the given operator to the computed value if the computation
+	 * was successful and wraps the result in a success.
+	 * <p>
+	 * If the computation was successful, and the given operator throws an
+	 * exception, or if the computation was unsuccessful, it returns a failure.
+	 *
+	 * @param mapper the operator to apply.
+	 * @return a success obtained by applying the given operator if
+	 * the computation was successful, a failure otherwise.
+	 * @throws NullPointerException if the operator is {@code null}.
+	 * @see ThrowingIntUnaryOperator
+	 */
+	IntTry map(final ThrowingIntUnaryOperator mapper);
+
+	/**
+	 * Applies the given mapping function to the computed value if the
+	 * computation was successful and wraps the result in a {@link Try}.
+	 * <p>
+	 * If the computation was successful, and the given function throws an
+	 * exception, or if the computation was unsuccessful, it returns a failure.
+	 * If the function returns {@code null}, it returns {@link Try#empty()}.
+	 *
+	 * @param mapper the function to apply.
+	 * @param <V> the type of the returned {@code Try}.
+	 * @return a success obtained by applying the given function if
+	 * the computation was successful, a failure otherwise.
+	 * @throws NullPointerException if the function is {@code null}.
+	 * @see ThrowingIntFunction
+	 */
+	<V> Try<V> mapToObj(final ThrowingIntFunction<? extends V> mapper);
+
+	/**
+	 * Returns the computed value if the computation was successful,
+	 * otherwise returns the specified value.
+	 *
+	 * @param value the value to return if the computation was unsuccessful.
+	 * @return the computed value if the computation was successful,
+	 * the specified value otherwise.
+	 */
+	int orElse(final int value);
+
+	/**
+	 * Returns the computed value if the computation was successful,
+	 * otherwise obtains a value from the given supplier.
+	 *
+	 * @param supplier the supplier of the value to return if the computation
+	 * was unsuccessful.
+	 * @return the computed value if the computation was successful,
+	 * a value obtained from the given supplier otherwise.
+	 * @throws NullPointerException if the supplier is {@code null}.
+	 * @see IntSupplier
+	 */
+	int orElseGet(final IntSupplier supplier);
+
+	/**
+	 * Returns the computed value if the computation was successful,
+	 * otherwise throws an {@link AttemptFailedException} holding the cause
+	 * of the failure.
+	 *
+	 * @return the computed value.
+	 * @throws AttemptFailedException if the computation was unsuccessful.
+	 */
+	int orElseThrow();
+
+	/**
+	 * Returns the computed value if the computation was successful,
+	 * otherwise throws an exception obtained by applying the specified
+	 * function to the cause of the failure.
+	 *
+	 * @param <E> the exception type.
+	 * @param function the function to apply to the cause of the failure.
+	 * @return the computed value.
+	 * @throws NullPointerException if the function is {@code null}.
+	 * @throws E if the computation was unsuccessful.
+	 */
+	<E extends Exception> int orElseThrow(
+			final Function<? super Exception, E> function) throws E;
+
+	/**
+	 * Applies the given mapping function to the cause of the failure if the
+	 * computation was unsuccessful and wraps the result in a success.
+	 * <p>
+	 * If the computation was successful, it returns a success holding the
+	 * original computed value. If computation was unsuccessful, and the given
+	 * function throws an exception, it returns a failure.
+	 *
+	 * @param mapper the function to apply.
+	 * @return a success obtained by applying the given function if
+	 * the computation was unsuccessful, a success if the computation was
+	 * successful, or a failure if the given function throws an exception.
+	 * @throws NullPointerException if the function is {@code null}.
+	 * @see ThrowingToIntFunction
+	 */
+	IntTry recover(final ThrowingToIntFunction<? super Exception> mapper);
+}
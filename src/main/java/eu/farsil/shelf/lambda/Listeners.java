@@ -0,0 +1,188 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.ThrowingSupplier;
+
+/**
+ * Holds the installed {@link TryListener}, and notifies it.
+ * <p>
+ * The listener is read once per notification from a {@code volatile} field,
+ * which is the only cost of notifications when no listener is installed.
+ * <p>
+ * If the system property {@value #JFR_PROPERTY} is {@code true} when this
+ * class is initialized, the listener that emits JDK Flight Recorder events
+ * is installed. That listener is compiled for Java 11, so it is loaded by
+ * reflection: if the JDK does not support it, or it is missing because the
+ * library was compiled with an older JDK, no listener is installed.
+ *
+ * @author Marco Buzzanca
+ */
+final class Listeners {
+	/**
+	 * The name of the system property that installs the listener that emits
+	 * JDK Flight Recorder events.
+	 */
+	static final String JFR_PROPERTY = "eu.farsil.shelf.lambda.jfr";
+
+	/**
+	 * The name of the class of the listener that emits JDK Flight Recorder
+	 * events.
+	 */
+	private static final String JFR_LISTENER =
+			"eu.farsil.shelf.lambda.jfr.JfrListener";
+
+	/**
+	 * The installed listener, or {@code null} if there is none.
+	 */
+	static volatile TryListener listener = Boolean.getBoolean(JFR_PROPERTY)
+			? loadJfrListener()
+			: null;
+
+	/**
+	 * Utility class.
+	 */
+	private Listeners() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Loads the listener that emits JDK Flight Recorder events.
+	 *
+	 * @return the listener, or {@code null} if it cannot be loaded.
+	 */
+	private static TryListener loadJfrListener() {
+		try {
+			return (TryListener) Class.forName(JFR_LISTENER)
+					.getMethod("create")
+					.invoke(null);
+		} catch (final ReflectiveOperationException | LinkageError e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Notifies the installed listener, if any, of a failure.
+	 *
+	 * @param cause the cause of the failure.
+	 */
+	static void failed(final Exception cause) {
+		final TryListener current = listener;
+		if (current != null) {
+			try {
+				current.onFailure(cause);
+			} catch (final RuntimeException e) {
+				// a faulty listener must not alter the outcome
+			}
+		}
+	}
+
+	/**
+	 * Notifies the installed listener, if any, of a recovery.
+	 *
+	 * @param cause the cause of the recovered failure.
+	 */
+	static void recovered(final Exception cause) {
+		final TryListener current = listener;
+		if (current != null) {
+			try {
+				current.onRecovery(cause);
+			} catch (final RuntimeException e) {
+				// a faulty listener must not alter the outcome
+			}
+		}
+	}
+
+	/**
+	 * Performs a computation of {@link Try#get(ThrowingSupplier) Try.get()}
+	 * through the installed listener, if any. The exceptions thrown by the
+	 * listener, rather than by the computation, are ignored: if the listener
+	 * fails before performing the computation, the computation is performed
+	 * anyway.
+	 *
+	 * @param supplier the computation.
+	 * @param <T> the type of the result.
+	 * @return the result of the computation.
+	 * @throws Exception if the computation throws an exception.
+	 */
+	static <T> T intercept(final ThrowingSupplier<? extends T> supplier)
+			throws Exception {
+		final TryListener current = listener;
+		if (current == null) {
+			return supplier.get();
+		}
+		final Interception<T> interception = new Interception<>(supplier);
+		try {
+			current.intercept(interception);
+		} catch (final Exception e) {
+			// a faulty listener must not alter the outcome
+		}
+		return interception.outcome();
+	}
+
+	/**
+	 * A computation passed to {@link TryListener#intercept(ThrowingSupplier)},
+	 * which records its outcome, so that it can be told apart from the
+	 * outcome of the listener.
+	 *
+	 * @param <T> the type of the result.
+	 */
+	private static final class Interception<T> implements ThrowingSupplier<T> {
+		/**
+		 * The computation.
+		 */
+		private final ThrowingSupplier<? extends T> supplier;
+
+		/**
+		 * Whether the computation has been performed.
+		 */
+		private boolean performed;
+
+		/**
+		 * The result of the computation.
+		 */
+		private T value;
+
+		/**
+		 * The exception thrown by the computation, or {@code null} if it has
+		 * not thrown any.
+		 */
+		private Exception failure;
+
+		/**
+		 * Builds an instance that performs the specified computation.
+		 *
+		 * @param supplier the computation.
+		 */
+		Interception(final ThrowingSupplier<? extends T> supplier) {
+			this.supplier = supplier;
+		}
+
+		@Override
+		public T get() throws Exception {
+			performed = true;
+			try {
+				value = supplier.get();
+				return value;
+			} catch (final Exception e) {
+				failure = e;
+				throw e;
+			}
+		}
+
+		/**
+		 * Returns the outcome of the computation, performing it if the
+		 * listener has not.
+		 *
+		 * @return the result of the computation.
+		 * @throws Exception if the computation throws an exception.
+		 */
+		T outcome() throws Exception {
+			if (!performed) {
+				return supplier.get();
+			}
+			if (failure != null) {
+				throw failure;
+			}
+			return value;
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.ThrowingFunction;
+import eu.farsil.shelf.lambda.function.ThrowingLongFunction;
+import eu.farsil.shelf.lambda.function.ThrowingLongPredicate;
+import eu.farsil.shelf.lambda.function.ThrowingLongUnaryOperator;
+import eu.farsil.shelf.lambda.function.ThrowingToLongFunction;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Implementation of {@link LongTry} that represents an unsuccessful attempt.
+ *
+ * @author Marco Buzzanca
+ */
+class LongFailure implements LongTry {
+	/**
+	 * The cause of the failure.
+	 */
+	private final Exception cause;
+
+	/**
+	 * Builds a {@link LongFailure} holding the cause of the failure.
+	 *
+	 * @param cause the cause of the failure.
+	 */
+	LongFailure(final Exception cause) {
+		this.cause = Objects.requireNonNull(cause);
+	}
+
+	@Override
+	public Try<Long> boxed() {
+		return new Failure<>(cause);
+	}
+
+	@Override
+	public LongTry filter(final ThrowingLongPredicate predicate) {
+		Objects.requireNonNull(predicate);
+		return this;
+	}
+
+	@Override
+	public LongTry flatMap(final ThrowingLongFunction<? extends LongTry> mapper) {
+		Objects.requireNonNull(mapper);
+		return this;
+	}
+
+	@Override
+	public LongTry flatRecover(
+			final ThrowingFunction<? super Exception, ? extends LongTry> mapper) {
+		Objects.requireNonNull(mapper);
+		try {
+			return mapper.apply(cause);
+		} catch (final Exception e) {
+			return new LongFailure(e);
+		}
+	}
+
+	@Override
+	public Exception getCause() {
+		return cause;
+	}
+
+	@Override
+	public LongTry ifSuccessful(final LongConsumer action) {
+		Objects.requireNonNull(action);
+		return this;
+	}
+
+	@Override
+	public LongTry ifUnsuccessful(final Consumer<? super Exception> action) {
+		action.accept(cause);
+		return this;
+	}
+
+	@Override
+	public boolean isSuccessful() {
+		return false;
+	}
+
+	@Override
+	public boolean isUnsuccessful() {
+		return true;
+	}
+
+	@Override
+	public LongTry map(final ThrowingLongUnaryOperator mapper) {
+		Objects.requireNonNull(mapper);
+		return this;
+	}
+
+	@Override
+	public <V> Try<V> mapToObj(final ThrowingLongFunction<? extends V> mapper) {
+		Objects.requireNonNull(mapper);
+		return new Failure<>(cause);
+	}
+
+	@Override
+	public long orElse(final long value) {
+		return value;
+	}
+
+	@Override
+	public long orElseGet(final LongSupplier supplier) {
+		return supplier.getAsLong();
+	}
+
+	@Override
+	public long orElseThrow() {
+		throw Exceptions.attemptFailed(cause);
+	}
+
+	@Override
+	public <E extends Exception> long orElseThrow(
+			final Function<? super Exception, E> function) throws E {
+		throw function.apply(cause);
+	}
+
+	@Override
+	public LongTry recover(final ThrowingToLongFunction<? super Exception> mapper) {
+		Objects.requireNonNull(mapper);
+		try {
+			return new LongSuccess(mapper.applyAsLong(cause));
+		} catch (final Exception e) {
+			return new LongFailure(e);
+		}
+	}
+}
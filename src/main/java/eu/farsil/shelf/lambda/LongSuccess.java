@@ -0,0 +1,147 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.ThrowingFunction;
+import eu.farsil.shelf.lambda.function.ThrowingLongFunction;
+import eu.farsil.shelf.lambda.function.ThrowingLongPredicate;
+import eu.farsil.shelf.lambda.function.ThrowingLongUnaryOperator;
+import eu.farsil.shelf.lambda.function.ThrowingToLongFunction;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Implementation of {@link LongTry} that represents a successful attempt.
+ *
+ * @author Marco Buzzanca
+ */
+class LongSuccess implements LongTry {
+	/**
+	 * The result value.
+	 */
+	private final long value;
+
+	/**
+	 * Builds a {@link LongSuccess} holding the specified value.
+	 *
+	 * @param value the result value.
+	 */
+	LongSuccess(final long value) {
+		this.value = value;
+	}
+
+	@Override
+	public Try<Long> boxed() {
+		return new Success<>(value);
+	}
+
+	@Override
+	public LongTry filter(final ThrowingLongPredicate predicate) {
+		Objects.requireNonNull(predicate);
+		try {
+			return predicate.test(value)
+					? this
+					: new LongFailure(Exceptions.predicateFailed(value));
+		} catch (final Exception e) {
+			return new LongFailure(e);
+		}
+	}
+
+	@Override
+	public LongTry flatMap(final ThrowingLongFunction<? extends LongTry> mapper) {
+		Objects.requireNonNull(mapper);
+		try {
+			return mapper.apply(value);
+		} catch (final Exception e) {
+			return new LongFailure(e);
+		}
+	}
+
+	@Override
+	public LongTry flatRecover(
+			final ThrowingFunction<? super Exception, ? extends LongTry> mapper) {
+		Objects.requireNonNull(mapper);
+		return this;
+	}
+
+	@Override
+	public Exception getCause() {
+		return null;
+	}
+
+	@Override
+	public LongTry ifSuccessful(final LongConsumer action) {
+		action.accept(value);
+		return this;
+	}
+
+	@Override
+	public LongTry ifUnsuccessful(final Consumer<? super Exception> action) {
+		Objects.requireNonNull(action);
+		return this;
+	}
+
+	@Override
+	public boolean isSuccessful() {
+		return true;
+	}
+
+	@Override
+	public boolean isUnsuccessful() {
+		return false;
+	}
+
+	@Override
+	public LongTry map(final ThrowingLongUnaryOperator mapper) {
+		Objects.requireNonNull(mapper);
+		try {
+			return new LongSuccess(mapper.applyAsLong(value));
+		} catch (final Exception e) {
+			return new LongFailure(e);
+		}
+	}
+
+	@Override
+	public <V> Try<V> mapToObj(final ThrowingLongFunction<? extends V> mapper) {
+		Objects.requireNonNull(mapper);
+		try {
+			final V result = mapper.apply(value);
+			return result != null
+					? new Success<>(result)
+					: Failure.of(Exceptions.NO_VALUE);
+		} catch (final Exception e) {
+			return new Failure<>(e);
+		}
+	}
+
+	@Override
+	public long orElse(final long value) {
+		return this.value;
+	}
+
+	@Override
+	public long orElseGet(final LongSupplier supplier) {
+		Objects.requireNonNull(supplier);
+		return value;
+	}
+
+	@Override
+	public long orElseThrow() {
+		return value;
+	}
+
+	@Override
+	public <E extends Exception> long orElseThrow(
+			final Function<? super Exception, E> function) {
+		Objects.requireNonNull(function);
+		return value;
+	}
+
+	@Override
+	public LongTry recover(final ThrowingToLongFunction<? super Exception> mapper) {
+		Objects.requireNonNull(mapper);
+		return this;
+	}
+}
@@ -0,0 +1,347 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.ThrowingFunction;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Implementation of {@link MemoizedFunction} backed by a segmented LRU cache.
+ * <p>
+ * The keys are spread over a number of segments, each an access-ordered
+ * {@link LinkedHashMap} guarded by its own lock, which evicts its least
+ * recently used entry when it is full. The locks are only held to look up
+ * and insert entries: the computations run outside of them, so a slow
+ * computation only delays the callers that need the same key. Each entry
+ * holds a future completed with the outcome, which concurrent callers for
+ * the same key wait for, so that the key is computed once.
+ * <p>
+ * Small caches have a single segment, so their eviction order is exactly
+ * LRU; larger caches are split in up to {@value #MAX_SEGMENTS} segments,
+ * where the order is only LRU within each segment.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ * @author Marco Buzzanca
+ * @see Memoize
+ */
+final class MemoCache<K, V> implements MemoizedFunction<K, V> {
+	/**
+	 * The maximum number of segments.
+	 */
+	static final int MAX_SEGMENTS = 16;
+
+	/**
+	 * The minimum number of entries of a segment, below which the cache is
+	 * not split further.
+	 */
+	private static final int MIN_SEGMENT_SIZE = 64;
+
+	/**
+	 * The time to live of an outcome that never expires.
+	 */
+	static final long FOREVER = Long.MAX_VALUE;
+
+	/**
+	 * The function whose outcomes are memoized.
+	 */
+	private final ThrowingFunction<? super K, ? extends V> function;
+
+	/**
+	 * The time to live of the successes, in nanoseconds.
+	 */
+	private final long successTtl;
+
+	/**
+	 * The time to live of the failures, in nanoseconds, 0 if they are not
+	 * memoized.
+	 */
+	private final long failureTtl;
+
+	/**
+	 * The source of time, in nanoseconds.
+	 */
+	private final LongSupplier ticker;
+
+	/**
+	 * The segments.
+	 */
+	private final Segment<K, V>[] segments;
+
+	/**
+	 * The number of lookups that found a memoized outcome, or one being
+	 * computed.
+	 */
+	private final LongAdder hits = new LongAdder();
+
+	/**
+	 * The number of lookups that started a computation.
+	 */
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * The number of computations that failed.
+	 */
+	private final LongAdder failures = new LongAdder();
+
+	/**
+	 * The total time spent computing, in nanoseconds.
+	 */
+	private final LongAdder loadTime = new LongAdder();
+
+	/**
+	 * The number of entries evicted because a segment was full.
+	 */
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Builds a cache.
+	 *
+	 * @param function the function whose outcomes are memoized.
+	 * @param maximumSize the maximum number of entries.
+	 * @param successTtl the time to live of the successes.
+	 * @param failureTtl the time to live of the failures.
+	 * @param ticker the source of time.
+	 */
+	@SuppressWarnings("unchecked")
+	MemoCache(final ThrowingFunction<? super K, ? extends V> function,
+			final int maximumSize, final long successTtl,
+			final long failureTtl, final LongSupplier ticker) {
+		this.function = function;
+		this.successTtl = successTtl;
+		this.failureTtl = failureTtl;
+		this.ticker = ticker;
+		final int count = Math.min(MAX_SEGMENTS, Integer.highestOneBit(
+				Math.max(1, maximumSize / MIN_SEGMENT_SIZE)));
+		this.segments = new Segment[count];
+		for (int i = 0; i < count; i++) {
+			// the first segments take the remainder
+			segments[i] = new Segment<>(maximumSize / count +
+					(i < maximumSize % count ? 1 : 0), evictions);
+		}
+	}
+
+	/**
+	 * Returns the outcome of an entry, waiting for it if necessary.
+	 *
+	 * @param entry the entry.
+	 * @param <V> the type of the value.
+	 * @return the outcome.
+	 */
+	private static <V> Try<V> await(final Entry<V> entry) {
+		if (entry.loader == Thread.currentThread()) {
+			return new Failure<>(new IllegalStateException("recursive load"));
+		}
+		try {
+			return entry.outcome.join();
+		} catch (final CompletionException e) {
+			// only errors complete the outcome exceptionally
+			throw (Error) e.getCause();
+		}
+	}
+
+	@Override
+	public Try<V> apply(final K key) {
+		final Segment<K, V> segment = segmentFor(key);
+		final long now = ticker.getAsLong();
+		final Entry<V> existing;
+		final Entry<V> created;
+		synchronized (segment) {
+			final Entry<V> entry = segment.get(key);
+			if (entry == null || entry.isExpired(now)) {
+				existing = null;
+				created = new Entry<>();
+				segment.put(key, created);
+			} else {
+				existing = entry;
+				created = null;
+			}
+		}
+		// waits and computes outside of the lock
+		if (existing != null) {
+			hits.increment();
+			return await(existing);
+		}
+		misses.increment();
+		return load(segment, key, created);
+	}
+
+	@Override
+	public Memoize.Stats getStats() {
+		return new Memoize.Stats(hits.sum(), misses.sum(), failures.sum(),
+				loadTime.sum(), evictions.sum());
+	}
+
+	@Override
+	public void invalidate(final K key) {
+		final Segment<K, V> segment = segmentFor(key);
+		synchronized (segment) {
+			segment.remove(key);
+		}
+	}
+
+	@Override
+	public void invalidateAll() {
+		for (final Segment<K, V> segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	/**
+	 * Computes the outcome of an entry, which has just been inserted by the
+	 * current thread.
+	 *
+	 * @param segment the segment of the entry.
+	 * @param key the key.
+	 * @param entry the entry.
+	 * @return the outcome.
+	 */
+	private Try<V> load(final Segment<K, V> segment, final K key,
+			final Entry<V> entry) {
+		final long start = ticker.getAsLong();
+		final Try<V> outcome;
+		try {
+			outcome = Try.get(() -> function.apply(key));
+		} catch (final Throwable t) {
+			remove(segment, key, entry);
+			entry.outcome.completeExceptionally(t);
+			throw t;
+		} finally {
+			entry.loader = null;
+		}
+		final long end = ticker.getAsLong();
+		loadTime.add(end - start);
+		entry.loaded = end;
+		if (outcome.isSuccessful()) {
+			entry.ttl = successTtl;
+		} else {
+			failures.increment();
+			entry.ttl = failureTtl;
+			if (failureTtl == 0L) {
+				// the waiting callers still share the failure
+				remove(segment, key, entry);
+			}
+		}
+		entry.outcome.complete(outcome);
+		return outcome;
+	}
+
+	/**
+	 * Removes an entry, unless it has already been replaced.
+	 *
+	 * @param segment the segment of the entry.
+	 * @param key the key.
+	 * @param entry the entry.
+	 */
+	private void remove(final Segment<K, V> segment, final K key,
+			final Entry<V> entry) {
+		synchronized (segment) {
+			segment.remove(key, entry);
+		}
+	}
+
+	/**
+	 * Returns the segment of a key.
+	 *
+	 * @param key the key.
+	 * @return the segment.
+	 */
+	private Segment<K, V> segmentFor(final K key) {
+		final int h = Objects.hashCode(key);
+		return segments[(h ^ (h >>> 16)) & (segments.length - 1)];
+	}
+
+	/**
+	 * An entry of the cache.
+	 *
+	 * @param <V> the type of the value.
+	 */
+	private static final class Entry<V> {
+		/**
+		 * The outcome, completed by the loader.
+		 */
+		final CompletableFuture<Try<V>> outcome = new CompletableFuture<>();
+
+		/**
+		 * The thread computing the outcome, or {@code null} once computed.
+		 */
+		volatile Thread loader = Thread.currentThread();
+
+		/**
+		 * The time the outcome was computed. Written before the outcome is
+		 * completed, and read under the lock of the segment after it is.
+		 */
+		volatile long loaded;
+
+		/**
+		 * The time to live of the outcome, {@link #FOREVER} while it is
+		 * being computed.
+		 */
+		volatile long ttl = FOREVER;
+
+		/**
+		 * Returns whether the outcome has expired.
+		 *
+		 * @param now the current time.
+		 * @return {@code true} if the outcome has expired, {@code false}
+		 * otherwise.
+		 */
+		boolean isExpired(final long now) {
+			final long t = ttl;
+			return t != FOREVER && now - loaded >= t;
+		}
+	}
+
+	/**
+	 * A segment of the cache, guarded by its own monitor.
+	 *
+	 * @param <K> the type of the keys.
+	 * @param <V> the type of the values.
+	 */
+	private static final class Segment<K, V>
+			extends LinkedHashMap<K, Entry<V>> {
+		/**
+		 * Required by {@link java.io.Serializable}, never serialized.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The maximum number of entries.
+		 */
+		private final int capacity;
+
+		/**
+		 * The eviction counter of the cache.
+		 */
+		private final transient LongAdder evictions;
+
+		/**
+		 * Builds an empty segment.
+		 *
+		 * @param capacity the maximum number of entries.
+		 * @param evictions the eviction counter of the cache.
+		 */
+		Segment(final int capacity, final LongAdder evictions) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+			this.evictions = evictions;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(
+				final Map.Entry<K, Entry<V>> eldest) {
+			if (size() <= capacity) {
+				return false;
+			}
+			evictions.increment();
+			return true;
+		}
+	}
+}
@@ -0,0 +1,381 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.ThrowingFunction;
+import eu.farsil.shelf.lambda.function.ThrowingSupplier;
+import org.apiguardian.api.API;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Memoizes the outcomes of throwing functions and suppliers, as instances of
+ * {@link Try}, in bounded concurrent caches.
+ * <p>
+ * The cache evicts the least recently used outcomes when it is full, and
+ * can expire them after a time to live. Failures are not memoized by
+ * default, so that a failed computation is attempted again by the next
+ * caller; they can be memoized with their own, usually shorter, time to
+ * live, to avoid hammering a dependency that keeps failing. In any case,
+ * concurrent callers for the same key share a single computation:
+ * <pre>{@code final MemoizedFunction<String, User> users = Memoize.builder()
+ *      .maximumSize(10_000)
+ *      .expireAfterWrite(Duration.ofMinutes(5))
+ *      .cacheFailures(Duration.ofSeconds(10))
+ *      .function(repository::findUser);}</pre>
+ *
+ * @author Marco Buzzanca
+ * @see MemoizedFunction
+ * @see MemoizedSupplier
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public final class Memoize {
+	/**
+	 * The maximum size of the caches built with the default configuration.
+	 */
+	private static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+	/**
+	 * The only key of the memoized suppliers.
+	 */
+	private static final Object KEY = new Object();
+
+	/**
+	 * Utility class.
+	 */
+	private Memoize() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Returns a new builder, whose initial configuration memoizes up to
+	 * {@value #DEFAULT_MAXIMUM_SIZE} successes, which never expire, and no
+	 * failures.
+	 *
+	 * @return the builder.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Memoizes the specified function with the default configuration.
+	 *
+	 * @param function the function.
+	 * @param <K> the type of the keys.
+	 * @param <V> the type of the values.
+	 * @return the memoized function.
+	 * @throws NullPointerException if the function is {@code null}.
+	 * @see #builder()
+	 */
+	public static <K, V> MemoizedFunction<K, V> function(
+			final ThrowingFunction<? super K, ? extends V> function) {
+		return builder().function(function);
+	}
+
+	/**
+	 * Memoizes the specified supplier with the default configuration.
+	 *
+	 * @param supplier the supplier.
+	 * @param <V> the type of the value.
+	 * @return the memoized supplier.
+	 * @throws NullPointerException if the supplier is {@code null}.
+	 * @see #builder()
+	 */
+	public static <V> MemoizedSupplier<V> supplier(
+			final ThrowingSupplier<? extends V> supplier) {
+		return builder().supplier(supplier);
+	}
+
+	/**
+	 * Converts a positive duration to nanoseconds, saturating at {@link
+	 * MemoCache#FOREVER}.
+	 *
+	 * @param duration the duration.
+	 * @return the duration in nanoseconds.
+	 * @throws NullPointerException if the duration is {@code null}.
+	 * @throws IllegalArgumentException if the duration is not positive.
+	 */
+	private static long ttl(final Duration duration) {
+		if (Objects.requireNonNull(duration).isNegative() ||
+				duration.isZero()) {
+			throw new IllegalArgumentException("ttl: " + duration);
+		}
+		try {
+			return Math.min(duration.toNanos(), MemoCache.FOREVER);
+		} catch (final ArithmeticException e) {
+			return MemoCache.FOREVER;
+		}
+	}
+
+	/**
+	 * Builds memoized functions and suppliers.
+	 *
+	 * @author Marco Buzzanca
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	public static final class Builder {
+		/**
+		 * The maximum number of entries.
+		 */
+		private int maximumSize = DEFAULT_MAXIMUM_SIZE;
+
+		/**
+		 * The time to live of the successes, in nanoseconds.
+		 */
+		private long successTtl = MemoCache.FOREVER;
+
+		/**
+		 * The time to live of the failures, in nanoseconds, 0 if they are
+		 * not memoized.
+		 */
+		private long failureTtl;
+
+		/**
+		 * The source of time, in nanoseconds.
+		 */
+		private LongSupplier ticker = System::nanoTime;
+
+		/**
+		 * Builds a builder with the default configuration.
+		 */
+		private Builder() {
+		}
+
+		/**
+		 * Memoizes the failures, which expire after the specified time.
+		 *
+		 * @param ttl the time to live of the failures.
+		 * @return this builder.
+		 * @throws NullPointerException if the time is {@code null}.
+		 * @throws IllegalArgumentException if the time is not positive.
+		 */
+		public Builder cacheFailures(final Duration ttl) {
+			this.failureTtl = ttl(ttl);
+			return this;
+		}
+
+		/**
+		 * Expires the successes after the specified time.
+		 *
+		 * @param ttl the time to live of the successes.
+		 * @return this builder.
+		 * @throws NullPointerException if the time is {@code null}.
+		 * @throws IllegalArgumentException if the time is not positive.
+		 */
+		public Builder expireAfterWrite(final Duration ttl) {
+			this.successTtl = ttl(ttl);
+			return this;
+		}
+
+		/**
+		 * Memoizes the specified function with the current configuration of
+		 * this builder.
+		 *
+		 * @param function the function.
+		 * @param <K> the type of the keys.
+		 * @param <V> the type of the values.
+		 * @return the memoized function.
+		 * @throws NullPointerException if the function is {@code null}.
+		 */
+		public <K, V> MemoizedFunction<K, V> function(
+				final ThrowingFunction<? super K, ? extends V> function) {
+			Objects.requireNonNull(function);
+			return new MemoCache<>(function, maximumSize, successTtl,
+					failureTtl, ticker);
+		}
+
+		/**
+		 * Sets the maximum number of memoized outcomes. When the cache is
+		 * full, the least recently used outcomes are evicted.
+		 *
+		 * @param maximumSize the maximum number of outcomes.
+		 * @return this builder.
+		 * @throws IllegalArgumentException if the size is not positive.
+		 */
+		public Builder maximumSize(final int maximumSize) {
+			if (maximumSize <= 0) {
+				throw new IllegalArgumentException("maximumSize: " +
+						maximumSize);
+			}
+			this.maximumSize = maximumSize;
+			return this;
+		}
+
+		/**
+		 * Memoizes the specified supplier with the current configuration of
+		 * this builder. The maximum size is irrelevant.
+		 *
+		 * @param supplier the supplier.
+		 * @param <V> the type of the value.
+		 * @return the memoized supplier.
+		 * @throws NullPointerException if the supplier is {@code null}.
+		 */
+		public <V> MemoizedSupplier<V> supplier(
+				final ThrowingSupplier<? extends V> supplier) {
+			Objects.requireNonNull(supplier);
+			final MemoizedFunction<Object, V> cache = new MemoCache<>(
+					key -> supplier.get(), 1, successTtl, failureTtl,
+					ticker);
+			return new MemoizedSupplier<V>() {
+				@Override
+				public Try<V> get() {
+					return cache.apply(KEY);
+				}
+
+				@Override
+				public Stats getStats() {
+					return cache.getStats();
+				}
+
+				@Override
+				public void invalidate() {
+					cache.invalidate(KEY);
+				}
+			};
+		}
+
+		/**
+		 * Sets the source of time, which is mainly useful for testing.
+		 *
+		 * @param ticker the source of time, in nanoseconds.
+		 * @return this builder.
+		 * @throws NullPointerException if the ticker is {@code null}.
+		 * @see System#nanoTime()
+		 */
+		public Builder ticker(final LongSupplier ticker) {
+			this.ticker = Objects.requireNonNull(ticker);
+			return this;
+		}
+	}
+
+	/**
+	 * An immutable snapshot of the statistics of a memoized function or
+	 * supplier.
+	 *
+	 * @author Marco Buzzanca
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	public static final class Stats {
+		/**
+		 * The number of hits.
+		 */
+		private final long hitCount;
+
+		/**
+		 * The number of misses.
+		 */
+		private final long missCount;
+
+		/**
+		 * The number of failed computations.
+		 */
+		private final long loadFailureCount;
+
+		/**
+		 * The total computation time, in nanoseconds.
+		 */
+		private final long totalLoadTime;
+
+		/**
+		 * The number of evictions.
+		 */
+		private final long evictionCount;
+
+		/**
+		 * Builds a snapshot.
+		 *
+		 * @param hitCount the number of hits.
+		 * @param missCount the number of misses.
+		 * @param loadFailureCount the number of failed computations.
+		 * @param totalLoadTime the total computation time.
+		 * @param evictionCount the number of evictions.
+		 */
+		Stats(final long hitCount, final long missCount,
+				final long loadFailureCount, final long totalLoadTime,
+				final long evictionCount) {
+			this.hitCount = hitCount;
+			this.missCount = missCount;
+			this.loadFailureCount = loadFailureCount;
+			this.totalLoadTime = totalLoadTime;
+			this.evictionCount = evictionCount;
+		}
+
+		/**
+		 * Returns the average time of a computation.
+		 *
+		 * @return the average computation time, in nanoseconds, or 0 if no
+		 * computation was performed.
+		 */
+		public double getAverageLoadTime() {
+			return missCount == 0 ? 0.0 : (double) totalLoadTime / missCount;
+		}
+
+		/**
+		 * Returns the number of outcomes evicted because the cache was full.
+		 * Expired outcomes are not counted.
+		 *
+		 * @return the number of evictions.
+		 */
+		public long getEvictionCount() {
+			return evictionCount;
+		}
+
+		/**
+		 * Returns the number of calls that found a memoized outcome, or an
+		 * outcome being computed by another caller.
+		 *
+		 * @return the number of hits.
+		 */
+		public long getHitCount() {
+			return hitCount;
+		}
+
+		/**
+		 * Returns the ratio of hits to calls.
+		 *
+		 * @return the hit rate, or 1 if there were no calls.
+		 */
+		public double getHitRate() {
+			final long calls = hitCount + missCount;
+			return calls == 0 ? 1.0 : (double) hitCount / calls;
+		}
+
+		/**
+		 * Returns the number of computations that failed.
+		 *
+		 * @return the number of failed computations.
+		 */
+		public long getLoadFailureCount() {
+			return loadFailureCount;
+		}
+
+		/**
+		 * Returns the number of calls that started a computation.
+		 *
+		 * @return the number of misses.
+		 */
+		public long getMissCount() {
+			return missCount;
+		}
+
+		/**
+		 * Returns the total time spent computing outcomes.
+		 *
+		 * @return the total computation time, in nanoseconds.
+		 */
+		public long getTotalLoadTime() {
+			return totalLoadTime;
+		}
+
+		@Override
+		public String toString() {
+			return "Stats{hits=" + hitCount + ", misses=" + missCount +
+					", loadFailures=" + loadFailureCount +
+					", totalLoadTime=" + totalLoadTime +
+					", evictions=" + evictionCount + "}";
+		}
+	}
+}
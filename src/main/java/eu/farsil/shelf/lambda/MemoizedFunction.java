@@ -0,0 +1,52 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.ThrowingFunction;
+import org.apiguardian.api.API;
+
+import java.util.function.Function;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A function that memoizes the outcomes of a {@link ThrowingFunction} in a
+ * bounded cache.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ * @author Marco Buzzanca
+ * @see Memoize
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public interface MemoizedFunction<K, V> extends Function<K, Try<V>> {
+	/**
+	 * Returns the outcome memoized for the specified key, computing it if it
+	 * is not memoized or has expired. Concurrent callers for the same key
+	 * share a single computation.
+	 *
+	 * @param key the key.
+	 * @return the outcome of the computation for the key.
+	 */
+	@Override
+	Try<V> apply(K key);
+
+	/**
+	 * Returns a snapshot of the statistics of this function.
+	 *
+	 * @return the statistics.
+	 */
+	Memoize.Stats getStats();
+
+	/**
+	 * Discards the outcome memoized for the specified key, if any. A
+	 * computation in progress is not affected, but its outcome will not be
+	 * memoized.
+	 *
+	 * @param key the key.
+	 */
+	void invalidate(K key);
+
+	/**
+	 * Discards all the memoized outcomes.
+	 */
+	void invalidateAll();
+}
@@ -0,0 +1,39 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.ThrowingSupplier;
+import org.apiguardian.api.API;
+
+import java.util.function.Supplier;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A supplier that memoizes the outcome of a {@link ThrowingSupplier}.
+ *
+ * @param <V> the type of the value.
+ * @author Marco Buzzanca
+ * @see Memoize
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public interface MemoizedSupplier<V> extends Supplier<Try<V>> {
+	/**
+	 * Returns the memoized outcome, computing it if it is not memoized or
+	 * has expired. Concurrent callers share a single computation.
+	 *
+	 * @return the outcome of the computation.
+	 */
+	@Override
+	Try<V> get();
+
+	/**
+	 * Returns a snapshot of the statistics of this supplier.
+	 *
+	 * @return the statistics.
+	 */
+	Memoize.Stats getStats();
+
+	/**
+	 * Discards the memoized outcome, if any.
+	 */
+	void invalidate();
+}
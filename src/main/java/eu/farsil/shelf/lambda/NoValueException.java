@@ -0,0 +1,48 @@
+package eu.farsil.shelf.lambda;
+
+import org.apiguardian.api.API;
+
+import java.io.Serializable;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Exception that is the cause of the failure returned by {@link
+ * Try#empty()}, which the methods of {@link Try} return when a computation
+ * returns {@code null}.
+ * <p>
+ * There is only one instance of this exception, which has no stack trace and
+ * no suppressed exceptions, so it can be compared by identity with the cause
+ * of {@link Try#empty()}. It is not a {@link NullPointerException}, whose
+ * constructors cannot disable suppression: the shared instance would
+ * otherwise accumulate the exceptions suppressed by any code that throws it.
+ *
+ * @author Marco Buzzanca
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public final class NoValueException extends RuntimeException {
+	/**
+	 * Required by {@link Serializable}.
+	 */
+	private static final long serialVersionUID = 5526108716357400211L;
+
+	/**
+	 * Builds the instance.
+	 *
+	 * @see Exceptions#NO_VALUE
+	 */
+	// end-users are not supposed to create instances of this exception
+	NoValueException() {
+		super("no value", null, false, false);
+	}
+
+	/**
+	 * Replaces a deserialized instance with the shared one, so that it stays
+	 * unique.
+	 *
+	 * @return the shared instance.
+	 */
+	private Object readResolve() {
+		return Exceptions.NO_VALUE;
+	}
+}
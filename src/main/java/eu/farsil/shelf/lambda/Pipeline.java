@@ -0,0 +1,191 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.ThrowingFunction;
+import eu.farsil.shelf.lambda.function.ThrowingPredicate;
+import org.apiguardian.api.API;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A chain of operations on a value, which are composed up front and applied
+ * to each input in a single step.
+ * <p>
+ * Chaining {@link Try#map map()} and {@link Try#filter filter()} on a
+ * {@code Try} allocates an intermediate attempt per step, and enters a new
+ * {@code try} block per step. A pipeline describes the same chain once, and
+ * then applies it to any number of inputs, running all the steps in a single
+ * {@code try} block and allocating only the resulting {@code Try}:
+ * <pre>{@code final Pipeline<String, Integer> parse = Try.<String>pipeline()
+ *      .map(String::trim)
+ *      .map(Integer::parseInt)
+ *      .filter(x -> x > 0);
+ *  final Try<Integer> result = parse.apply(someString);}</pre>
+ * The outcome of {@link #apply(Object) apply()} is the same as the one of
+ * the equivalent chain of methods on {@code Try.success(input)}: a step that
+ * throws an exception or returns {@code null} makes the outcome a failure,
+ * and the following steps are skipped.
+ * <p>
+ * Note that when a short chain is compiled as a whole, the JIT compiler can
+ * often eliminate its intermediate attempts on its own, and the chain is
+ * faster than the pipeline, whose steps are invoked through the composed
+ * function. The pipeline pays off where the chain allocates, for instance
+ * when the chain is too long to be inlined, and where the same chain is
+ * applied to many inputs and should be described only once.
+ * <p>
+ * Instances of this class are immutable: the methods that add a step return
+ * a new pipeline, and the original can still be used. A pipeline is
+ * thread-safe as long as its functions are.
+ *
+ * @param <T> the type of the input.
+ * @param <R> the type of the result.
+ * @author Marco Buzzanca
+ * @see Try#pipeline()
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public final class Pipeline<T, R> implements Function<T, Try<R>> {
+	/**
+	 * The empty pipeline.
+	 */
+	private static final Pipeline<?, ?> IDENTITY = new Pipeline<>(null);
+
+	/**
+	 * The composition of the steps, or {@code null} if there are none.
+	 */
+	private final ThrowingFunction<? super T, ? extends R> function;
+
+	/**
+	 * Builds a pipeline that applies the specified function.
+	 *
+	 * @param function the composition of the steps.
+	 */
+	private Pipeline(final ThrowingFunction<? super T, ? extends R> function) {
+		this.function = function;
+	}
+
+	/**
+	 * Returns the empty pipeline, which returns its input unchanged.
+	 *
+	 * @param <T> the type of the input.
+	 * @return the empty pipeline.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> Pipeline<T, T> identity() {
+		return (Pipeline<T, T>) IDENTITY;
+	}
+
+	/**
+	 * Applies the steps of this pipeline to the specified input.
+	 *
+	 * @param input the input.
+	 * @return an instance of {@link Try} in a <i>successful</i> state holding
+	 * the result of the last step, or in a <i>failed</i> state if a step
+	 * throws an exception, returns {@code null} or does not match its
+	 * predicate.
+	 * @throws NullPointerException if the input is {@code null}.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public Try<R> apply(final T input) {
+		Objects.requireNonNull(input);
+		if (function == null) {
+			return new Success<>((R) input);
+		}
+		try {
+			return new Success<>(function.apply(input));
+		} catch (final Exception e) {
+			return Failure.of(e);
+		}
+	}
+
+	/**
+	 * Returns a pipeline that adds a step to this one, which fails if the
+	 * value does not match the specified predicate.
+	 *
+	 * @param predicate the predicate to match.
+	 * @return the new pipeline.
+	 * @throws NullPointerException if the predicate is {@code null}.
+	 * @see Try#filter(ThrowingPredicate)
+	 */
+	public Pipeline<T, R> filter(final ThrowingPredicate<? super R> predicate) {
+		Objects.requireNonNull(predicate);
+		return then(value -> {
+			if (!predicate.test(value)) {
+				throw Exceptions.predicateFailed(value);
+			}
+			return value;
+		});
+	}
+
+	/**
+	 * Returns a pipeline that adds a step to this one, which replaces the
+	 * value with the result of the attempt returned by the specified
+	 * function.
+	 *
+	 * @param mapper the function to apply.
+	 * @param <V> the type of the new result.
+	 * @return the new pipeline.
+	 * @throws NullPointerException if the function is {@code null}.
+	 * @see Try#flatMap(ThrowingFunction)
+	 */
+	public <V> Pipeline<T, V> flatMap(
+			final ThrowingFunction<? super R, ? extends Try<? extends V>> mapper) {
+		Objects.requireNonNull(mapper);
+		return then(value -> mapper.apply(value).orElseThrow(e -> e));
+	}
+
+	/**
+	 * Returns a pipeline that adds a step to this one, which replaces the
+	 * value with the result of the specified function.
+	 *
+	 * @param mapper the function to apply.
+	 * @param <V> the type of the new result.
+	 * @return the new pipeline.
+	 * @throws NullPointerException if the function is {@code null}.
+	 * @see Try#map(ThrowingFunction)
+	 */
+	public <V> Pipeline<T, V> map(
+			final ThrowingFunction<? super R, ? extends V> mapper) {
+		Objects.requireNonNull(mapper);
+		return then(mapper);
+	}
+
+	/**
+	 * Returns a pipeline that applies the specified step after the ones of
+	 * this pipeline. The step is composed with the previous ones, and its
+	 * result is checked for {@code null} so that the next step never
+	 * receives it.
+	 *
+	 * @param step the step.
+	 * @param <V> the type of the new result.
+	 * @return the new pipeline.
+	 */
+	@SuppressWarnings("unchecked")
+	private <V> Pipeline<T, V> then(
+			final ThrowingFunction<? super R, ? extends V> step) {
+		final ThrowingFunction<? super T, ? extends R> previous = function;
+		if (previous == null) {
+			return new Pipeline<>(input -> nonNull(step.apply((R) input)));
+		}
+		return new Pipeline<>(input ->
+				nonNull(step.apply(previous.apply(input))));
+	}
+
+	/**
+	 * Checks that the result of a step is not {@code null}.
+	 *
+	 * @param value the result of the step.
+	 * @param <V> the type of the result.
+	 * @return the result.
+	 * @throws RuntimeException if the result is {@code null}, which is the
+	 * shared cause of the failures due to a missing value.
+	 */
+	private static <V> V nonNull(final V value) {
+		if (value == null) {
+			throw Exceptions.NO_VALUE;
+		}
+		return value;
+	}
+}
@@ -1,13 +1,16 @@
 package eu.farsil.shelf.lambda;
 
-import eu.farsil.shelf.lambda.function.PredicateFailedException;
 import eu.farsil.shelf.lambda.function.ThrowingFunction;
 import eu.farsil.shelf.lambda.function.ThrowingPredicate;
+import eu.farsil.shelf.lambda.function.ThrowingToDoubleFunction;
+import eu.farsil.shelf.lambda.function.ThrowingToIntFunction;
+import eu.farsil.shelf.lambda.function.ThrowingToLongFunction;
 
 import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Implementation of {@link Try} that represents a successful attempt.
@@ -16,6 +19,11 @@ import java.util.function.Supplier;
  * @author Marco Buzzanca
  */
 class Success<T> implements Try<T> {
+	/**
+	 * Required by {@link java.io.Serializable}.
+	 */
+	private static final long serialVersionUID = 8469236157431869402L;
+
 	/**
 	 * The result value.
 	 */
@@ -36,9 +44,9 @@ class Success<T> implements Try<T> {
 		try {
 			return predicate.test(value)
 					? this
-					: new Failure<>(new PredicateFailedException(value));
+					: Failure.of(Exceptions.predicateFailed(value));
 		} catch (final Exception e) {
-			return new Failure<>(e);
+			return Failure.of(e);
 		}
 	}
 
@@ -51,7 +59,7 @@ class Success<T> implements Try<T> {
 			final Try<V> result = (Try<V>) mapper.apply(value);
 			return result;
 		} catch (final Exception e) {
-			return new Failure<>(e);
+			return Failure.of(e);
 		}
 	}
 
@@ -94,9 +102,42 @@ class Success<T> implements Try<T> {
 			final ThrowingFunction<? super T, ? extends V> mapper) {
 		Objects.requireNonNull(mapper);
 		try {
-			return new Success<>(mapper.apply(value));
+			final V result = mapper.apply(value);
+			return result != null
+					? new Success<>(result)
+					: Failure.of(Exceptions.NO_VALUE);
+		} catch (final Exception e) {
+			return Failure.of(e);
+		}
+	}
+
+	@Override
+	public IntTry mapToInt(final ThrowingToIntFunction<? super T> mapper) {
+		Objects.requireNonNull(mapper);
+		try {
+			return new IntSuccess(mapper.applyAsInt(value));
 		} catch (final Exception e) {
-			return new Failure<>(e);
+			return new IntFailure(e);
+		}
+	}
+
+	@Override
+	public LongTry mapToLong(final ThrowingToLongFunction<? super T> mapper) {
+		Objects.requireNonNull(mapper);
+		try {
+			return new LongSuccess(mapper.applyAsLong(value));
+		} catch (final Exception e) {
+			return new LongFailure(e);
+		}
+	}
+
+	@Override
+	public DoubleTry mapToDouble(final ThrowingToDoubleFunction<? super T> mapper) {
+		Objects.requireNonNull(mapper);
+		try {
+			return new DoubleSuccess(mapper.applyAsDouble(value));
+		} catch (final Exception e) {
+			return new DoubleFailure(e);
 		}
 	}
 
@@ -129,4 +170,9 @@ class Success<T> implements Try<T> {
 		Objects.requireNonNull(mapper);
 		return this;
 	}
+
+	@Override
+	public Stream<T> stream() {
+		return Stream.of(value);
+	}
 }
@@ -0,0 +1,359 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.ThrowingSupplier;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implements the computations bound in time: computations with a deadline,
+ * and hedged computations, which are attempted twice when the first attempt
+ * is slow.
+ * <p>
+ * The attempts run on an executor, wrapped in a {@link FutureTask}, so that
+ * an attempt whose outcome is no longer needed can be cancelled: it is
+ * interrupted if it is running, and skipped if it is still queued.
+ *
+ * @author Marco Buzzanca
+ * @see Try#hedged(ThrowingSupplier, Duration, Executor)
+ * @see Try#withTimeout(ThrowingSupplier, Duration, Executor)
+ */
+final class Timing {
+	/**
+	 * Utility class.
+	 */
+	private Timing() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Performs a computation, starting a second attempt if the first one
+	 * does not complete within the specified delay.
+	 *
+	 * @param supplier the computation.
+	 * @param delay the delay before the second attempt.
+	 * @param executor the executor of the attempts.
+	 * @param <T> the type of the result.
+	 * @return the first successful outcome, or the last failure.
+	 */
+	static <T> Try<T> hedged(final ThrowingSupplier<? extends T> supplier,
+			final Duration delay, final Executor executor) {
+		final Hedge<T> hedge = new Hedge<>(supplier);
+		if (!hedge.start(executor)) {
+			return hedge.rejected;
+		}
+		try {
+			Try<T> outcome = hedge.await(nanos(delay));
+			if (outcome == null) {
+				// a rejected hedge just leaves the first attempt running
+				hedge.start(executor);
+				outcome = hedge.await(Long.MAX_VALUE);
+			}
+			return outcome;
+		} catch (final InterruptedException e) {
+			hedge.cancel();
+			Thread.currentThread().interrupt();
+			return new Failure<>(e);
+		}
+	}
+
+	/**
+	 * Converts a duration to nanoseconds, saturating at the bounds of the
+	 * {@code long} range.
+	 *
+	 * @param duration the duration.
+	 * @return the duration in nanoseconds.
+	 */
+	private static long nanos(final Duration duration) {
+		try {
+			return duration.toNanos();
+		} catch (final ArithmeticException e) {
+			return duration.isNegative() ? Long.MIN_VALUE : Long.MAX_VALUE;
+		}
+	}
+
+	/**
+	 * Returns the outcome of a task that has completed.
+	 *
+	 * @param task the task.
+	 * @param <T> the type of the result.
+	 * @return the outcome.
+	 */
+	private static <T> Try<T> outcome(final FutureTask<Try<T>> task) {
+		boolean interrupted = false;
+		try {
+			for (; ; ) {
+				try {
+					return task.get();
+				} catch (final InterruptedException e) {
+					interrupted = true;
+				} catch (final ExecutionException e) {
+					throw rethrow(e);
+				}
+			}
+		} finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Rethrows the cause of an {@link ExecutionException}, which can only be
+	 * an {@link Error} since attempts catch every exception.
+	 *
+	 * @param e the exception.
+	 * @return never returns.
+	 */
+	private static Error rethrow(final ExecutionException e) {
+		final Throwable cause = e.getCause();
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		throw new IllegalStateException(cause);
+	}
+
+	/**
+	 * Performs a computation on the specified executor, waiting for its
+	 * outcome until the timeout expires.
+	 *
+	 * @param supplier the computation.
+	 * @param timeout the timeout.
+	 * @param executor the executor of the computation.
+	 * @param <T> the type of the result.
+	 * @return the outcome of the computation, or a failure caused by a
+	 * {@link TimeoutException} if the timeout expires.
+	 */
+	static <T> Try<T> withTimeout(final ThrowingSupplier<? extends T> supplier,
+			final Duration timeout, final Executor executor) {
+		final FutureTask<Try<T>> task = new FutureTask<>(
+				() -> Try.get(supplier));
+		try {
+			executor.execute(task);
+		} catch (final RejectedExecutionException e) {
+			return new Failure<>(e);
+		}
+		try {
+			return task.get(nanos(timeout), TimeUnit.NANOSECONDS);
+		} catch (final TimeoutException e) {
+			if (task.cancel(true)) {
+				return new Failure<>(new TimeoutException(
+						"timed out after " + timeout));
+			}
+			// completed in the meantime, the outcome is still available
+			return outcome(task);
+		} catch (final InterruptedException e) {
+			task.cancel(true);
+			Thread.currentThread().interrupt();
+			return new Failure<>(e);
+		} catch (final ExecutionException e) {
+			throw rethrow(e);
+		}
+	}
+
+	/**
+	 * The state of a hedged computation.
+	 * <p>
+	 * The outcome is the first success, or the failure of the last attempt
+	 * to complete. The number of pending attempts decides which failure is
+	 * the last, and prevents the hedge from starting once every attempt has
+	 * already failed.
+	 *
+	 * @param <T> the type of the result.
+	 */
+	private static final class Hedge<T> {
+		/**
+		 * The computation.
+		 */
+		private final ThrowingSupplier<? extends T> supplier;
+
+		/**
+		 * The outcome.
+		 */
+		private final CompletableFuture<Try<T>> result =
+				new CompletableFuture<>();
+
+		/**
+		 * The number of attempts that have started and not completed.
+		 */
+		private final AtomicInteger pending = new AtomicInteger();
+
+		/**
+		 * The first attempt.
+		 */
+		private volatile FutureTask<Void> first;
+
+		/**
+		 * The second attempt, or {@code null} if it has not started.
+		 */
+		private volatile FutureTask<Void> second;
+
+		/**
+		 * The outcome of the first attempt if the executor rejected it.
+		 */
+		private Try<T> rejected;
+
+		/**
+		 * The failure of the last attempt that completed.
+		 */
+		private volatile Try<T> failure;
+
+		/**
+		 * Builds the state of a hedged computation.
+		 *
+		 * @param supplier the computation.
+		 */
+		Hedge(final ThrowingSupplier<? extends T> supplier) {
+			this.supplier = supplier;
+		}
+
+		/**
+		 * Counts a new pending attempt, unless no attempt is pending.
+		 *
+		 * @return {@code true} if the attempt was counted, {@code false}
+		 * otherwise.
+		 */
+		private boolean acquire() {
+			for (; ; ) {
+				final int n = pending.get();
+				if (n == 0) {
+					return false;
+				}
+				if (pending.compareAndSet(n, n + 1)) {
+					return true;
+				}
+			}
+		}
+
+		/**
+		 * Performs an attempt, and completes the outcome if it is the first
+		 * success or the last failure.
+		 *
+		 * @param hedge whether this is the second attempt.
+		 */
+		private void attempt(final boolean hedge) {
+			if (result.isDone()) {
+				// the other attempt won while this one was queued
+				return;
+			}
+			try {
+				final Try<T> outcome = Try.get(supplier);
+				if (outcome.isSuccessful()) {
+					complete(outcome, hedge);
+				} else {
+					failure = outcome;
+					if (pending.decrementAndGet() == 0) {
+						complete(outcome, hedge);
+					}
+				}
+			} catch (final Throwable t) {
+				if (result.completeExceptionally(t)) {
+					cancel(hedge ? first : second);
+				}
+				throw t;
+			}
+		}
+
+		/**
+		 * Waits for the outcome.
+		 *
+		 * @param nanos the maximum time to wait.
+		 * @return the outcome, or {@code null} if the time has elapsed.
+		 * @throws InterruptedException if the current thread is interrupted
+		 * while waiting.
+		 */
+		Try<T> await(final long nanos) throws InterruptedException {
+			try {
+				return result.get(nanos, TimeUnit.NANOSECONDS);
+			} catch (final TimeoutException e) {
+				return null;
+			} catch (final ExecutionException e) {
+				throw rethrow(e);
+			}
+		}
+
+		/**
+		 * Cancels the attempts that are still running or queued.
+		 */
+		void cancel() {
+			cancel(first);
+			cancel(second);
+		}
+
+		/**
+		 * Cancels an attempt, if it exists and has not completed.
+		 *
+		 * @param task the attempt.
+		 */
+		private static void cancel(final FutureTask<Void> task) {
+			if (task != null) {
+				task.cancel(true);
+			}
+		}
+
+		/**
+		 * Completes the outcome with the one of an attempt, and cancels the
+		 * other attempt. The attempt that completes is not cancelled, since
+		 * it is still running: interrupting it would interrupt the thread
+		 * that runs it, which may be the caller's.
+		 *
+		 * @param outcome the outcome.
+		 * @param hedge whether the attempt that completes is the second one.
+		 */
+		private void complete(final Try<T> outcome, final boolean hedge) {
+			if (result.complete(outcome)) {
+				cancel(hedge ? first : second);
+			}
+		}
+
+		/**
+		 * Starts an attempt on the executor.
+		 *
+		 * @param executor the executor.
+		 * @return {@code false} if the first attempt was rejected by the
+		 * executor, {@code true} otherwise.
+		 */
+		boolean start(final Executor executor) {
+			final boolean hedge = first != null;
+			if (hedge && !acquire()) {
+				// every attempt has already failed
+				return true;
+			}
+			if (!hedge) {
+				pending.set(1);
+			}
+			final FutureTask<Void> task = new FutureTask<>(
+					() -> attempt(hedge), null);
+			if (hedge) {
+				second = task;
+			} else {
+				first = task;
+			}
+			try {
+				executor.execute(task);
+			} catch (final RejectedExecutionException e) {
+				if (!hedge) {
+					rejected = new Failure<>(e);
+					return false;
+				}
+				if (pending.decrementAndGet() == 0) {
+					// no attempt is running, so there is nothing to cancel
+					result.complete(failure);
+				}
+				return true;
+			}
+			if (hedge && result.isDone()) {
+				// the first attempt won while this one was being started
+				task.cancel(true);
+			}
+			return true;
+		}
+	}
+}
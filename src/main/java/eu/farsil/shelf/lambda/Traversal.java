@@ -0,0 +1,270 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.ThrowingFunction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Implements the traversal of collections by a function that may throw,
+ * either sequentially or in parallel on a {@link ForkJoinPool}.
+ *
+ * @author Marco Buzzanca
+ * @see Try#traverse(Collection, ThrowingFunction)
+ */
+final class Traversal {
+	/**
+	 * The number of leaf tasks created for each worker thread of the pool,
+	 * to balance the load when the function takes uneven time.
+	 */
+	private static final int LEAVES_PER_THREAD = 4;
+
+	/**
+	 * Utility class.
+	 */
+	private Traversal() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Collects the values held by the specified attempts, stopping at the
+	 * first failure.
+	 *
+	 * @param attempts the attempts.
+	 * @param <T> the type of the values.
+	 * @return a success holding the values, or the first failure.
+	 */
+	static <T> Try<List<T>> sequence(
+			final Collection<? extends Try<? extends T>> attempts) {
+		final List<T> results = new ArrayList<>(attempts.size());
+		for (final Try<? extends T> attempt : attempts) {
+			if (attempt.isUnsuccessful()) {
+				return Failure.propagate(attempt.getCause());
+			}
+			results.add(attempt.orElseThrow());
+		}
+		return new Success<>(Collections.unmodifiableList(results));
+	}
+
+	/**
+	 * Applies the function to the inputs in order, stopping at the first
+	 * failure.
+	 *
+	 * @param inputs the inputs.
+	 * @param mapper the function.
+	 * @param <I> the type of the inputs.
+	 * @param <O> the type of the outputs.
+	 * @return a success holding the outputs, or the first failure.
+	 */
+	static <I, O> Try<List<O>> traverse(final Collection<? extends I> inputs,
+			final ThrowingFunction<? super I, ? extends O> mapper) {
+		final List<O> results = new ArrayList<>(inputs.size());
+		for (final I input : inputs) {
+			try {
+				final O result = mapper.apply(input);
+				if (result == null) {
+					return Failure.of(Exceptions.NO_VALUE);
+				}
+				results.add(result);
+			} catch (final Exception e) {
+				return Failure.of(e);
+			}
+		}
+		return new Success<>(Collections.unmodifiableList(results));
+	}
+
+	/**
+	 * Applies the function to the inputs in parallel, abandoning the
+	 * remaining inputs as soon as one of them fails.
+	 *
+	 * @param inputs the inputs.
+	 * @param mapper the function.
+	 * @param pool the pool that runs the tasks.
+	 * @param <I> the type of the inputs.
+	 * @param <O> the type of the outputs.
+	 * @return a success holding the outputs, or a failure.
+	 */
+	static <I, O> Try<List<O>> traverse(final Collection<? extends I> inputs,
+			final ThrowingFunction<? super I, ? extends O> mapper,
+			final ForkJoinPool pool) {
+		final Task<I, O> task = new Task<>(inputs.toArray(), mapper, true,
+				leafSize(inputs.size(), pool));
+		pool.invoke(task);
+		final Exception failure = task.failure.get();
+		if (failure != null) {
+			// only the first failure is notified
+			return Failure.of(failure);
+		}
+		@SuppressWarnings("unchecked")
+		final List<O> results = (List<O>) Collections.unmodifiableList(
+				Arrays.asList(task.results));
+		return new Success<>(results);
+	}
+
+	/**
+	 * Applies the function to all the inputs in parallel, collecting the
+	 * outcome of each of them.
+	 *
+	 * @param inputs the inputs.
+	 * @param mapper the function.
+	 * @param pool the pool that runs the tasks.
+	 * @param <I> the type of the inputs.
+	 * @param <O> the type of the outputs.
+	 * @return the outcomes, in the order of the inputs.
+	 */
+	static <I, O> List<Try<O>> traverseAll(
+			final Collection<? extends I> inputs,
+			final ThrowingFunction<? super I, ? extends O> mapper,
+			final ForkJoinPool pool) {
+		final Task<I, O> task = new Task<>(inputs.toArray(), mapper, false,
+				leafSize(inputs.size(), pool));
+		pool.invoke(task);
+		@SuppressWarnings("unchecked")
+		final List<Try<O>> results = (List<Try<O>>) (List<?>)
+				Collections.unmodifiableList(Arrays.asList(task.results));
+		return results;
+	}
+
+	/**
+	 * Returns the number of inputs processed sequentially by each leaf task.
+	 *
+	 * @param size the number of inputs.
+	 * @param pool the pool that runs the tasks.
+	 * @return the size of a leaf.
+	 */
+	private static int leafSize(final int size, final ForkJoinPool pool) {
+		return Math.max(1, size / (pool.getParallelism() * LEAVES_PER_THREAD));
+	}
+
+	/**
+	 * The task that applies the function to a range of inputs, splitting it
+	 * until it is small enough.
+	 *
+	 * @param <I> the type of the inputs.
+	 * @param <O> the type of the outputs.
+	 */
+	private static final class Task<I, O> extends RecursiveAction {
+		/**
+		 * Required by {@link java.io.Serializable}.
+		 */
+		private static final long serialVersionUID = 2418763510934816425L;
+
+		/**
+		 * The inputs, shared by all tasks.
+		 */
+		private final Object[] inputs;
+
+		/**
+		 * The outputs, shared by all tasks. Holds the computed values if
+		 * short-circuiting, the {@link Try} instances otherwise.
+		 */
+		private final Object[] results;
+
+		/**
+		 * The function.
+		 */
+		private final transient ThrowingFunction<? super I, ? extends O> mapper;
+
+		/**
+		 * Whether the first failure stops the traversal.
+		 */
+		private final boolean shortCircuit;
+
+		/**
+		 * The first failure, shared by all tasks.
+		 */
+		private final AtomicReference<Exception> failure;
+
+		/**
+		 * The number of inputs processed sequentially by a leaf task.
+		 */
+		private final int leafSize;
+
+		/**
+		 * The first index of the range, inclusive.
+		 */
+		private final int from;
+
+		/**
+		 * The last index of the range, exclusive.
+		 */
+		private final int to;
+
+		/**
+		 * Builds the root task.
+		 *
+		 * @param inputs the inputs.
+		 * @param mapper the function.
+		 * @param shortCircuit whether the first failure stops the traversal.
+		 * @param leafSize the size of a leaf task.
+		 */
+		Task(final Object[] inputs,
+				final ThrowingFunction<? super I, ? extends O> mapper,
+				final boolean shortCircuit, final int leafSize) {
+			this.inputs = inputs;
+			this.results = new Object[inputs.length];
+			this.mapper = mapper;
+			this.shortCircuit = shortCircuit;
+			this.failure = new AtomicReference<>();
+			this.leafSize = leafSize;
+			this.from = 0;
+			this.to = inputs.length;
+		}
+
+		/**
+		 * Builds a subtask of the specified task.
+		 *
+		 * @param parent the parent task.
+		 * @param from the first index of the range, inclusive.
+		 * @param to the last index of the range, exclusive.
+		 */
+		private Task(final Task<I, O> parent, final int from, final int to) {
+			this.inputs = parent.inputs;
+			this.results = parent.results;
+			this.mapper = parent.mapper;
+			this.shortCircuit = parent.shortCircuit;
+			this.failure = parent.failure;
+			this.leafSize = parent.leafSize;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > leafSize) {
+				final int middle = (from + to) >>> 1;
+				invokeAll(new Task<>(this, from, middle),
+						new Task<>(this, middle, to));
+				return;
+			}
+			for (int i = from; i < to; i++) {
+				@SuppressWarnings("unchecked")
+				final I input = (I) inputs[i];
+				if (!shortCircuit) {
+					results[i] = Try.get(() -> mapper.apply(input));
+				} else if (failure.get() != null) {
+					// another task failed, abandon the remaining inputs
+					return;
+				} else {
+					try {
+						final O result = mapper.apply(input);
+						if (result == null) {
+							failure.compareAndSet(null, Exceptions.NO_VALUE);
+							return;
+						}
+						results[i] = result;
+					} catch (final Exception e) {
+						failure.compareAndSet(null, e);
+						return;
+					}
+				}
+			}
+		}
+	}
+}
@@ -3,13 +3,25 @@ package eu.farsil.shelf.lambda;
 import eu.farsil.shelf.lambda.function.ThrowingFunction;
 import eu.farsil.shelf.lambda.function.ThrowingPredicate;
 import eu.farsil.shelf.lambda.function.ThrowingSupplier;
+import eu.farsil.shelf.lambda.function.ThrowingToDoubleFunction;
+import eu.farsil.shelf.lambda.function.ThrowingToIntFunction;
+import eu.farsil.shelf.lambda.function.ThrowingToLongFunction;
 import org.apiguardian.api.API;
 
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static org.apiguardian.api.API.Status.EXPERIMENTAL;
 
@@ -37,18 +49,113 @@ import static org.apiguardian.api.API.Status.EXPERIMENTAL;
  * This class is not meant to replace the {@code try/catch} mechanism
  * entirely: its purpose is to help programmers deal with chains of method
  * calls that may throw an exception when invoked.
+ * <p>
+ * Instances of {@code Try} are {@link Serializable}, as long as the value or
+ * the cause they hold is. A {@code Try} whose outcome is computed on demand
+ * is serialized as its outcome, which is computed if necessary. For a more
+ * compact binary form, see {@link TryCodec}.
  *
  * @param <T> the type of the result.
  * @author Marco Buzzanca
  * @see Optional
  */
 @API(status = EXPERIMENTAL, since = "0.1.0")
-public interface Try<T> {
+public interface Try<T> extends Serializable {
+	/**
+	 * Returns an instance of {@link Try} whose outcome is the one of the
+	 * {@code Try} returned by the specified supplier, which is invoked only
+	 * when the outcome is needed.
+	 * <p>
+	 * The methods of the returned instance that return a {@code Try}, such as
+	 * {@link #map map()} or {@link #flatMap flatMap()}, are deferred as well:
+	 * the whole chain is evaluated by the first method that needs the
+	 * outcome, such as {@link #isSuccessful()} or {@link #orElse orElse()},
+	 * and the outcome is then memoized. The evaluation keeps the pending steps
+	 * on the heap rather than on the call stack, which makes recursive
+	 * computations stack-safe, as long as the recursive call is deferred:
+	 * <pre>{@code Try<Long> sum(final long n) {
+	 *     return n == 0
+	 *         ? Try.get(() -> 0L)
+	 *         : Try.defer(() -> sum(n - 1)).map(s -> s + n);
+	 * }}</pre>
+	 * If the supplier throws an exception or returns {@code null}, the
+	 * outcome will be in a failed state.
+	 *
+	 * @param supplier the supplier of the outcome.
+	 * @param <T> the type of the result.
+	 * @return an instance of {@code Try} whose outcome is computed on demand.
+	 * @throws NullPointerException if the supplier is {@code null}.
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	static <T> Try<T> defer(
+			final ThrowingSupplier<? extends Try<? extends T>> supplier) {
+		return new Deferred<>(Objects.requireNonNull(supplier));
+	}
+
+	/**
+	 * Returns the instance of {@link Try} in a <i>failed</i> state due to a
+	 * missing value, which is the outcome of the methods of this class when
+	 * a computation returns {@code null}, such as {@code Try.get(() ->
+	 * null)}.
+	 * <p>
+	 * The instance is shared, and so is its cause: a {@link
+	 * NoValueException} with the message {@code "no value"}, without stack
+	 * trace and suppressed exceptions. Returning it does not allocate
+	 * anything, which makes it suitable for paths where a missing value is
+	 * expected rather than exceptional.
+	 *
+	 * @param <T> the type of the result.
+	 * @return the failure due to a missing value.
+	 * @see #failureOf(CachedFailure)
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	static <T> Try<T> empty() {
+		return Failure.empty();
+	}
+
+	/**
+	 * Returns an instance of {@link Try} in a <i>failed</i> state, holding
+	 * the specified cause.
+	 *
+	 * @param cause the cause of the failure.
+	 * @param <T> the type of the result.
+	 * @return a failure holding the cause.
+	 * @throws NullPointerException if the cause is {@code null}.
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	static <T> Try<T> failure(final Exception cause) {
+		return new Failure<>(cause);
+	}
+
+	/**
+	 * Returns the instance of {@link Try} in a <i>failed</i> state caused by
+	 * the specified constant, which is preallocated: returning it does not
+	 * allocate anything.
+	 * <pre>{@code Try<User> find(final String name) {
+	 *     final User user = users.get(name);
+	 *     return user != null
+	 *         ? Try.success(user)
+	 *         : Try.failureOf(CachedFailure.NOT_FOUND);
+	 * }}</pre>
+	 *
+	 * @param cause the cause of the failure.
+	 * @param <T> the type of the result.
+	 * @return the failure caused by the constant.
+	 * @throws NullPointerException if the cause is {@code null}.
+	 * @see CachedFailure#of(String)
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	static <T> Try<T> failureOf(final CachedFailure cause) {
+		return cause.toFailure();
+	}
+
 	/**
 	 * Attempts to perform a computation that returns a value, which is
 	 * represented by the specified supplier. If it throws an
 	 * exception, the result returned will be in a <i>failed</i> state,
-	 * otherwise it will be in a <i>successful</i> state.
+	 * otherwise it will be in a <i>successful</i> state. If it returns
+	 * {@code null}, the result is the shared failure returned by {@link
+	 * #empty()}.
 	 *
 	 * @param supplier the computation that returns a value.
 	 * @param <T> the type of the result.
@@ -61,12 +168,241 @@ public interface Try<T> {
 	static <T> Try<T> get(final ThrowingSupplier<? extends T> supplier) {
 		Objects.requireNonNull(supplier);
 		try {
-			return new Success<>(supplier.get());
+			final T value = Listeners.intercept(supplier);
+			return value != null
+					? new Success<>(value)
+					: Failure.of(Exceptions.NO_VALUE);
 		} catch (final Exception e) {
-			return new Failure<>(e);
+			return Failure.of(e);
 		}
 	}
 
+	/**
+	 * Attempts to perform a computation on the specified executor, starting
+	 * a second attempt if the first one does not complete within the
+	 * specified delay. The current thread waits for the outcome.
+	 * <p>
+	 * Hedging trades a little extra load for a shorter tail latency, when
+	 * the computation is idempotent and its latency is mostly due to
+	 * transient conditions, such as a read from replicated storage. The
+	 * outcome is the first successful one: when an attempt succeeds, the
+	 * other attempt is cancelled, and interrupted if it is running. A
+	 * failure is only returned if both attempts fail, or if the first
+	 * attempt fails before the delay. If the executor rejects the first
+	 * attempt, the outcome is a failure caused by {@link
+	 * RejectedExecutionException}; if it rejects the second one, the first
+	 * attempt is awaited alone.
+	 * <p>
+	 * If the current thread is interrupted while waiting, the attempts are
+	 * cancelled, the outcome is a failure caused by {@link
+	 * InterruptedException}, and the interrupt status of the thread is
+	 * restored.
+	 *
+	 * @param supplier the computation that returns a value.
+	 * @param delay the delay before the second attempt.
+	 * @param executor the executor of the attempts.
+	 * @param <T> the type of the result.
+	 * @return the first successful outcome, or the last failure.
+	 * @throws NullPointerException if any of the arguments is {@code null}.
+	 * @see #withTimeout(ThrowingSupplier, Duration, Executor)
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	static <T> Try<T> hedged(final ThrowingSupplier<? extends T> supplier,
+			final Duration delay, final Executor executor) {
+		Objects.requireNonNull(supplier);
+		Objects.requireNonNull(delay);
+		Objects.requireNonNull(executor);
+		return Timing.hedged(supplier, delay, executor);
+	}
+
+	/**
+	 * Returns an instance of {@link Try} that represents a computation
+	 * which is performed only when its outcome is needed.
+	 * <p>
+	 * The specified supplier is invoked at most once, by the first method
+	 * that needs the outcome, such as {@link #isSuccessful()} or {@link
+	 * #orElse orElse()}, even when the returned instance is shared by many
+	 * threads. The methods that return a {@code Try}, such as {@link #map
+	 * map()} or {@link #filter filter()}, are deferred as well: they describe
+	 * a pipeline that is evaluated only if its outcome is needed.
+	 *
+	 * @param supplier the computation that returns a value.
+	 * @param <T> the type of the result.
+	 * @return an instance of {@code Try} whose outcome is computed on demand
+	 * and memoized.
+	 * @throws NullPointerException if the supplier is {@code null}.
+	 * @see #defer(ThrowingSupplier)
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	static <T> Try<T> lazy(final ThrowingSupplier<? extends T> supplier) {
+		Objects.requireNonNull(supplier);
+		return new Deferred<>(() -> get(supplier));
+	}
+
+	/**
+	 * Returns an empty {@link Pipeline}, to which steps can be added with
+	 * the same methods as {@code Try}. The steps are composed up front, and
+	 * then applied to each input in a single {@code try} block, allocating
+	 * only the resulting {@code Try}:
+	 * <pre>{@code final Pipeline<String, Integer> parse = Try.<String>pipeline()
+	 *      .map(String::trim)
+	 *      .map(Integer::parseInt)
+	 *      .filter(x -> x > 0);
+	 *  final List<Try<Integer>> results = strings.stream()
+	 *      .map(parse)
+	 *      .collect(Collectors.toList());}</pre>
+	 *
+	 * @param <T> the type of the input.
+	 * @return the empty pipeline, which returns its input unchanged.
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	static <T> Pipeline<T, T> pipeline() {
+		return Pipeline.identity();
+	}
+
+	/**
+	 * Collects the values held by the specified attempts into a list, if
+	 * they are all successful.
+	 *
+	 * @param attempts the attempts.
+	 * @param <T> the type of the values.
+	 * @return a success holding an unmodifiable list of the values, in
+	 * iteration order, if all the attempts are successful, otherwise the
+	 * first failure.
+	 * @throws NullPointerException if the attempts or any of them are
+	 * {@code null}.
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	static <T> Try<List<T>> sequence(
+			final Collection<? extends Try<? extends T>> attempts) {
+		return Traversal.sequence(Objects.requireNonNull(attempts));
+	}
+
+	/**
+	 * Returns an instance of {@link Try} in a <i>successful</i> state,
+	 * holding the specified value.
+	 *
+	 * @param value the value.
+	 * @param <T> the type of the result.
+	 * @return a success holding the value.
+	 * @throws NullPointerException if the value is {@code null}.
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	static <T> Try<T> success(final T value) {
+		return new Success<>(value);
+	}
+
+	/**
+	 * Applies the given function to each of the inputs, in iteration order,
+	 * and collects the results into a list. The traversal stops at the first
+	 * input for which the function throws an exception or returns {@code
+	 * null}.
+	 *
+	 * @param inputs the inputs.
+	 * @param mapper the function to apply.
+	 * @param <I> the type of the inputs.
+	 * @param <O> the type of the results.
+	 * @return a success holding an unmodifiable list of the results, in
+	 * iteration order, or a failure holding the first exception thrown by the
+	 * function.
+	 * @throws NullPointerException if the inputs or the function are {@code
+	 * null}.
+	 * @see ThrowingFunction
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	static <I, O> Try<List<O>> traverse(final Collection<? extends I> inputs,
+			final ThrowingFunction<? super I, ? extends O> mapper) {
+		Objects.requireNonNull(inputs);
+		Objects.requireNonNull(mapper);
+		return Traversal.traverse(inputs, mapper);
+	}
+
+	/**
+	 * Applies the given function to each of the inputs in parallel, using
+	 * the specified {@link ForkJoinPool}, and collects the results into a
+	 * list.
+	 * <p>
+	 * As soon as the function throws an exception or returns {@code null}
+	 * for an input, the inputs that have not been processed yet are
+	 * abandoned: the invocations of the function that are already running
+	 * are not interrupted, but no new invocations start.
+	 *
+	 * @param inputs the inputs.
+	 * @param mapper the function to apply.
+	 * @param pool the pool that applies the function.
+	 * @param <I> the type of the inputs.
+	 * @param <O> the type of the results.
+	 * @return a success holding an unmodifiable list of the results, in
+	 * iteration order, or a failure holding one of the exceptions thrown by
+	 * the function.
+	 * @throws NullPointerException if any of the arguments is {@code null}.
+	 * @see #traverseAll(Collection, ThrowingFunction, ForkJoinPool)
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	static <I, O> Try<List<O>> traverse(final Collection<? extends I> inputs,
+			final ThrowingFunction<? super I, ? extends O> mapper,
+			final ForkJoinPool pool) {
+		Objects.requireNonNull(inputs);
+		Objects.requireNonNull(mapper);
+		Objects.requireNonNull(pool);
+		return Traversal.traverse(inputs, mapper, pool);
+	}
+
+	/**
+	 * Applies the given function to each of the inputs in parallel, using
+	 * the specified {@link ForkJoinPool}, and collects the outcome of every
+	 * invocation, regardless of failures.
+	 *
+	 * @param inputs the inputs.
+	 * @param mapper the function to apply.
+	 * @param pool the pool that applies the function.
+	 * @param <I> the type of the inputs.
+	 * @param <O> the type of the results.
+	 * @return an unmodifiable list of the outcomes, in iteration order.
+	 * @throws NullPointerException if any of the arguments is {@code null}.
+	 * @see #traverse(Collection, ThrowingFunction, ForkJoinPool)
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	static <I, O> List<Try<O>> traverseAll(
+			final Collection<? extends I> inputs,
+			final ThrowingFunction<? super I, ? extends O> mapper,
+			final ForkJoinPool pool) {
+		Objects.requireNonNull(inputs);
+		Objects.requireNonNull(mapper);
+		Objects.requireNonNull(pool);
+		return Traversal.traverseAll(inputs, mapper, pool);
+	}
+
+	/**
+	 * Attempts to perform a computation on the specified executor, waiting
+	 * for its outcome until the timeout expires. If it does, the outcome is
+	 * a failure caused by {@link TimeoutException}, and the computation is
+	 * cancelled: it is interrupted if it is running, and skipped if it is
+	 * still queued. If the executor rejects the computation, the outcome is
+	 * a failure caused by {@link RejectedExecutionException}.
+	 * <p>
+	 * If the current thread is interrupted while waiting, the computation is
+	 * cancelled, the outcome is a failure caused by {@link
+	 * InterruptedException}, and the interrupt status of the thread is
+	 * restored.
+	 *
+	 * @param supplier the computation that returns a value.
+	 * @param timeout the maximum time to wait for the outcome.
+	 * @param executor the executor of the computation.
+	 * @param <T> the type of the result.
+	 * @return the outcome of the computation, or a failure if the timeout
+	 * expires.
+	 * @throws NullPointerException if any of the arguments is {@code null}.
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	static <T> Try<T> withTimeout(final ThrowingSupplier<? extends T> supplier,
+			final Duration timeout, final Executor executor) {
+		Objects.requireNonNull(supplier);
+		Objects.requireNonNull(timeout);
+		Objects.requireNonNull(executor);
+		return Timing.withTimeout(supplier, timeout, executor);
+	}
+
 	/**
 	 * Returns a failure if the computed value does not match
 	 * the predicate, or if the predicate throws an exception, otherwise
@@ -177,6 +513,57 @@ public interface Try<T> {
 	 */
 	<V> Try<V> map(final ThrowingFunction<? super T, ? extends V> mapper);
 
+	/**
+	 * Applies the given mapping function to the computed value if the
+	 * computation was successful and wraps the result in a successful
+	 * {@link IntTry}, without boxing it.
+	 * <p>
+	 * If the computation was successful, and the given function throws an
+	 * exception, or if the computation was unsuccessful, it returns a failure.
+	 *
+	 * @param mapper the function to apply.
+	 * @return a success obtained by applying the given function if
+	 * the computation was successful, a failure otherwise.
+	 * @throws NullPointerException if the function is {@code null}.
+	 * @see ThrowingToIntFunction
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	IntTry mapToInt(final ThrowingToIntFunction<? super T> mapper);
+
+	/**
+	 * Applies the given mapping function to the computed value if the
+	 * computation was successful and wraps the result in a successful
+	 * {@link LongTry}, without boxing it.
+	 * <p>
+	 * If the computation was successful, and the given function throws an
+	 * exception, or if the computation was unsuccessful, it returns a failure.
+	 *
+	 * @param mapper the function to apply.
+	 * @return a success obtained by applying the given function if
+	 * the computation was successful, a failure otherwise.
+	 * @throws NullPointerException if the function is {@code null}.
+	 * @see ThrowingToLongFunction
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	LongTry mapToLong(final ThrowingToLongFunction<? super T> mapper);
+
+	/**
+	 * Applies the given mapping function to the computed value if the
+	 * computation was successful and wraps the result in a successful
+	 * {@link DoubleTry}, without boxing it.
+	 * <p>
+	 * If the computation was successful, and the given function throws an
+	 * exception, or if the computation was unsuccessful, it returns a failure.
+	 *
+	 * @param mapper the function to apply.
+	 * @return a success obtained by applying the given function if
+	 * the computation was successful, a failure otherwise.
+	 * @throws NullPointerException if the function is {@code null}.
+	 * @see ThrowingToDoubleFunction
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	DoubleTry mapToDouble(final ThrowingToDoubleFunction<? super T> mapper);
+
 	/**
 	 * Returns the computed value if the computation was successful,
 	 * otherwise returns the specified value.
@@ -247,4 +634,14 @@ public interface Try<T> {
 	 */
 	Try<T> recover(
 			final ThrowingFunction<? super Exception, ? extends T> mapper);
+
+	/**
+	 * Returns a sequential {@link Stream} containing only the computed value
+	 * if the computation was successful, otherwise returns an empty stream.
+	 *
+	 * @return the stream of the computed value.
+	 * @see TryCollectors
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	Stream<T> stream();
 }
@@ -0,0 +1,581 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.PredicateFailedException;
+import org.apiguardian.api.API;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Writes instances of {@link Try} to a {@link ByteBuffer} and reads them
+ * back, in a binary form that is considerably more compact than the one of
+ * Java serialization.
+ * <p>
+ * The value of a success is written by a {@link ValueCodec}, which is
+ * provided by the user, while the cause of a failure is written according
+ * to an {@link ExceptionPolicy}:
+ * <pre>{@code final TryCodec<Order> codec =
+ *      TryCodec.of(orderCodec, ExceptionPolicy.CLASS_AND_MESSAGE);
+ *  codec.encode(attempt, buffer);
+ *  ...
+ *  final Try<String> decoded = codec.decode(buffer);}</pre>
+ * Whatever the policy, the shared cause of {@link Try#empty()} and the
+ * constants of {@link CachedFailure} are written by name, and decoded as
+ * the same instances, provided that the constants are registered where
+ * they are decoded.
+ * <p>
+ * The encoded form starts with a tag byte, followed by the value or by the
+ * cause. Strings are written in UTF-8, preceded by their length as a
+ * variable-length integer. A codec does not write any header or version:
+ * the same codec, or an equivalent one, must be used to read the attempts
+ * back.
+ * <p>
+ * Instances of this class are immutable, and thread-safe as long as their
+ * value codec is.
+ *
+ * @param <T> the type of the value.
+ * @author Marco Buzzanca
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public final class TryCodec<T> {
+	/**
+	 * The tag of a success.
+	 */
+	private static final byte SUCCESS = 0;
+
+	/**
+	 * The tag of the failure due to a missing value.
+	 */
+	private static final byte EMPTY = 1;
+
+	/**
+	 * The tag of a failure caused by a {@link CachedFailure}.
+	 */
+	private static final byte CACHED = 2;
+
+	/**
+	 * The tag of a failure whose cause is serialized.
+	 */
+	private static final byte SERIALIZED = 3;
+
+	/**
+	 * The tag of a failure whose cause is described by its class name and
+	 * detail message.
+	 */
+	private static final byte DESCRIBED = 4;
+
+	/**
+	 * The classes other than exceptions and enums that a serialized cause
+	 * may contain: the elements of its stack trace, the lists that hold its
+	 * suppressed exceptions, strings and numbers.
+	 */
+	private static final Set<String> SERIALIZED_CLASSES = serializedClasses();
+
+	/**
+	 * The codec of the values.
+	 */
+	private final ValueCodec<T> values;
+
+	/**
+	 * The policy for the causes.
+	 */
+	private final ExceptionPolicy policy;
+
+	/**
+	 * Builds a codec.
+	 *
+	 * @param values the codec of the values.
+	 * @param policy the policy for the causes.
+	 */
+	private TryCodec(final ValueCodec<T> values, final ExceptionPolicy policy) {
+		this.values = values;
+		this.policy = policy;
+	}
+
+	/**
+	 * Returns a codec that writes the values with the specified codec, and
+	 * the causes according to the specified policy.
+	 *
+	 * @param values the codec of the values.
+	 * @param policy the policy for the causes.
+	 * @param <T> the type of the value.
+	 * @return the codec.
+	 * @throws NullPointerException if any argument is {@code null}.
+	 */
+	public static <T> TryCodec<T> of(final ValueCodec<T> values,
+			final ExceptionPolicy policy) {
+		return new TryCodec<>(Objects.requireNonNull(values),
+				Objects.requireNonNull(policy));
+	}
+
+	/**
+	 * Reads an attempt from the specified buffer, starting at its current
+	 * position, which is advanced past the attempt.
+	 *
+	 * @param buffer the buffer.
+	 * @return the attempt.
+	 * @throws NullPointerException if the buffer is {@code null}, or if the
+	 * value codec returns {@code null}.
+	 * @throws BufferUnderflowException if the buffer ends before the attempt.
+	 * @throws IllegalArgumentException if the buffer does not contain a valid
+	 * attempt, or if it contains a serialized cause and the policy of this
+	 * codec is not {@link ExceptionPolicy#STACK_TRACE}.
+	 */
+	public Try<T> decode(final ByteBuffer buffer) {
+		Objects.requireNonNull(buffer);
+		final byte tag = buffer.get();
+		switch (tag) {
+			case SUCCESS:
+				return Try.success(values.decode(buffer));
+			case EMPTY:
+				return Try.empty();
+			case CACHED:
+				return cached(getString(buffer));
+			case SERIALIZED:
+				if (policy != ExceptionPolicy.STACK_TRACE) {
+					throw new IllegalArgumentException(
+							"serialized cause with policy " + policy);
+				}
+				return Try.failure(deserialize(buffer));
+			case DESCRIBED: {
+				final String className = getString(buffer);
+				if (className == null) {
+					throw new IllegalArgumentException("missing class name");
+				}
+				return Try.failure(
+						new DecodedException(className, getString(buffer)));
+			}
+			default:
+				throw new IllegalArgumentException("unknown tag: " + tag);
+		}
+	}
+
+	/**
+	 * Writes the specified attempt to the specified buffer, starting at its
+	 * current position, which is advanced past the attempt. An attempt whose
+	 * outcome is computed on demand is computed first.
+	 * <p>
+	 * If the attempt does not fit in the remaining space, the position of
+	 * the buffer is restored, so that the attempt can be written again to a
+	 * larger buffer.
+	 *
+	 * @param attempt the attempt.
+	 * @param buffer the buffer.
+	 * @throws NullPointerException if any argument is {@code null}.
+	 * @throws BufferOverflowException if the attempt does not fit in the
+	 * buffer.
+	 */
+	public void encode(final Try<? extends T> attempt, final ByteBuffer buffer) {
+		Objects.requireNonNull(attempt);
+		Objects.requireNonNull(buffer);
+		final int position = buffer.position();
+		try {
+			if (attempt.isSuccessful()) {
+				buffer.put(SUCCESS);
+				values.encode(attempt.orElseThrow(), buffer);
+			} else {
+				putCause(attempt.getCause(), buffer);
+			}
+		} catch (final BufferOverflowException e) {
+			// Buffer.position() is not covariant on Java 8
+			((Buffer) buffer).position(position);
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the failure caused by the constant of {@link CachedFailure}
+	 * with the specified name. Constants are not registered on decoding, so
+	 * that the data being decoded cannot grow the registry: a name that is
+	 * not registered is decoded as a {@link DecodedException}.
+	 *
+	 * @param name the name.
+	 * @param <T> the type of the value.
+	 * @return the failure.
+	 * @throws IllegalArgumentException if the name is {@code null}.
+	 */
+	private static <T> Try<T> cached(final String name) {
+		if (name == null) {
+			throw new IllegalArgumentException("missing name");
+		}
+		final CachedFailure cached = CachedFailure.lookup(name);
+		return cached != null
+				? Try.failureOf(cached)
+				: Try.failure(new DecodedException(
+						CachedFailure.class.getName(), name));
+	}
+
+	/**
+	 * Returns the names of the classes other than exceptions and enums that
+	 * a serialized cause may contain.
+	 *
+	 * @return the names of the classes.
+	 */
+	private static Set<String> serializedClasses() {
+		final Set<String> names = new HashSet<>();
+		names.add(StackTraceElement.class.getName());
+		names.add(ArrayList.class.getName());
+		// the lists used by Throwable for no suppressed exceptions
+		for (Class<?> c = Collections.unmodifiableList(new ArrayList<>())
+				.getClass(); c != Object.class; c = c.getSuperclass()) {
+			names.add(c.getName());
+		}
+		names.add(Collections.emptyList().getClass().getName());
+		for (final Class<?> c : new Class<?>[]{String.class, Number.class,
+				Boolean.class, Character.class, Byte.class, Short.class,
+				Integer.class, Long.class, Float.class, Double.class,
+				BigInteger.class, BigDecimal.class}) {
+			names.add(c.getName());
+		}
+		return Collections.unmodifiableSet(names);
+	}
+
+	/**
+	 * Tells whether a class may be part of a serialized cause.
+	 *
+	 * @param c the class.
+	 * @return {@code true} if the class may be part of a serialized cause,
+	 * {@code false} otherwise.
+	 */
+	private static boolean isAllowed(final Class<?> c) {
+		if (c.isArray()) {
+			return isAllowed(c.getComponentType());
+		}
+		return c.isPrimitive()
+				|| Throwable.class.isAssignableFrom(c)
+				|| Enum.class.isAssignableFrom(c)
+				|| SERIALIZED_CLASSES.contains(c.getName());
+	}
+
+	/**
+	 * Reads a serialized exception.
+	 *
+	 * @param buffer the buffer.
+	 * @return the exception.
+	 * @throws IllegalArgumentException if the exception cannot be
+	 * deserialized, or if it contains a class that is not allowed.
+	 */
+	private static Exception deserialize(final ByteBuffer buffer) {
+		final byte[] bytes = getBytes(buffer, getLength(buffer));
+		try (final ObjectInputStream in = new CauseInputStream(
+				new ByteArrayInputStream(bytes))) {
+			return (Exception) in.readObject();
+		} catch (final IOException | ClassNotFoundException
+				| ClassCastException e) {
+			throw new IllegalArgumentException(
+					"cannot deserialize the cause", e);
+		}
+	}
+
+	/**
+	 * Reads the specified number of bytes.
+	 *
+	 * @param buffer the buffer.
+	 * @param length the number of bytes.
+	 * @return the bytes.
+	 * @throws BufferUnderflowException if the buffer ends before the bytes.
+	 */
+	private static byte[] getBytes(final ByteBuffer buffer, final int length) {
+		// checked before allocating, since the length may be corrupt
+		if (length > buffer.remaining()) {
+			throw new BufferUnderflowException();
+		}
+		final byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Reads a length, written as an unsigned variable-length integer, seven
+	 * bits per byte starting from the least significant ones.
+	 *
+	 * @param buffer the buffer.
+	 * @return the length.
+	 * @throws IllegalArgumentException if the length does not fit in an
+	 * {@code int}.
+	 */
+	private static int getLength(final ByteBuffer buffer) {
+		int result = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			final byte b = buffer.get();
+			result |= (b & 0x7f) << shift;
+			if (b >= 0) {
+				if (result < 0) {
+					break;
+				}
+				return result;
+			}
+		}
+		throw new IllegalArgumentException("invalid length");
+	}
+
+	/**
+	 * Reads a string, which may be {@code null}.
+	 *
+	 * @param buffer the buffer.
+	 * @return the string.
+	 */
+	private static String getString(final ByteBuffer buffer) {
+		final int length = getLength(buffer);
+		return length == 0 ? null : new String(getBytes(buffer, length - 1),
+				StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Writes a length as an unsigned variable-length integer.
+	 *
+	 * @param length the length.
+	 * @param buffer the buffer.
+	 * @see #getLength(ByteBuffer)
+	 */
+	private static void putLength(final int length, final ByteBuffer buffer) {
+		int remaining = length;
+		while ((remaining & ~0x7f) != 0) {
+			buffer.put((byte) (remaining & 0x7f | 0x80));
+			remaining >>>= 7;
+		}
+		buffer.put((byte) remaining);
+	}
+
+	/**
+	 * Writes a string, which may be {@code null}. Its length is incremented
+	 * by one, so that zero stands for {@code null}.
+	 *
+	 * @param s the string.
+	 * @param buffer the buffer.
+	 */
+	private static void putString(final String s, final ByteBuffer buffer) {
+		if (s == null) {
+			putLength(0, buffer);
+			return;
+		}
+		final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		putLength(bytes.length + 1, buffer);
+		buffer.put(bytes);
+	}
+
+	/**
+	 * Serializes an exception.
+	 *
+	 * @param cause the exception.
+	 * @return the serialized form, or {@code null} if the exception cannot
+	 * be serialized, or if it contains a class that could not be
+	 * deserialized.
+	 */
+	private static byte[] serialize(final Exception cause) {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (final ObjectOutputStream out = new CauseOutputStream(bytes)) {
+			out.writeObject(cause);
+		} catch (final IOException e) {
+			return null;
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Writes the cause of a failure.
+	 *
+	 * @param cause the cause.
+	 * @param buffer the buffer.
+	 */
+	private void putCause(final Exception cause, final ByteBuffer buffer) {
+		if (cause == Exceptions.NO_VALUE) {
+			buffer.put(EMPTY);
+			return;
+		}
+		if (cause instanceof CachedFailure) {
+			buffer.put(CACHED);
+			putString(cause.getMessage(), buffer);
+			return;
+		}
+		if (policy == ExceptionPolicy.STACK_TRACE) {
+			final byte[] bytes = serialize(cause);
+			if (bytes != null) {
+				buffer.put(SERIALIZED);
+				putLength(bytes.length, buffer);
+				buffer.put(bytes);
+				return;
+			}
+		}
+		buffer.put(DESCRIBED);
+		putString(cause instanceof DecodedException
+				? ((DecodedException) cause).getClassName()
+				: cause.getClass().getName(), buffer);
+		putString(policy == ExceptionPolicy.CLASS_ONLY
+				? null
+				: cause.getMessage(), buffer);
+	}
+
+	/**
+	 * Stream that only serializes the classes that {@link CauseInputStream}
+	 * deserializes, and drops the values held by the instances of {@link
+	 * PredicateFailedException}, whose detail message already describes
+	 * them.
+	 *
+	 * @author Marco Buzzanca
+	 */
+	private static final class CauseOutputStream extends ObjectOutputStream {
+		/**
+		 * The values to drop, by identity.
+		 */
+		private final Set<Object> values =
+				Collections.newSetFromMap(new IdentityHashMap<>());
+
+		/**
+		 * Builds a stream that writes to the specified stream.
+		 *
+		 * @param out the stream.
+		 * @throws IOException if the stream header cannot be written.
+		 */
+		CauseOutputStream(final OutputStream out) throws IOException {
+			super(out);
+			enableReplaceObject(true);
+		}
+
+		@Override
+		protected void annotateClass(final Class<?> c) throws IOException {
+			if (!isAllowed(c)) {
+				throw new NotSerializableException(c.getName());
+			}
+		}
+
+		@Override
+		protected Object replaceObject(final Object obj) {
+			if (obj instanceof PredicateFailedException) {
+				// replaced before its value, which it writes itself
+				final Object value = ((PredicateFailedException) obj)
+						.getValue();
+				if (value != null) {
+					values.add(value);
+				}
+				return obj;
+			}
+			return values.contains(obj) ? null : obj;
+		}
+	}
+
+	/**
+	 * Stream that only deserializes the classes that make up an exception.
+	 *
+	 * @author Marco Buzzanca
+	 */
+	private static final class CauseInputStream extends ObjectInputStream {
+		/**
+		 * Builds a stream that reads from the specified stream.
+		 *
+		 * @param in the stream.
+		 * @throws IOException if the stream header cannot be read.
+		 */
+		CauseInputStream(final InputStream in) throws IOException {
+			super(in);
+		}
+
+		@Override
+		protected Class<?> resolveClass(final ObjectStreamClass desc)
+				throws IOException, ClassNotFoundException {
+			// classes are resolved without being initialized
+			final Class<?> c = super.resolveClass(desc);
+			if (!isAllowed(c)) {
+				throw new InvalidClassException(c.getName(),
+						"not part of an exception");
+			}
+			return c;
+		}
+	}
+
+	/**
+	 * How the cause of a failure is written.
+	 *
+	 * @author Marco Buzzanca
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	public enum ExceptionPolicy {
+		/**
+		 * The cause is written with Java serialization, including its stack
+		 * trace, its own causes and its suppressed exceptions, and it is
+		 * decoded as an instance of its class. If it cannot be serialized,
+		 * it is written as with {@link #CLASS_AND_MESSAGE}.
+		 * <p>
+		 * Only exceptions, their stack traces and suppressed exceptions,
+		 * enums, strings, numbers and arrays of them are serialized: a cause
+		 * that holds any other object is written as with {@link
+		 * #CLASS_AND_MESSAGE} as well. The value held by a {@link
+		 * PredicateFailedException} is not written, since its detail message
+		 * describes it.
+		 * <p>
+		 * Decoding a cause written with this policy deserializes it, so it
+		 * must only be done on trusted data, and only the classes above are
+		 * deserialized. Codecs with other policies reject serialized
+		 * causes.
+		 */
+		STACK_TRACE,
+
+		/**
+		 * The name of the class and the detail message of the cause are
+		 * written, and the cause is decoded as a {@link DecodedException}.
+		 */
+		CLASS_AND_MESSAGE,
+
+		/**
+		 * Only the name of the class of the cause is written, and the cause
+		 * is decoded as a {@link DecodedException} without a detail
+		 * message.
+		 */
+		CLASS_ONLY
+	}
+
+	/**
+	 * Writes values to a {@link ByteBuffer} and reads them back, on behalf of
+	 * a {@link TryCodec}.
+	 *
+	 * @param <T> the type of the value.
+	 * @author Marco Buzzanca
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	public interface ValueCodec<T> {
+		/**
+		 * Reads a value from the specified buffer, starting at its current
+		 * position, which must be advanced past the value.
+		 *
+		 * @param buffer the buffer.
+		 * @return the value, which must not be {@code null}.
+		 * @throws BufferUnderflowException if the buffer ends before the
+		 * value.
+		 */
+		T decode(ByteBuffer buffer);
+
+		/**
+		 * Writes the specified value to the specified buffer, starting at
+		 * its current position, which must be advanced past the value.
+		 *
+		 * @param value the value, which is never {@code null}.
+		 * @param buffer the buffer.
+		 * @throws BufferOverflowException if the value does not fit in the
+		 * buffer.
+		 */
+		void encode(T value, ByteBuffer buffer);
+	}
+}
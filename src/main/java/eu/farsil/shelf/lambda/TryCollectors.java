@@ -0,0 +1,235 @@
+package eu.farsil.shelf.lambda;
+
+import org.apiguardian.api.API;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collector;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Implementations of {@link Collector} that reduce streams of {@link Try}
+ * instances.
+ * <p>
+ * All the collectors of this class work with parallel streams: each
+ * partition of the stream accumulates into its own container, with no
+ * synchronization involved, and the containers are merged preserving the
+ * encounter order:
+ * <pre>{@code final TryCollectors.Partition<Integer> partition = lines.parallelStream()
+ *      .map(line -> Try.get(() -> Integer.parseInt(line)))
+ *      .collect(TryCollectors.partitioning());}</pre>
+ *
+ * @author Marco Buzzanca
+ * @see java.util.stream.Collectors
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public final class TryCollectors {
+	/**
+	 * Utility class.
+	 */
+	private TryCollectors() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Returns a {@link Collector} that counts the failures in a stream,
+	 * grouping them by the class of their cause. Successes are ignored.
+	 *
+	 * @return a collector that returns a mutable map from the classes of
+	 * the causes to the number of failures with a cause of that class.
+	 */
+	public static Collector<Try<?>, ?, Map<Class<? extends Exception>, Long>> countingFailures() {
+		return Collector.<Try<?>, Map<Class<? extends Exception>, Long>>of(
+				HashMap::new,
+				(map, attempt) -> {
+					if (attempt.isUnsuccessful()) {
+						map.merge(attempt.getCause().getClass(), 1L,
+								Long::sum);
+					}
+				},
+				(left, right) -> {
+					// the smaller map is merged into the larger one
+					if (left.size() < right.size()) {
+						left.forEach((k, v) -> right.merge(k, v, Long::sum));
+						return right;
+					}
+					right.forEach((k, v) -> left.merge(k, v, Long::sum));
+					return left;
+				},
+				Collector.Characteristics.UNORDERED,
+				Collector.Characteristics.IDENTITY_FINISH);
+	}
+
+	/**
+	 * Returns a {@link Collector} that partitions a stream into the values
+	 * held by the successes and the causes held by the failures, in a
+	 * single pass.
+	 *
+	 * @param <T> the type of the values.
+	 * @return a collector that returns a {@link Partition}.
+	 */
+	public static <T> Collector<Try<? extends T>, ?, Partition<T>> partitioning() {
+		return Collector.of(
+				Partition<T>::new,
+				Partition::add,
+				Partition::merge);
+	}
+
+	/**
+	 * Returns a {@link Collector} that collects the values held by the
+	 * successes of a stream into a list, unless the stream contains a
+	 * failure.
+	 * <p>
+	 * Once a failure is found, the subsequent elements are ignored, but
+	 * the stream is still entirely consumed: collectors cannot stop a
+	 * stream.
+	 *
+	 * @param <T> the type of the values.
+	 * @return a collector that returns a success holding an unmodifiable
+	 * list of the values in encounter order, or the first failure in
+	 * encounter order.
+	 */
+	public static <T> Collector<Try<? extends T>, ?, Try<List<T>>> toList() {
+		return Collector.of(
+				FailFastList<T>::new,
+				FailFastList::add,
+				FailFastList::merge,
+				FailFastList::toTry);
+	}
+
+	/**
+	 * The result of the {@link #partitioning()} collector.
+	 *
+	 * @param <T> the type of the values held by the successes.
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	public static final class Partition<T> {
+		/**
+		 * The values held by the successes.
+		 */
+		private final List<T> successes = new ArrayList<>();
+
+		/**
+		 * The causes held by the failures.
+		 */
+		private final List<Exception> failures = new ArrayList<>();
+
+		/**
+		 * Only built by the collector.
+		 */
+		private Partition() {
+		}
+
+		/**
+		 * Adds an attempt to this partition.
+		 *
+		 * @param attempt the attempt.
+		 */
+		private void add(final Try<? extends T> attempt) {
+			if (attempt.isSuccessful()) {
+				successes.add(attempt.orElseThrow());
+			} else {
+				failures.add(attempt.getCause());
+			}
+		}
+
+		/**
+		 * Appends the content of the specified partition to this one.
+		 *
+		 * @param other the partition.
+		 * @return this partition.
+		 */
+		private Partition<T> merge(final Partition<T> other) {
+			successes.addAll(other.successes);
+			failures.addAll(other.failures);
+			return this;
+		}
+
+		/**
+		 * Returns the causes held by the failures, in encounter order.
+		 *
+		 * @return an unmodifiable list of causes.
+		 */
+		public List<Exception> getFailures() {
+			return Collections.unmodifiableList(failures);
+		}
+
+		/**
+		 * Returns the values held by the successes, in encounter order.
+		 *
+		 * @return an unmodifiable list of values.
+		 */
+		public List<T> getSuccesses() {
+			return Collections.unmodifiableList(successes);
+		}
+	}
+
+	/**
+	 * The container of the {@link #toList()} collector.
+	 *
+	 * @param <T> the type of the values.
+	 */
+	private static final class FailFastList<T> {
+		/**
+		 * The values collected so far.
+		 */
+		private final List<T> values = new ArrayList<>();
+
+		/**
+		 * The first failure, or {@code null} if none was found.
+		 */
+		private Exception failure;
+
+		/**
+		 * Adds an attempt to this container.
+		 *
+		 * @param attempt the attempt.
+		 */
+		private void add(final Try<? extends T> attempt) {
+			Objects.requireNonNull(attempt);
+			if (failure != null) {
+				return;
+			}
+			if (attempt.isSuccessful()) {
+				values.add(attempt.orElseThrow());
+			} else {
+				failure = attempt.getCause();
+				values.clear();
+			}
+		}
+
+		/**
+		 * Appends the content of the specified container, which follows
+		 * this one in encounter order.
+		 *
+		 * @param other the container.
+		 * @return the merged container.
+		 */
+		private FailFastList<T> merge(final FailFastList<T> other) {
+			if (failure != null) {
+				return this;
+			}
+			if (other.failure != null) {
+				return other;
+			}
+			values.addAll(other.values);
+			return this;
+		}
+
+		/**
+		 * Returns the outcome of the collection.
+		 *
+		 * @return the outcome.
+		 */
+		private Try<List<T>> toTry() {
+			return failure != null
+					? Failure.<List<T>>propagate(failure)
+					: new Success<>(Collections.unmodifiableList(values));
+		}
+	}
+}
@@ -0,0 +1,136 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.ThrowingSupplier;
+import org.apiguardian.api.API;
+
+import java.util.Objects;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Listener that is notified when a {@link Try} fails or recovers, for
+ * instance to collect metrics.
+ * <p>
+ * At most one listener is installed at a time, for the whole JVM, with
+ * {@link #install(TryListener)}. The listener is notified by the methods
+ * that perform a computation: {@link Try#get(eu.farsil.shelf.lambda.function.ThrowingSupplier)
+ * Try.get()}, {@link Try#map map()}, {@link Try#flatMap flatMap()}, {@link
+ * Try#filter filter()}, {@link Try#recover recover()} and {@link
+ * Try#flatRecover flatRecover()}, and by {@link Pipeline#apply(Object)}. The
+ * factories of failures, such as {@link Try#failure(Exception)}, do not
+ * notify it.
+ * <p>
+ * A listener can also wrap the computations performed by {@link
+ * Try#get(eu.farsil.shelf.lambda.function.ThrowingSupplier) Try.get()}, for
+ * instance to time them, by overriding {@link #intercept(ThrowingSupplier)}.
+ * <p>
+ * No listener is installed by default, unless the system property {@code
+ * eu.farsil.shelf.lambda.jfr} is {@code true} and the JDK Flight Recorder is
+ * available, in which case the listener of {@code
+ * eu.farsil.shelf.lambda.jfr}, which emits JFR events, is installed.
+ * When no listener is installed, the only cost of this mechanism is a
+ * volatile read per failure, and per computation of {@code Try.get()}.
+ * <p>
+ * The listener is invoked synchronously, on the thread that performs the
+ * computation, so it should be fast and thread-safe. Runtime exceptions
+ * thrown by the listener, including the ones thrown by {@link
+ * #intercept(ThrowingSupplier)} rather than by the computation, are ignored:
+ * they never alter the outcome of the computation.
+ *
+ * @author Marco Buzzanca
+ * @see TryMetrics
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public interface TryListener {
+	/**
+	 * Installs the specified listener, replacing the current one.
+	 *
+	 * @param listener the listener.
+	 * @throws NullPointerException if the listener is {@code null}.
+	 */
+	static void install(final TryListener listener) {
+		Listeners.listener = Objects.requireNonNull(listener);
+	}
+
+	/**
+	 * Removes the current listener, if any.
+	 */
+	static void uninstall() {
+		Listeners.listener = null;
+	}
+
+	/**
+	 * Returns a listener that notifies this listener, then the specified
+	 * one. Its computations are intercepted by this listener, then by the
+	 * specified one.
+	 *
+	 * @param other the listener to notify after this one.
+	 * @return the composed listener.
+	 * @throws NullPointerException if the listener is {@code null}.
+	 */
+	default TryListener andThen(final TryListener other) {
+		Objects.requireNonNull(other);
+		final TryListener self = this;
+		return new TryListener() {
+			@Override
+			public <T> T intercept(final ThrowingSupplier<T> supplier)
+					throws Exception {
+				return self.intercept(() -> other.intercept(supplier));
+			}
+
+			@Override
+			public void onFailure(final Exception cause) {
+				try {
+					self.onFailure(cause);
+				} finally {
+					other.onFailure(cause);
+				}
+			}
+
+			@Override
+			public void onRecovery(final Exception cause) {
+				try {
+					self.onRecovery(cause);
+				} finally {
+					other.onRecovery(cause);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Performs a computation of {@link Try#get(ThrowingSupplier) Try.get()}.
+	 * Implementations must invoke the supplier exactly once, and return its
+	 * result or let its exception propagate. The default implementation
+	 * only invokes the supplier.
+	 * <p>
+	 * The outcome of the computation is the one of the supplier: exceptions
+	 * that are not thrown by the supplier are ignored, and if this method
+	 * throws before invoking the supplier, the supplier is invoked anyway.
+	 *
+	 * @param supplier the computation.
+	 * @param <T> the type of the result.
+	 * @return the result of the supplier.
+	 * @throws Exception if the supplier throws an exception.
+	 */
+	default <T> T intercept(final ThrowingSupplier<T> supplier)
+			throws Exception {
+		return supplier.get();
+	}
+
+	/**
+	 * Invoked when a computation fails.
+	 *
+	 * @param cause the cause of the failure.
+	 */
+	void onFailure(Exception cause);
+
+	/**
+	 * Invoked when a failure is recovered. The default implementation does
+	 * nothing.
+	 *
+	 * @param cause the cause of the recovered failure.
+	 */
+	default void onRecovery(final Exception cause) {
+	}
+}
@@ -0,0 +1,206 @@
+package eu.farsil.shelf.lambda;
+
+import org.apiguardian.api.API;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A {@link TryListener} that counts failures and recoveries by exception
+ * class.
+ * <p>
+ * Each exception class has its own {@link LongAdder}, which spreads the
+ * updates of concurrent threads over several cells, so that counting scales
+ * with the number of threads that fail at the same time. The counters are
+ * read with {@link #snapshot()}, for instance by a periodic exporter:
+ * <pre>{@code final TryMetrics metrics = TryMetrics.create();
+ *  TryListener.install(metrics);
+ *  ...
+ *  metrics.snapshot().getFailures().forEach((type, count) ->
+ *      registry.gauge("try.failures", type.getName(), count));}</pre>
+ *
+ * @author Marco Buzzanca
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public final class TryMetrics implements TryListener {
+	/**
+	 * The failure counters, by exception class.
+	 */
+	private final ConcurrentMap<Class<? extends Exception>, LongAdder> failures =
+			new ConcurrentHashMap<>();
+
+	/**
+	 * The recovery counters, by exception class.
+	 */
+	private final ConcurrentMap<Class<? extends Exception>, LongAdder> recoveries =
+			new ConcurrentHashMap<>();
+
+	/**
+	 * Builds an instance with no counts.
+	 */
+	private TryMetrics() {
+	}
+
+	/**
+	 * Returns a new instance, with no counts. The instance must be installed
+	 * with {@link TryListener#install(TryListener)} to count anything.
+	 *
+	 * @return the new instance.
+	 */
+	public static TryMetrics create() {
+		return new TryMetrics();
+	}
+
+	/**
+	 * Increments the counter of the specified exception class.
+	 *
+	 * @param counters the counters.
+	 * @param type the exception class.
+	 */
+	private static void increment(
+			final ConcurrentMap<Class<? extends Exception>, LongAdder> counters,
+			final Class<? extends Exception> type) {
+		LongAdder counter = counters.get(type);
+		if (counter == null) {
+			counter = counters.computeIfAbsent(type, t -> new LongAdder());
+		}
+		counter.increment();
+	}
+
+	/**
+	 * Returns the current values of the specified counters.
+	 *
+	 * @param counters the counters.
+	 * @return an unmodifiable map of the values.
+	 */
+	private static Map<Class<? extends Exception>, Long> sum(
+			final ConcurrentMap<Class<? extends Exception>, LongAdder> counters) {
+		final Map<Class<? extends Exception>, Long> result = new HashMap<>();
+		counters.forEach((type, counter) -> result.put(type, counter.sum()));
+		return Collections.unmodifiableMap(result);
+	}
+
+	@Override
+	public void onFailure(final Exception cause) {
+		increment(failures, cause.getClass());
+	}
+
+	@Override
+	public void onRecovery(final Exception cause) {
+		increment(recoveries, cause.getClass());
+	}
+
+	/**
+	 * Resets all the counters. Counts that happen concurrently with the
+	 * reset may be lost.
+	 */
+	public void reset() {
+		failures.values().forEach(LongAdder::reset);
+		recoveries.values().forEach(LongAdder::reset);
+	}
+
+	/**
+	 * Returns a snapshot of the counters. The snapshot is not atomic: counts
+	 * that happen while it is taken may or may not be included.
+	 *
+	 * @return the snapshot.
+	 */
+	public Snapshot snapshot() {
+		return new Snapshot(sum(failures), sum(recoveries));
+	}
+
+	/**
+	 * The values of the counters of a {@link TryMetrics} at some point in
+	 * time.
+	 *
+	 * @author Marco Buzzanca
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	public static final class Snapshot {
+		/**
+		 * The number of failures, by exception class.
+		 */
+		private final Map<Class<? extends Exception>, Long> failures;
+
+		/**
+		 * The number of recoveries, by exception class.
+		 */
+		private final Map<Class<? extends Exception>, Long> recoveries;
+
+		/**
+		 * Builds a snapshot.
+		 *
+		 * @param failures the number of failures, by exception class.
+		 * @param recoveries the number of recoveries, by exception class.
+		 */
+		Snapshot(final Map<Class<? extends Exception>, Long> failures,
+				final Map<Class<? extends Exception>, Long> recoveries) {
+			this.failures = failures;
+			this.recoveries = recoveries;
+		}
+
+		/**
+		 * Returns the number of failures caused by exactly the specified
+		 * exception class, excluding its subclasses.
+		 *
+		 * @param type the exception class.
+		 * @return the number of failures.
+		 */
+		public long getFailureCount(final Class<? extends Exception> type) {
+			return failures.getOrDefault(type, 0L);
+		}
+
+		/**
+		 * Returns the number of failures, by exception class.
+		 *
+		 * @return an unmodifiable map of the number of failures.
+		 */
+		public Map<Class<? extends Exception>, Long> getFailures() {
+			return failures;
+		}
+
+		/**
+		 * Returns the number of recoveries of failures caused by exactly the
+		 * specified exception class, excluding its subclasses.
+		 *
+		 * @param type the exception class.
+		 * @return the number of recoveries.
+		 */
+		public long getRecoveryCount(final Class<? extends Exception> type) {
+			return recoveries.getOrDefault(type, 0L);
+		}
+
+		/**
+		 * Returns the number of recoveries, by exception class.
+		 *
+		 * @return an unmodifiable map of the number of recoveries.
+		 */
+		public Map<Class<? extends Exception>, Long> getRecoveries() {
+			return recoveries;
+		}
+
+		/**
+		 * Returns the total number of failures.
+		 *
+		 * @return the total number of failures.
+		 */
+		public long getTotalFailureCount() {
+			return failures.values().stream().mapToLong(Long::longValue).sum();
+		}
+
+		/**
+		 * Returns the total number of recoveries.
+		 *
+		 * @return the total number of recoveries.
+		 */
+		public long getTotalRecoveryCount() {
+			return recoveries.values().stream().mapToLong(Long::longValue).sum();
+		}
+	}
+}
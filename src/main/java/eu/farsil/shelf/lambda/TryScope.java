@@ -0,0 +1,418 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.ThrowingSupplier;
+import org.apiguardian.api.API;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A scope that runs computations concurrently, each on its own thread, and
+ * joins their outcomes into {@link Try} instances.
+ * <p>
+ * The scope is structured: it is opened, the computations are forked, and
+ * the scope is joined and closed by the same thread, the owner, so that no
+ * thread outlives the scope:
+ * <pre>{@code try (final TryScope<Page> scope = TryScope.open(TryScope.Policy.FAIL_FAST)) {
+ *      for (final URI uri : uris) {
+ *          scope.fork(() -> fetch(uri));
+ *      }
+ *      scope.join();
+ *      return scope.toTry();
+ *  }}</pre>
+ * On Java 21 and later, each computation runs on a virtual thread by
+ * default, which makes it practical to fork thousands of blocking calls. On
+ * earlier versions, it runs on a daemon platform thread. A custom {@link
+ * ThreadFactory} may be specified in either case.
+ *
+ * @param <T> the type of the results.
+ * @author Marco Buzzanca
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public final class TryScope<T> implements AutoCloseable {
+	/**
+	 * The policy.
+	 */
+	private final Policy policy;
+
+	/**
+	 * The factory of the threads of the subtasks.
+	 */
+	private final ThreadFactory factory;
+
+	/**
+	 * The thread that opened the scope.
+	 */
+	private final Thread owner = Thread.currentThread();
+
+	/**
+	 * The subtasks, in fork order. Guarded by this scope, since failing
+	 * subtasks read it to cancel the others.
+	 */
+	private final List<Subtask> subtasks = new ArrayList<>();
+
+	/**
+	 * The cause of the first failure.
+	 */
+	private final AtomicReference<Exception> failure =
+			new AtomicReference<>();
+
+	/**
+	 * The first error thrown by a subtask.
+	 */
+	private final AtomicReference<Error> error = new AtomicReference<>();
+
+	/**
+	 * Whether the subtasks have been cancelled.
+	 */
+	private volatile boolean cancelled;
+
+	/**
+	 * The outcomes, or {@code null} if the scope has not been joined.
+	 */
+	private List<Try<T>> outcomes;
+
+	/**
+	 * Whether the scope has been closed.
+	 */
+	private boolean closed;
+
+	/**
+	 * Builds a scope.
+	 *
+	 * @param policy the policy.
+	 * @param factory the factory of the threads of the subtasks.
+	 */
+	private TryScope(final Policy policy, final ThreadFactory factory) {
+		this.policy = policy;
+		this.factory = factory;
+	}
+
+	/**
+	 * Returns whether the scopes run their computations on virtual threads
+	 * by default, which requires Java 21 or later.
+	 *
+	 * @return {@code true} if virtual threads are supported, {@code false}
+	 * otherwise.
+	 */
+	public static boolean isVirtual() {
+		return VirtualThreads.isSupported();
+	}
+
+	/**
+	 * Opens a scope with the specified policy, owned by the current thread,
+	 * whose computations run on virtual threads if they are supported.
+	 *
+	 * @param policy the policy.
+	 * @param <T> the type of the results.
+	 * @return the scope.
+	 * @throws NullPointerException if the policy is {@code null}.
+	 */
+	public static <T> TryScope<T> open(final Policy policy) {
+		return open(policy, VirtualThreads.factory());
+	}
+
+	/**
+	 * Opens a scope with the specified policy, owned by the current thread,
+	 * whose computations run on the threads created by the specified
+	 * factory.
+	 *
+	 * @param policy the policy.
+	 * @param factory the factory of the threads.
+	 * @param <T> the type of the results.
+	 * @return the scope.
+	 * @throws NullPointerException if any of the arguments is {@code null}.
+	 */
+	public static <T> TryScope<T> open(final Policy policy,
+			final ThreadFactory factory) {
+		Objects.requireNonNull(policy);
+		Objects.requireNonNull(factory);
+		return new TryScope<>(policy, factory);
+	}
+
+	/**
+	 * Cancels the subtasks that have not completed and waits for their
+	 * threads to terminate, if the scope has not been joined. Does nothing
+	 * if the scope is already closed. The wait cannot be interrupted, but
+	 * the interrupt status of the current thread is preserved.
+	 *
+	 * @throws IllegalStateException if the current thread is not the owner.
+	 */
+	@Override
+	public void close() {
+		checkOwner();
+		if (closed) {
+			return;
+		}
+		closed = true;
+		if (outcomes != null) {
+			return;
+		}
+		cancel();
+		boolean interrupted = false;
+		for (final Subtask subtask : snapshot()) {
+			while (subtask.thread != null) {
+				try {
+					subtask.thread.join();
+					break;
+				} catch (final InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Starts a computation on a new thread. If the scope has been cancelled
+	 * by a failure, the computation is not started, and its outcome is a
+	 * failure caused by a {@link CancellationException}.
+	 *
+	 * @param supplier the computation.
+	 * @throws NullPointerException if the supplier is {@code null}.
+	 * @throws IllegalStateException if the current thread is not the owner,
+	 * or if the scope has been joined or closed.
+	 */
+	public void fork(final ThrowingSupplier<? extends T> supplier) {
+		Objects.requireNonNull(supplier);
+		checkOwner();
+		if (outcomes != null || closed) {
+			throw new IllegalStateException("scope already joined or closed");
+		}
+		final Subtask subtask = new Subtask(supplier);
+		synchronized (this) {
+			subtasks.add(subtask);
+		}
+		if (cancelled) {
+			subtask.outcome = cancellation();
+			return;
+		}
+		final Thread thread = Objects.requireNonNull(
+				factory.newThread(subtask));
+		subtask.thread = thread;
+		thread.start();
+	}
+
+	/**
+	 * Waits for all the computations to complete, and returns their
+	 * outcomes. With the {@link Policy#FAIL_FAST} policy, the computations
+	 * cancelled by a failure, which either did not start or failed due to
+	 * the interruption, complete with a failure caused by a {@link
+	 * CancellationException}, while the other failures are preserved.
+	 * Invoking this method again returns the same outcomes.
+	 *
+	 * @return an unmodifiable list of the outcomes, in fork order.
+	 * @throws InterruptedException if the current thread is interrupted
+	 * while waiting, in which case the computations are cancelled.
+	 * @throws IllegalStateException if the current thread is not the owner,
+	 * or if the scope has been closed before being joined.
+	 * @throws Error if a computation threw an error.
+	 */
+	public List<Try<T>> join() throws InterruptedException {
+		checkOwner();
+		if (outcomes != null) {
+			return outcomes;
+		}
+		if (closed) {
+			throw new IllegalStateException("scope already closed");
+		}
+		final List<Subtask> snapshot = snapshot();
+		try {
+			for (final Subtask subtask : snapshot) {
+				if (subtask.thread != null) {
+					subtask.thread.join();
+				}
+			}
+		} catch (final InterruptedException e) {
+			cancel();
+			throw e;
+		}
+		final Error e = error.get();
+		if (e != null) {
+			throw e;
+		}
+		final List<Try<T>> list = new ArrayList<>(snapshot.size());
+		for (final Subtask subtask : snapshot) {
+			list.add(subtask.outcome);
+		}
+		outcomes = Collections.unmodifiableList(list);
+		return outcomes;
+	}
+
+	/**
+	 * Returns the outcome of the scope as a single {@link Try}: a success
+	 * holding the results of all the computations, in fork order, or a
+	 * failure holding the cause of the first computation that failed, in
+	 * time.
+	 *
+	 * @return the outcome of the scope.
+	 * @throws IllegalStateException if the current thread is not the owner,
+	 * or if the scope has not been joined.
+	 */
+	public Try<List<T>> toTry() {
+		checkOwner();
+		if (outcomes == null) {
+			throw new IllegalStateException("scope not joined");
+		}
+		final Exception cause = failure.get();
+		if (cause != null) {
+			return new Failure<>(cause);
+		}
+		final List<T> values = new ArrayList<>(outcomes.size());
+		for (final Try<T> outcome : outcomes) {
+			values.add(outcome.orElseThrow());
+		}
+		return new Success<>(Collections.unmodifiableList(values));
+	}
+
+	/**
+	 * Returns the failure of a cancelled computation.
+	 *
+	 * @return the failure.
+	 */
+	private Try<T> cancellation() {
+		return new Failure<>(new CancellationException(
+				"cancelled by the failure of another subtask"));
+	}
+
+	/**
+	 * Cancels the subtasks that have not completed, interrupting their
+	 * threads.
+	 */
+	private void cancel() {
+		cancelled = true;
+		final Thread self = Thread.currentThread();
+		for (final Subtask subtask : snapshot()) {
+			final Thread thread = subtask.thread;
+			if (thread != null && thread != self &&
+					subtask.outcome == null) {
+				subtask.interrupted = true;
+				thread.interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Checks that the current thread is the owner.
+	 *
+	 * @throws IllegalStateException if it is not.
+	 */
+	private void checkOwner() {
+		if (Thread.currentThread() != owner) {
+			throw new IllegalStateException("not the owner of the scope");
+		}
+	}
+
+	/**
+	 * Returns a copy of the subtasks.
+	 *
+	 * @return the copy.
+	 */
+	private synchronized List<Subtask> snapshot() {
+		return new ArrayList<>(subtasks);
+	}
+
+	/**
+	 * The policies of the scopes.
+	 *
+	 * @author Marco Buzzanca
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	public enum Policy {
+		/**
+		 * Every computation runs to completion, regardless of failures.
+		 */
+		COLLECT_ALL,
+
+		/**
+		 * The first failure cancels the computations that have not completed
+		 * yet, and prevents new ones from starting.
+		 */
+		FAIL_FAST
+	}
+
+	/**
+	 * A computation forked in the scope.
+	 */
+	private final class Subtask implements Runnable {
+		/**
+		 * The computation.
+		 */
+		private final ThrowingSupplier<? extends T> supplier;
+
+		/**
+		 * The thread of the computation, or {@code null} if it was not
+		 * started. Written by the owner before the thread starts.
+		 */
+		volatile Thread thread;
+
+		/**
+		 * The outcome, or {@code null} if the computation has not completed.
+		 */
+		volatile Try<T> outcome;
+
+		/**
+		 * Whether the thread was interrupted by the cancellation.
+		 */
+		volatile boolean interrupted;
+
+		/**
+		 * Builds a subtask.
+		 *
+		 * @param supplier the computation.
+		 */
+		Subtask(final ThrowingSupplier<? extends T> supplier) {
+			this.supplier = supplier;
+		}
+
+		@Override
+		public void run() {
+			if (cancelled) {
+				outcome = cancellation();
+				return;
+			}
+			Try<T> attempt;
+			try {
+				attempt = Try.get(supplier);
+			} catch (final Error e) {
+				error.compareAndSet(null, e);
+				attempt = new Failure<>(new IllegalStateException(e));
+				cancel();
+			}
+			if (attempt.isUnsuccessful()) {
+				final boolean first = failure.compareAndSet(null,
+						attempt.getCause());
+				if (policy == Policy.FAIL_FAST) {
+					if (first) {
+						cancel();
+					} else if (isCancelled(attempt.getCause())) {
+						attempt = cancellation();
+					}
+				}
+			}
+			outcome = attempt;
+		}
+
+		/**
+		 * Tells whether a failure is due to the interruption of the
+		 * cancellation, rather than a genuine failure of the computation.
+		 *
+		 * @param cause the cause of the failure.
+		 * @return {@code true} if the computation was interrupted by the
+		 * cancellation and failed because of it, {@code false} otherwise.
+		 */
+		private boolean isCancelled(final Exception cause) {
+			return interrupted && (cause instanceof InterruptedException
+					|| Thread.currentThread().isInterrupted());
+		}
+	}
+}
@@ -0,0 +1,247 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.ThrowingFunction;
+import org.apiguardian.api.API;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Operations on streams that tolerate the failures of the functions applied
+ * to their elements.
+ * <p>
+ * Mapping a stream to instances of {@link Try} allocates an attempt per
+ * element, and the following stages of the stream must deal with them. The
+ * operations of this class route the failures to a separate sink instead, so
+ * that only the successful values reach the following stages, and no attempt
+ * is allocated:
+ * <pre>{@code final List<Exception> rejected = new ArrayList<>();
+ *  final long total = TryStreams.mapTry(rows.parallelStream(), Row::parse,
+ *          rejected::add)
+ *      .mapToLong(Row::getAmount)
+ *      .sum();}</pre>
+ *
+ * @author Marco Buzzanca
+ * @see TryCollectors
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public final class TryStreams {
+	/**
+	 * Utility class.
+	 */
+	private TryStreams() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Returns a stream of the results of the specified function applied to
+	 * the elements of the specified stream, skipping the elements on which
+	 * the function fails. The causes of the failures are passed to the
+	 * specified sink.
+	 * <p>
+	 * The function fails on an element if it throws an exception, or if it
+	 * returns {@code null}, as with {@link Try#map map()}: in the latter case
+	 * the cause is the same as the one of {@link Try#empty()}. Exceptions
+	 * thrown by the following stages of the stream are not failures of the
+	 * function, and are propagated.
+	 * <p>
+	 * The sink is invoked as soon as a failure occurs, by the thread that
+	 * applied the function, but never concurrently, even in parallel streams:
+	 * the invocations are serialized on a lock shared by the partitions of
+	 * the stream, which is only acquired on failures. Therefore, the sink
+	 * does not need to be thread-safe, but it should be fast. In parallel
+	 * streams, the failures are not passed in encounter order. Once the
+	 * terminal operation of the returned stream completes, all the failures
+	 * it encountered have been passed to the sink, and the effects of the
+	 * sink are visible to the thread that invoked it.
+	 * <p>
+	 * The returned stream is parallel if the specified stream is, and
+	 * closing it closes the specified stream.
+	 *
+	 * @param stream the stream.
+	 * @param mapper the function to apply to each element.
+	 * @param sink the sink of the causes of the failures.
+	 * @param <T> the type of the elements of the stream.
+	 * @param <R> the type of the results.
+	 * @return the stream of the results.
+	 * @throws NullPointerException if any argument is {@code null}.
+	 */
+	public static <T, R> Stream<R> mapTry(final Stream<T> stream,
+			final ThrowingFunction<? super T, ? extends R> mapper,
+			final Consumer<? super Exception> sink) {
+		Objects.requireNonNull(stream);
+		Objects.requireNonNull(mapper);
+		Objects.requireNonNull(sink);
+		return StreamSupport.stream(new MapTrySpliterator<T, R>(
+						stream.spliterator(), mapper, new Sink(sink)),
+				stream.isParallel())
+				.onClose(stream::close);
+	}
+
+	/**
+	 * The sink of the failures, shared by the partitions of a stream.
+	 */
+	private static final class Sink {
+		/**
+		 * The sink provided by the user.
+		 */
+		private final Consumer<? super Exception> delegate;
+
+		/**
+		 * Builds a sink.
+		 *
+		 * @param delegate the sink provided by the user.
+		 */
+		Sink(final Consumer<? super Exception> delegate) {
+			this.delegate = delegate;
+		}
+
+		/**
+		 * Passes a failure to the sink provided by the user, and notifies
+		 * the installed {@link TryListener}, if any.
+		 *
+		 * @param cause the cause of the failure.
+		 */
+		void accept(final Exception cause) {
+			Listeners.failed(cause);
+			synchronized (this) {
+				delegate.accept(cause);
+			}
+		}
+	}
+
+	/**
+	 * A spliterator that maps the elements of another one, skipping the
+	 * elements on which the function fails.
+	 *
+	 * @param <T> the type of the elements of the source.
+	 * @param <R> the type of the results.
+	 */
+	private static final class MapTrySpliterator<T, R>
+			implements Spliterator<R>, Consumer<T> {
+		/**
+		 * The characteristics of the source that the results keep.
+		 */
+		private static final int KEPT = ORDERED | CONCURRENT | IMMUTABLE;
+
+		/**
+		 * The source.
+		 */
+		private final Spliterator<T> source;
+
+		/**
+		 * The function to apply.
+		 */
+		private final ThrowingFunction<? super T, ? extends R> mapper;
+
+		/**
+		 * The sink of the failures.
+		 */
+		private final Sink sink;
+
+		/**
+		 * The result of the last element, or {@code null} if the function
+		 * failed on it.
+		 */
+		private R result;
+
+		/**
+		 * Builds a spliterator.
+		 *
+		 * @param source the source.
+		 * @param mapper the function to apply.
+		 * @param sink the sink of the failures.
+		 */
+		MapTrySpliterator(final Spliterator<T> source,
+				final ThrowingFunction<? super T, ? extends R> mapper,
+				final Sink sink) {
+			this.source = source;
+			this.mapper = mapper;
+			this.sink = sink;
+		}
+
+		/**
+		 * Applies the function to an element, and stores the result.
+		 *
+		 * @param t the element.
+		 */
+		@Override
+		public void accept(final T t) {
+			result = apply(t);
+		}
+
+		/**
+		 * Applies the function to an element, passing its failure to the
+		 * sink.
+		 *
+		 * @param t the element.
+		 * @return the result, or {@code null} if the function failed.
+		 */
+		private R apply(final T t) {
+			try {
+				final R r = mapper.apply(t);
+				if (r == null) {
+					sink.accept(Exceptions.NO_VALUE);
+				}
+				return r;
+			} catch (final Exception e) {
+				sink.accept(e);
+				return null;
+			}
+		}
+
+		@Override
+		public int characteristics() {
+			return source.characteristics() & KEPT | NONNULL;
+		}
+
+		/**
+		 * Returns the estimated size of the source, since the number of
+		 * failures is not known in advance.
+		 *
+		 * @return the estimated size of the source.
+		 */
+		@Override
+		public long estimateSize() {
+			return source.estimateSize();
+		}
+
+		@Override
+		public void forEachRemaining(final Consumer<? super R> action) {
+			Objects.requireNonNull(action);
+			source.forEachRemaining(t -> {
+				final R r = apply(t);
+				if (r != null) {
+					action.accept(r);
+				}
+			});
+		}
+
+		@Override
+		public boolean tryAdvance(final Consumer<? super R> action) {
+			Objects.requireNonNull(action);
+			while (source.tryAdvance(this)) {
+				final R r = result;
+				if (r != null) {
+					result = null;
+					action.accept(r);
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public Spliterator<R> trySplit() {
+			final Spliterator<T> split = source.trySplit();
+			return split != null
+					? new MapTrySpliterator<>(split, mapper, sink)
+					: null;
+		}
+	}
+}
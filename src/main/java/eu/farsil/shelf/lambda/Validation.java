@@ -0,0 +1,172 @@
+package eu.farsil.shelf.lambda;
+
+import org.apiguardian.api.API;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * The outcome of the validation of a value, which is either <i>valid</i>,
+ * or <i>invalid</i> because it broke one or more rules.
+ * <p>
+ * Instances are returned by {@link Validator#validate(Object)}, or
+ * converted from a {@link Try} with {@link #fromTry(Try)}. The errors are
+ * held compactly: the broken rules are recorded in a bit set, which refers
+ * to the messages of the validator, and no exception is created for them.
+ * The messages are only assembled by {@link #getErrors()}.
+ *
+ * @param <T> the type of the value.
+ * @author Marco Buzzanca
+ * @see Validator
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public final class Validation<T> {
+	/**
+	 * The validated value, or {@code null} if converted from a failure.
+	 */
+	private final T value;
+
+	/**
+	 * The messages of the rules.
+	 */
+	private final String[] messages;
+
+	/**
+	 * The bit set of the broken rules, or {@code null} if there are none.
+	 */
+	private final long[] broken;
+
+	/**
+	 * The exceptions thrown by the rules, by rule, or {@code null} if no
+	 * rule threw an exception.
+	 */
+	private final Exception[] causes;
+
+	/**
+	 * Builds an outcome.
+	 *
+	 * @param value the validated value.
+	 * @param messages the messages of the rules.
+	 * @param broken the bit set of the broken rules, or {@code null}.
+	 * @param causes the exceptions thrown by the rules, or {@code null}.
+	 */
+	Validation(final T value, final String[] messages, final long[] broken,
+			final Exception[] causes) {
+		this.value = value;
+		this.messages = messages;
+		this.broken = broken;
+		this.causes = causes;
+	}
+
+	/**
+	 * Converts the specified attempt into a validation: a success is valid,
+	 * while a failure is invalid, with a single error whose message is the
+	 * string representation of the cause.
+	 *
+	 * @param attempt the attempt.
+	 * @param <T> the type of the value.
+	 * @return the validation.
+	 * @throws NullPointerException if the attempt is {@code null}.
+	 */
+	public static <T> Validation<T> fromTry(final Try<? extends T> attempt) {
+		final Exception cause = attempt.getCause();
+		if (cause == null) {
+			return new Validation<>(attempt.orElseThrow(), new String[0],
+					null, null);
+		}
+		return new Validation<>(null, new String[]{cause.toString()},
+				new long[]{1L}, new Exception[]{cause});
+	}
+
+	/**
+	 * Returns the first exception thrown by a broken rule, if any.
+	 *
+	 * @return the first exception, or {@code null} if no rule threw one.
+	 */
+	private Exception getFirstCause() {
+		if (causes != null) {
+			for (final Exception cause : causes) {
+				if (cause != null) {
+					return cause;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the number of broken rules.
+	 *
+	 * @return the number of broken rules, 0 if the value is valid.
+	 */
+	public int getErrorCount() {
+		if (broken == null) {
+			return 0;
+		}
+		int count = 0;
+		for (final long word : broken) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the messages of the broken rules, in the order the rules were
+	 * added to the validator. If a rule threw an exception, its message is
+	 * followed by the exception.
+	 *
+	 * @return an unmodifiable list of the messages, empty if the value is
+	 * valid.
+	 */
+	public List<String> getErrors() {
+		if (broken == null) {
+			return Collections.emptyList();
+		}
+		final List<String> errors = new ArrayList<>(getErrorCount());
+		for (int w = 0; w < broken.length; w++) {
+			for (long word = broken[w]; word != 0; word &= word - 1) {
+				final int i = (w << 6) + Long.numberOfTrailingZeros(word);
+				final Exception cause = causes != null ? causes[i] : null;
+				errors.add(cause == null || messages[i].equals(cause.toString())
+						? messages[i]
+						: messages[i] + ": " + cause);
+			}
+		}
+		return Collections.unmodifiableList(errors);
+	}
+
+	/**
+	 * Returns whether the value broke no rule.
+	 *
+	 * @return {@code true} if the value is valid, {@code false} otherwise.
+	 */
+	public boolean isValid() {
+		return broken == null;
+	}
+
+	/**
+	 * Converts this validation into a {@link Try}: if the value is valid,
+	 * the attempt is successful and holds it, otherwise it is failed and
+	 * caused by a {@link ValidationException} holding the errors, whose
+	 * cause is the first exception thrown by a broken rule, if any.
+	 *
+	 * @return the attempt.
+	 */
+	public Try<T> toTry() {
+		return broken == null
+				? new Success<>(value)
+				: new Failure<>(new ValidationException(getErrors(),
+						getFirstCause()));
+	}
+
+	@Override
+	public String toString() {
+		return broken == null
+				? "Validation[valid: " + value + "]"
+				: "Validation[invalid: " + getErrors() + "]";
+	}
+}
@@ -0,0 +1,54 @@
+package eu.farsil.shelf.lambda;
+
+import org.apiguardian.api.API;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Exception that causes the failure returned by {@link Validation#toTry()}
+ * when the value is invalid. It holds the messages of all the broken rules.
+ * <p>
+ * Instances of this exception have no stack trace: validation errors are
+ * expected, and are fully described by the messages.
+ *
+ * @author Marco Buzzanca
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public class ValidationException extends RuntimeException {
+	/**
+	 * Required by {@link Serializable}.
+	 */
+	private static final long serialVersionUID = 6187429105364825077L;
+
+	/**
+	 * The messages of the broken rules.
+	 */
+	private final ArrayList<String> errors;
+
+	/**
+	 * Builds an instance with the specified errors and cause.
+	 *
+	 * @param errors the messages of the broken rules.
+	 * @param cause the first exception thrown by a broken rule, or {@code
+	 * null}.
+	 */
+	// end-users are not supposed to create instances of this exception
+	ValidationException(final List<String> errors, final Throwable cause) {
+		super(String.join("; ", errors), cause, false, false);
+		this.errors = new ArrayList<>(errors);
+	}
+
+	/**
+	 * Returns the messages of the broken rules.
+	 *
+	 * @return an unmodifiable list of the messages.
+	 */
+	public List<String> getErrors() {
+		return Collections.unmodifiableList(errors);
+	}
+}
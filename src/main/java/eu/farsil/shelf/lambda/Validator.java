@@ -0,0 +1,156 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.ThrowingPredicate;
+import org.apiguardian.api.API;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A reusable set of rules, which validates values in a single pass and
+ * reports every rule they break.
+ * <p>
+ * Unlike a chain of {@link Try#filter filter()} calls, which stops at the
+ * first predicate that fails, a validator applies all its rules, and its
+ * outcome, a {@link Validation}, holds all the broken ones:
+ * <pre>{@code final Validator<Order> validator = Validator.<Order>builder()
+ *      .rule("id must be positive", o -> o.getId() > 0)
+ *      .rule("customer must not be empty", o -> !o.getCustomer().isEmpty())
+ *      .rule("quantity must be positive", o -> o.getQuantity() > 0)
+ *      .build();
+ *  final Validation<Order> validation = validator.validate(order);
+ *  if (!validation.isValid()) {
+ *      validation.getErrors().forEach(log::warn);
+ *  }}</pre>
+ * A rule is broken if its predicate returns {@code false} or throws an
+ * exception. Validators are immutable, and thread-safe as long as their
+ * predicates are.
+ *
+ * @param <T> the type of the validated values.
+ * @author Marco Buzzanca
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public final class Validator<T> {
+	/**
+	 * The predicates of the rules.
+	 */
+	private final ThrowingPredicate<? super T>[] predicates;
+
+	/**
+	 * The messages of the rules, shared by the outcomes.
+	 */
+	private final String[] messages;
+
+	/**
+	 * Builds a validator from the specified builder.
+	 *
+	 * @param builder the builder.
+	 */
+	@SuppressWarnings("unchecked")
+	private Validator(final Builder<T> builder) {
+		this.predicates = builder.predicates.toArray(new ThrowingPredicate[0]);
+		this.messages = builder.messages.toArray(new String[0]);
+	}
+
+	/**
+	 * Returns a builder of validators, with no rules.
+	 *
+	 * @param <T> the type of the validated values.
+	 * @return the builder.
+	 */
+	public static <T> Builder<T> builder() {
+		return new Builder<>();
+	}
+
+	/**
+	 * Applies all the rules to the specified value.
+	 * <p>
+	 * The broken rules are recorded in a bit set, and the exceptions thrown
+	 * by the predicates, if any, in an array allocated on the first one:
+	 * validating a value allocates the outcome and, when rules are broken,
+	 * only a handful of objects regardless of their number.
+	 *
+	 * @param value the value to validate.
+	 * @return the outcome of the validation.
+	 * @throws NullPointerException if the value is {@code null}.
+	 */
+	public Validation<T> validate(final T value) {
+		Objects.requireNonNull(value);
+		long[] broken = null;
+		Exception[] causes = null;
+		for (int i = 0; i < predicates.length; i++) {
+			boolean passed;
+			try {
+				passed = predicates[i].test(value);
+			} catch (final Exception e) {
+				passed = false;
+				if (causes == null) {
+					causes = new Exception[predicates.length];
+				}
+				causes[i] = e;
+			}
+			if (!passed) {
+				if (broken == null) {
+					broken = new long[(predicates.length + 63) >>> 6];
+				}
+				broken[i >>> 6] |= 1L << i;
+			}
+		}
+		return new Validation<>(value, messages, broken, causes);
+	}
+
+	/**
+	 * Builder of {@link Validator} instances.
+	 *
+	 * @param <T> the type of the validated values.
+	 * @author Marco Buzzanca
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	public static final class Builder<T> {
+		/**
+		 * The predicates of the rules.
+		 */
+		private final List<ThrowingPredicate<? super T>> predicates =
+				new ArrayList<>();
+
+		/**
+		 * The messages of the rules.
+		 */
+		private final List<String> messages = new ArrayList<>();
+
+		/**
+		 * Builds a builder with no rules.
+		 */
+		private Builder() {
+		}
+
+		/**
+		 * Builds a validator with the rules added to this builder so far.
+		 *
+		 * @return the validator.
+		 */
+		public Validator<T> build() {
+			return new Validator<>(this);
+		}
+
+		/**
+		 * Adds a rule, which is broken if the specified predicate returns
+		 * {@code false} or throws an exception.
+		 *
+		 * @param message the message reported when the rule is broken.
+		 * @param predicate the predicate that the values must match.
+		 * @return this builder.
+		 * @throws NullPointerException if any of the arguments is {@code
+		 * null}.
+		 */
+		public Builder<T> rule(final String message,
+				final ThrowingPredicate<? super T> predicate) {
+			messages.add(Objects.requireNonNull(message));
+			predicates.add(Objects.requireNonNull(predicate));
+			return this;
+		}
+	}
+}
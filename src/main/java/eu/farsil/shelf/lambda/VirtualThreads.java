@@ -0,0 +1,51 @@
+package eu.farsil.shelf.lambda;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the threads of the {@link TryScope} instances.
+ * <p>
+ * This is the implementation for the Java versions without virtual threads,
+ * which creates daemon platform threads. On Java 21 and later, the
+ * multi-release JAR replaces this class with an implementation that creates
+ * virtual threads, found in the {@code src/main/java21} source root.
+ *
+ * @author Marco Buzzanca
+ */
+final class VirtualThreads {
+	/**
+	 * The number of threads created so far, used to name them.
+	 */
+	private static final AtomicInteger COUNT = new AtomicInteger();
+
+	/**
+	 * Utility class.
+	 */
+	private VirtualThreads() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Returns the thread factory used by default.
+	 *
+	 * @return a factory of daemon platform threads.
+	 */
+	static ThreadFactory factory() {
+		return task -> {
+			final Thread thread = new Thread(task,
+					"shelf-scope-" + COUNT.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/**
+	 * Returns whether the default factory creates virtual threads.
+	 *
+	 * @return {@code false}.
+	 */
+	static boolean isSupported() {
+		return false;
+	}
+}
@@ -2,6 +2,9 @@ package eu.farsil.shelf.lambda.function;
 
 import org.apiguardian.api.API;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.function.Predicate;
 
@@ -10,6 +13,16 @@ import static org.apiguardian.api.API.Status.EXPERIMENTAL;
 /**
  * Exception that is intended to be thrown when a {@link Predicate} or {@link
  * ThrowingPredicate} fails.
+ * <p>
+ * The detail message of this exception contains the string representation
+ * of the value that failed to match the predicate. It is built the first
+ * time it is requested, so that creating the exception does not invoke
+ * the {@code toString()} method of the value, and it can optionally be
+ * truncated to a maximum length.
+ * <p>
+ * The value is serialized along with this exception if it is {@link
+ * Serializable}, otherwise it is dropped, and only the detail message built
+ * from it is serialized.
  *
  * @author Marco Buzzanca
  * @see Predicate
@@ -23,9 +36,22 @@ public class PredicateFailedException extends RuntimeException {
 	private static final long serialVersionUID = -712482672060994332L;
 
 	/**
-	 * The value that failed to match the predicate.
+	 * The value that failed to match the predicate. It is serialized by
+	 * {@link #writeObject(ObjectOutputStream)} if possible.
 	 */
-	private final transient Object value;
+	private transient Object value;
+
+	/**
+	 * The maximum length of the string representation of the value in the
+	 * detail message. It is not final, since it is read by {@link
+	 * #readObject(ObjectInputStream)}.
+	 */
+	private int maxLength;
+
+	/**
+	 * The detail message, or {@code null} if it has not been built yet.
+	 */
+	private String message;
 
 	/**
 	 * Builds an instance that holds the value that failed to match the
@@ -34,17 +60,120 @@ public class PredicateFailedException extends RuntimeException {
 	 * @param value the value that failed to match the predicate.
 	 */
 	public PredicateFailedException(final Object value) {
-		super(value == null ? null : "value: " + value);
 		this.value = value;
+		this.maxLength = Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Builds an instance that holds the value that failed to match the
+	 * predicate, optionally without a stack trace.
+	 * <p>
+	 * A non-writable stack trace makes this exception considerably cheaper to
+	 * create, which is useful when predicate failures are part of the normal
+	 * control flow.
+	 *
+	 * @param value the value that failed to match the predicate.
+	 * @param writableStackTrace whether the stack trace should be writable.
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	public PredicateFailedException(final Object value,
+			final boolean writableStackTrace) {
+		this(value, writableStackTrace, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Builds an instance that holds the value that failed to match the
+	 * predicate, optionally without a stack trace, and whose detail message
+	 * contains at most {@code maxLength} characters of the string
+	 * representation of the value.
+	 *
+	 * @param value the value that failed to match the predicate.
+	 * @param writableStackTrace whether the stack trace should be writable.
+	 * @param maxLength the maximum length of the string representation of
+	 * the value in the detail message.
+	 * @throws IllegalArgumentException if {@code maxLength} is negative.
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	public PredicateFailedException(final Object value,
+			final boolean writableStackTrace, final int maxLength) {
+		super(null, null, true, writableStackTrace);
+		if (maxLength < 0) {
+			throw new IllegalArgumentException("maxLength: " + maxLength);
+		}
+		this.value = value;
+		this.maxLength = maxLength;
 	}
 
 	/**
-	 * Returns the value that failed to match the predicate. Always returns
-	 * {@code null} if this exception instance was obtained by serialization.
+	 * Returns the detail message, which contains the string representation
+	 * of the value that failed to match the predicate, truncated to the
+	 * maximum length specified at construction. Returns {@code null} if the
+	 * value is {@code null}.
+	 *
+	 * @return the detail message.
+	 */
+	@Override
+	public String getMessage() {
+		// racy single-check: concurrent callers build equal strings
+		String result = message;
+		if (result == null && value != null) {
+			final String s = String.valueOf(value);
+			result = s.length() > maxLength
+					? "value: " + s.substring(0, maxLength) + "..."
+					: "value: " + s;
+			message = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the value that failed to match the predicate. Returns {@code
+	 * null} if this exception instance was obtained by serialization and the
+	 * value is not {@link Serializable}.
 	 *
 	 * @return the value that failed to match the predicate.
 	 */
 	public Object getValue() {
 		return value;
 	}
+
+	/**
+	 * Restores the fields and the value, if it was serialized.
+	 * <p>
+	 * The serialized form of version 0.1.0 has neither fields nor value, and
+	 * its detail message is the one of {@link Throwable}, which is used as
+	 * the message of this instance.
+	 *
+	 * @param in the stream this instance is read from.
+	 * @throws IOException if an I/O error occurs.
+	 * @throws ClassNotFoundException if the class of the value cannot be
+	 * found.
+	 */
+	private void readObject(final ObjectInputStream in)
+			throws IOException, ClassNotFoundException {
+		final ObjectInputStream.GetField fields = in.readFields();
+		if (fields.defaulted("maxLength")) {
+			// written by version 0.1.0
+			maxLength = Integer.MAX_VALUE;
+			message = super.getMessage();
+			return;
+		}
+		maxLength = fields.get("maxLength", Integer.MAX_VALUE);
+		message = (String) fields.get("message", null);
+		value = in.readObject();
+	}
+
+	/**
+	 * Builds the detail message before serializing this instance, since the
+	 * value it is built from may not be serialized, then serializes the
+	 * value if it is {@link Serializable}.
+	 *
+	 * @param out the stream this instance is written to.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void writeObject(final ObjectOutputStream out) throws IOException {
+		getMessage();
+		out.defaultWriteObject();
+		out.writeObject(value instanceof Serializable ? value : null);
+	}
 }
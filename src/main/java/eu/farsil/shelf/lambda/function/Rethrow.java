@@ -0,0 +1,53 @@
+package eu.farsil.shelf.lambda.function;
+
+/**
+ * Rethrows the exceptions caught by the adapters of the functional interfaces
+ * in this package.
+ * <p>
+ * The methods of this class are kept out of the adapters, so that the
+ * adapters are small enough to be inlined into the caller.
+ *
+ * @author Marco Buzzanca
+ */
+final class Rethrow {
+	/**
+	 * Utility class.
+	 */
+	private Rethrow() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Throws the specified exception as is, even if it is a checked exception
+	 * that the caller does not declare. No exception is allocated.
+	 * <p>
+	 * The return type allows the caller to write {@code throw
+	 * Rethrow.sneaky(e)}, so that the compiler knows that the statement does
+	 * not complete normally.
+	 *
+	 * @param exception the exception.
+	 * @param <E> the type of the exception, inferred as an unchecked
+	 * exception by the compiler.
+	 * @return never returns.
+	 * @throws E always.
+	 */
+	@SuppressWarnings("unchecked")
+	static <E extends Exception> RuntimeException sneaky(
+			final Exception exception) throws E {
+		throw (E) exception;
+	}
+
+	/**
+	 * Throws the specified exception as is if it is unchecked, otherwise
+	 * wraps it in an {@link UncheckedException}.
+	 *
+	 * @param exception the exception.
+	 * @return never returns.
+	 */
+	static RuntimeException unchecked(final Exception exception) {
+		if (exception instanceof RuntimeException) {
+			throw (RuntimeException) exception;
+		}
+		throw new UncheckedException(exception);
+	}
+}
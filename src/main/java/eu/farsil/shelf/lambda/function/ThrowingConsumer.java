@@ -2,6 +2,10 @@ package eu.farsil.shelf.lambda.function;
 
 import org.apiguardian.api.API;
 
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
 import static org.apiguardian.api.API.Status.MAINTAINED;
 
 /**
@@ -22,4 +26,54 @@ public interface ThrowingConsumer<T> {
 	 * @throws Exception if the operation cannot be performed.
 	 */
 	void accept(T t) throws Exception;
+
+	/**
+	 * Returns a consumer that performs the specified operation, and throws
+	 * any exception it throws as is, including checked exceptions, even
+	 * though {@link Consumer#accept} does not declare them. No wrapper
+	 * exception is allocated.
+	 * <p>
+	 * Note that callers cannot catch the checked exceptions thrown by the
+	 * adapted operation by their type, unless they are declared elsewhere in
+	 * the {@code try} block.
+	 *
+	 * @param consumer the operation to adapt.
+	 * @param <T> the type of the input to the operation.
+	 * @return the adapted operation.
+	 * @throws NullPointerException if the operation is {@code null}.
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	static <T> Consumer<T> sneaky(final ThrowingConsumer<? super T> consumer) {
+		Objects.requireNonNull(consumer);
+		return t -> {
+			try {
+				consumer.accept(t);
+			} catch (final Exception e) {
+				throw Rethrow.sneaky(e);
+			}
+		};
+	}
+
+	/**
+	 * Returns a consumer that performs the specified operation, and throws
+	 * any unchecked exception it throws as is, and any checked exception
+	 * wrapped in an {@link UncheckedException}.
+	 *
+	 * @param consumer the operation to adapt.
+	 * @param <T> the type of the input to the operation.
+	 * @return the adapted operation.
+	 * @throws NullPointerException if the operation is {@code null}.
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	static <T> Consumer<T> unchecked(
+			final ThrowingConsumer<? super T> consumer) {
+		Objects.requireNonNull(consumer);
+		return t -> {
+			try {
+				consumer.accept(t);
+			} catch (final Exception e) {
+				throw Rethrow.unchecked(e);
+			}
+		};
+	}
 }
@@ -0,0 +1,27 @@
+package eu.farsil.shelf.lambda.function;
+
+import org.apiguardian.api.API;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Represents a function that accepts a {@code double}-valued argument and
+ * produces a result which may throw an exception. This is the {@code
+ * double}-consuming primitive specialization of {@link ThrowingFunction}.
+ *
+ * @param <R> the type of the result of the function.
+ * @author Marco Buzzanca
+ * @see java.util.function.DoubleFunction
+ */
+@FunctionalInterface
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public interface ThrowingDoubleFunction<R> {
+	/**
+	 * Applies this function to the given argument.
+	 *
+	 * @param value the function argument.
+	 * @return the function result.
+	 * @throws Exception if the function cannot be applied.
+	 */
+	R apply(double value) throws Exception;
+}
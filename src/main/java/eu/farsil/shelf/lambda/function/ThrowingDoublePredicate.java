@@ -0,0 +1,27 @@
+package eu.farsil.shelf.lambda.function;
+
+import org.apiguardian.api.API;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Represents a predicate (boolean-valued function) of one {@code double}-valued
+ * argument which may throw an exception. This is the {@code double}-consuming
+ * primitive type specialization of {@link ThrowingPredicate}.
+ *
+ * @author Marco Buzzanca
+ * @see java.util.function.DoublePredicate
+ */
+@FunctionalInterface
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public interface ThrowingDoublePredicate {
+	/**
+	 * Evaluates this predicate on the given argument.
+	 *
+	 * @param value the input argument.
+	 * @return {@code true} if the input argument matches the predicate,
+	 * otherwise {@code false}.
+	 * @throws Exception if the predicate cannot be evaluated.
+	 */
+	boolean test(double value) throws Exception;
+}
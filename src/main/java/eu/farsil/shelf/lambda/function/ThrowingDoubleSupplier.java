@@ -0,0 +1,25 @@
+package eu.farsil.shelf.lambda.function;
+
+import org.apiguardian.api.API;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Represents a supplier of {@code double}-valued results which may throw an
+ * exception. This is the {@code double}-producing primitive specialization of
+ * {@link ThrowingSupplier}.
+ *
+ * @author Marco Buzzanca
+ * @see java.util.function.DoubleSupplier
+ */
+@FunctionalInterface
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public interface ThrowingDoubleSupplier {
+	/**
+	 * Gets a result.
+	 *
+	 * @return a result.
+	 * @throws Exception if a result cannot be returned.
+	 */
+	double getAsDouble() throws Exception;
+}
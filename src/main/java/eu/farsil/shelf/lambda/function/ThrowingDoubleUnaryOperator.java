@@ -0,0 +1,27 @@
+package eu.farsil.shelf.lambda.function;
+
+import org.apiguardian.api.API;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Represents an operation on a single {@code double}-valued operand that
+ * produces a {@code double}-valued result which may throw an exception. This is
+ * the primitive type specialization of {@link ThrowingFunction} for {@code
+ * double}.
+ *
+ * @author Marco Buzzanca
+ * @see java.util.function.DoubleUnaryOperator
+ */
+@FunctionalInterface
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public interface ThrowingDoubleUnaryOperator {
+	/**
+	 * Applies this operator to the given operand.
+	 *
+	 * @param operand the operand.
+	 * @return the operator result.
+	 * @throws Exception if the operator cannot be applied.
+	 */
+	double applyAsDouble(double operand) throws Exception;
+}
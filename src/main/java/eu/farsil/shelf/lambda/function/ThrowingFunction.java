@@ -1,7 +1,12 @@
 package eu.farsil.shelf.lambda.function;
 
+import eu.farsil.shelf.lambda.Try;
 import org.apiguardian.api.API;
 
+import java.util.Objects;
+import java.util.function.Function;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
 import static org.apiguardian.api.API.Status.MAINTAINED;
 
 /**
@@ -24,4 +29,77 @@ public interface ThrowingFunction<T, R> {
 	 * @throws Exception if the function cannot be applied.
 	 */
 	R apply(T t) throws Exception;
-}
\ No newline at end of file
+
+	/**
+	 * Returns a function that applies the specified function and returns its
+	 * outcome as an attempt, which is the same as the one of {@code
+	 * Try.success(t).map(function)}.
+	 *
+	 * @param function the function to adapt.
+	 * @param <T> the type of the input to the function.
+	 * @param <R> the type of the result of the function.
+	 * @return the adapted function, which throws a {@link
+	 * NullPointerException} if its input is {@code null}.
+	 * @throws NullPointerException if the function is {@code null}.
+	 * @see Try#map(ThrowingFunction)
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	static <T, R> Function<T, Try<R>> lifted(
+			final ThrowingFunction<? super T, ? extends R> function) {
+		Objects.requireNonNull(function);
+		return t -> Try.success(t).map(function);
+	}
+
+	/**
+	 * Returns a function that applies the specified function, and throws any
+	 * exception it throws as is, including checked exceptions, even though
+	 * {@link Function#apply} does not declare them. No wrapper exception is
+	 * allocated.
+	 * <p>
+	 * Note that callers cannot catch the checked exceptions thrown by the
+	 * adapted function by their type, unless they are declared elsewhere in
+	 * the {@code try} block.
+	 *
+	 * @param function the function to adapt.
+	 * @param <T> the type of the input to the function.
+	 * @param <R> the type of the result of the function.
+	 * @return the adapted function.
+	 * @throws NullPointerException if the function is {@code null}.
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	static <T, R> Function<T, R> sneaky(
+			final ThrowingFunction<? super T, ? extends R> function) {
+		Objects.requireNonNull(function);
+		return t -> {
+			try {
+				return function.apply(t);
+			} catch (final Exception e) {
+				throw Rethrow.sneaky(e);
+			}
+		};
+	}
+
+	/**
+	 * Returns a function that applies the specified function, and throws any
+	 * unchecked exception it throws as is, and any checked exception wrapped
+	 * in an {@link UncheckedException}.
+	 *
+	 * @param function the function to adapt.
+	 * @param <T> the type of the input to the function.
+	 * @param <R> the type of the result of the function.
+	 * @return the adapted function.
+	 * @throws NullPointerException if the function is {@code null}.
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	static <T, R> Function<T, R> unchecked(
+			final ThrowingFunction<? super T, ? extends R> function) {
+		Objects.requireNonNull(function);
+		return t -> {
+			try {
+				return function.apply(t);
+			} catch (final Exception e) {
+				throw Rethrow.unchecked(e);
+			}
+		};
+	}
+}
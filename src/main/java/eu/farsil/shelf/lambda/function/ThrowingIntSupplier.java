@@ -0,0 +1,25 @@
+package eu.farsil.shelf.lambda.function;
+
+import org.apiguardian.api.API;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Represents a supplier of {@code int}-valued results which may throw an
+ * exception. This is the {@code int}-producing primitive specialization of
+ * {@link ThrowingSupplier}.
+ *
+ * @author Marco Buzzanca
+ * @see java.util.function.IntSupplier
+ */
+@FunctionalInterface
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public interface ThrowingIntSupplier {
+	/**
+	 * Gets a result.
+	 *
+	 * @return a result.
+	 * @throws Exception if a result cannot be returned.
+	 */
+	int getAsInt() throws Exception;
+}
@@ -0,0 +1,27 @@
+package eu.farsil.shelf.lambda.function;
+
+import org.apiguardian.api.API;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Represents an operation on a single {@code int}-valued operand that
+ * produces a {@code int}-valued result which may throw an exception. This is
+ * the primitive type specialization of {@link ThrowingFunction} for {@code
+ * int}.
+ *
+ * @author Marco Buzzanca
+ * @see java.util.function.IntUnaryOperator
+ */
+@FunctionalInterface
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public interface ThrowingIntUnaryOperator {
+	/**
+	 * Applies this operator to the given operand.
+	 *
+	 * @param operand the operand.
+	 * @return the operator result.
+	 * @throws Exception if the operator cannot be applied.
+	 */
+	int applyAsInt(int operand) throws Exception;
+}
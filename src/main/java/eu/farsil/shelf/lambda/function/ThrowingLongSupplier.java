@@ -0,0 +1,25 @@
+package eu.farsil.shelf.lambda.function;
+
+import org.apiguardian.api.API;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Represents a supplier of {@code long}-valued results which may throw an
+ * exception. This is the {@code long}-producing primitive specialization of
+ * {@link ThrowingSupplier}.
+ *
+ * @author Marco Buzzanca
+ * @see java.util.function.LongSupplier
+ */
+@FunctionalInterface
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public interface ThrowingLongSupplier {
+	/**
+	 * Gets a result.
+	 *
+	 * @return a result.
+	 * @throws Exception if a result cannot be returned.
+	 */
+	long getAsLong() throws Exception;
+}
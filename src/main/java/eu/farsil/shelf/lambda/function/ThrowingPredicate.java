@@ -1,7 +1,13 @@
 package eu.farsil.shelf.lambda.function;
 
+import eu.farsil.shelf.lambda.Try;
 import org.apiguardian.api.API;
 
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
 import static org.apiguardian.api.API.Status.MAINTAINED;
 
 /**
@@ -24,4 +30,77 @@ public interface ThrowingPredicate<T> {
 	 * @throws Exception if the predicate cannot be evaluated.
 	 */
 	boolean test(T t) throws Exception;
+
+	/**
+	 * Returns a function that evaluates the specified predicate and returns
+	 * its outcome as an attempt, which is the same as the one of {@code
+	 * Try.success(t).filter(predicate)}: the attempt holds the input if it
+	 * matches the predicate, otherwise it fails with a {@link
+	 * PredicateFailedException}, or with the exception thrown by the
+	 * predicate.
+	 *
+	 * @param predicate the predicate to adapt.
+	 * @param <T> the type of the input to the predicate.
+	 * @return the adapted predicate, which throws a {@link
+	 * NullPointerException} if its input is {@code null}.
+	 * @throws NullPointerException if the predicate is {@code null}.
+	 * @see Try#filter(ThrowingPredicate)
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	static <T> Function<T, Try<T>> lifted(
+			final ThrowingPredicate<? super T> predicate) {
+		Objects.requireNonNull(predicate);
+		return t -> Try.success(t).filter(predicate);
+	}
+
+	/**
+	 * Returns a predicate that evaluates the specified predicate, and throws
+	 * any exception it throws as is, including checked exceptions, even
+	 * though {@link Predicate#test} does not declare them. No wrapper
+	 * exception is allocated.
+	 * <p>
+	 * Note that callers cannot catch the checked exceptions thrown by the
+	 * adapted predicate by their type, unless they are declared elsewhere in
+	 * the {@code try} block.
+	 *
+	 * @param predicate the predicate to adapt.
+	 * @param <T> the type of the input to the predicate.
+	 * @return the adapted predicate.
+	 * @throws NullPointerException if the predicate is {@code null}.
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	static <T> Predicate<T> sneaky(
+			final ThrowingPredicate<? super T> predicate) {
+		Objects.requireNonNull(predicate);
+		return t -> {
+			try {
+				return predicate.test(t);
+			} catch (final Exception e) {
+				throw Rethrow.sneaky(e);
+			}
+		};
+	}
+
+	/**
+	 * Returns a predicate that evaluates the specified predicate, and throws
+	 * any unchecked exception it throws as is, and any checked exception
+	 * wrapped in an {@link UncheckedException}.
+	 *
+	 * @param predicate the predicate to adapt.
+	 * @param <T> the type of the input to the predicate.
+	 * @return the adapted predicate.
+	 * @throws NullPointerException if the predicate is {@code null}.
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	static <T> Predicate<T> unchecked(
+			final ThrowingPredicate<? super T> predicate) {
+		Objects.requireNonNull(predicate);
+		return t -> {
+			try {
+				return predicate.test(t);
+			} catch (final Exception e) {
+				throw Rethrow.unchecked(e);
+			}
+		};
+	}
 }
@@ -0,0 +1,27 @@
+package eu.farsil.shelf.lambda.function;
+
+import org.apiguardian.api.API;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Represents a function that produces a {@code double}-valued result which
+ * may throw an exception. This is the {@code double}-producing primitive
+ * specialization of {@link ThrowingFunction}.
+ *
+ * @param <T> the type of the input to the function.
+ * @author Marco Buzzanca
+ * @see java.util.function.ToDoubleFunction
+ */
+@FunctionalInterface
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public interface ThrowingToDoubleFunction<T> {
+	/**
+	 * Applies this function to the given argument.
+	 *
+	 * @param value the function argument.
+	 * @return the function result.
+	 * @throws Exception if the function cannot be applied.
+	 */
+	double applyAsDouble(T value) throws Exception;
+}
@@ -0,0 +1,27 @@
+package eu.farsil.shelf.lambda.function;
+
+import org.apiguardian.api.API;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Represents a function that produces an {@code int}-valued result which
+ * may throw an exception. This is the {@code int}-producing primitive
+ * specialization of {@link ThrowingFunction}.
+ *
+ * @param <T> the type of the input to the function.
+ * @author Marco Buzzanca
+ * @see java.util.function.ToIntFunction
+ */
+@FunctionalInterface
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public interface ThrowingToIntFunction<T> {
+	/**
+	 * Applies this function to the given argument.
+	 *
+	 * @param value the function argument.
+	 * @return the function result.
+	 * @throws Exception if the function cannot be applied.
+	 */
+	int applyAsInt(T value) throws Exception;
+}
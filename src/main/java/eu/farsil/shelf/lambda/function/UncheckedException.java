@@ -0,0 +1,49 @@
+package eu.farsil.shelf.lambda.function;
+
+import org.apiguardian.api.API;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Exception that is thrown by the <i>unchecked</i> adapters of the
+ * functional interfaces in this package, such as {@link
+ * ThrowingFunction#unchecked(ThrowingFunction)}, in place of the checked
+ * exception thrown by the adapted function, which is its cause.
+ * <p>
+ * This exception does not have a stack trace of its own, since it is thrown
+ * right where its cause is caught: the stack trace of the cause already
+ * describes where the failure happened.
+ *
+ * @author Marco Buzzanca
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public class UncheckedException extends RuntimeException {
+	/**
+	 * Required by {@link Serializable}.
+	 */
+	private static final long serialVersionUID = 3092751186450813127L;
+
+	/**
+	 * Builds an instance that holds the specified checked exception.
+	 *
+	 * @param cause the checked exception.
+	 * @throws NullPointerException if the cause is {@code null}.
+	 */
+	// end-users are not supposed to create instances of this exception
+	UncheckedException(final Exception cause) {
+		super(Objects.requireNonNull(cause).toString(), cause, true, false);
+	}
+
+	/**
+	 * Returns the checked exception that this exception holds.
+	 *
+	 * @return the checked exception.
+	 */
+	@Override
+	public synchronized Exception getCause() {
+		return (Exception) super.getCause();
+	}
+}
@@ -4,5 +4,13 @@
  * <p>
  * This package is intended to complement {@link java.util.function} with
  * functional interfaces that may throw an exception.
+ * <p>
+ * Some of them provide static adapters to their counterparts in {@code
+ * java.util.function}, so that they can be used where the standard
+ * interfaces are expected, such as in streams: the <i>unchecked</i> adapters
+ * wrap checked exceptions in an {@link
+ * eu.farsil.shelf.lambda.function.UncheckedException}, the <i>sneaky</i>
+ * adapters throw them as they are, and the <i>lifted</i> adapters return the
+ * outcome as an {@link eu.farsil.shelf.lambda.Try}.
  */
 package eu.farsil.shelf.lambda.function;
\ No newline at end of file
@@ -1,4 +1,14 @@
 /**
  * Contains classes that deal with functional programming.
+ * <p>
+ * The exceptions that the classes of this package create on their own, such
+ * as the {@link eu.farsil.shelf.lambda.function.PredicateFailedException}
+ * held by a failed {@link eu.farsil.shelf.lambda.Try#filter filter()}, capture
+ * the stack trace by default. Setting the system property {@code
+ * eu.farsil.shelf.lambda.stackless} to {@code true} creates them without a
+ * stack trace instead, which makes failures considerably cheaper. The
+ * system property {@code eu.farsil.shelf.lambda.maxValueLength} bounds the
+ * length of the value representation in the message of a {@code
+ * PredicateFailedException}.
  */
 package eu.farsil.shelf.lambda;
\ No newline at end of file
@@ -0,0 +1,120 @@
+package eu.farsil.shelf.lambda.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of {@link Bulkhead} whose limit is adjusted from the
+ * observed latency of the calls, with an additive-increase,
+ * multiplicative-decrease strategy.
+ * <p>
+ * The number of calls in progress and the limit are updated with
+ * compare-and-set loops. The limit is a fraction, stored as the bits of a
+ * {@code double}, and truncated when compared with the number of calls.
+ *
+ * @author Marco Buzzanca
+ * @see Bulkhead#adaptive(int, int, java.time.Duration)
+ */
+final class AdaptiveBulkhead extends Bulkhead {
+	/**
+	 * The factor that reduces the limit when a call is too slow.
+	 */
+	private static final double DECREASE = 0.9;
+
+	/**
+	 * The minimum limit.
+	 */
+	private final int minLimit;
+
+	/**
+	 * The maximum limit.
+	 */
+	private final int maxLimit;
+
+	/**
+	 * The latency threshold, in nanoseconds.
+	 */
+	private final long threshold;
+
+	/**
+	 * The source of time.
+	 */
+	private final Ticker ticker;
+
+	/**
+	 * The number of calls in progress.
+	 */
+	private final AtomicInteger active = new AtomicInteger();
+
+	/**
+	 * The bits of the current limit.
+	 */
+	private final AtomicLong limit;
+
+	/**
+	 * Builds a bulkhead whose limit starts at the minimum.
+	 *
+	 * @param minLimit the minimum limit.
+	 * @param maxLimit the maximum limit.
+	 * @param threshold the latency threshold, in nanoseconds.
+	 * @param ticker the source of time.
+	 */
+	AdaptiveBulkhead(final int minLimit, final int maxLimit,
+			final long threshold, final Ticker ticker) {
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.threshold = threshold;
+		this.ticker = ticker;
+		this.limit = new AtomicLong(Double.doubleToRawLongBits(minLimit));
+	}
+
+	@Override
+	public int getActive() {
+		return active.get();
+	}
+
+	@Override
+	public int getLimit() {
+		return (int) Double.longBitsToDouble(limit.get());
+	}
+
+	@Override
+	void release(final long permit) {
+		final long latency = ticker.nanoTime() - permit;
+		// the calls in progress include the one being released
+		final int inFlight = active.getAndDecrement();
+		for (; ; ) {
+			final long bits = limit.get();
+			final double current = Double.longBitsToDouble(bits);
+			final double next;
+			if (latency > threshold) {
+				next = Math.max(minLimit, current * DECREASE);
+			} else if (inFlight * 2 >= current) {
+				next = Math.min(maxLimit, current + 1.0);
+			} else {
+				// the limit is not the bottleneck, there is nothing to learn
+				return;
+			}
+			if (next == current || limit.compareAndSet(bits,
+					Double.doubleToRawLongBits(next))) {
+				return;
+			}
+		}
+	}
+
+	@Override
+	long tryAcquire() {
+		final int current = getLimit();
+		for (; ; ) {
+			final int n = active.get();
+			if (n >= current) {
+				return REJECTED_PERMIT;
+			}
+			if (active.compareAndSet(n, n + 1)) {
+				final long start = ticker.nanoTime();
+				// a start time that looks like a rejection is off by 1 ns
+				return start == REJECTED_PERMIT ? start + 1 : start;
+			}
+		}
+	}
+}
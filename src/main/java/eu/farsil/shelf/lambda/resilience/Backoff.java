@@ -0,0 +1,103 @@
+package eu.farsil.shelf.lambda.resilience;
+
+import org.apiguardian.api.API;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Computes the delay to wait before retrying a failed computation.
+ *
+ * @author Marco Buzzanca
+ * @see Retry
+ */
+@FunctionalInterface
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public interface Backoff {
+	/**
+	 * Returns a backoff with decorrelated jitter: each delay is a random
+	 * value between the base delay and three times the previous delay,
+	 * capped by the maximum delay. Randomization spreads the retries of
+	 * concurrent callers over time.
+	 *
+	 * @param base the base delay.
+	 * @param max the maximum delay.
+	 * @return the backoff.
+	 * @throws NullPointerException if any of the delays is {@code null}.
+	 * @throws IllegalArgumentException if any of the delays is negative, or
+	 * if the base delay is greater than the maximum delay.
+	 */
+	static Backoff decorrelatedJitter(final Duration base, final Duration max) {
+		final long baseNanos = Durations.toNanos(base);
+		final long maxNanos = Durations.toNanos(max);
+		if (baseNanos > maxNanos) {
+			throw new IllegalArgumentException("base > max");
+		}
+		return (retry, previous) -> {
+			final long upper = Math.min(maxNanos,
+					Math.max(baseNanos, previous) * 3);
+			return upper <= baseNanos
+					? baseNanos
+					: ThreadLocalRandom.current().nextLong(baseNanos, upper);
+		};
+	}
+
+	/**
+	 * Returns a backoff whose delay grows exponentially with the number of
+	 * retries: the first retry waits for the initial delay, and each of
+	 * the following waits {@code multiplier} times longer than the
+	 * previous one, up to the maximum delay.
+	 *
+	 * @param initial the delay before the first retry.
+	 * @param multiplier the growth factor of the delay.
+	 * @param max the maximum delay.
+	 * @return the backoff.
+	 * @throws NullPointerException if any of the delays is {@code null}.
+	 * @throws IllegalArgumentException if any of the delays is negative, or
+	 * if the multiplier is less than 1.
+	 */
+	static Backoff exponential(final Duration initial,
+			final double multiplier, final Duration max) {
+		final long initialNanos = Durations.toNanos(initial);
+		final long maxNanos = Durations.toNanos(max);
+		if (!(multiplier >= 1.0)) {
+			throw new IllegalArgumentException("multiplier: " + multiplier);
+		}
+		return (retry, previous) -> (long) Math.min(maxNanos,
+				initialNanos * Math.pow(multiplier, retry - 1));
+	}
+
+	/**
+	 * Returns a backoff with a constant delay.
+	 *
+	 * @param delay the delay.
+	 * @return the backoff.
+	 * @throws NullPointerException if the delay is {@code null}.
+	 * @throws IllegalArgumentException if the delay is negative.
+	 */
+	static Backoff fixed(final Duration delay) {
+		final long delayNanos = Durations.toNanos(delay);
+		return (retry, previous) -> delayNanos;
+	}
+
+	/**
+	 * Returns a backoff that retries immediately.
+	 *
+	 * @return the backoff.
+	 */
+	static Backoff none() {
+		return (retry, previous) -> 0L;
+	}
+
+	/**
+	 * Returns the delay before the specified retry.
+	 *
+	 * @param retry the number of the retry, starting from 1.
+	 * @param previous the delay before the previous retry, in nanoseconds,
+	 * or 0 before the first retry.
+	 * @return the delay, in nanoseconds.
+	 */
+	long delay(int retry, long previous);
+}
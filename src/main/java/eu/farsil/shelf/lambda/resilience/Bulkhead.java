@@ -0,0 +1,162 @@
+package eu.farsil.shelf.lambda.resilience;
+
+import eu.farsil.shelf.lambda.Try;
+import eu.farsil.shelf.lambda.function.ThrowingSupplier;
+import org.apiguardian.api.API;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A limit to the number of concurrent calls to a dependency, such as a
+ * shared connection pool, so that a single noisy caller cannot exhaust it.
+ * <p>
+ * A call that would exceed the limit is not queued: it fails immediately
+ * with a {@link BulkheadFullException}, which has no stack trace, so that a
+ * saturated bulkhead sheds load cheaply. The limit can be fixed, as returned
+ * by {@link #of(int)}, or adjusted from the observed latency of the calls, as
+ * returned by {@link #adaptive(int, int, Duration)}.
+ *
+ * @author Marco Buzzanca
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public abstract class Bulkhead {
+	/**
+	 * The outcome of the rejected calls. A failure holds no value, so the
+	 * same instance can be returned for any type of result.
+	 */
+	private static final Try<?> REJECTED = Try.failure(
+			new BulkheadFullException("bulkhead is full"));
+
+	/**
+	 * The permit that represents a rejected call.
+	 */
+	static final long REJECTED_PERMIT = Long.MIN_VALUE;
+
+	/**
+	 * Only subclasses in this package are allowed.
+	 */
+	Bulkhead() {
+	}
+
+	/**
+	 * Returns a bulkhead whose limit adapts to the latency of the calls,
+	 * with an additive-increase, multiplicative-decrease strategy: the limit
+	 * is increased by one after each call that completes within the latency
+	 * threshold while the bulkhead is at least half full, and is reduced by
+	 * 10% after each call that does not. The limit starts at its minimum.
+	 *
+	 * @param minLimit the minimum limit.
+	 * @param maxLimit the maximum limit.
+	 * @param threshold the latency above which the dependency is considered
+	 * congested.
+	 * @return the bulkhead.
+	 * @throws NullPointerException if the threshold is {@code null}.
+	 * @throws IllegalArgumentException if the minimum limit is not positive,
+	 * if it is greater than the maximum limit, or if the threshold is
+	 * negative.
+	 */
+	public static Bulkhead adaptive(final int minLimit, final int maxLimit,
+			final Duration threshold) {
+		return adaptive(minLimit, maxLimit, threshold, Ticker.system());
+	}
+
+	/**
+	 * Returns a bulkhead whose limit adapts to the latency of the calls, as
+	 * measured by the specified ticker.
+	 *
+	 * @param minLimit the minimum limit.
+	 * @param maxLimit the maximum limit.
+	 * @param threshold the latency above which the dependency is considered
+	 * congested.
+	 * @param ticker the source of time.
+	 * @return the bulkhead.
+	 * @throws NullPointerException if the threshold or the ticker are
+	 * {@code null}.
+	 * @throws IllegalArgumentException if the minimum limit is not positive,
+	 * if it is greater than the maximum limit, or if the threshold is
+	 * negative.
+	 * @see #adaptive(int, int, Duration)
+	 */
+	public static Bulkhead adaptive(final int minLimit, final int maxLimit,
+			final Duration threshold, final Ticker ticker) {
+		final long nanos = Durations.toNanos(threshold);
+		Objects.requireNonNull(ticker);
+		if (minLimit <= 0) {
+			throw new IllegalArgumentException("minLimit: " + minLimit);
+		}
+		if (minLimit > maxLimit) {
+			throw new IllegalArgumentException("minLimit > maxLimit");
+		}
+		return new AdaptiveBulkhead(minLimit, maxLimit, nanos, ticker);
+	}
+
+	/**
+	 * Returns a bulkhead with a fixed limit, backed by a semaphore.
+	 *
+	 * @param limit the maximum number of concurrent calls.
+	 * @return the bulkhead.
+	 * @throws IllegalArgumentException if the limit is not positive.
+	 */
+	public static Bulkhead of(final int limit) {
+		if (limit <= 0) {
+			throw new IllegalArgumentException("limit: " + limit);
+		}
+		return new SemaphoreBulkhead(limit);
+	}
+
+	/**
+	 * Attempts to get a result from the specified supplier, if the bulkhead
+	 * is not saturated. Otherwise, the outcome is a failure caused by a
+	 * {@link BulkheadFullException}, and the supplier is not invoked.
+	 *
+	 * @param supplier the supplier of the result.
+	 * @param <T> the type of the result.
+	 * @return the outcome of the call.
+	 * @throws NullPointerException if the supplier is {@code null}.
+	 */
+	@SuppressWarnings("unchecked")
+	public final <T> Try<T> get(final ThrowingSupplier<? extends T> supplier) {
+		Objects.requireNonNull(supplier);
+		final long permit = tryAcquire();
+		if (permit == REJECTED_PERMIT) {
+			return (Try<T>) REJECTED;
+		}
+		try {
+			return Try.get(supplier);
+		} finally {
+			release(permit);
+		}
+	}
+
+	/**
+	 * Returns the number of calls in progress.
+	 *
+	 * @return the number of calls in progress.
+	 */
+	public abstract int getActive();
+
+	/**
+	 * Returns the current limit.
+	 *
+	 * @return the maximum number of concurrent calls.
+	 */
+	public abstract int getLimit();
+
+	/**
+	 * Releases the specified permit, at the end of a call.
+	 *
+	 * @param permit the permit.
+	 */
+	abstract void release(long permit);
+
+	/**
+	 * Attempts to acquire a permit for a call.
+	 *
+	 * @return the permit, or {@link #REJECTED_PERMIT} if the bulkhead is
+	 * saturated.
+	 */
+	abstract long tryAcquire();
+}
@@ -0,0 +1,35 @@
+package eu.farsil.shelf.lambda.resilience;
+
+import org.apiguardian.api.API;
+
+import java.io.Serializable;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Exception that causes the failures returned by a saturated {@link
+ * Bulkhead}.
+ * <p>
+ * Like {@link CallNotPermittedException}, instances of this exception have no
+ * stack trace and no suppressed exceptions, and a single instance is shared
+ * by all rejections.
+ *
+ * @author Marco Buzzanca
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public class BulkheadFullException extends RuntimeException {
+	/**
+	 * Required by {@link Serializable}.
+	 */
+	private static final long serialVersionUID = -4410968627357302119L;
+
+	/**
+	 * Builds an instance with the specified message.
+	 *
+	 * @param message the detail message.
+	 */
+	// end-users are not supposed to create instances of this exception
+	BulkheadFullException(final String message) {
+		super(message, null, false, false);
+	}
+}
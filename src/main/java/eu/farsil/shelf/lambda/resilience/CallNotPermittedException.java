@@ -0,0 +1,36 @@
+package eu.farsil.shelf.lambda.resilience;
+
+import org.apiguardian.api.API;
+
+import java.io.Serializable;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Exception that causes the failures returned by a {@link CircuitBreaker}
+ * that does not permit a call.
+ * <p>
+ * Rejections are frequent and expected while a circuit is open, so they must
+ * be cheap: instances of this exception have no stack trace and no
+ * suppressed exceptions, and each circuit breaker preallocates the only
+ * instance it returns.
+ *
+ * @author Marco Buzzanca
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public class CallNotPermittedException extends RuntimeException {
+	/**
+	 * Required by {@link Serializable}.
+	 */
+	private static final long serialVersionUID = 2754938119406731305L;
+
+	/**
+	 * Builds an instance with the specified message.
+	 *
+	 * @param message the detail message.
+	 */
+	// end-users are not supposed to create instances of this exception
+	CallNotPermittedException(final String message) {
+		super(message, null, false, false);
+	}
+}
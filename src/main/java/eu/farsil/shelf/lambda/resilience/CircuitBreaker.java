@@ -0,0 +1,546 @@
+package eu.farsil.shelf.lambda.resilience;
+
+import eu.farsil.shelf.lambda.Try;
+import eu.farsil.shelf.lambda.function.ThrowingFunction;
+import eu.farsil.shelf.lambda.function.ThrowingSupplier;
+import org.apiguardian.api.API;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A circuit breaker, which stops calling a dependency that keeps failing.
+ * <p>
+ * The circuit breaker starts in the {@link State#CLOSED closed} state, where
+ * every call is performed and its outcome is recorded in a sliding time
+ * window. When the rate of failures in the window reaches the threshold,
+ * provided that enough calls have been recorded, the circuit breaker
+ * switches to the {@link State#OPEN open} state, where calls are not
+ * performed and fail immediately with a {@link CallNotPermittedException}.
+ * After a cooldown, the first call switches the circuit breaker to the
+ * {@link State#HALF_OPEN half-open} state and is performed as a probe, while
+ * the other calls keep failing: if the probe succeeds the circuit breaker
+ * closes with an empty window, otherwise it opens again.
+ * <p>
+ * The circuit breaker is lock-free, since it is meant to be called by many
+ * threads at the same time: the state is swapped with a compare-and-set, and
+ * the window is a ring of buckets of striped counters. Outcomes recorded
+ * while the ring rotates may be lost, which makes the failure rate an
+ * approximation. Circuit breakers are built with {@link #builder()}.
+ *
+ * @author Marco Buzzanca
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public final class CircuitBreaker {
+	/**
+	 * The failure rate that opens the circuit.
+	 */
+	private final double threshold;
+
+	/**
+	 * The minimum number of calls in the window to compute the failure rate.
+	 */
+	private final int minimumCalls;
+
+	/**
+	 * The duration of a bucket of the window, in nanoseconds.
+	 */
+	private final long bucketNanos;
+
+	/**
+	 * The number of buckets of the window.
+	 */
+	private final int buckets;
+
+	/**
+	 * The time the circuit stays open, in nanoseconds.
+	 */
+	private final long cooldown;
+
+	/**
+	 * The source of time.
+	 */
+	private final Ticker ticker;
+
+	/**
+	 * The outcome of the calls that are not permitted. A failure holds no
+	 * value, so the same instance can be returned for any type of result.
+	 */
+	private final Try<?> rejected = Try.failure(
+			new CallNotPermittedException("circuit breaker is open"));
+
+	/**
+	 * The current status. Every transition replaces the status with a new
+	 * instance, so that the outcome of a call is only recorded if the status
+	 * did not change during the call.
+	 */
+	private final AtomicReference<Status> status;
+
+	/**
+	 * Builds a circuit breaker from the state of the specified builder.
+	 *
+	 * @param builder the builder.
+	 */
+	private CircuitBreaker(final Builder builder) {
+		this.threshold = builder.threshold;
+		this.minimumCalls = builder.minimumCalls;
+		this.buckets = builder.buckets;
+		this.bucketNanos = Math.max(1L, builder.window / builder.buckets);
+		this.cooldown = builder.cooldown;
+		this.ticker = builder.ticker;
+		this.status = new AtomicReference<>(closed());
+	}
+
+	/**
+	 * Returns a new builder, whose initial configuration opens the circuit
+	 * when at least half of at least 10 calls in the last 10 seconds failed,
+	 * and keeps it open for 30 seconds.
+	 *
+	 * @return the builder.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Returns a function that applies the specified function through this
+	 * circuit breaker.
+	 *
+	 * @param function the function to decorate.
+	 * @param <T> the type of the input to the function.
+	 * @param <R> the type of the result of the function.
+	 * @return the decorated function.
+	 * @throws NullPointerException if the function is {@code null}.
+	 * @see #get(ThrowingSupplier)
+	 */
+	public <T, R> Function<T, Try<R>> decorate(
+			final ThrowingFunction<? super T, ? extends R> function) {
+		Objects.requireNonNull(function);
+		return input -> get(() -> function.apply(input));
+	}
+
+	/**
+	 * Attempts to get a result from the specified supplier, if this circuit
+	 * breaker permits the call. Otherwise, the outcome is a failure caused
+	 * by a {@link CallNotPermittedException}, and the supplier is not
+	 * invoked.
+	 *
+	 * @param supplier the supplier of the result.
+	 * @param <T> the type of the result.
+	 * @return the outcome of the call.
+	 * @throws NullPointerException if the supplier is {@code null}.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> Try<T> get(final ThrowingSupplier<? extends T> supplier) {
+		Objects.requireNonNull(supplier);
+		final Status current = acquire();
+		if (current == null) {
+			return (Try<T>) rejected;
+		}
+		boolean failed = true;
+		try {
+			final Try<T> outcome = Try.get(supplier);
+			failed = outcome.isUnsuccessful();
+			return outcome;
+		} finally {
+			// errors are failures as well, and must not leave a probe pending
+			record(current, failed);
+		}
+	}
+
+	/**
+	 * Returns the current state of this circuit breaker. An open circuit
+	 * breaker whose cooldown is over is still reported as open, until a
+	 * call is attempted.
+	 *
+	 * @return the current state.
+	 */
+	public State getState() {
+		return status.get().state;
+	}
+
+	/**
+	 * Returns the status of the call that is about to be performed, if it is
+	 * permitted.
+	 *
+	 * @return the status, or {@code null} if the call is not permitted.
+	 */
+	private Status acquire() {
+		for (; ; ) {
+			final Status current = status.get();
+			if (current.state == State.CLOSED) {
+				return current;
+			}
+			if (current.state == State.HALF_OPEN) {
+				// a probe is already in progress
+				return null;
+			}
+			final long now = ticker.nanoTime();
+			if (now - current.since < cooldown) {
+				return null;
+			}
+			final Status probe = new Status(State.HALF_OPEN, now, null);
+			if (status.compareAndSet(current, probe)) {
+				return probe;
+			}
+		}
+	}
+
+	/**
+	 * Returns a new closed status with an empty window.
+	 *
+	 * @return the status.
+	 */
+	private Status closed() {
+		final long now = ticker.nanoTime();
+		return new Status(State.CLOSED, now,
+				new Window(now, bucketNanos, buckets));
+	}
+
+	/**
+	 * Records the outcome of a call, changing the state if necessary.
+	 *
+	 * @param current the status of the call.
+	 * @param failed whether the call failed.
+	 */
+	private void record(final Status current, final boolean failed) {
+		if (current.state == State.HALF_OPEN) {
+			status.compareAndSet(current, failed
+					? new Status(State.OPEN, ticker.nanoTime(), null)
+					: closed());
+			return;
+		}
+		final long now = ticker.nanoTime();
+		final Window window = current.window;
+		window.record(now, failed);
+		// the rate can only reach the threshold after a failure
+		if (failed && window.exceeds(now, minimumCalls, threshold)) {
+			status.compareAndSet(current,
+					new Status(State.OPEN, now, null));
+		}
+	}
+
+	/**
+	 * The states of a circuit breaker.
+	 *
+	 * @author Marco Buzzanca
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	public enum State {
+		/**
+		 * Calls are performed, and their outcome is recorded.
+		 */
+		CLOSED,
+
+		/**
+		 * Calls are not performed.
+		 */
+		OPEN,
+
+		/**
+		 * A single call is performed, to decide whether to close the circuit
+		 * again.
+		 */
+		HALF_OPEN
+	}
+
+	/**
+	 * The immutable status of a circuit breaker.
+	 */
+	private static final class Status {
+		/**
+		 * The state.
+		 */
+		final State state;
+
+		/**
+		 * The time of the transition to the state, in ticker nanoseconds.
+		 */
+		final long since;
+
+		/**
+		 * The window of the recorded outcomes, or {@code null} if the state
+		 * is not {@link State#CLOSED}.
+		 */
+		final Window window;
+
+		/**
+		 * Builds a status.
+		 *
+		 * @param state the state.
+		 * @param since the time of the transition to the state.
+		 * @param window the window of the recorded outcomes.
+		 */
+		Status(final State state, final long since, final Window window) {
+			this.state = state;
+			this.since = since;
+			this.window = window;
+		}
+	}
+
+	/**
+	 * A sliding time window of outcomes, divided in buckets.
+	 */
+	private static final class Window {
+		/**
+		 * The time the window was created, in ticker nanoseconds.
+		 */
+		private final long origin;
+
+		/**
+		 * The duration of a bucket, in nanoseconds.
+		 */
+		private final long bucketNanos;
+
+		/**
+		 * The ring of buckets, indexed by epoch modulo its length.
+		 */
+		private final AtomicReferenceArray<Bucket> ring;
+
+		/**
+		 * Builds an empty window.
+		 *
+		 * @param origin the time the window was created.
+		 * @param bucketNanos the duration of a bucket.
+		 * @param buckets the number of buckets.
+		 */
+		Window(final long origin, final long bucketNanos, final int buckets) {
+			this.origin = origin;
+			this.bucketNanos = bucketNanos;
+			this.ring = new AtomicReferenceArray<>(buckets);
+		}
+
+		/**
+		 * Returns whether the failure rate has reached the threshold.
+		 *
+		 * @param now the current time.
+		 * @param minimumCalls the minimum number of calls.
+		 * @param threshold the failure rate threshold.
+		 * @return {@code true} if the failure rate has reached the threshold,
+		 * {@code false} otherwise.
+		 */
+		boolean exceeds(final long now, final int minimumCalls,
+				final double threshold) {
+			final long oldest = epoch(now) - ring.length();
+			long calls = 0L;
+			long failures = 0L;
+			for (int i = 0; i < ring.length(); i++) {
+				final Bucket bucket = ring.get(i);
+				if (bucket != null && bucket.epoch > oldest) {
+					calls += bucket.calls.sum();
+					failures += bucket.failures.sum();
+				}
+			}
+			return calls >= minimumCalls && failures >= threshold * calls;
+		}
+
+		/**
+		 * Records an outcome.
+		 *
+		 * @param now the current time.
+		 * @param failed whether the call failed.
+		 */
+		void record(final long now, final boolean failed) {
+			final long epoch = epoch(now);
+			final int index = (int) (epoch % ring.length());
+			Bucket bucket = ring.get(index);
+			while (bucket == null || bucket.epoch < epoch) {
+				final Bucket fresh = new Bucket(epoch);
+				if (ring.compareAndSet(index, bucket, fresh)) {
+					bucket = fresh;
+				} else {
+					bucket = ring.get(index);
+				}
+			}
+			if (bucket.epoch == epoch) {
+				bucket.calls.increment();
+				if (failed) {
+					bucket.failures.increment();
+				}
+			}
+		}
+
+		/**
+		 * Returns the epoch of the bucket that contains the specified time.
+		 *
+		 * @param now the time.
+		 * @return the epoch.
+		 */
+		private long epoch(final long now) {
+			return (now - origin) / bucketNanos;
+		}
+	}
+
+	/**
+	 * The counters of the outcomes recorded in a bucket of a window.
+	 */
+	private static final class Bucket {
+		/**
+		 * The epoch of the bucket.
+		 */
+		final long epoch;
+
+		/**
+		 * The number of calls.
+		 */
+		final LongAdder calls = new LongAdder();
+
+		/**
+		 * The number of failed calls.
+		 */
+		final LongAdder failures = new LongAdder();
+
+		/**
+		 * Builds an empty bucket.
+		 *
+		 * @param epoch the epoch of the bucket.
+		 */
+		Bucket(final long epoch) {
+			this.epoch = epoch;
+		}
+	}
+
+	/**
+	 * Builds {@link CircuitBreaker} instances.
+	 *
+	 * @author Marco Buzzanca
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	public static final class Builder {
+		/**
+		 * The failure rate that opens the circuit.
+		 */
+		private double threshold = 0.5;
+
+		/**
+		 * The minimum number of calls in the window.
+		 */
+		private int minimumCalls = 10;
+
+		/**
+		 * The duration of the window, in nanoseconds.
+		 */
+		private long window = 10_000_000_000L;
+
+		/**
+		 * The number of buckets of the window.
+		 */
+		private int buckets = 10;
+
+		/**
+		 * The time the circuit stays open, in nanoseconds.
+		 */
+		private long cooldown = 30_000_000_000L;
+
+		/**
+		 * The source of time.
+		 */
+		private Ticker ticker = Ticker.system();
+
+		/**
+		 * Builds a builder with the default configuration.
+		 */
+		private Builder() {
+		}
+
+		/**
+		 * Builds a circuit breaker with the current configuration of this
+		 * builder.
+		 *
+		 * @return the circuit breaker.
+		 */
+		public CircuitBreaker build() {
+			return new CircuitBreaker(this);
+		}
+
+		/**
+		 * Sets the time the circuit stays open before a probe is attempted.
+		 *
+		 * @param cooldown the cooldown.
+		 * @return this builder.
+		 * @throws NullPointerException if the cooldown is {@code null}.
+		 * @throws IllegalArgumentException if the cooldown is negative.
+		 */
+		public Builder cooldown(final Duration cooldown) {
+			this.cooldown = Durations.toNanos(cooldown);
+			return this;
+		}
+
+		/**
+		 * Sets the failure rate that opens the circuit.
+		 *
+		 * @param threshold the failure rate, between 0 (exclusive) and 1
+		 * (inclusive).
+		 * @return this builder.
+		 * @throws IllegalArgumentException if the threshold is out of range.
+		 */
+		public Builder failureRateThreshold(final double threshold) {
+			if (!(threshold > 0.0 && threshold <= 1.0)) {
+				throw new IllegalArgumentException("threshold: " + threshold);
+			}
+			this.threshold = threshold;
+			return this;
+		}
+
+		/**
+		 * Sets the minimum number of calls in the window for the failure
+		 * rate to be significant.
+		 *
+		 * @param minimumCalls the minimum number of calls.
+		 * @return this builder.
+		 * @throws IllegalArgumentException if the number is not positive.
+		 */
+		public Builder minimumCalls(final int minimumCalls) {
+			if (minimumCalls <= 0) {
+				throw new IllegalArgumentException("minimumCalls: " +
+						minimumCalls);
+			}
+			this.minimumCalls = minimumCalls;
+			return this;
+		}
+
+		/**
+		 * Sets the source of time.
+		 *
+		 * @param ticker the ticker.
+		 * @return this builder.
+		 * @throws NullPointerException if the ticker is {@code null}.
+		 */
+		public Builder ticker(final Ticker ticker) {
+			this.ticker = Objects.requireNonNull(ticker);
+			return this;
+		}
+
+		/**
+		 * Sets the duration of the sliding window, and the number of buckets
+		 * it is divided in. More buckets make the window slide more
+		 * smoothly, at the cost of a slower computation of the failure
+		 * rate.
+		 *
+		 * @param window the duration of the window.
+		 * @param buckets the number of buckets.
+		 * @return this builder.
+		 * @throws NullPointerException if the duration is {@code null}.
+		 * @throws IllegalArgumentException if the duration is not positive,
+		 * or if the number of buckets is not positive.
+		 */
+		public Builder window(final Duration window, final int buckets) {
+			final long nanos = Durations.toNanos(window);
+			if (nanos == 0L) {
+				throw new IllegalArgumentException("empty window");
+			}
+			if (buckets <= 0) {
+				throw new IllegalArgumentException("buckets: " + buckets);
+			}
+			this.window = nanos;
+			this.buckets = buckets;
+			return this;
+		}
+	}
+}
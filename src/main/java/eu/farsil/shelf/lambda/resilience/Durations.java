@@ -0,0 +1,40 @@
+package eu.farsil.shelf.lambda.resilience;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Validates and converts the durations that configure the classes of this
+ * package.
+ *
+ * @author Marco Buzzanca
+ */
+final class Durations {
+	/**
+	 * Utility class.
+	 */
+	private Durations() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Converts a non-negative duration to nanoseconds, saturating at {@link
+	 * Long#MAX_VALUE}.
+	 *
+	 * @param duration the duration.
+	 * @return the duration in nanoseconds.
+	 * @throws NullPointerException if the duration is {@code null}.
+	 * @throws IllegalArgumentException if the duration is negative.
+	 */
+	static long toNanos(final Duration duration) {
+		if (Objects.requireNonNull(duration).isNegative()) {
+			throw new IllegalArgumentException("negative duration: " +
+					duration);
+		}
+		try {
+			return duration.toNanos();
+		} catch (final ArithmeticException e) {
+			return Long.MAX_VALUE;
+		}
+	}
+}
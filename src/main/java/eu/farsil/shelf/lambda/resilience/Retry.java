@@ -0,0 +1,427 @@
+package eu.farsil.shelf.lambda.resilience;
+
+import eu.farsil.shelf.lambda.Try;
+import eu.farsil.shelf.lambda.function.ThrowingSupplier;
+import org.apiguardian.api.API;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A policy that repeats a failed computation until it succeeds, or until the
+ * policy gives up.
+ * <p>
+ * A policy gives up, returning the last failure, when:
+ * <ul>
+ * <li>the maximum number of attempts has been performed;</li>
+ * <li>the next attempt would start after the maximum elapsed time;</li>
+ * <li>the cause of the failure is not retryable;</li>
+ * <li>the {@link RetryBudget} of the policy, if any, is exhausted.</li>
+ * </ul>
+ * Between two attempts, the policy waits for the delay computed by its
+ * {@link Backoff}. Policies are immutable and thread-safe, and are built
+ * with {@link #builder()}:
+ * <pre>{@code
+ * Retry retry = Retry.builder()
+ *         .maxAttempts(5)
+ *         .backoff(Backoff.decorrelatedJitter(
+ *                 Duration.ofMillis(10), Duration.ofSeconds(1)))
+ *         .retryOn(IOException.class)
+ *         .build();
+ * Try<String> attempt = retry.get(() -> fetch(url));
+ * }</pre>
+ *
+ * @author Marco Buzzanca
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public final class Retry {
+	/**
+	 * The maximum number of attempts.
+	 */
+	private final int maxAttempts;
+
+	/**
+	 * The maximum elapsed time, in nanoseconds.
+	 */
+	private final long maxElapsed;
+
+	/**
+	 * The delay between attempts.
+	 */
+	private final Backoff backoff;
+
+	/**
+	 * Whether a cause is retryable.
+	 */
+	private final Predicate<? super Exception> retryable;
+
+	/**
+	 * The shared budget, or {@code null} if retries are not limited by a
+	 * budget.
+	 */
+	private final RetryBudget budget;
+
+	/**
+	 * The source of time.
+	 */
+	private final Ticker ticker;
+
+	/**
+	 * Builds a policy from the state of the specified builder.
+	 *
+	 * @param builder the builder.
+	 */
+	private Retry(final Builder builder) {
+		this.maxAttempts = builder.maxAttempts;
+		this.maxElapsed = builder.maxElapsed;
+		this.backoff = builder.backoff;
+		this.retryable = builder.retryable != null
+				? builder.retryable
+				: e -> true;
+		this.budget = builder.budget;
+		this.ticker = builder.ticker;
+	}
+
+	/**
+	 * Returns a new builder, whose initial configuration performs at most
+	 * three attempts, retries every cause immediately, and has no maximum
+	 * elapsed time and no budget.
+	 *
+	 * @return the builder.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Attempts to get a result from the specified supplier, retrying on
+	 * failure according to this policy. The current thread waits between
+	 * attempts; if it is interrupted, the outcome is a failure caused by
+	 * {@link InterruptedException}, and the interrupt status of the thread
+	 * is restored.
+	 *
+	 * @param supplier the supplier of the result.
+	 * @param <T> the type of the result.
+	 * @return the outcome of the last attempt.
+	 * @throws NullPointerException if the supplier is {@code null}.
+	 */
+	public <T> Try<T> get(final ThrowingSupplier<? extends T> supplier) {
+		Objects.requireNonNull(supplier);
+		final long start = ticker.nanoTime();
+		long delay = 0L;
+		for (int attempt = 1; ; attempt++) {
+			final Try<T> outcome = Try.get(supplier);
+			if (outcome.isSuccessful()) {
+				return outcome;
+			}
+			delay = next(outcome.getCause(), attempt, delay, start);
+			if (delay < 0) {
+				return outcome;
+			}
+			try {
+				ticker.sleep(delay);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return Try.failure(e);
+			}
+		}
+	}
+
+	/**
+	 * Attempts to get a result from the specified supplier, retrying on
+	 * failure according to this policy, without blocking. The attempts run
+	 * on the specified scheduler, which also waits for the delays between
+	 * them. If the scheduler rejects an attempt, the outcome is a failure
+	 * caused by {@link RejectedExecutionException}.
+	 *
+	 * @param supplier the supplier of the result.
+	 * @param scheduler the scheduler of the attempts.
+	 * @param <T> the type of the result.
+	 * @return a future completed with the outcome of the last attempt.
+	 * @throws NullPointerException if any argument is {@code null}.
+	 */
+	public <T> CompletableFuture<Try<T>> getAsync(
+			final ThrowingSupplier<? extends T> supplier,
+			final ScheduledExecutorService scheduler) {
+		Objects.requireNonNull(supplier);
+		Objects.requireNonNull(scheduler);
+		final CompletableFuture<Try<T>> future = new CompletableFuture<>();
+		new AsyncAttempt<>(supplier, scheduler, future, ticker.nanoTime())
+				.schedule(0L);
+		return future;
+	}
+
+	/**
+	 * Decides whether to retry after a failure.
+	 *
+	 * @param cause the cause of the failure.
+	 * @param attempt the number of the failed attempt, starting from 1.
+	 * @param previous the previous delay, in nanoseconds.
+	 * @param start the start of the first attempt, in ticker nanoseconds.
+	 * @return the delay before the next attempt, in nanoseconds, or a
+	 * negative value if the policy gives up.
+	 */
+	private long next(final Exception cause, final int attempt,
+			final long previous, final long start) {
+		if (attempt >= maxAttempts || !retryable.test(cause)) {
+			return -1L;
+		}
+		final long delay = Math.max(0L, backoff.delay(attempt, previous));
+		final long elapsed = ticker.nanoTime() - start;
+		if (delay > maxElapsed - elapsed) {
+			return -1L;
+		}
+		// the budget is checked last, so that it is only spent on retries
+		return budget == null || budget.tryAcquire() ? delay : -1L;
+	}
+
+	/**
+	 * The state of a non-blocking sequence of attempts.
+	 *
+	 * @param <T> the type of the result.
+	 */
+	private final class AsyncAttempt<T> implements Runnable {
+		/**
+		 * The supplier of the result.
+		 */
+		private final ThrowingSupplier<? extends T> supplier;
+
+		/**
+		 * The scheduler of the attempts.
+		 */
+		private final ScheduledExecutorService scheduler;
+
+		/**
+		 * The future to complete with the outcome.
+		 */
+		private final CompletableFuture<Try<T>> future;
+
+		/**
+		 * The start of the first attempt, in ticker nanoseconds.
+		 */
+		private final long start;
+
+		/**
+		 * The number of the next attempt. Attempts never overlap, and the
+		 * scheduler guarantees that each attempt sees the writes of the
+		 * previous one.
+		 */
+		private int attempt;
+
+		/**
+		 * The previous delay, in nanoseconds.
+		 */
+		private long delay;
+
+		/**
+		 * Builds the state of a sequence of attempts.
+		 *
+		 * @param supplier the supplier of the result.
+		 * @param scheduler the scheduler of the attempts.
+		 * @param future the future to complete with the outcome.
+		 * @param start the start of the first attempt.
+		 */
+		AsyncAttempt(final ThrowingSupplier<? extends T> supplier,
+				final ScheduledExecutorService scheduler,
+				final CompletableFuture<Try<T>> future, final long start) {
+			this.supplier = supplier;
+			this.scheduler = scheduler;
+			this.future = future;
+			this.start = start;
+		}
+
+		@Override
+		public void run() {
+			if (future.isDone()) {
+				// cancelled by the caller
+				return;
+			}
+			attempt++;
+			final Try<T> outcome = Try.get(supplier);
+			if (outcome.isSuccessful()) {
+				future.complete(outcome);
+				return;
+			}
+			delay = next(outcome.getCause(), attempt, delay, start);
+			if (delay < 0) {
+				future.complete(outcome);
+			} else {
+				schedule(delay);
+			}
+		}
+
+		/**
+		 * Schedules the next attempt.
+		 *
+		 * @param nanos the delay, in nanoseconds.
+		 */
+		void schedule(final long nanos) {
+			try {
+				scheduler.schedule(this, nanos, TimeUnit.NANOSECONDS);
+			} catch (final RejectedExecutionException e) {
+				future.complete(Try.failure(e));
+			}
+		}
+	}
+
+	/**
+	 * Builds {@link Retry} policies.
+	 *
+	 * @author Marco Buzzanca
+	 */
+	@API(status = EXPERIMENTAL, since = "0.2.0")
+	public static final class Builder {
+		/**
+		 * The maximum number of attempts.
+		 */
+		private int maxAttempts = 3;
+
+		/**
+		 * The maximum elapsed time, in nanoseconds.
+		 */
+		private long maxElapsed = Long.MAX_VALUE;
+
+		/**
+		 * The delay between attempts.
+		 */
+		private Backoff backoff = Backoff.none();
+
+		/**
+		 * Whether a cause is retryable, or {@code null} if every cause is.
+		 */
+		private Predicate<? super Exception> retryable;
+
+		/**
+		 * The shared budget, or {@code null} if there is none.
+		 */
+		private RetryBudget budget;
+
+		/**
+		 * The source of time.
+		 */
+		private Ticker ticker = Ticker.system();
+
+		/**
+		 * Builds a builder with the default configuration.
+		 */
+		private Builder() {
+		}
+
+		/**
+		 * Sets the delay between attempts.
+		 *
+		 * @param backoff the backoff.
+		 * @return this builder.
+		 * @throws NullPointerException if the backoff is {@code null}.
+		 */
+		public Builder backoff(final Backoff backoff) {
+			this.backoff = Objects.requireNonNull(backoff);
+			return this;
+		}
+
+		/**
+		 * Sets the budget that limits the rate of retries. The same budget
+		 * can be shared by several policies.
+		 *
+		 * @param budget the budget.
+		 * @return this builder.
+		 * @throws NullPointerException if the budget is {@code null}.
+		 */
+		public Builder budget(final RetryBudget budget) {
+			this.budget = Objects.requireNonNull(budget);
+			return this;
+		}
+
+		/**
+		 * Builds a policy with the current configuration of this builder.
+		 *
+		 * @return the policy.
+		 */
+		public Retry build() {
+			return new Retry(this);
+		}
+
+		/**
+		 * Sets the maximum number of attempts, including the first one.
+		 *
+		 * @param maxAttempts the maximum number of attempts.
+		 * @return this builder.
+		 * @throws IllegalArgumentException if the maximum number of attempts
+		 * is not positive.
+		 */
+		public Builder maxAttempts(final int maxAttempts) {
+			if (maxAttempts <= 0) {
+				throw new IllegalArgumentException("maxAttempts: " +
+						maxAttempts);
+			}
+			this.maxAttempts = maxAttempts;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum elapsed time: an attempt is not performed if it
+		 * would start later than this time after the first one.
+		 *
+		 * @param maxElapsed the maximum elapsed time.
+		 * @return this builder.
+		 * @throws NullPointerException if the time is {@code null}.
+		 * @throws IllegalArgumentException if the time is negative.
+		 */
+		public Builder maxElapsed(final Duration maxElapsed) {
+			this.maxElapsed = Durations.toNanos(maxElapsed);
+			return this;
+		}
+
+		/**
+		 * Retries the failures caused by instances of the specified class.
+		 * If called more than once, a cause is retried if it satisfies any
+		 * of the conditions.
+		 *
+		 * @param type the class of the retryable causes.
+		 * @return this builder.
+		 * @throws NullPointerException if the class is {@code null}.
+		 */
+		public Builder retryOn(final Class<? extends Exception> type) {
+			Objects.requireNonNull(type);
+			return retryOn(type::isInstance);
+		}
+
+		/**
+		 * Retries the failures whose cause satisfies the specified
+		 * predicate. If called more than once, a cause is retried if it
+		 * satisfies any of the conditions.
+		 *
+		 * @param predicate the predicate on the retryable causes.
+		 * @return this builder.
+		 * @throws NullPointerException if the predicate is {@code null}.
+		 */
+		public Builder retryOn(final Predicate<? super Exception> predicate) {
+			Objects.requireNonNull(predicate);
+			final Predicate<? super Exception> current = retryable;
+			retryable = current == null
+					? predicate
+					: e -> current.test(e) || predicate.test(e);
+			return this;
+		}
+
+		/**
+		 * Sets the source of time, which measures the elapsed time and waits
+		 * between blocking attempts.
+		 *
+		 * @param ticker the ticker.
+		 * @return this builder.
+		 * @throws NullPointerException if the ticker is {@code null}.
+		 */
+		public Builder ticker(final Ticker ticker) {
+			this.ticker = Objects.requireNonNull(ticker);
+			return this;
+		}
+	}
+}
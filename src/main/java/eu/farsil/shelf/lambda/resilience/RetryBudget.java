@@ -0,0 +1,124 @@
+package eu.farsil.shelf.lambda.resilience;
+
+import org.apiguardian.api.API;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A budget that limits the rate of retries, shared by any number of {@link
+ * Retry} policies.
+ * <p>
+ * The budget is a token bucket: each retry takes a token, and tokens are
+ * replenished at a constant rate up to the capacity of the bucket. When the
+ * bucket is empty, retries are not performed and the failure is returned
+ * immediately, so that during an outage retries cannot multiply the load on
+ * a dependency that is already struggling.
+ * <p>
+ * This class is lock-free: the whole state of the bucket is a single
+ * timestamp, updated with a compare-and-set, following the generic cell
+ * rate algorithm.
+ *
+ * @author Marco Buzzanca
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public final class RetryBudget {
+	/**
+	 * The time between two tokens, in nanoseconds.
+	 */
+	private final long interval;
+
+	/**
+	 * The time it takes to refill an empty bucket, in nanoseconds.
+	 */
+	private final long tolerance;
+
+	/**
+	 * The source of time.
+	 */
+	private final Ticker ticker;
+
+	/**
+	 * The time at which the bucket will be full, in ticker nanoseconds.
+	 */
+	private final AtomicLong full;
+
+	/**
+	 * Builds a budget.
+	 *
+	 * @param capacity the maximum number of tokens.
+	 * @param interval the time between two tokens, in nanoseconds.
+	 * @param ticker the source of time.
+	 */
+	private RetryBudget(final int capacity, final long interval,
+			final Ticker ticker) {
+		this.interval = interval;
+		this.tolerance = interval * capacity;
+		this.ticker = ticker;
+		// starts full
+		this.full = new AtomicLong(ticker.nanoTime() - tolerance);
+	}
+
+	/**
+	 * Returns a budget that allows bursts of at most {@code capacity}
+	 * retries, and {@code perSecond} retries per second on average.
+	 *
+	 * @param capacity the maximum number of tokens.
+	 * @param perSecond the number of tokens replenished per second.
+	 * @return the budget.
+	 * @throws IllegalArgumentException if the capacity or the rate are not
+	 * positive.
+	 */
+	public static RetryBudget of(final int capacity, final double perSecond) {
+		return of(capacity, perSecond, Ticker.system());
+	}
+
+	/**
+	 * Returns a budget that allows bursts of at most {@code capacity}
+	 * retries, and {@code perSecond} retries per second on average,
+	 * measuring time with the specified ticker.
+	 *
+	 * @param capacity the maximum number of tokens.
+	 * @param perSecond the number of tokens replenished per second.
+	 * @param ticker the source of time.
+	 * @return the budget.
+	 * @throws NullPointerException if the ticker is {@code null}.
+	 * @throws IllegalArgumentException if the capacity or the rate are not
+	 * positive.
+	 */
+	public static RetryBudget of(final int capacity, final double perSecond,
+			final Ticker ticker) {
+		Objects.requireNonNull(ticker);
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity: " + capacity);
+		}
+		if (!(perSecond > 0)) {
+			throw new IllegalArgumentException("perSecond: " + perSecond);
+		}
+		return new RetryBudget(capacity,
+				Math.max(1L, (long) (1_000_000_000L / perSecond)), ticker);
+	}
+
+	/**
+	 * Takes a token from the budget, if there is one.
+	 *
+	 * @return {@code true} if a token was taken, {@code false} if the budget
+	 * is exhausted.
+	 */
+	public boolean tryAcquire() {
+		final long now = ticker.nanoTime();
+		for (; ; ) {
+			final long current = full.get();
+			// an overdue full time means the bucket is full
+			final long next = Math.max(current, now - tolerance) + interval;
+			if (next - now > 0) {
+				return false;
+			}
+			if (full.compareAndSet(current, next)) {
+				return true;
+			}
+		}
+	}
+}
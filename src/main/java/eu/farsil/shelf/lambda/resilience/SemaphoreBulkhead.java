@@ -0,0 +1,53 @@
+package eu.farsil.shelf.lambda.resilience;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Implementation of {@link Bulkhead} with a fixed limit, backed by a {@link
+ * Semaphore}. Permits are acquired without waiting, which does not involve
+ * any lock.
+ *
+ * @author Marco Buzzanca
+ * @see Bulkhead#of(int)
+ */
+final class SemaphoreBulkhead extends Bulkhead {
+	/**
+	 * The limit.
+	 */
+	private final int limit;
+
+	/**
+	 * The available permits.
+	 */
+	private final Semaphore permits;
+
+	/**
+	 * Builds a bulkhead with the specified limit.
+	 *
+	 * @param limit the limit.
+	 */
+	SemaphoreBulkhead(final int limit) {
+		this.limit = limit;
+		this.permits = new Semaphore(limit);
+	}
+
+	@Override
+	public int getActive() {
+		return limit - permits.availablePermits();
+	}
+
+	@Override
+	public int getLimit() {
+		return limit;
+	}
+
+	@Override
+	void release(final long permit) {
+		permits.release();
+	}
+
+	@Override
+	long tryAcquire() {
+		return permits.tryAcquire() ? 0L : REJECTED_PERMIT;
+	}
+}
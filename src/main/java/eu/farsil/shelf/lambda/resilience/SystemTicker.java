@@ -0,0 +1,26 @@
+package eu.farsil.shelf.lambda.resilience;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ticker backed by the system timer.
+ *
+ * @author Marco Buzzanca
+ * @see Ticker#system()
+ */
+enum SystemTicker implements Ticker {
+	/**
+	 * The only instance.
+	 */
+	INSTANCE;
+
+	@Override
+	public long nanoTime() {
+		return System.nanoTime();
+	}
+
+	@Override
+	public void sleep(final long nanos) throws InterruptedException {
+		TimeUnit.NANOSECONDS.sleep(nanos);
+	}
+}
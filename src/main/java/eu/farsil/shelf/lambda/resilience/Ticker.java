@@ -0,0 +1,46 @@
+package eu.farsil.shelf.lambda.resilience;
+
+import org.apiguardian.api.API;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A source of time for the classes of this package, which measures
+ * elapsed time and waits for it to pass.
+ * <p>
+ * The system ticker, returned by {@link #system()}, is backed by {@link
+ * System#nanoTime()} and {@link Thread#sleep(long)}. Other implementations
+ * are mainly useful for testing, so that time-dependent behavior does not
+ * depend on the wall clock.
+ *
+ * @author Marco Buzzanca
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public interface Ticker {
+	/**
+	 * Returns the system ticker.
+	 *
+	 * @return the system ticker.
+	 */
+	static Ticker system() {
+		return SystemTicker.INSTANCE;
+	}
+
+	/**
+	 * Returns the current value of this ticker, in nanoseconds. Only the
+	 * difference between two values is meaningful.
+	 *
+	 * @return the current value, in nanoseconds.
+	 * @see System#nanoTime()
+	 */
+	long nanoTime();
+
+	/**
+	 * Waits for the given amount of time to pass.
+	 *
+	 * @param nanos the time to wait, in nanoseconds.
+	 * @throws InterruptedException if the current thread is interrupted
+	 * while waiting.
+	 */
+	void sleep(long nanos) throws InterruptedException;
+}
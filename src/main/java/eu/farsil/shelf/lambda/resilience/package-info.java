@@ -0,0 +1,6 @@
+/**
+ * Contains classes that make computations resilient to the failures of the
+ * resources they depend on, such as retry policies, which report their
+ * outcome as instances of {@link eu.farsil.shelf.lambda.Try}.
+ */
+package eu.farsil.shelf.lambda.resilience;
@@ -0,0 +1,36 @@
+package eu.farsil.shelf.lambda.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Event emitted when a computation of a {@code Try} fails.
+ *
+ * @author Marco Buzzanca
+ */
+@Name(FailureEvent.NAME)
+@Label("Try Failure")
+@Category({"Shelf", "Try"})
+@Description("A computation of a Try failed")
+final class FailureEvent extends Event {
+	/**
+	 * The name of the event.
+	 */
+	static final String NAME = "eu.farsil.shelf.lambda.Failure";
+
+	/**
+	 * The class of the cause.
+	 */
+	@Label("Exception Class")
+	Class<?> exceptionClass;
+
+	/**
+	 * The message of the cause, truncated, or {@code null} if it is not
+	 * recorded.
+	 */
+	@Label("Message")
+	String message;
+}
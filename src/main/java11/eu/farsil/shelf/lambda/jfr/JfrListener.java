@@ -0,0 +1,116 @@
+package eu.farsil.shelf.lambda.jfr;
+
+import eu.farsil.shelf.lambda.TryListener;
+import eu.farsil.shelf.lambda.function.PredicateFailedException;
+import eu.farsil.shelf.lambda.function.ThrowingSupplier;
+import org.apiguardian.api.API;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * A {@link TryListener} that emits JDK Flight Recorder events for the
+ * failures, the recoveries and the slow computations of {@code Try}.
+ * <p>
+ * The events are named {@code eu.farsil.shelf.lambda.Failure}, {@code
+ * eu.farsil.shelf.lambda.Recovery} and {@code
+ * eu.farsil.shelf.lambda.SlowSupplier}, and are enabled and configured in
+ * the recording settings like any other event: in particular, the threshold
+ * of the slow computations, 20 ms by default, is the {@code threshold}
+ * setting of the last event. Events are only built when they are enabled:
+ * while no recording enables them, the JIT compiler removes their code.
+ * <p>
+ * Failure events record the detail message of the cause, truncated to
+ * {@value #MAX_MESSAGE_LENGTH} characters, except for the causes whose
+ * message is built on demand, such as {@link PredicateFailedException}:
+ * building it would invoke arbitrary {@code toString()} methods.
+ * <p>
+ * The listener is installed when the library is loaded if the system
+ * property {@code eu.farsil.shelf.lambda.jfr} is {@code true}, or
+ * explicitly:
+ * <pre>{@code TryListener.install(JfrListener.create());}</pre>
+ * <p>
+ * This class requires Java 11 or later at runtime: on older versions, the
+ * system property has no effect.
+ *
+ * @author Marco Buzzanca
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public final class JfrListener implements TryListener {
+	/**
+	 * The maximum length of the messages recorded by failure events.
+	 */
+	public static final int MAX_MESSAGE_LENGTH = 256;
+
+	/**
+	 * Builds the listener.
+	 */
+	private JfrListener() {
+	}
+
+	/**
+	 * Returns a new listener.
+	 *
+	 * @return the new listener.
+	 */
+	public static JfrListener create() {
+		return new JfrListener();
+	}
+
+	@Override
+	public <T> T intercept(final ThrowingSupplier<T> supplier)
+			throws Exception {
+		final SlowSupplierEvent event = new SlowSupplierEvent();
+		if (!event.isEnabled()) {
+			return supplier.get();
+		}
+		event.begin();
+		boolean successful = false;
+		try {
+			final T value = supplier.get();
+			successful = value != null;
+			return value;
+		} finally {
+			event.end();
+			if (event.shouldCommit()) {
+				event.supplierClass = supplier.getClass();
+				event.successful = successful;
+				event.commit();
+			}
+		}
+	}
+
+	@Override
+	public void onFailure(final Exception cause) {
+		final FailureEvent event = new FailureEvent();
+		if (event.shouldCommit()) {
+			event.exceptionClass = cause.getClass();
+			event.message = message(cause);
+			event.commit();
+		}
+	}
+
+	/**
+	 * Returns the message recorded for the specified cause.
+	 *
+	 * @param cause the cause.
+	 * @return the message, or {@code null} if it is not recorded.
+	 */
+	private static String message(final Exception cause) {
+		if (cause instanceof PredicateFailedException) {
+			return null;
+		}
+		final String message = cause.getMessage();
+		return message != null && message.length() > MAX_MESSAGE_LENGTH
+				? message.substring(0, MAX_MESSAGE_LENGTH)
+				: message;
+	}
+
+	@Override
+	public void onRecovery(final Exception cause) {
+		final RecoveryEvent event = new RecoveryEvent();
+		if (event.shouldCommit()) {
+			event.exceptionClass = cause.getClass();
+			event.commit();
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package eu.farsil.shelf.lambda.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Event emitted when a failed {@code Try} is recovered.
+ *
+ * @author Marco Buzzanca
+ */
+@Name(RecoveryEvent.NAME)
+@Label("Try Recovery")
+@Category({"Shelf", "Try"})
+@Description("A failed Try was recovered")
+final class RecoveryEvent extends Event {
+	/**
+	 * The name of the event.
+	 */
+	static final String NAME = "eu.farsil.shelf.lambda.Recovery";
+
+	/**
+	 * The class of the recovered cause.
+	 */
+	@Label("Exception Class")
+	Class<?> exceptionClass;
+}
@@ -0,0 +1,39 @@
+package eu.farsil.shelf.lambda.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Event emitted when a computation of {@code Try.get()} lasts longer than
+ * the threshold of the event, which is 20 ms by default and can be changed
+ * in the recording settings.
+ *
+ * @author Marco Buzzanca
+ */
+@Name(SlowSupplierEvent.NAME)
+@Label("Slow Try Supplier")
+@Category({"Shelf", "Try"})
+@Description("A computation of Try.get() exceeded the threshold")
+@Threshold("20 ms")
+final class SlowSupplierEvent extends Event {
+	/**
+	 * The name of the event.
+	 */
+	static final String NAME = "eu.farsil.shelf.lambda.SlowSupplier";
+
+	/**
+	 * The class of the supplier.
+	 */
+	@Label("Supplier Class")
+	Class<?> supplierClass;
+
+	/**
+	 * Whether the computation succeeded.
+	 */
+	@Label("Successful")
+	boolean successful;
+}
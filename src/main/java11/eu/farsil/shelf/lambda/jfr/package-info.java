@@ -0,0 +1,10 @@
+/**
+ * Contains a {@link eu.farsil.shelf.lambda.TryListener} that emits JDK
+ * Flight Recorder events for the failures and the slow computations of
+ * {@link eu.farsil.shelf.lambda.Try}.
+ * <p>
+ * This package requires Java 11 or later at runtime: its classes are
+ * compiled for Java 11, and cannot be loaded on older versions, although the
+ * rest of the library can.
+ */
+package eu.farsil.shelf.lambda.jfr;
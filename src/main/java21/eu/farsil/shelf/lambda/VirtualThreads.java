@@ -0,0 +1,45 @@
+package eu.farsil.shelf.lambda;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates the threads of the {@link TryScope} instances.
+ * <p>
+ * This is the implementation for Java 21 and later, which creates virtual
+ * threads: they are cheap enough to create one for each subtask, even for
+ * thousands of blocking calls.
+ *
+ * @author Marco Buzzanca
+ */
+final class VirtualThreads {
+	/**
+	 * The factory of virtual threads, which is thread-safe.
+	 */
+	private static final ThreadFactory FACTORY =
+			Thread.ofVirtual().name("shelf-scope-", 0).factory();
+
+	/**
+	 * Utility class.
+	 */
+	private VirtualThreads() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Returns the thread factory used by default.
+	 *
+	 * @return a factory of virtual threads.
+	 */
+	static ThreadFactory factory() {
+		return FACTORY;
+	}
+
+	/**
+	 * Returns whether the default factory creates virtual threads.
+	 *
+	 * @return {@code true}.
+	 */
+	static boolean isSupported() {
+		return true;
+	}
+}
@@ -0,0 +1,327 @@
+package eu.farsil.shelf.lambda.flow;
+
+import eu.farsil.shelf.lambda.Try;
+import eu.farsil.shelf.lambda.function.ThrowingFunction;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A processor that maps each item to a {@link Try}.
+ * <p>
+ * The items are mapped as they arrive, on the thread of the upstream
+ * publisher, and queued. The signals to the subscriber are emitted by a
+ * drain loop, which is entered by at most one thread at a time: the thread
+ * that finds it busy increments a counter instead, so that the loop runs
+ * again before the thread that owns it leaves. This serializes the signals
+ * without locks, as the specification requires.
+ *
+ * @param <T> the type of the items.
+ * @param <R> the type of the results.
+ * @author Marco Buzzanca
+ * @see TryFlow#map(ThrowingFunction, int)
+ */
+final class MapProcessor<T, R>
+		implements Flow.Processor<T, Try<R>>, Flow.Subscription {
+	/**
+	 * The function applied to each item.
+	 */
+	private final ThrowingFunction<? super T, ? extends R> mapper;
+
+	/**
+	 * The number of items requested from upstream in advance.
+	 */
+	private final int batch;
+
+	/**
+	 * The number of emitted items after which more are requested.
+	 */
+	private final int limit;
+
+	/**
+	 * The mapped items that have not been emitted yet.
+	 */
+	private final Queue<Try<R>> queue = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * The upstream subscription.
+	 */
+	private final AtomicReference<Flow.Subscription> upstream =
+			new AtomicReference<>();
+
+	/**
+	 * The subscriber.
+	 */
+	private final AtomicReference<Flow.Subscriber<? super Try<R>>> downstream =
+			new AtomicReference<>();
+
+	/**
+	 * Whether the first batch has been requested.
+	 */
+	private final AtomicBoolean started = new AtomicBoolean();
+
+	/**
+	 * The outstanding demand of the subscriber.
+	 */
+	private final AtomicLong requested = new AtomicLong();
+
+	/**
+	 * The number of pending runs of the drain loop.
+	 */
+	private final AtomicInteger wip = new AtomicInteger();
+
+	/**
+	 * Whether upstream has terminated.
+	 */
+	private volatile boolean done;
+
+	/**
+	 * The error signalled by upstream or by an invalid request, written
+	 * before {@link #done}.
+	 */
+	private Throwable error;
+
+	/**
+	 * Whether the subscriber has cancelled, or the stream has terminated.
+	 */
+	private volatile boolean cancelled;
+
+	/**
+	 * The number of items emitted since the last request upstream. Only
+	 * accessed by the drain loop.
+	 */
+	private int consumed;
+
+	/**
+	 * Builds a processor.
+	 *
+	 * @param mapper the function applied to each item.
+	 * @param batch the number of items requested from upstream in advance.
+	 */
+	MapProcessor(final ThrowingFunction<? super T, ? extends R> mapper,
+			final int batch) {
+		this.mapper = mapper;
+		this.batch = batch;
+		this.limit = batch - (batch >> 2);
+	}
+
+	@Override
+	public void cancel() {
+		if (!cancelled) {
+			cancelled = true;
+			cancelUpstream();
+			if (wip.getAndIncrement() == 0) {
+				queue.clear();
+			}
+		}
+	}
+
+	@Override
+	public void onComplete() {
+		done = true;
+		drain();
+	}
+
+	@Override
+	public void onError(final Throwable throwable) {
+		error = Objects.requireNonNull(throwable);
+		done = true;
+		drain();
+	}
+
+	@Override
+	public void onNext(final T item) {
+		Objects.requireNonNull(item);
+		if (done || cancelled) {
+			return;
+		}
+		final Try<R> attempt = Try.get(() -> mapper.apply(item));
+		final long r = requested.get();
+		// fast path: emits directly if nothing is queued and there is demand
+		if (r != 0L && wip.compareAndSet(0, 1)) {
+			if (queue.isEmpty() && !cancelled) {
+				downstream.get().onNext(attempt);
+				if (r != Long.MAX_VALUE) {
+					requested.decrementAndGet();
+				}
+				replenish();
+				if (wip.decrementAndGet() == 0) {
+					return;
+				}
+			} else {
+				queue.offer(attempt);
+			}
+			drainLoop();
+		} else {
+			queue.offer(attempt);
+			drain();
+		}
+	}
+
+	@Override
+	public void onSubscribe(final Flow.Subscription subscription) {
+		Objects.requireNonNull(subscription);
+		if (!upstream.compareAndSet(null, subscription)) {
+			subscription.cancel();
+			return;
+		}
+		if (cancelled) {
+			subscription.cancel();
+			return;
+		}
+		start();
+	}
+
+	@Override
+	public void request(final long n) {
+		if (n <= 0) {
+			cancelUpstream();
+			error = new IllegalArgumentException(
+					"non-positive request: " + n);
+			done = true;
+		} else {
+			requested.getAndUpdate(r -> r + n < 0 ? Long.MAX_VALUE : r + n);
+		}
+		drain();
+	}
+
+	@Override
+	public void subscribe(final Flow.Subscriber<? super Try<R>> subscriber) {
+		Objects.requireNonNull(subscriber);
+		if (!downstream.compareAndSet(null, subscriber)) {
+			subscriber.onSubscribe(new Flow.Subscription() {
+				@Override
+				public void cancel() {
+				}
+
+				@Override
+				public void request(final long n) {
+				}
+			});
+			subscriber.onError(new IllegalStateException(
+					"processor already subscribed"));
+			return;
+		}
+		subscriber.onSubscribe(this);
+		start();
+	}
+
+	/**
+	 * Cancels the upstream subscription, if there is one.
+	 */
+	private void cancelUpstream() {
+		final Flow.Subscription subscription = upstream.get();
+		if (subscription != null) {
+			subscription.cancel();
+		}
+	}
+
+	/**
+	 * Emits the queued items, as far as the demand allows, and the terminal
+	 * signal once the queue is empty.
+	 */
+	private void drain() {
+		if (wip.getAndIncrement() == 0) {
+			drainLoop();
+		}
+	}
+
+	/**
+	 * Runs the drain loop, which the current thread must have entered.
+	 */
+	private void drainLoop() {
+		int missed = 1;
+		for (; ; ) {
+			final Flow.Subscriber<? super Try<R>> subscriber =
+					downstream.get();
+			if (subscriber != null) {
+				final long r = requested.get();
+				long emitted = 0L;
+				while (emitted != r) {
+					if (cancelled) {
+						queue.clear();
+						return;
+					}
+					final boolean terminated = done;
+					final Try<R> item = queue.poll();
+					if (item == null) {
+						if (terminated) {
+							terminate(subscriber);
+							return;
+						}
+						break;
+					}
+					subscriber.onNext(item);
+					emitted++;
+					replenish();
+				}
+				if (emitted == r) {
+					if (cancelled) {
+						queue.clear();
+						return;
+					}
+					// an error from a bad request need not wait for demand
+					if (done && (queue.isEmpty() || error
+							instanceof IllegalArgumentException)) {
+						terminate(subscriber);
+						return;
+					}
+				}
+				if (emitted != 0L && r != Long.MAX_VALUE) {
+					requested.addAndGet(-emitted);
+				}
+			}
+			missed = wip.addAndGet(-missed);
+			if (missed == 0) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Counts an emitted item, and requests more items from upstream every
+	 * {@link #limit} items. Only called by the drain loop.
+	 */
+	private void replenish() {
+		if (++consumed == limit) {
+			consumed = 0;
+			if (!done) {
+				upstream.get().request(limit);
+			}
+		}
+	}
+
+	/**
+	 * Requests the first batch from upstream, once both sides are
+	 * subscribed.
+	 */
+	private void start() {
+		final Flow.Subscription subscription = upstream.get();
+		if (subscription != null && downstream.get() != null &&
+				started.compareAndSet(false, true)) {
+			subscription.request(batch);
+		}
+	}
+
+	/**
+	 * Signals the termination of the stream to the subscriber.
+	 *
+	 * @param subscriber the subscriber.
+	 */
+	private void terminate(final Flow.Subscriber<? super Try<R>> subscriber) {
+		cancelled = true;
+		queue.clear();
+		final Throwable t = error;
+		if (t == null) {
+			subscriber.onComplete();
+		} else {
+			subscriber.onError(t);
+		}
+	}
+}
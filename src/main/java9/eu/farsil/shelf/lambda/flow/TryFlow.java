@@ -0,0 +1,82 @@
+package eu.farsil.shelf.lambda.flow;
+
+import eu.farsil.shelf.lambda.Try;
+import eu.farsil.shelf.lambda.function.ThrowingFunction;
+import org.apiguardian.api.API;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+
+import static org.apiguardian.api.API.Status.EXPERIMENTAL;
+
+/**
+ * Adapters between {@link Try} and the reactive streams of {@link Flow}.
+ * <p>
+ * The processors returned by {@link #map(ThrowingFunction) map()} turn each
+ * item into a {@code Try}, so that an item that cannot be processed does not
+ * terminate the stream: the failure is emitted like any other item, and can
+ * be handled downstream.
+ * <pre>{@code final Flow.Processor<String, Try<Record>> parser = TryFlow.map(Record::parse);
+ *  source.subscribe(parser);
+ *  parser.subscribe(sink);}</pre>
+ * <p>
+ * This class requires Java 9 or later at runtime.
+ *
+ * @author Marco Buzzanca
+ */
+@API(status = EXPERIMENTAL, since = "0.2.0")
+public final class TryFlow {
+	/**
+	 * Utility class.
+	 */
+	private TryFlow() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Returns a processor that applies the specified function to each item,
+	 * and emits the outcome as a {@link Try}. The processor requests items
+	 * from upstream in batches of {@link Flow#defaultBufferSize()}.
+	 *
+	 * @param mapper the function to apply to each item.
+	 * @param <T> the type of the items.
+	 * @param <R> the type of the results.
+	 * @return the processor.
+	 * @throws NullPointerException if the function is {@code null}.
+	 * @see #map(ThrowingFunction, int)
+	 */
+	public static <T, R> Flow.Processor<T, Try<R>> map(
+			final ThrowingFunction<? super T, ? extends R> mapper) {
+		return map(mapper, Flow.defaultBufferSize());
+	}
+
+	/**
+	 * Returns a processor that applies the specified function to each item,
+	 * and emits the outcome as a {@link Try}.
+	 * <p>
+	 * The processor accepts a single subscriber, and honors its demand. It
+	 * requests {@code batch} items from upstream as soon as both sides are
+	 * subscribed, buffers those that the subscriber has not requested yet,
+	 * and requests a new batch of three quarters of that size each time as
+	 * many items are emitted. Larger batches amortize the cost of signalling
+	 * demand upstream; a batch of 1 requests items one at a time. An error
+	 * signalled by upstream is emitted after the buffered items.
+	 *
+	 * @param mapper the function to apply to each item.
+	 * @param batch the number of items requested from upstream in advance.
+	 * @param <T> the type of the items.
+	 * @param <R> the type of the results.
+	 * @return the processor.
+	 * @throws NullPointerException if the function is {@code null}.
+	 * @throws IllegalArgumentException if the batch is not positive.
+	 */
+	public static <T, R> Flow.Processor<T, Try<R>> map(
+			final ThrowingFunction<? super T, ? extends R> mapper,
+			final int batch) {
+		Objects.requireNonNull(mapper);
+		if (batch <= 0) {
+			throw new IllegalArgumentException("batch: " + batch);
+		}
+		return new MapProcessor<>(mapper, batch);
+	}
+}
@@ -0,0 +1,9 @@
+/**
+ * Contains adapters between {@link eu.farsil.shelf.lambda.Try} and the
+ * reactive streams of {@link java.util.concurrent.Flow}.
+ * <p>
+ * This package requires Java 9 or later at runtime: its classes are compiled
+ * for Java 9, and cannot be loaded on Java 8, although the rest of the
+ * library can.
+ */
+package eu.farsil.shelf.lambda.flow;
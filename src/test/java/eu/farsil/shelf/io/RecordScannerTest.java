@@ -0,0 +1,282 @@
+package eu.farsil.shelf.io;
+
+import eu.farsil.shelf.lambda.Try;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static eu.farsil.shelf.test.MoreAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Record scanner tests.
+ *
+ * @author Marco Buzzanca
+ */
+@DisplayName("Record scanner test")
+class RecordScannerTest {
+	/**
+	 * The temporary directory.
+	 */
+	@TempDir
+	Path directory;
+
+	/**
+	 * Writes a file with the specified contents.
+	 *
+	 * @param contents the contents.
+	 * @return the file.
+	 * @throws IOException if the file cannot be written.
+	 */
+	private Path write(final String contents) throws IOException {
+		return Files.write(directory.resolve("records"),
+				contents.getBytes(StandardCharsets.ISO_8859_1));
+	}
+
+	/**
+	 * Scans a file, collecting its records as strings.
+	 *
+	 * @param scanner the scanner.
+	 * @param path the file.
+	 * @param records where the records are collected.
+	 * @param failures where the failures are collected.
+	 * @return the result of the scan.
+	 */
+	private static ScanResult scan(final RecordScanner scanner, final Path path,
+			final List<String> records, final List<RecordException> failures) {
+		return assertSuccessful(scanner.scan(path, buffer -> {
+			final byte[] bytes = new byte[buffer.remaining()];
+			buffer.get(bytes);
+			records.add(new String(bytes, StandardCharsets.ISO_8859_1));
+		}, failures::add));
+	}
+
+	@Test
+	@DisplayName("null arguments test")
+	void nullArgumentsTest() throws IOException {
+		final Path path = write("");
+		final RecordScanner subject = RecordScanner.lines();
+		assertThrows(NullPointerException.class,
+				() -> subject.scan(null, b -> {
+				}));
+		assertThrows(NullPointerException.class,
+				() -> subject.scan(path, null));
+		assertThrows(NullPointerException.class,
+				() -> subject.scan(path, b -> {
+				}, null));
+		assertThrows(NullPointerException.class,
+				() -> subject.scanText(null, s -> {
+				}));
+		assertThrows(NullPointerException.class,
+				() -> subject.scanText(path, null));
+		assertThrows(NullPointerException.class,
+				() -> subject.scanText(path, s -> {
+				}, null));
+		assertThrows(IllegalArgumentException.class,
+				() -> RecordScanner.fixed(0));
+	}
+
+	@Test
+	@DisplayName("lines() test")
+	void linesTest() throws IOException {
+		final List<String> records = new ArrayList<>();
+		final List<RecordException> failures = new ArrayList<>();
+		final ScanResult result = scan(RecordScanner.lines(),
+				write("a\nbb\r\n\nccc"), records, failures);
+		assertEquals(Arrays.asList("a", "bb", "", "ccc"), records);
+		assertEquals(4, result.getRecordCount());
+		assertEquals(0, result.getFailureCount());
+		assertTrue(result.isComplete());
+
+		// a terminated last line is not followed by an empty one
+		records.clear();
+		scan(RecordScanner.lines(), write("a\nb\n"), records, failures);
+		assertEquals(Arrays.asList("a", "b"), records);
+
+		// empty file
+		records.clear();
+		assertEquals(0, scan(RecordScanner.lines(), write(""), records,
+				failures).getRecordCount());
+		assertTrue(failures.isEmpty());
+	}
+
+	@Test
+	@DisplayName("records across windows test")
+	void windowTest() throws IOException {
+		final Path path = write("a\nbcd\n\nefg\r\nhi\nj");
+		final List<String> records = new ArrayList<>();
+		final List<RecordException> failures = new ArrayList<>();
+		assertTrue(scan(new RecordScanner(new Framing.Lines(), 5), path,
+				records, failures).isComplete());
+		assertEquals(Arrays.asList("a", "bcd", "", "efg", "hi", "j"), records);
+
+		// a record larger than a window stops the scan
+		records.clear();
+		final ScanResult result = scan(new RecordScanner(new Framing.Lines(),
+				4), path, records, failures);
+		assertEquals(Arrays.asList("a", "bcd", ""), records);
+		assertFalse(result.isComplete());
+		assertEquals(4, result.getRecordCount());
+		assertEquals(1, result.getFailureCount());
+		assertEquals(1, failures.size());
+		assertEquals(3, failures.get(0).getIndex());
+		assertEquals(7, failures.get(0).getPosition());
+		assertNull(failures.get(0).getCause());
+	}
+
+	@Test
+	@DisplayName("fixed() test")
+	void fixedTest() throws IOException {
+		final List<String> records = new ArrayList<>();
+		final List<RecordException> failures = new ArrayList<>();
+		assertTrue(scan(RecordScanner.fixed(3), write("abcdefghi"), records,
+				failures).isComplete());
+		assertEquals(Arrays.asList("abc", "def", "ghi"), records);
+
+		// the last record is truncated
+		records.clear();
+		final ScanResult result = scan(new RecordScanner(
+				new Framing.Fixed(3), 4), write("abcdefgh"), records, failures);
+		assertEquals(Arrays.asList("abc", "def"), records);
+		assertFalse(result.isComplete());
+		assertEquals(1, failures.size());
+		assertEquals(2, failures.get(0).getIndex());
+		assertEquals(6, failures.get(0).getPosition());
+		assertTrue(failures.get(0).getMessage().contains("truncated"));
+	}
+
+	@Test
+	@DisplayName("lengthPrefixed() test")
+	void lengthPrefixedTest() throws IOException {
+		final Path path = directory.resolve("frames");
+		try (final DataOutputStream out = new DataOutputStream(
+				Files.newOutputStream(path))) {
+			for (final String s : new String[]{"first", "", "third"}) {
+				out.writeInt(s.length());
+				out.writeBytes(s);
+			}
+			out.writeInt(-1);
+		}
+		final List<String> records = new ArrayList<>();
+		final List<RecordException> failures = new ArrayList<>();
+		final ScanResult result = scan(new RecordScanner(
+				new Framing.LengthPrefixed(), 12), path, records, failures);
+		assertEquals(Arrays.asList("first", "", "third"), records);
+		assertFalse(result.isComplete());
+		assertEquals(1, failures.size());
+		assertEquals(3, failures.get(0).getIndex());
+		assertEquals(22, failures.get(0).getPosition());
+		assertTrue(failures.get(0).getMessage().contains("invalid length"));
+
+		// a truncated length
+		try (final OutputStream out = Files.newOutputStream(path)) {
+			out.write(new byte[]{0, 0, 0, 1, 'a', 0, 0});
+		}
+		records.clear();
+		failures.clear();
+		assertFalse(scan(RecordScanner.lengthPrefixed(), path, records,
+				failures).isComplete());
+		assertEquals(Collections.singletonList("a"), records);
+		assertEquals(5, failures.get(0).getPosition());
+	}
+
+	@Test
+	@DisplayName("failed records do not stop the scan test")
+	void failureTest() throws IOException {
+		final Path path = write("1\nx\n3\ny\n5");
+		final List<Integer> values = new ArrayList<>();
+		final List<RecordException> failures = new ArrayList<>();
+		final ScanResult result = assertSuccessful(RecordScanner.lines()
+				.scanText(path, s -> values.add(Integer.parseInt(s.toString())),
+						failures::add));
+		assertEquals(Arrays.asList(1, 3, 5), values);
+		assertEquals(5, result.getRecordCount());
+		assertEquals(2, result.getFailureCount());
+		assertTrue(result.isComplete());
+		assertEquals(1, failures.get(0).getIndex());
+		assertEquals(2, failures.get(0).getPosition());
+		assertInstanceOf(NumberFormatException.class,
+				failures.get(0).getCause());
+		assertEquals(0, failures.get(0).getStackTrace().length);
+		assertEquals(3, failures.get(1).getIndex());
+		assertEquals(6, failures.get(1).getPosition());
+
+		// without a handler, failures are only counted
+		assertEquals(2, assertSuccessful(RecordScanner.lines().scan(path,
+				b -> Integer.parseInt(String.valueOf((char) b.get()))))
+				.getFailureCount());
+	}
+
+	@Test
+	@DisplayName("unreadable file test")
+	void unreadableTest() {
+		final Try<ScanResult> result = RecordScanner.lines().scan(
+				directory.resolve("missing"), b -> {
+				});
+		assertInstanceOf(NoSuchFileException.class, assertNotSuccessful(result));
+
+		// a failing handler fails the scan
+		final IllegalStateException cause = new IllegalStateException();
+		assertSame(cause, assertNotSuccessful(RecordScanner.lines().scan(
+				assertDoesSupply(() -> write("a")), b -> {
+					throw new IOException();
+				}, e -> {
+					throw cause;
+				})));
+	}
+
+	@Test
+	@DisplayName("record views test")
+	void viewTest() throws IOException {
+		final Path path = write("abc\nxbz");
+
+		// the buffer is read-only, and can be consumed by the action
+		final List<ByteBuffer> buffers = new ArrayList<>();
+		assertTrue(assertSuccessful(RecordScanner.lines().scan(path, b -> {
+			assertTrue(b.isReadOnly());
+			assertEquals(3, b.remaining());
+			b.position(b.limit());
+			buffers.add(b);
+		})).isComplete());
+		assertEquals(2, buffers.size());
+
+		// the character sequence is reused
+		final List<CharSequence> views = new ArrayList<>();
+		final List<String> strings = new ArrayList<>();
+		assertSuccessful(RecordScanner.lines().scanText(path, s -> {
+			assertEquals(3, s.length());
+			assertEquals('b', s.charAt(1));
+			assertThrows(IndexOutOfBoundsException.class, () -> s.charAt(3));
+			assertEquals("b", s.subSequence(1, 2).toString());
+			assertThrows(IndexOutOfBoundsException.class,
+					() -> s.subSequence(2, 4));
+			views.add(s);
+			strings.add(s.toString());
+		}));
+		assertSame(views.get(0), views.get(1));
+		assertEquals(Arrays.asList("abc", "xbz"), strings);
+	}
+
+	@Test
+	@DisplayName("toString() test")
+	void toStringTest() {
+		assertEquals("ScanResult[records: 3, failures: 1, complete: true]",
+				new ScanResult(3, 1, true).toString());
+		assertEquals("record 2 at 10: truncated record",
+				new RecordException(2, 10, "truncated record", null)
+						.getMessage());
+	}
+}
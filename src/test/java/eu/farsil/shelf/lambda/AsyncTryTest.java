@@ -0,0 +1,204 @@
+package eu.farsil.shelf.lambda;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static eu.farsil.shelf.test.MoreAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link AsyncTry} class.
+ *
+ * @author Marco Buzzanca
+ */
+@DisplayName("Asynchronous attempt test")
+class AsyncTryTest {
+	/**
+	 * The executor of the tests.
+	 */
+	private ExecutorService executor;
+
+	@BeforeEach
+	void setUp() {
+		executor = Executors.newFixedThreadPool(2);
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	@DisplayName("get() test")
+	void getTest() {
+		// null arguments
+		assertThrows(NullPointerException.class,
+				() -> AsyncTry.get(null, executor));
+		assertThrows(NullPointerException.class,
+				() -> AsyncTry.get(() -> 1, null));
+
+		// successful attempt, performed on the executor
+		final Thread caller = Thread.currentThread();
+		assertEquals(Boolean.TRUE, assertSuccessful(AsyncTry.get(
+				() -> Thread.currentThread() != caller, executor).join()));
+
+		// failed attempt
+		assertInstanceOf(IOException.class, assertNotSuccessful(AsyncTry.get(
+				() -> {
+					throw new IOException();
+				}, executor).join()));
+	}
+
+	@Test
+	@DisplayName("of() and from() test")
+	void ofTest() {
+		// null arguments
+		assertThrows(NullPointerException.class,
+				() -> AsyncTry.of(null, executor));
+		assertThrows(NullPointerException.class,
+				() -> AsyncTry.from(null, executor));
+
+		// completed attempt
+		final Try<Integer> attempt = Try.get(() -> 1);
+		assertSame(attempt, AsyncTry.of(attempt, executor).join());
+
+		// completion stages
+		assertEquals(1, assertSuccessful(AsyncTry.from(
+				CompletableFuture.completedFuture(1), executor).join()));
+		final CompletableFuture<Integer> failed = new CompletableFuture<>();
+		failed.completeExceptionally(new IOException());
+		assertInstanceOf(IOException.class, assertNotSuccessful(
+				AsyncTry.from(failed, executor).join()));
+		final CompletableFuture<Integer> cancelled = new CompletableFuture<>();
+		cancelled.cancel(false);
+		assertInstanceOf(CancellationException.class, assertNotSuccessful(
+				AsyncTry.from(cancelled, executor).join()));
+	}
+
+	@Test
+	@DisplayName("map(), filter() and recover() test")
+	void mapTest() {
+		final AsyncTry<Integer> subject = AsyncTry.get(() -> 1, executor);
+		assertThrows(NullPointerException.class, () -> subject.map(null));
+		assertThrows(NullPointerException.class, () -> subject.filter(null));
+		assertThrows(NullPointerException.class, () -> subject.recover(null));
+
+		// chain on a success
+		assertEquals(3, assertSuccessful(subject
+				.map(x -> x + 1)
+				.filter(x -> x > 1)
+				.recover(e -> 0)
+				.map(x -> x + 1)
+				.join()));
+
+		// chain on a failure
+		assertEquals(0, assertSuccessful(subject
+				.map(x -> x + 1)
+				.filter(x -> x < 0)
+				.map(x -> x + 1)
+				.recover(e -> 0)
+				.join()));
+	}
+
+	@Test
+	@DisplayName("flatMap() and flatRecover() test")
+	void flatMapTest() {
+		final AsyncTry<Integer> subject = AsyncTry.get(() -> 1, executor);
+		assertThrows(NullPointerException.class, () -> subject.flatMap(null));
+		assertThrows(NullPointerException.class,
+				() -> subject.flatRecover(null));
+
+		// function that returns an asynchronous attempt
+		final AsyncTry<Integer> mapped = subject.flatMap(
+				x -> AsyncTry.get(() -> x + 1, executor));
+		assertEquals(2, assertSuccessful(mapped.join()));
+
+		// function that throws
+		final AsyncTry<Integer> failed = subject.flatMap(x -> {
+			throw new IOException();
+		});
+		assertInstanceOf(IOException.class,
+				assertNotSuccessful(failed.join()));
+
+		// recovery of a failure
+		assertEquals(3, assertSuccessful(failed.flatRecover(
+				e -> AsyncTry.get(() -> 3, executor)).join()));
+		assertEquals(2, assertSuccessful(mapped.flatRecover(e -> {
+			throw new AssertionError();
+		}).join()));
+
+		// failure is never mapped
+		assertInstanceOf(IOException.class, assertNotSuccessful(
+				failed.flatMap(x -> {
+					throw new AssertionError();
+				}).join()));
+	}
+
+	@Test
+	@DisplayName("withTimeout() test")
+	void withTimeoutTest() {
+		final CountDownLatch latch = new CountDownLatch(1);
+		final AsyncTry<Integer> slow = AsyncTry.get(() -> {
+			latch.await();
+			return 1;
+		}, executor);
+		assertThrows(NullPointerException.class,
+				() -> slow.withTimeout(1, null));
+
+		// expired timeout
+		assertInstanceOf(TimeoutException.class, assertNotSuccessful(
+				slow.withTimeout(10, TimeUnit.MILLISECONDS).join()));
+
+		// completion before the timeout
+		latch.countDown();
+		assertEquals(1, assertSuccessful(
+				slow.withTimeout(10, TimeUnit.SECONDS).join()));
+	}
+
+	@Test
+	@DisplayName("withExecutor() test")
+	void withExecutorTest() {
+		final AsyncTry<Integer> subject = AsyncTry.get(() -> 1, executor);
+		assertThrows(NullPointerException.class,
+				() -> subject.withExecutor(null));
+
+		// chained function runs on the new executor
+		final ExecutorService other = Executors.newSingleThreadExecutor(
+				r -> new Thread(r, "other"));
+		try {
+			assertEquals("other", assertSuccessful(subject
+					.withExecutor(other)
+					.map(x -> Thread.currentThread().getName())
+					.join()));
+		} finally {
+			other.shutdownNow();
+		}
+	}
+
+	@Test
+	@DisplayName("toCompletableFuture() test")
+	void toCompletableFutureTest() {
+		final AsyncTry<Integer> subject = AsyncTry.get(() -> 1, executor);
+		final CompletableFuture<Try<Integer>> future =
+				subject.toCompletableFuture();
+		assertEquals(1, assertSuccessful(future.join()));
+
+		// completing the copy does not affect the original
+		final AsyncTry<Integer> pending = AsyncTry.from(
+				new CompletableFuture<>(), executor);
+		pending.toCompletableFuture().complete(Try.get(() -> 2));
+		assertInstanceOf(TimeoutException.class, assertNotSuccessful(
+				pending.withTimeout(10, TimeUnit.MILLISECONDS).join()));
+	}
+}
@@ -0,0 +1,48 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.test.Serialization;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cached failure tests.
+ *
+ * @author Marco Buzzanca
+ */
+@DisplayName("Cached failure test")
+class CachedFailureTest {
+	@Test
+	@DisplayName("of() test")
+	void ofTest() {
+		assertThrows(NullPointerException.class, () -> CachedFailure.of(null));
+
+		// constants are unique by name
+		final CachedFailure expired = CachedFailure.of("expired");
+		assertSame(expired, CachedFailure.of("expired"));
+		assertNotSame(expired, CachedFailure.of("throttled"));
+		assertSame(CachedFailure.NOT_FOUND, CachedFailure.of("not found"));
+		assertEquals("expired", expired.getMessage());
+	}
+
+	@Test
+	@DisplayName("stackless test")
+	void stacklessTest() {
+		final CachedFailure subject = CachedFailure.of("stackless");
+		assertEquals(0, subject.getStackTrace().length);
+		subject.addSuppressed(new IOException());
+		assertEquals(0, subject.getSuppressed().length);
+	}
+
+	@Test
+	@DisplayName("serialization test")
+	void serializationTest() throws IOException, ClassNotFoundException {
+		final CachedFailure subject = CachedFailure.of("serialized");
+		assertSame(subject, Serialization.fromByteArray(CachedFailure.class,
+				Serialization.toByteArray(subject)));
+		assertSame(subject, Try.failureOf(subject).getCause());
+	}
+}
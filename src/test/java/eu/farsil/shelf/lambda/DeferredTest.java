@@ -0,0 +1,268 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.PredicateFailedException;
+import eu.farsil.shelf.lambda.function.ThrowingSupplier;
+import eu.farsil.shelf.test.Serialization;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static eu.farsil.shelf.mock.Functions.consumer;
+import static eu.farsil.shelf.mock.Functions.throwingSupplier;
+import static eu.farsil.shelf.test.MoreAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Deferred attempt tests.
+ *
+ * @author Marco Buzzanca
+ */
+@DisplayName("Deferred attempt test")
+class DeferredTest {
+	/**
+	 * The depth of the recursive computations, enough to overflow the stack
+	 * if they were evaluated recursively.
+	 */
+	private static final int DEPTH = 100_000;
+
+	/**
+	 * The cause of the failures of the recursive computations.
+	 */
+	private static final Exception CAUSE = new IOException();
+
+	/**
+	 * Computes the sum of the integers from 1 to {@code n} by deferred
+	 * recursion through {@code map()}.
+	 *
+	 * @param n the upper bound.
+	 * @return the sum.
+	 */
+	private static Try<Long> sum(final long n) {
+		return n == 0
+				? Try.get(() -> 0L)
+				: Try.defer(() -> sum(n - 1)).map(s -> s + n);
+	}
+
+	/**
+	 * Counts down from {@code n} to zero by deferred recursion through
+	 * {@code flatMap()}.
+	 *
+	 * @param n the counter.
+	 * @return the outcome of the countdown.
+	 */
+	private static Try<Long> countdown(final long n) {
+		return Try.defer(() -> Try.get(() -> n))
+				.flatMap(x -> x == 0 ? Try.get(() -> 0L) : countdown(x - 1));
+	}
+
+	/**
+	 * Retries a failure {@code n} times by deferred recursion through
+	 * {@code flatRecover()}.
+	 *
+	 * @param n the number of retries.
+	 * @return the outcome of the retries.
+	 */
+	private static Try<Long> retry(final long n) {
+		return Try.<Long>defer(() -> new Failure<>(CAUSE))
+				.flatRecover(e -> n == 0 ? Try.get(() -> 0L) : retry(n - 1));
+	}
+
+	@Test
+	@DisplayName("defer() test")
+	void deferTest() throws Exception {
+		// null supplier
+		assertThrows(NullPointerException.class, () -> Try.defer(null));
+
+		// the supplier is invoked lazily, and only once
+		final ThrowingSupplier<Try<Integer>> mock = throwingSupplier();
+		when(mock.get()).thenReturn(Try.get(() -> 1));
+		final Try<Integer> subject = Try.defer(mock);
+		final Try<Integer> mapped = subject.map(x -> x + 1);
+		verifyZeroInteractions(mock);
+		assertEquals(2, assertSuccessful(mapped));
+		assertEquals(1, assertSuccessful(subject));
+		verify(mock).get();
+
+		// throwing supplier
+		doThrow(IOException.class).when(mock).get();
+		assertInstanceOf(IOException.class,
+				assertNotSuccessful(Try.defer(mock)));
+
+		// null outcome
+		assertSame(Try.empty().getCause(),
+				assertNotSuccessful(Try.defer(() -> null)));
+	}
+
+	@Test
+	@DisplayName("combinators test")
+	void combinatorsTest() {
+		final Try<Integer> success = Try.defer(() -> Try.get(() -> 1));
+		final Try<Integer> failure = Try.defer(
+				() -> new Failure<>(new IOException()));
+
+		// null arguments
+		assertThrows(NullPointerException.class, () -> success.filter(null));
+		assertThrows(NullPointerException.class, () -> success.map(null));
+		assertThrows(NullPointerException.class, () -> success.flatMap(null));
+		assertThrows(NullPointerException.class,
+				() -> success.flatRecover(null));
+		assertThrows(NullPointerException.class, () -> success.recover(null));
+
+		// same results as the eager implementations
+		assertEquals(1, assertSuccessful(success.filter(x -> x > 0)));
+		assertEquals(1, assertInstanceOf(PredicateFailedException.class,
+				assertNotSuccessful(success.filter(x -> x < 0))).getValue());
+		assertEquals(2, assertSuccessful(success.<Integer>map(x -> x + 1)));
+		assertEquals(2, assertSuccessful(
+				success.<Integer>flatMap(x -> Try.get(() -> x + 1))));
+		assertEquals(1, assertSuccessful(success.recover(e -> 0)));
+		assertEquals(0, assertSuccessful(failure.recover(e -> 0)));
+		assertEquals(0, assertSuccessful(
+				failure.flatRecover(e -> Try.get(() -> 0))));
+		assertInstanceOf(IOException.class,
+				assertNotSuccessful(failure.map(x -> x + 1)));
+		assertSame(Try.empty().getCause(),
+				assertNotSuccessful(success.flatMap(x -> null)));
+
+		// terminal methods
+		assertEquals(1, success.orElse(0));
+		assertEquals(0, failure.orElse(0));
+		assertEquals(0, failure.orElseGet(() -> 0));
+		assertThrows(AttemptFailedException.class, failure::orElseThrow);
+		assertThrows(IllegalStateException.class,
+				() -> failure.orElseThrow(IllegalStateException::new));
+		assertTrue(failure.isUnsuccessful());
+		assertFalse(failure.isSuccessful());
+		assertNull(success.getCause());
+		assertEquals(1, success.stream().count());
+		assertEquals(1, success.mapToInt(x -> x).orElseThrow());
+		assertEquals(1L, success.mapToLong(x -> x).orElseThrow());
+		assertEquals(1.0, success.mapToDouble(x -> x).orElseThrow());
+
+		// actions
+		final Consumer<Integer> action = consumer();
+		assertSame(success, success.ifSuccessful(action));
+		verify(action).accept(1);
+		final Consumer<Exception> handler = consumer();
+		assertSame(failure, failure.ifUnsuccessful(handler));
+		verify(handler).accept(any(IOException.class));
+	}
+
+	@Test
+	@DisplayName("stack safety test")
+	void stackSafetyTest() {
+		assertEquals((long) DEPTH * (DEPTH + 1) / 2,
+				assertSuccessful(sum(DEPTH)));
+		assertEquals(0L, assertSuccessful(countdown(DEPTH)));
+		assertEquals(0L, assertSuccessful(retry(DEPTH)));
+	}
+
+	@Test
+	@DisplayName("lazy() test")
+	void lazyTest() throws Exception {
+		// null supplier
+		assertThrows(NullPointerException.class, () -> Try.lazy(null));
+
+		// the supplier is invoked on the first terminal method, only once
+		final ThrowingSupplier<Integer> mock = throwingSupplier();
+		when(mock.get()).thenReturn(1);
+		final Try<Integer> subject = Try.lazy(mock);
+		final Try<Integer> pipeline = subject
+				.map(x -> x + 1)
+				.filter(x -> x > 0)
+				.recover(e -> 0);
+		verifyZeroInteractions(mock);
+		assertTrue(subject.isSuccessful());
+		assertEquals(2, pipeline.orElseThrow());
+		assertEquals(1, subject.orElse(0));
+		verify(mock).get();
+
+		// throwing supplier
+		doThrow(IOException.class).when(mock).get();
+		assertInstanceOf(IOException.class,
+				assertNotSuccessful(Try.lazy(mock)));
+	}
+
+	@Test
+	@DisplayName("serialization test")
+	void serializationTest() throws Exception {
+		// the outcome is computed and serialized in place of the steps
+		final AtomicInteger calls = new AtomicInteger();
+		final Try<Integer> subject = Try.lazy(calls::incrementAndGet)
+				.map(x -> x + 1);
+		final Try<?> deserialized = Serialization.fromByteArray(Try.class,
+				Serialization.toByteArray(subject));
+		assertInstanceOf(Success.class, deserialized);
+		assertEquals(2, assertSuccessful(deserialized));
+		assertEquals(2, subject.orElseThrow());
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	@DisplayName("concurrent evaluation test")
+	void concurrentEvaluationTest() throws InterruptedException {
+		final int threads = 8;
+		final AtomicInteger calls = new AtomicInteger();
+		final Try<Integer> subject = Try.lazy(() -> {
+			Thread.sleep(50);
+			return calls.incrementAndGet();
+		});
+
+		// distinct pipelines sharing the same lazy instance
+		final CountDownLatch start = new CountDownLatch(1);
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			final List<Future<Integer>> results = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				final int offset = i;
+				results.add(executor.submit(() -> {
+					start.await();
+					return subject.map(x -> x + offset).orElseThrow();
+				}));
+			}
+			start.countDown();
+			for (int i = 0; i < threads; i++) {
+				assertEquals(1 + i, (int) assertDoesSupply(results.get(i)::get));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	@DisplayName("recursive evaluation test")
+	void recursiveEvaluationTest() {
+		// an outcome that depends on itself is a failure
+		final AtomicReference<Try<Integer>> self = new AtomicReference<>();
+		self.set(Try.lazy(() -> self.get().orElseThrow()));
+		assertInstanceOf(IllegalStateException.class,
+				assertNotSuccessful(self.get()));
+	}
+
+	@Test
+	@DisplayName("shared evaluation test")
+	void sharedEvaluationTest() {
+		// a step shared by two chains is evaluated only once
+		final AtomicInteger calls = new AtomicInteger();
+		final Try<Integer> shared = Try.defer(
+				() -> Try.get(calls::incrementAndGet));
+		final Try<Integer> left = shared.map(x -> x + 1);
+		final Try<Integer> right = shared.map(x -> x + 2);
+		assertEquals(2, assertSuccessful(left));
+		assertEquals(3, assertSuccessful(right));
+		assertEquals(1, assertSuccessful(shared));
+		assertEquals(1, calls.get());
+	}
+}
@@ -0,0 +1,257 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.PredicateFailedException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+import static eu.farsil.shelf.mock.Functions.consumer;
+import static eu.farsil.shelf.test.MoreAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link DoubleTry} and its implementations.
+ *
+ * @author Marco Buzzanca
+ */
+@DisplayName("Double attempt test")
+class DoubleTryTest {
+	@Test
+	@DisplayName("get() test")
+	void getTest() {
+		// null supplier
+		assertThrows(NullPointerException.class, () -> DoubleTry.get(null));
+
+		// successful attempt
+		final DoubleTry success = DoubleTry.get(() -> 1.0);
+		assertTrue(success.isSuccessful());
+		assertFalse(success.isUnsuccessful());
+		assertNull(success.getCause());
+		assertEquals(1.0, success.orElseThrow());
+
+		// failed attempt
+		final DoubleTry failure = DoubleTry.get(() -> {
+			throw new IOException();
+		});
+		assertFalse(failure.isSuccessful());
+		assertTrue(failure.isUnsuccessful());
+		assertInstanceOf(IOException.class, failure.getCause());
+		assertThrows(AttemptFailedException.class, failure::orElseThrow);
+	}
+
+	@Test
+	@DisplayName("boxed() test")
+	void boxedTest() {
+		assertEquals(Double.valueOf(1.0),
+				assertSuccessful(new DoubleSuccess(1.0).boxed()));
+		assertInstanceOf(IOException.class, assertNotSuccessful(
+				new DoubleFailure(new IOException()).boxed()));
+	}
+
+	@Test
+	@DisplayName("filter() test")
+	void filterTest() {
+		// null predicate
+		final DoubleTry success = new DoubleSuccess(1.0);
+		final DoubleTry failure = new DoubleFailure(new IOException());
+		assertThrows(NullPointerException.class, () -> success.filter(null));
+		assertThrows(NullPointerException.class, () -> failure.filter(null));
+
+		// matching predicate
+		assertSame(success, success.filter(x -> x > 0));
+
+		// mismatching predicate
+		final PredicateFailedException cause =
+				assertInstanceOf(PredicateFailedException.class,
+						success.filter(x -> x < 0).getCause());
+		assertEquals(1.0, cause.getValue());
+
+		// throwing predicate
+		assertInstanceOf(IllegalStateException.class, success.filter(x -> {
+			throw new IllegalStateException();
+		}).getCause());
+
+		// failure is never tested
+		assertSame(failure, failure.filter(x -> {
+			throw new AssertionError();
+		}));
+	}
+
+	@Test
+	@DisplayName("flatMap() test")
+	void flatMapTest() {
+		// null function
+		final DoubleTry success = new DoubleSuccess(1.0);
+		final DoubleTry failure = new DoubleFailure(new IOException());
+		assertThrows(NullPointerException.class, () -> success.flatMap(null));
+		assertThrows(NullPointerException.class, () -> failure.flatMap(null));
+
+		// function that returns a success
+		assertEquals(2.0,
+				success.flatMap(x -> new DoubleSuccess(x + x)).orElseThrow());
+
+		// function that throws
+		assertInstanceOf(IllegalStateException.class, success.flatMap(x -> {
+			throw new IllegalStateException();
+		}).getCause());
+
+		// failure is never mapped
+		assertSame(failure, failure.flatMap(x -> {
+			throw new AssertionError();
+		}));
+	}
+
+	@Test
+	@DisplayName("flatRecover() test")
+	void flatRecoverTest() {
+		// null function
+		final DoubleTry success = new DoubleSuccess(1.0);
+		final DoubleTry failure = new DoubleFailure(new IOException());
+		assertThrows(NullPointerException.class,
+				() -> success.flatRecover(null));
+		assertThrows(NullPointerException.class,
+				() -> failure.flatRecover(null));
+
+		// success is never recovered
+		assertSame(success, success.flatRecover(e -> {
+			throw new AssertionError();
+		}));
+
+		// function that returns a success
+		assertEquals(2.0,
+				failure.flatRecover(e -> new DoubleSuccess(2.0)).orElseThrow());
+
+		// function that throws
+		assertInstanceOf(IllegalStateException.class,
+				failure.flatRecover(e -> {
+					throw new IllegalStateException();
+				}).getCause());
+	}
+
+	@Test
+	@DisplayName("ifSuccessful() and ifUnsuccessful() test")
+	void ifSuccessfulTest() {
+		// null actions
+		final DoubleTry success = new DoubleSuccess(1.0);
+		final Exception ex = new IOException();
+		final DoubleTry failure = new DoubleFailure(ex);
+		assertThrows(NullPointerException.class,
+				() -> success.ifSuccessful(null));
+		assertThrows(NullPointerException.class,
+				() -> success.ifUnsuccessful(null));
+		assertThrows(NullPointerException.class,
+				() -> failure.ifSuccessful(null));
+		assertThrows(NullPointerException.class,
+				() -> failure.ifUnsuccessful(null));
+
+		// actions
+		final double[] value = {0.0};
+		final Consumer<Exception> mock = consumer();
+		assertSame(success, success.ifSuccessful(x -> value[0] = x));
+		assertSame(success, success.ifUnsuccessful(mock));
+		assertEquals(1.0, value[0]);
+		verifyZeroInteractions(mock);
+		assertSame(failure, failure.ifSuccessful(x -> value[0] = 2.0));
+		assertSame(failure, failure.ifUnsuccessful(mock));
+		assertEquals(1.0, value[0]);
+		verify(mock).accept(ex);
+	}
+
+	@Test
+	@DisplayName("map() test")
+	void mapTest() {
+		// null operator
+		final DoubleTry success = new DoubleSuccess(1.0);
+		final DoubleTry failure = new DoubleFailure(new IOException());
+		assertThrows(NullPointerException.class, () -> success.map(null));
+		assertThrows(NullPointerException.class, () -> failure.map(null));
+
+		// operator
+		assertEquals(2.0, success.map(x -> x + x).orElseThrow());
+
+		// throwing operator
+		assertInstanceOf(IllegalStateException.class, success.map(x -> {
+			throw new IllegalStateException();
+		}).getCause());
+
+		// failure is never mapped
+		assertSame(failure, failure.map(x -> {
+			throw new AssertionError();
+		}));
+	}
+
+	@Test
+	@DisplayName("mapToObj() test")
+	void mapToObjTest() {
+		// null function
+		final DoubleTry success = new DoubleSuccess(1.0);
+		final DoubleTry failure = new DoubleFailure(new IOException());
+		assertThrows(NullPointerException.class, () -> success.mapToObj(null));
+		assertThrows(NullPointerException.class, () -> failure.mapToObj(null));
+
+		// function
+		assertEquals(String.valueOf(1.0),
+				assertSuccessful(success.mapToObj(String::valueOf)));
+
+		// null result
+		assertSame(Try.empty(), success.mapToObj(x -> null));
+
+		// throwing function
+		assertInstanceOf(IllegalStateException.class,
+				assertNotSuccessful(success.mapToObj(x -> {
+					throw new IllegalStateException();
+				})));
+
+		// failure is never mapped
+		assertInstanceOf(IOException.class,
+				assertNotSuccessful(failure.mapToObj(x -> {
+					throw new AssertionError();
+				})));
+	}
+
+	@Test
+	@DisplayName("orElse() test")
+	void orElseTest() {
+		// success
+		final DoubleTry success = new DoubleSuccess(1.0);
+		assertEquals(1.0, success.orElse(2.0));
+		assertThrows(NullPointerException.class, () -> success.orElseGet(null));
+		assertEquals(1.0, success.orElseGet(() -> 2.0));
+		assertThrows(NullPointerException.class,
+				() -> success.orElseThrow(null));
+		assertEquals(1.0, success.orElseThrow(IllegalStateException::new));
+
+		// failure
+		final DoubleTry failure = new DoubleFailure(new IOException());
+		assertEquals(2.0, failure.orElse(2.0));
+		assertEquals(2.0, failure.orElseGet(() -> 2.0));
+		assertThrows(IllegalStateException.class,
+				() -> failure.orElseThrow(IllegalStateException::new));
+	}
+
+	@Test
+	@DisplayName("recover() test")
+	void recoverTest() {
+		// null function
+		final DoubleTry success = new DoubleSuccess(1.0);
+		final DoubleTry failure = new DoubleFailure(new IOException());
+		assertThrows(NullPointerException.class, () -> success.recover(null));
+		assertThrows(NullPointerException.class, () -> failure.recover(null));
+
+		// success is never recovered
+		assertSame(success, success.recover(e -> {
+			throw new AssertionError();
+		}));
+
+		// function
+		assertEquals(2.0, failure.recover(e -> 2.0).orElseThrow());
+
+		// throwing function
+		assertInstanceOf(IllegalStateException.class, failure.recover(e -> {
+			throw new IllegalStateException();
+		}).getCause());
+	}
+}
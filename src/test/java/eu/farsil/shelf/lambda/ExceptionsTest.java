@@ -0,0 +1,45 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.PredicateFailedException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link Exceptions} class.
+ *
+ * @author Marco Buzzanca
+ */
+@DisplayName("Exceptions test")
+class ExceptionsTest {
+	@Test
+	@DisplayName("attemptFailed() test")
+	void attemptFailedTest() {
+		// null cause
+		assertThrows(NullPointerException.class,
+				() -> Exceptions.attemptFailed(null));
+
+		// stack trace is filled unless stackless mode is enabled
+		final Exception cause = new IllegalStateException();
+		final AttemptFailedException ex = Exceptions.attemptFailed(cause);
+		assertSame(cause, ex.getCause());
+		assertEquals(cause.toString(), ex.getMessage());
+		assertEquals(Exceptions.WRITABLE_STACK_TRACE,
+				ex.getStackTrace().length > 0);
+
+		// stackless instance
+		assertEquals(0,
+				new AttemptFailedException(cause, false).getStackTrace().length);
+	}
+
+	@Test
+	@DisplayName("predicateFailed() test")
+	void predicateFailedTest() {
+		// stack trace is filled unless stackless mode is enabled
+		final PredicateFailedException ex = Exceptions.predicateFailed(1);
+		assertEquals(1, ex.getValue());
+		assertEquals(Exceptions.WRITABLE_STACK_TRACE,
+				ex.getStackTrace().length > 0);
+	}
+}
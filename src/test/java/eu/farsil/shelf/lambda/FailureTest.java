@@ -2,6 +2,7 @@ package eu.farsil.shelf.lambda;
 
 import eu.farsil.shelf.lambda.function.ThrowingFunction;
 import eu.farsil.shelf.lambda.function.ThrowingPredicate;
+import eu.farsil.shelf.test.Serialization;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -142,6 +143,26 @@ class FailureTest {
 		verifyZeroInteractions(mock);
 	}
 
+	@Test
+	@DisplayName("mapToInt(), mapToLong() and mapToDouble() test")
+	void mapToPrimitiveTest() {
+		// null functions
+		final Try<String> subject = new Failure<>(new TestException());
+		assertThrows(NullPointerException.class, () -> subject.mapToInt(null));
+		assertThrows(NullPointerException.class,
+				() -> subject.mapToLong(null));
+		assertThrows(NullPointerException.class,
+				() -> subject.mapToDouble(null));
+
+		// functions never get called
+		assertInstanceOf(TestException.class,
+				subject.mapToInt(Integer::parseInt).getCause());
+		assertInstanceOf(TestException.class,
+				subject.mapToLong(Long::parseLong).getCause());
+		assertInstanceOf(TestException.class,
+				subject.mapToDouble(Double::parseDouble).getCause());
+	}
+
 	@Test
 	@DisplayName("orElseGet() test")
 	void orElseGetTest() {
@@ -206,6 +227,28 @@ class FailureTest {
 		verify(mock, times(2)).apply(ex);
 	}
 
+	@Test
+	@DisplayName("serialization test")
+	void serializationTest() throws IOException, ClassNotFoundException {
+		final Try<?> deserialized = Serialization.fromByteArray(Try.class,
+				Serialization.toByteArray(new Failure<>(new TestException())));
+		assertInstanceOf(TestException.class, assertNotSuccessful(deserialized));
+
+		// shared failures stay shared
+		assertSame(Try.empty(), Serialization.fromByteArray(Try.class,
+				Serialization.toByteArray(Try.empty())));
+		assertSame(Try.failureOf(CachedFailure.NOT_FOUND),
+				Serialization.fromByteArray(Try.class, Serialization.toByteArray(
+						Try.failureOf(CachedFailure.NOT_FOUND))));
+	}
+
+	@Test
+	@DisplayName("stream() test")
+	void streamTest() {
+		final Try<Integer> subject = new Failure<>(new TestException());
+		assertEquals(0, subject.stream().count());
+	}
+
 	/**
 	 * A tag exception for the tests.
 	 *
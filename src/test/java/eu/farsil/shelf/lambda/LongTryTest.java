@@ -0,0 +1,257 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.PredicateFailedException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+import static eu.farsil.shelf.mock.Functions.consumer;
+import static eu.farsil.shelf.test.MoreAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link LongTry} and its implementations.
+ *
+ * @author Marco Buzzanca
+ */
+@DisplayName("Long attempt test")
+class LongTryTest {
+	@Test
+	@DisplayName("get() test")
+	void getTest() {
+		// null supplier
+		assertThrows(NullPointerException.class, () -> LongTry.get(null));
+
+		// successful attempt
+		final LongTry success = LongTry.get(() -> 1L);
+		assertTrue(success.isSuccessful());
+		assertFalse(success.isUnsuccessful());
+		assertNull(success.getCause());
+		assertEquals(1L, success.orElseThrow());
+
+		// failed attempt
+		final LongTry failure = LongTry.get(() -> {
+			throw new IOException();
+		});
+		assertFalse(failure.isSuccessful());
+		assertTrue(failure.isUnsuccessful());
+		assertInstanceOf(IOException.class, failure.getCause());
+		assertThrows(AttemptFailedException.class, failure::orElseThrow);
+	}
+
+	@Test
+	@DisplayName("boxed() test")
+	void boxedTest() {
+		assertEquals(Long.valueOf(1L),
+				assertSuccessful(new LongSuccess(1L).boxed()));
+		assertInstanceOf(IOException.class, assertNotSuccessful(
+				new LongFailure(new IOException()).boxed()));
+	}
+
+	@Test
+	@DisplayName("filter() test")
+	void filterTest() {
+		// null predicate
+		final LongTry success = new LongSuccess(1L);
+		final LongTry failure = new LongFailure(new IOException());
+		assertThrows(NullPointerException.class, () -> success.filter(null));
+		assertThrows(NullPointerException.class, () -> failure.filter(null));
+
+		// matching predicate
+		assertSame(success, success.filter(x -> x > 0));
+
+		// mismatching predicate
+		final PredicateFailedException cause =
+				assertInstanceOf(PredicateFailedException.class,
+						success.filter(x -> x < 0).getCause());
+		assertEquals(1L, cause.getValue());
+
+		// throwing predicate
+		assertInstanceOf(IllegalStateException.class, success.filter(x -> {
+			throw new IllegalStateException();
+		}).getCause());
+
+		// failure is never tested
+		assertSame(failure, failure.filter(x -> {
+			throw new AssertionError();
+		}));
+	}
+
+	@Test
+	@DisplayName("flatMap() test")
+	void flatMapTest() {
+		// null function
+		final LongTry success = new LongSuccess(1L);
+		final LongTry failure = new LongFailure(new IOException());
+		assertThrows(NullPointerException.class, () -> success.flatMap(null));
+		assertThrows(NullPointerException.class, () -> failure.flatMap(null));
+
+		// function that returns a success
+		assertEquals(2L,
+				success.flatMap(x -> new LongSuccess(x + x)).orElseThrow());
+
+		// function that throws
+		assertInstanceOf(IllegalStateException.class, success.flatMap(x -> {
+			throw new IllegalStateException();
+		}).getCause());
+
+		// failure is never mapped
+		assertSame(failure, failure.flatMap(x -> {
+			throw new AssertionError();
+		}));
+	}
+
+	@Test
+	@DisplayName("flatRecover() test")
+	void flatRecoverTest() {
+		// null function
+		final LongTry success = new LongSuccess(1L);
+		final LongTry failure = new LongFailure(new IOException());
+		assertThrows(NullPointerException.class,
+				() -> success.flatRecover(null));
+		assertThrows(NullPointerException.class,
+				() -> failure.flatRecover(null));
+
+		// success is never recovered
+		assertSame(success, success.flatRecover(e -> {
+			throw new AssertionError();
+		}));
+
+		// function that returns a success
+		assertEquals(2L,
+				failure.flatRecover(e -> new LongSuccess(2L)).orElseThrow());
+
+		// function that throws
+		assertInstanceOf(IllegalStateException.class,
+				failure.flatRecover(e -> {
+					throw new IllegalStateException();
+				}).getCause());
+	}
+
+	@Test
+	@DisplayName("ifSuccessful() and ifUnsuccessful() test")
+	void ifSuccessfulTest() {
+		// null actions
+		final LongTry success = new LongSuccess(1L);
+		final Exception ex = new IOException();
+		final LongTry failure = new LongFailure(ex);
+		assertThrows(NullPointerException.class,
+				() -> success.ifSuccessful(null));
+		assertThrows(NullPointerException.class,
+				() -> success.ifUnsuccessful(null));
+		assertThrows(NullPointerException.class,
+				() -> failure.ifSuccessful(null));
+		assertThrows(NullPointerException.class,
+				() -> failure.ifUnsuccessful(null));
+
+		// actions
+		final long[] value = {0L};
+		final Consumer<Exception> mock = consumer();
+		assertSame(success, success.ifSuccessful(x -> value[0] = x));
+		assertSame(success, success.ifUnsuccessful(mock));
+		assertEquals(1L, value[0]);
+		verifyZeroInteractions(mock);
+		assertSame(failure, failure.ifSuccessful(x -> value[0] = 2L));
+		assertSame(failure, failure.ifUnsuccessful(mock));
+		assertEquals(1L, value[0]);
+		verify(mock).accept(ex);
+	}
+
+	@Test
+	@DisplayName("map() test")
+	void mapTest() {
+		// null operator
+		final LongTry success = new LongSuccess(1L);
+		final LongTry failure = new LongFailure(new IOException());
+		assertThrows(NullPointerException.class, () -> success.map(null));
+		assertThrows(NullPointerException.class, () -> failure.map(null));
+
+		// operator
+		assertEquals(2L, success.map(x -> x + x).orElseThrow());
+
+		// throwing operator
+		assertInstanceOf(IllegalStateException.class, success.map(x -> {
+			throw new IllegalStateException();
+		}).getCause());
+
+		// failure is never mapped
+		assertSame(failure, failure.map(x -> {
+			throw new AssertionError();
+		}));
+	}
+
+	@Test
+	@DisplayName("mapToObj() test")
+	void mapToObjTest() {
+		// null function
+		final LongTry success = new LongSuccess(1L);
+		final LongTry failure = new LongFailure(new IOException());
+		assertThrows(NullPointerException.class, () -> success.mapToObj(null));
+		assertThrows(NullPointerException.class, () -> failure.mapToObj(null));
+
+		// function
+		assertEquals(String.valueOf(1L),
+				assertSuccessful(success.mapToObj(String::valueOf)));
+
+		// null result
+		assertSame(Try.empty(), success.mapToObj(x -> null));
+
+		// throwing function
+		assertInstanceOf(IllegalStateException.class,
+				assertNotSuccessful(success.mapToObj(x -> {
+					throw new IllegalStateException();
+				})));
+
+		// failure is never mapped
+		assertInstanceOf(IOException.class,
+				assertNotSuccessful(failure.mapToObj(x -> {
+					throw new AssertionError();
+				})));
+	}
+
+	@Test
+	@DisplayName("orElse() test")
+	void orElseTest() {
+		// success
+		final LongTry success = new LongSuccess(1L);
+		assertEquals(1L, success.orElse(2L));
+		assertThrows(NullPointerException.class, () -> success.orElseGet(null));
+		assertEquals(1L, success.orElseGet(() -> 2L));
+		assertThrows(NullPointerException.class,
+				() -> success.orElseThrow(null));
+		assertEquals(1L, success.orElseThrow(IllegalStateException::new));
+
+		// failure
+		final LongTry failure = new LongFailure(new IOException());
+		assertEquals(2L, failure.orElse(2L));
+		assertEquals(2L, failure.orElseGet(() -> 2L));
+		assertThrows(IllegalStateException.class,
+				() -> failure.orElseThrow(IllegalStateException::new));
+	}
+
+	@Test
+	@DisplayName("recover() test")
+	void recoverTest() {
+		// null function
+		final LongTry success = new LongSuccess(1L);
+		final LongTry failure = new LongFailure(new IOException());
+		assertThrows(NullPointerException.class, () -> success.recover(null));
+		assertThrows(NullPointerException.class, () -> failure.recover(null));
+
+		// success is never recovered
+		assertSame(success, success.recover(e -> {
+			throw new AssertionError();
+		}));
+
+		// function
+		assertEquals(2L, failure.recover(e -> 2L).orElseThrow());
+
+		// throwing function
+		assertInstanceOf(IllegalStateException.class, failure.recover(e -> {
+			throw new IllegalStateException();
+		}).getCause());
+	}
+}
@@ -0,0 +1,246 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.ThrowingFunction;
+import eu.farsil.shelf.lambda.function.ThrowingSupplier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static eu.farsil.shelf.mock.Functions.throwingFunction;
+import static eu.farsil.shelf.mock.Functions.throwingSupplier;
+import static eu.farsil.shelf.test.MoreAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Memoization tests.
+ *
+ * @author Marco Buzzanca
+ */
+@DisplayName("Memoization test")
+class MemoizeTest {
+	@Test
+	@DisplayName("builder() test")
+	void builderTest() {
+		final Memoize.Builder subject = Memoize.builder();
+		assertThrows(IllegalArgumentException.class,
+				() -> subject.maximumSize(0));
+		assertThrows(NullPointerException.class,
+				() -> subject.expireAfterWrite(null));
+		assertThrows(IllegalArgumentException.class,
+				() -> subject.expireAfterWrite(Duration.ZERO));
+		assertThrows(NullPointerException.class,
+				() -> subject.cacheFailures(null));
+		assertThrows(IllegalArgumentException.class,
+				() -> subject.cacheFailures(Duration.ofSeconds(-1)));
+		assertThrows(NullPointerException.class, () -> subject.ticker(null));
+		assertThrows(NullPointerException.class, () -> subject.function(null));
+		assertThrows(NullPointerException.class, () -> subject.supplier(null));
+	}
+
+	@Test
+	@DisplayName("function() test")
+	void functionTest() throws Exception {
+		// null function
+		assertThrows(NullPointerException.class,
+				() -> Memoize.function(null));
+
+		// successes are memoized
+		final ThrowingFunction<String, Integer> mock = throwingFunction();
+		when(mock.apply("1")).thenReturn(1);
+		when(mock.apply("2")).thenReturn(2);
+		final MemoizedFunction<String, Integer> subject =
+				Memoize.function(mock);
+		assertEquals(1, assertSuccessful(subject.apply("1")));
+		assertEquals(1, assertSuccessful(subject.apply("1")));
+		assertEquals(2, assertSuccessful(subject.apply("2")));
+		verify(mock).apply("1");
+		verify(mock).apply("2");
+
+		// failures are not memoized by default
+		doThrow(IOException.class).when(mock).apply("a");
+		assertInstanceOf(IOException.class,
+				assertNotSuccessful(subject.apply("a")));
+		assertInstanceOf(IOException.class,
+				assertNotSuccessful(subject.apply("a")));
+		verify(mock, times(2)).apply("a");
+
+		// null keys and results
+		assertSame(Try.empty(), subject.apply(null));
+
+		// invalidation
+		subject.invalidate("1");
+		assertEquals(1, assertSuccessful(subject.apply("1")));
+		verify(mock, times(2)).apply("1");
+		subject.invalidateAll();
+		assertEquals(2, assertSuccessful(subject.apply("2")));
+		verify(mock, times(2)).apply("2");
+
+		// statistics
+		final Memoize.Stats stats = subject.getStats();
+		assertEquals(1, stats.getHitCount());
+		assertEquals(7, stats.getMissCount());
+		assertEquals(3, stats.getLoadFailureCount());
+		assertEquals(0, stats.getEvictionCount());
+		assertEquals(1.0 / 8, stats.getHitRate(), 1e-9);
+		assertTrue(stats.getTotalLoadTime() >= 0);
+	}
+
+	@Test
+	@DisplayName("eviction test")
+	void evictionTest() throws Exception {
+		// the least recently used key is evicted
+		final ThrowingFunction<Integer, Integer> mock = throwingFunction();
+		when(mock.apply(anyInt())).then(invocation -> invocation.getArgument(0));
+		final MemoizedFunction<Integer, Integer> subject = Memoize.builder()
+				.maximumSize(2)
+				.function(mock);
+		subject.apply(1);
+		subject.apply(2);
+		subject.apply(1);
+		subject.apply(3);
+		subject.apply(1);
+		verify(mock).apply(1);
+		subject.apply(2);
+		verify(mock, times(2)).apply(2);
+		assertEquals(2, subject.getStats().getEvictionCount());
+
+		// large caches keep their bound
+		final MemoizedFunction<Integer, Integer> large = Memoize.builder()
+				.maximumSize(1000)
+				.function(x -> x);
+		for (int i = 0; i < 5000; i++) {
+			large.apply(i);
+		}
+		assertEquals(4000, large.getStats().getEvictionCount());
+	}
+
+	@Test
+	@DisplayName("expiration test")
+	void expirationTest() throws Exception {
+		final AtomicLong now = new AtomicLong();
+		final ThrowingFunction<String, Integer> mock = throwingFunction();
+		when(mock.apply("1")).thenReturn(1);
+		doThrow(IOException.class).when(mock).apply("a");
+		final MemoizedFunction<String, Integer> subject = Memoize.builder()
+				.expireAfterWrite(Duration.ofNanos(100))
+				.cacheFailures(Duration.ofNanos(10))
+				.ticker(now::get)
+				.function(mock);
+
+		// successes expire after their time to live
+		subject.apply("1");
+		now.set(99);
+		subject.apply("1");
+		verify(mock).apply("1");
+		now.set(100);
+		subject.apply("1");
+		verify(mock, times(2)).apply("1");
+
+		// failures are memoized with their own time to live
+		subject.apply("a");
+		now.set(109);
+		assertInstanceOf(IOException.class,
+				assertNotSuccessful(subject.apply("a")));
+		verify(mock).apply("a");
+		now.set(110);
+		subject.apply("a");
+		verify(mock, times(2)).apply("a");
+	}
+
+	@Test
+	@DisplayName("single-flight test")
+	void singleFlightTest() throws Exception {
+		// concurrent callers share the computation
+		final int threads = 8;
+		final AtomicInteger calls = new AtomicInteger();
+		final CountDownLatch release = new CountDownLatch(1);
+		final MemoizedFunction<String, Integer> subject = Memoize.function(
+				key -> {
+					calls.incrementAndGet();
+					release.await();
+					throw new IOException(key);
+				});
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			final List<Future<Try<Integer>>> results = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				results.add(executor.submit(() -> subject.apply("key")));
+			}
+			while (subject.getStats().getHitCount() < threads - 1) {
+				Thread.yield();
+			}
+			release.countDown();
+
+			// the waiting callers share the failure, even if it is not
+			// memoized
+			final Exception first = results.get(0).get().getCause();
+			for (final Future<Try<Integer>> result : results) {
+				assertSame(first, assertNotSuccessful(result.get()));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	@DisplayName("recursive load test")
+	void recursiveLoadTest() {
+		final AtomicReference<MemoizedFunction<Integer, Integer>> self =
+				new AtomicReference<>();
+		self.set(Memoize.function(x -> self.get().apply(x).orElseThrow()));
+		assertInstanceOf(AttemptFailedException.class,
+				assertNotSuccessful(self.get().apply(1)));
+	}
+
+	@Test
+	@DisplayName("error test")
+	void errorTest() {
+		// errors are propagated, and not memoized
+		final AtomicInteger calls = new AtomicInteger();
+		final MemoizedFunction<Integer, Integer> subject = Memoize.function(
+				x -> {
+					if (calls.incrementAndGet() == 1) {
+						throw new AssertionError();
+					}
+					return x;
+				});
+		assertThrows(AssertionError.class, () -> subject.apply(1));
+		assertEquals(1, assertSuccessful(subject.apply(1)));
+	}
+
+	@Test
+	@DisplayName("supplier() test")
+	void supplierTest() throws Exception {
+		// null supplier
+		assertThrows(NullPointerException.class,
+				() -> Memoize.supplier(null));
+
+		// the outcome is memoized
+		final ThrowingSupplier<Integer> mock = throwingSupplier();
+		when(mock.get()).thenReturn(1);
+		final MemoizedSupplier<Integer> subject = Memoize.supplier(mock);
+		assertEquals(1, assertSuccessful(subject.get()));
+		assertEquals(1, assertSuccessful(subject.get()));
+		verify(mock).get();
+
+		// invalidation
+		subject.invalidate();
+		assertEquals(1, assertSuccessful(subject.get()));
+		verify(mock, times(2)).get();
+		assertEquals(1, subject.getStats().getHitCount());
+		assertEquals(2, subject.getStats().getMissCount());
+	}
+}
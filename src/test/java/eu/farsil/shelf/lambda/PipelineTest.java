@@ -0,0 +1,149 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.PredicateFailedException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static eu.farsil.shelf.test.MoreAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pipeline tests.
+ *
+ * @author Marco Buzzanca
+ */
+@DisplayName("Pipeline test")
+class PipelineTest {
+	@Test
+	@DisplayName("identity test")
+	void identityTest() {
+		final Pipeline<String, String> subject = Try.pipeline();
+		assertSame(subject, Try.<Integer>pipeline());
+		assertEquals("a", assertSuccessful(subject.apply("a")));
+		assertThrows(NullPointerException.class, () -> subject.apply(null));
+	}
+
+	@Test
+	@DisplayName("null arguments test")
+	void nullArgumentsTest() {
+		final Pipeline<Integer, Integer> subject = Try.pipeline();
+		assertThrows(NullPointerException.class, () -> subject.filter(null));
+		assertThrows(NullPointerException.class, () -> subject.flatMap(null));
+		assertThrows(NullPointerException.class, () -> subject.map(null));
+		assertThrows(NullPointerException.class,
+				() -> subject.map(x -> x).apply(null));
+	}
+
+	@Test
+	@DisplayName("same outcome as chaining test")
+	void chainingTest() {
+		final Pipeline<String, Integer> subject = Try.<String>pipeline()
+				.map(String::trim)
+				.map(Integer::parseInt)
+				.filter(x -> x > 0)
+				.flatMap(x -> Try.get(() -> 100 / (x - 1)))
+				.map(x -> x + 1);
+		for (final String input : new String[]{" 5 ", "a", "-3", "1"}) {
+			final Try<Integer> expected = Try.success(input)
+					.map(String::trim)
+					.map(Integer::parseInt)
+					.filter(x -> x > 0)
+					.<Integer>flatMap(x -> Try.get(() -> 100 / (x - 1)))
+					.map(x -> x + 1);
+			final Try<Integer> actual = subject.apply(input);
+			assertEquals(expected.isSuccessful(), actual.isSuccessful());
+			if (expected.isSuccessful()) {
+				assertEquals(expected.orElseThrow(), actual.orElseThrow());
+			} else {
+				assertEquals(expected.getCause().getClass(),
+						actual.getCause().getClass());
+			}
+		}
+		assertEquals(26, assertSuccessful(subject.apply(" 5 ")));
+		assertInstanceOf(NumberFormatException.class,
+				assertNotSuccessful(subject.apply("a")));
+		assertEquals(-3, assertInstanceOf(PredicateFailedException.class,
+				assertNotSuccessful(subject.apply("-3"))).getValue());
+		assertInstanceOf(ArithmeticException.class,
+				assertNotSuccessful(subject.apply("1")));
+	}
+
+	@Test
+	@DisplayName("failure skips the following steps test")
+	void failureTest() {
+		final AtomicInteger calls = new AtomicInteger();
+		final Pipeline<Integer, Integer> subject = Try.<Integer>pipeline()
+				.map(x -> {
+					if (x < 0) {
+						throw new IOException();
+					}
+					return x;
+				})
+				.map(x -> x + calls.incrementAndGet());
+		assertInstanceOf(IOException.class,
+				assertNotSuccessful(subject.apply(-1)));
+		assertEquals(0, calls.get());
+
+		// a null result is a failure, and the next step is not invoked
+		final Pipeline<Integer, Integer> nulls = Try.<Integer>pipeline()
+				.<Integer>map(x -> null)
+				.map(x -> calls.incrementAndGet());
+		assertSame(Try.empty(), nulls.apply(1));
+		assertInstanceOf(NullPointerException.class,
+				assertNotSuccessful(Try.<Integer>pipeline()
+						.flatMap(x -> null).apply(1)));
+		assertEquals(0, calls.get());
+	}
+
+	@Test
+	@DisplayName("immutability test")
+	void immutabilityTest() {
+		final Pipeline<Integer, Integer> base = Try.<Integer>pipeline()
+				.map(x -> x + 1);
+		final Pipeline<Integer, Integer> doubled = base.map(x -> x * 2);
+		final Pipeline<Integer, Integer> negated = base.map(x -> -x);
+		assertEquals(2, assertSuccessful(base.apply(1)));
+		assertEquals(4, assertSuccessful(doubled.apply(1)));
+		assertEquals(-2, assertSuccessful(negated.apply(1)));
+	}
+
+	@Test
+	@DisplayName("concurrent use test")
+	void concurrentTest() throws InterruptedException {
+		final int threads = 8;
+		final Pipeline<Integer, Integer> subject = Try.<Integer>pipeline()
+				.map(x -> x * 2)
+				.filter(x -> x % 3 != 0);
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			final List<Future<Integer>> results = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				final int offset = i * 1000;
+				results.add(executor.submit(() -> {
+					int successes = 0;
+					for (int j = offset; j < offset + 1000; j++) {
+						if (subject.apply(j).isSuccessful()) {
+							successes++;
+						}
+					}
+					return successes;
+				}));
+			}
+			int total = 0;
+			for (final Future<Integer> result : results) {
+				total += assertDoesSupply(result::get);
+			}
+			assertEquals(8000 - 2667, total);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
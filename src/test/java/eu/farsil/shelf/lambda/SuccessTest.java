@@ -3,13 +3,16 @@ package eu.farsil.shelf.lambda;
 import eu.farsil.shelf.lambda.function.PredicateFailedException;
 import eu.farsil.shelf.lambda.function.ThrowingFunction;
 import eu.farsil.shelf.lambda.function.ThrowingPredicate;
+import eu.farsil.shelf.test.Serialization;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static eu.farsil.shelf.mock.Functions.*;
 import static eu.farsil.shelf.test.MoreAssertions.*;
@@ -159,6 +162,28 @@ class SuccessTest {
 		verify(mock, times(2)).apply(1);
 	}
 
+	@Test
+	@DisplayName("mapToInt(), mapToLong() and mapToDouble() test")
+	void mapToPrimitiveTest() {
+		// null functions
+		final Try<String> subject = new Success<>("1");
+		assertThrows(NullPointerException.class, () -> subject.mapToInt(null));
+		assertThrows(NullPointerException.class,
+				() -> subject.mapToLong(null));
+		assertThrows(NullPointerException.class,
+				() -> subject.mapToDouble(null));
+
+		// parsing functions
+		assertEquals(1, subject.mapToInt(Integer::parseInt).orElseThrow());
+		assertEquals(1L, subject.mapToLong(Long::parseLong).orElseThrow());
+		assertEquals(1.0,
+				subject.mapToDouble(Double::parseDouble).orElseThrow());
+
+		// throwing function
+		assertInstanceOf(NumberFormatException.class, new Success<>("a")
+				.mapToInt(Integer::parseInt).getCause());
+	}
+
 	@Test
 	@DisplayName("orElseGet() test")
 	void orElseGetTest() {
@@ -210,4 +235,24 @@ class SuccessTest {
 		assertEquals(1.0, assertSuccessful(subject.recover(mock)));
 		verifyZeroInteractions(mock);
 	}
-}
\ No newline at end of file
+
+	@Test
+	@DisplayName("serialization test")
+	void serializationTest() throws IOException, ClassNotFoundException {
+		final Try<?> deserialized = Serialization.fromByteArray(Try.class,
+				Serialization.toByteArray(new Success<>("a")));
+		assertEquals("a", assertSuccessful(deserialized));
+
+		// the value must be serializable
+		assertThrows(IOException.class, () -> Serialization.toByteArray(
+				new Success<>(new Object())));
+	}
+
+	@Test
+	@DisplayName("stream() test")
+	void streamTest() {
+		final Try<Integer> subject = new Success<>(1);
+		assertEquals(Collections.singletonList(1),
+				subject.stream().collect(Collectors.toList()));
+	}
+}
@@ -0,0 +1,331 @@
+package eu.farsil.shelf.lambda;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static eu.farsil.shelf.test.MoreAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Timeout and hedged attempt tests.
+ *
+ * @author Marco Buzzanca
+ */
+@DisplayName("Timeout and hedged attempt test")
+class TimingTest {
+	/**
+	 * The latency of the slow computations, which the tests never wait for.
+	 */
+	private static final long SLOW_MILLIS = 10_000L;
+
+	/**
+	 * The executor of the computations.
+	 */
+	private ExecutorService executor;
+
+	/**
+	 * Returns the specified percentile of the latencies.
+	 *
+	 * @param latencies the latencies, which are sorted in place.
+	 * @param percentile the percentile, between 0 and 100.
+	 * @return the percentile.
+	 */
+	private static long percentile(final long[] latencies,
+			final int percentile) {
+		Arrays.sort(latencies);
+		return latencies[(latencies.length - 1) * percentile / 100];
+	}
+
+	@BeforeEach
+	void setUp() {
+		executor = Executors.newCachedThreadPool();
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	@DisplayName("withTimeout() test")
+	void withTimeoutTest() throws InterruptedException {
+		// null arguments
+		final Duration timeout = Duration.ofMillis(50);
+		assertThrows(NullPointerException.class,
+				() -> Try.withTimeout(null, timeout, executor));
+		assertThrows(NullPointerException.class,
+				() -> Try.withTimeout(() -> 1, null, executor));
+		assertThrows(NullPointerException.class,
+				() -> Try.withTimeout(() -> 1, timeout, null));
+
+		// computations that complete in time
+		assertEquals(1, assertSuccessful(
+				Try.withTimeout(() -> 1, timeout, executor)));
+		assertInstanceOf(IOException.class, assertNotSuccessful(
+				Try.withTimeout(() -> {
+					throw new IOException();
+				}, timeout, executor)));
+
+		// a late computation is interrupted
+		final CountDownLatch interrupted = new CountDownLatch(1);
+		final long start = System.nanoTime();
+		assertInstanceOf(TimeoutException.class, assertNotSuccessful(
+				Try.withTimeout(() -> {
+					try {
+						Thread.sleep(SLOW_MILLIS);
+					} catch (final InterruptedException e) {
+						interrupted.countDown();
+						throw e;
+					}
+					return 1;
+				}, timeout, executor)));
+		assertTrue(System.nanoTime() - start <
+				TimeUnit.MILLISECONDS.toNanos(SLOW_MILLIS / 10));
+		assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+
+		// errors are propagated
+		assertThrows(AssertionError.class, () -> Try.withTimeout(() -> {
+			throw new AssertionError();
+		}, timeout, executor));
+	}
+
+	@Test
+	@DisplayName("withTimeout() abandoned test")
+	void withTimeoutAbandonedTest() {
+		// a computation still queued at the deadline never runs
+		final ExecutorService single = Executors.newSingleThreadExecutor();
+		try {
+			final CountDownLatch release = new CountDownLatch(1);
+			single.execute(() -> {
+				try {
+					release.await();
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			final AtomicInteger calls = new AtomicInteger();
+			assertInstanceOf(TimeoutException.class, assertNotSuccessful(
+					Try.withTimeout(calls::incrementAndGet,
+							Duration.ofMillis(10), single)));
+			release.countDown();
+			assertEquals(1, assertSuccessful(
+					Try.withTimeout(() -> 1, Duration.ofSeconds(5), single)));
+			assertEquals(0, calls.get());
+		} finally {
+			single.shutdownNow();
+		}
+
+		// rejected computation
+		assertInstanceOf(RejectedExecutionException.class, assertNotSuccessful(
+				Try.withTimeout(() -> 1, Duration.ofSeconds(1), single)));
+	}
+
+	@Test
+	@DisplayName("withTimeout() interrupted test")
+	void withTimeoutInterruptedTest() throws InterruptedException {
+		// the caller is interrupted, the computation is cancelled
+		final CountDownLatch interrupted = new CountDownLatch(1);
+		final CountDownLatch started = new CountDownLatch(1);
+		final Thread caller = Thread.currentThread();
+		executor.execute(() -> {
+			try {
+				started.await();
+			} catch (final InterruptedException e) {
+				return;
+			}
+			caller.interrupt();
+		});
+		try {
+			assertInstanceOf(InterruptedException.class, assertNotSuccessful(
+					Try.withTimeout(() -> {
+						started.countDown();
+						try {
+							Thread.sleep(SLOW_MILLIS);
+						} catch (final InterruptedException e) {
+							interrupted.countDown();
+							throw e;
+						}
+						return 1;
+					}, Duration.ofMillis(SLOW_MILLIS), executor)));
+			assertTrue(Thread.currentThread().isInterrupted());
+		} finally {
+			Thread.interrupted();
+		}
+		assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	@DisplayName("withTimeout() latency distribution test")
+	void withTimeoutLatencyTest() {
+		// one computation in five never completes in time, yet no call
+		// takes much longer than the timeout
+		final int calls = 50;
+		final long[] latencies = new long[calls];
+		for (int i = 0; i < calls; i++) {
+			final boolean slow = i % 5 == 0;
+			final long start = System.nanoTime();
+			final Try<Integer> outcome = Try.withTimeout(() -> {
+				Thread.sleep(slow ? SLOW_MILLIS : 1L);
+				return 1;
+			}, Duration.ofMillis(20), executor);
+			latencies[i] = System.nanoTime() - start;
+			assertEquals(slow, outcome.isUnsuccessful());
+		}
+		assertTrue(percentile(latencies, 50) < TimeUnit.MILLISECONDS.toNanos(20));
+		assertTrue(percentile(latencies, 100) < TimeUnit.MILLISECONDS.toNanos(
+				SLOW_MILLIS / 10));
+	}
+
+	@Test
+	@DisplayName("hedged() test")
+	void hedgedTest() {
+		// null arguments
+		final Duration delay = Duration.ofMillis(20);
+		assertThrows(NullPointerException.class,
+				() -> Try.hedged(null, delay, executor));
+		assertThrows(NullPointerException.class,
+				() -> Try.hedged(() -> 1, null, executor));
+		assertThrows(NullPointerException.class,
+				() -> Try.hedged(() -> 1, delay, null));
+
+		// a fast computation is attempted once
+		final AtomicInteger calls = new AtomicInteger();
+		assertEquals(1, assertSuccessful(
+				Try.hedged(calls::incrementAndGet, delay, executor)));
+		assertEquals(1, calls.get());
+
+		// a fast failure is not hedged
+		calls.set(0);
+		assertInstanceOf(IOException.class, assertNotSuccessful(
+				Try.hedged(() -> {
+					calls.incrementAndGet();
+					throw new IOException();
+				}, delay, executor)));
+		assertEquals(1, calls.get());
+
+		// a failure is only returned if both attempts fail, and it is the
+		// failure of the last attempt to complete
+		calls.set(0);
+		assertInstanceOf(IOException.class, assertNotSuccessful(
+				Try.hedged(() -> {
+					if (calls.incrementAndGet() == 1) {
+						Thread.sleep(100);
+						throw new IOException();
+					}
+					throw new IllegalStateException();
+				}, delay, executor)));
+		assertEquals(2, calls.get());
+
+		// errors are propagated
+		assertThrows(AssertionError.class, () -> Try.hedged(() -> {
+			throw new AssertionError();
+		}, delay, executor));
+
+		// an attempt on the caller's thread does not interrupt it
+		assertEquals(1, assertSuccessful(
+				Try.hedged(() -> 1, delay, Runnable::run)));
+		assertFalse(Thread.interrupted());
+		assertInstanceOf(IOException.class, assertNotSuccessful(
+				Try.hedged(() -> {
+					throw new IOException();
+				}, delay, Runnable::run)));
+		assertFalse(Thread.interrupted());
+	}
+
+	@Test
+	@DisplayName("hedged() cancellation test")
+	void hedgedCancellationTest() throws InterruptedException {
+		// the slow attempt loses, and is interrupted
+		final AtomicInteger calls = new AtomicInteger();
+		final CountDownLatch interrupted = new CountDownLatch(1);
+		assertEquals(2, assertSuccessful(Try.hedged(() -> {
+			final int call = calls.incrementAndGet();
+			if (call == 1) {
+				try {
+					Thread.sleep(SLOW_MILLIS);
+				} catch (final InterruptedException e) {
+					interrupted.countDown();
+					throw e;
+				}
+			}
+			return call;
+		}, Duration.ofMillis(10), executor)));
+		assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+
+		// the first attempt is rejected
+		final ExecutorService closed = Executors.newSingleThreadExecutor();
+		closed.shutdown();
+		assertInstanceOf(RejectedExecutionException.class, assertNotSuccessful(
+				Try.hedged(() -> 1, Duration.ZERO, closed)));
+	}
+
+	@Test
+	@DisplayName("hedged() interrupted test")
+	void hedgedInterruptedTest() throws InterruptedException {
+		final CountDownLatch interrupted = new CountDownLatch(1);
+		final CountDownLatch started = new CountDownLatch(1);
+		final Thread caller = Thread.currentThread();
+		executor.execute(() -> {
+			try {
+				started.await();
+			} catch (final InterruptedException e) {
+				return;
+			}
+			caller.interrupt();
+		});
+		try {
+			assertInstanceOf(InterruptedException.class, assertNotSuccessful(
+					Try.hedged(() -> {
+						started.countDown();
+						try {
+							Thread.sleep(SLOW_MILLIS);
+						} catch (final InterruptedException e) {
+							interrupted.countDown();
+							throw e;
+						}
+						return 1;
+					}, Duration.ofSeconds(SLOW_MILLIS), executor)));
+			assertTrue(Thread.currentThread().isInterrupted());
+		} finally {
+			Thread.interrupted();
+		}
+		assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	@DisplayName("hedged() latency distribution test")
+	void hedgedLatencyTest() {
+		// one first attempt in five is slow, but its hedge is fast, so the
+		// tail latency is bounded by the delay
+		final int calls = 50;
+		final long[] latencies = new long[calls];
+		for (int i = 0; i < calls; i++) {
+			final boolean slow = i % 5 == 0;
+			final AtomicInteger attempts = new AtomicInteger();
+			final long start = System.nanoTime();
+			final Try<Integer> outcome = Try.hedged(() -> {
+				final boolean first = attempts.incrementAndGet() == 1;
+				Thread.sleep(slow && first ? SLOW_MILLIS : 1L);
+				return 1;
+			}, Duration.ofMillis(20), executor);
+			latencies[i] = System.nanoTime() - start;
+			assertEquals(1, assertSuccessful(outcome));
+		}
+		assertTrue(percentile(latencies, 50) < TimeUnit.MILLISECONDS.toNanos(20));
+		assertTrue(percentile(latencies, 100) < TimeUnit.MILLISECONDS.toNanos(
+				SLOW_MILLIS / 10));
+	}
+}
@@ -0,0 +1,428 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.TryCodec.ExceptionPolicy;
+import eu.farsil.shelf.lambda.function.PredicateFailedException;
+import eu.farsil.shelf.test.Serialization;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static eu.farsil.shelf.test.MoreAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Attempt codec tests.
+ *
+ * @author Marco Buzzanca
+ */
+@DisplayName("Attempt codec test")
+class TryCodecTest {
+	/**
+	 * Writes strings as their length followed by their UTF-8 bytes.
+	 */
+	private static final TryCodec.ValueCodec<String> STRINGS =
+			new TryCodec.ValueCodec<String>() {
+				@Override
+				public String decode(final ByteBuffer buffer) {
+					final byte[] bytes = new byte[buffer.getInt()];
+					buffer.get(bytes);
+					return new String(bytes, StandardCharsets.UTF_8);
+				}
+
+				@Override
+				public void encode(final String value, final ByteBuffer buffer) {
+					final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+					buffer.putInt(bytes.length);
+					buffer.put(bytes);
+				}
+			};
+
+	/**
+	 * Encodes an attempt and decodes it back.
+	 *
+	 * @param attempt the attempt.
+	 * @param policy the policy for the causes.
+	 * @return the decoded attempt.
+	 */
+	private static Try<String> roundTrip(final Try<String> attempt,
+			final ExceptionPolicy policy) {
+		final TryCodec<String> codec = TryCodec.of(STRINGS, policy);
+		final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+		codec.encode(attempt, buffer);
+		buffer.flip();
+		final Try<String> result = codec.decode(buffer);
+		assertFalse(buffer.hasRemaining());
+		return result;
+	}
+
+	/**
+	 * Returns the size of an encoded attempt.
+	 *
+	 * @param attempt the attempt.
+	 * @param policy the policy for the causes.
+	 * @return the size of the encoded attempt, in bytes.
+	 */
+	private static int encodedSize(final Try<String> attempt,
+			final ExceptionPolicy policy) {
+		final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+		TryCodec.of(STRINGS, policy).encode(attempt, buffer);
+		return buffer.position();
+	}
+
+	@Test
+	@DisplayName("of() test")
+	void ofTest() {
+		assertThrows(NullPointerException.class,
+				() -> TryCodec.of(null, ExceptionPolicy.CLASS_ONLY));
+		assertThrows(NullPointerException.class,
+				() -> TryCodec.of(STRINGS, null));
+		final TryCodec<String> subject =
+				TryCodec.of(STRINGS, ExceptionPolicy.CLASS_ONLY);
+		assertThrows(NullPointerException.class,
+				() -> subject.encode(null, ByteBuffer.allocate(16)));
+		assertThrows(NullPointerException.class,
+				() -> subject.encode(Try.success("a"), null));
+		assertThrows(NullPointerException.class, () -> subject.decode(null));
+	}
+
+	@Test
+	@DisplayName("success test")
+	void successTest() {
+		for (final ExceptionPolicy policy : ExceptionPolicy.values()) {
+			assertEquals("è a value", assertSuccessful(
+					roundTrip(Try.success("è a value"), policy)));
+		}
+
+		// deferred attempts are computed
+		assertEquals("ab", assertSuccessful(roundTrip(
+				Try.lazy(() -> "a").map(s -> s + "b"),
+				ExceptionPolicy.CLASS_ONLY)));
+	}
+
+	@Test
+	@DisplayName("STACK_TRACE policy test")
+	void stackTraceTest() {
+		final IOException cause = new IOException("message");
+		final IOException decoded = assertInstanceOf(IOException.class,
+				assertNotSuccessful(roundTrip(Try.failure(cause),
+						ExceptionPolicy.STACK_TRACE)));
+		assertEquals("message", decoded.getMessage());
+		assertArrayEquals(cause.getStackTrace(), decoded.getStackTrace());
+
+		// causes and suppressed exceptions are decoded as well
+		final IOException nested = new IOException(new IllegalStateException());
+		nested.addSuppressed(new IllegalArgumentException());
+		final IOException decodedNested = assertInstanceOf(IOException.class,
+				assertNotSuccessful(roundTrip(Try.failure(nested),
+						ExceptionPolicy.STACK_TRACE)));
+		assertInstanceOf(IllegalStateException.class, decodedNested.getCause());
+		assertInstanceOf(IllegalArgumentException.class,
+				decodedNested.getSuppressed()[0]);
+
+		// causes that cannot be serialized fall back to CLASS_AND_MESSAGE
+		final DecodedException fallback = assertInstanceOf(
+				DecodedException.class, assertNotSuccessful(roundTrip(
+						Try.failure(new NotSerializableException()),
+						ExceptionPolicy.STACK_TRACE)));
+		assertEquals(NotSerializableException.class.getName(),
+				fallback.getClassName());
+		assertEquals("not serializable", fallback.getMessage());
+
+		// fields of allowed classes are decoded
+		final FieldsException fields = assertInstanceOf(FieldsException.class,
+				assertNotSuccessful(roundTrip(Try.failure(
+						new FieldsException()), ExceptionPolicy.STACK_TRACE)));
+		assertEquals(1, fields.number);
+		assertEquals(TimeUnit.SECONDS, fields.unit);
+		assertArrayEquals(new String[]{"a"}, fields.names);
+
+		// other fields fall back to CLASS_AND_MESSAGE, as they would not be
+		// decoded
+		final FieldsException date = new FieldsException();
+		date.other = new Date();
+		assertEquals(FieldsException.class.getName(), assertInstanceOf(
+				DecodedException.class, assertNotSuccessful(roundTrip(
+						Try.failure(date), ExceptionPolicy.STACK_TRACE)))
+				.getClassName());
+	}
+
+	@Test
+	@DisplayName("filter failure test")
+	void filterTest() {
+		// the value is dropped, and the message is preserved
+		final Try<String> attempt = Try.success("5")
+				.map(Integer::valueOf)
+				.filter(x -> x < 0)
+				.map(String::valueOf);
+		final PredicateFailedException decoded = assertInstanceOf(
+				PredicateFailedException.class, assertNotSuccessful(roundTrip(
+						attempt, ExceptionPolicy.STACK_TRACE)));
+		assertNull(decoded.getValue());
+		assertEquals("value: 5", decoded.getMessage());
+	}
+
+	@Test
+	@DisplayName("CLASS_AND_MESSAGE policy test")
+	void classAndMessageTest() {
+		final IOException cause = new IOException("message");
+		final DecodedException decoded = assertInstanceOf(
+				DecodedException.class, assertNotSuccessful(roundTrip(
+						Try.failure(cause),
+						ExceptionPolicy.CLASS_AND_MESSAGE)));
+		assertEquals(IOException.class.getName(), decoded.getClassName());
+		assertEquals("message", decoded.getMessage());
+		assertEquals(cause.toString(), decoded.toString());
+		assertEquals(0, decoded.getStackTrace().length);
+
+		// a long message, whose length takes more than one byte
+		final char[] chars = new char[1000];
+		Arrays.fill(chars, 'x');
+		final String message = new String(chars);
+		assertEquals(message, assertNotSuccessful(roundTrip(
+				Try.failure(new IOException(message)),
+				ExceptionPolicy.CLASS_AND_MESSAGE)).getMessage());
+
+		// decoded causes are encoded as the original ones
+		final DecodedException again = assertInstanceOf(
+				DecodedException.class, assertNotSuccessful(roundTrip(
+						Try.failure(decoded),
+						ExceptionPolicy.CLASS_AND_MESSAGE)));
+		assertEquals(cause.toString(), again.toString());
+	}
+
+	@Test
+	@DisplayName("CLASS_ONLY policy test")
+	void classOnlyTest() {
+		final DecodedException decoded = assertInstanceOf(
+				DecodedException.class, assertNotSuccessful(roundTrip(
+						Try.failure(new IOException("message")),
+						ExceptionPolicy.CLASS_ONLY)));
+		assertEquals(IOException.class.getName(), decoded.getClassName());
+		assertNull(decoded.getMessage());
+		assertEquals(IOException.class.getName(), decoded.toString());
+	}
+
+	@Test
+	@DisplayName("shared failures test")
+	void sharedTest() {
+		final CachedFailure expired = CachedFailure.of("expired");
+		for (final ExceptionPolicy policy : ExceptionPolicy.values()) {
+			assertSame(Try.empty(), roundTrip(Try.empty(), policy));
+			assertSame(Try.failureOf(expired),
+					roundTrip(Try.failureOf(expired), policy));
+		}
+
+		// names that are not registered are not registered on decoding
+		final TryCodec<String> subject =
+				TryCodec.of(STRINGS, ExceptionPolicy.CLASS_ONLY);
+		final DecodedException unknown = assertInstanceOf(
+				DecodedException.class, assertNotSuccessful(subject.decode(
+						ByteBuffer.wrap(new byte[]{2, 4, 'x', 'y', 'z'}))));
+		assertEquals(CachedFailure.class.getName(), unknown.getClassName());
+		assertEquals("xyz", unknown.getMessage());
+		assertNull(CachedFailure.lookup("xyz"));
+
+		// missing name
+		assertThrows(IllegalArgumentException.class,
+				() -> subject.decode(ByteBuffer.wrap(new byte[]{2, 0})));
+	}
+
+	@Test
+	@DisplayName("multiple attempts test")
+	void multipleTest() {
+		final TryCodec<String> subject =
+				TryCodec.of(STRINGS, ExceptionPolicy.CLASS_AND_MESSAGE);
+		final ByteBuffer buffer = ByteBuffer.allocate(256);
+		subject.encode(Try.success("a"), buffer);
+		subject.encode(Try.failure(new IOException()), buffer);
+		subject.encode(Try.empty(), buffer);
+		buffer.flip();
+		assertEquals("a", assertSuccessful(subject.decode(buffer)));
+		assertInstanceOf(DecodedException.class,
+				assertNotSuccessful(subject.decode(buffer)));
+		assertSame(Try.empty(), subject.decode(buffer));
+		assertFalse(buffer.hasRemaining());
+	}
+
+	@Test
+	@DisplayName("buffer overflow test")
+	void overflowTest() {
+		final TryCodec<String> subject =
+				TryCodec.of(STRINGS, ExceptionPolicy.CLASS_AND_MESSAGE);
+		final ByteBuffer buffer = ByteBuffer.allocate(8);
+		subject.encode(Try.success("a"), buffer);
+		assertEquals(6, buffer.position());
+
+		// the position is restored
+		assertThrows(BufferOverflowException.class,
+				() -> subject.encode(Try.success("abc"), buffer));
+		assertEquals(6, buffer.position());
+		assertThrows(BufferOverflowException.class, () -> subject.encode(
+				Try.failure(new IOException("message")), buffer));
+		assertEquals(6, buffer.position());
+	}
+
+	@Test
+	@DisplayName("invalid input test")
+	void invalidTest() {
+		final TryCodec<String> subject =
+				TryCodec.of(STRINGS, ExceptionPolicy.STACK_TRACE);
+
+		// unknown tag
+		assertThrows(IllegalArgumentException.class,
+				() -> subject.decode(ByteBuffer.wrap(new byte[]{42})));
+
+		// truncated input
+		final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+		subject.encode(Try.failure(new IOException()), buffer);
+		buffer.flip();
+		buffer.limit(buffer.limit() / 2);
+		assertThrows(BufferUnderflowException.class,
+				() -> subject.decode(buffer));
+
+		// corrupt length
+		assertThrows(BufferUnderflowException.class, () -> subject.decode(
+				ByteBuffer.wrap(new byte[]{4, (byte) 0xff, 0x7f})));
+		assertThrows(IllegalArgumentException.class, () -> subject.decode(
+				ByteBuffer.wrap(new byte[]{4, -1, -1, -1, -1, -1})));
+
+		// missing class name
+		assertThrows(IllegalArgumentException.class,
+				() -> subject.decode(ByteBuffer.wrap(new byte[]{4, 0, 0})));
+
+		// corrupt serialized form
+		assertThrows(IllegalArgumentException.class,
+				() -> subject.decode(ByteBuffer.wrap(new byte[]{3, 1, 0})));
+	}
+
+	@Test
+	@DisplayName("encoded size test")
+	void sizeTest() throws IOException {
+		// the attempts of TryCodecBenchmark
+		final Try<String> success = Try.success("order #1234 shipped");
+		final Try<String> failure =
+				Try.failure(new IOException("connection reset"));
+
+		// successes only hold the encoded value
+		for (final ExceptionPolicy policy : ExceptionPolicy.values()) {
+			assertEquals(5 + "order #1234 shipped".length(),
+					encodedSize(success, policy));
+		}
+		assertTrue(encodedSize(success, ExceptionPolicy.CLASS_ONLY) * 4 <
+				Serialization.toByteArray(success).length);
+
+		// the less the policy keeps, the smaller the encoded failure
+		final int classOnly = encodedSize(failure, ExceptionPolicy.CLASS_ONLY);
+		final int classAndMessage =
+				encodedSize(failure, ExceptionPolicy.CLASS_AND_MESSAGE);
+		final int stackTrace = encodedSize(failure, ExceptionPolicy.STACK_TRACE);
+		assertTrue(classOnly < classAndMessage);
+		assertTrue(classAndMessage * 10 < stackTrace);
+		assertTrue(stackTrace < Serialization.toByteArray(failure).length);
+	}
+
+	@Test
+	@DisplayName("serialized cause restrictions test")
+	void serializedTest() throws IOException {
+		final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+		TryCodec.of(STRINGS, ExceptionPolicy.STACK_TRACE)
+				.encode(Try.failure(new IOException()), buffer);
+		buffer.flip();
+
+		// serialized causes are only decoded by STACK_TRACE codecs
+		for (final ExceptionPolicy policy : new ExceptionPolicy[]{
+				ExceptionPolicy.CLASS_AND_MESSAGE,
+				ExceptionPolicy.CLASS_ONLY}) {
+			assertThrows(IllegalArgumentException.class,
+					() -> TryCodec.of(STRINGS, policy)
+							.decode(buffer.duplicate()));
+		}
+
+		// objects that are not exceptions are not deserialized
+		final byte[] bytes = Serialization.toByteArray(new Date());
+		final ByteBuffer date = ByteBuffer.allocate(bytes.length + 8);
+		date.put((byte) 3);
+		date.put((byte) bytes.length);
+		date.put(bytes);
+		date.flip();
+		final IllegalArgumentException e = assertThrows(
+				IllegalArgumentException.class,
+				() -> TryCodec.of(STRINGS, ExceptionPolicy.STACK_TRACE)
+						.decode(date));
+		assertInstanceOf(InvalidClassException.class, e.getCause());
+	}
+
+	/**
+	 * An exception that holds fields of the classes that serialized causes
+	 * may contain, and optionally a field of another class.
+	 *
+	 * @author Marco Buzzanca
+	 */
+	private static class FieldsException extends RuntimeException {
+		/**
+		 * Required by {@link java.io.Serializable}.
+		 */
+		private static final long serialVersionUID = 6373140512916213375L;
+
+		/**
+		 * A boxed number.
+		 */
+		final Integer number = 1;
+
+		/**
+		 * An enum.
+		 */
+		final TimeUnit unit = TimeUnit.SECONDS;
+
+		/**
+		 * An array of strings.
+		 */
+		final String[] names = {"a"};
+
+		/**
+		 * A field of another class, or {@code null}.
+		 */
+		Date other;
+
+		/**
+		 * Builds the instance.
+		 */
+		FieldsException() {
+			super("fields");
+		}
+	}
+
+	/**
+	 * An exception that holds a field that cannot be serialized.
+	 *
+	 * @author Marco Buzzanca
+	 */
+	private static class NotSerializableException extends RuntimeException {
+		/**
+		 * Required by {@link java.io.Serializable}.
+		 */
+		private static final long serialVersionUID = -2094612380461538137L;
+
+		/**
+		 * A field that cannot be serialized.
+		 */
+		@SuppressWarnings("unused")
+		private final Object field = new Object();
+
+		/**
+		 * Builds the instance.
+		 */
+		NotSerializableException() {
+			super("not serializable");
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package eu.farsil.shelf.lambda;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static eu.farsil.shelf.test.MoreAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the {@link TryCollectors} class.
+ *
+ * @author Marco Buzzanca
+ */
+@DisplayName("Attempt collectors test")
+class TryCollectorsTest {
+	/**
+	 * Returns a stream of attempts that parse the integers from 0 to 9999,
+	 * every tenth of which is replaced by an unparsable string.
+	 *
+	 * @param parallel whether the stream is parallel.
+	 * @return the stream of attempts.
+	 */
+	private static Stream<Try<Integer>> attempts(final boolean parallel) {
+		final Stream<Try<Integer>> result = IntStream.range(0, 10000)
+				.mapToObj(i -> i % 10 == 9 ? "x" + i : String.valueOf(i))
+				.map(s -> Try.get(() -> Integer.parseInt(s)));
+		return parallel ? result.parallel() : result;
+	}
+
+	@Test
+	@DisplayName("countingFailures() test")
+	void countingFailuresTest() {
+		for (final boolean parallel : new boolean[]{false, true}) {
+			final Map<Class<? extends Exception>, Long> counts =
+					attempts(parallel).collect(TryCollectors.countingFailures());
+			assertEquals(Collections.singletonMap(NumberFormatException.class,
+					1000L), counts);
+		}
+
+		// different causes
+		final Map<Class<? extends Exception>, Long> counts = Stream.of(
+				Try.get(() -> 1),
+				new Failure<Integer>(new IOException()),
+				new Failure<Integer>(new IOException()),
+				new Failure<Integer>(new IllegalStateException()))
+				.collect(TryCollectors.countingFailures());
+		assertEquals(2, counts.size());
+		assertEquals(2L, counts.get(IOException.class));
+		assertEquals(1L, counts.get(IllegalStateException.class));
+	}
+
+	@Test
+	@DisplayName("partitioning() test")
+	void partitioningTest() {
+		final List<Integer> expected = IntStream.range(0, 10000)
+				.filter(i -> i % 10 != 9)
+				.boxed()
+				.collect(Collectors.toList());
+		for (final boolean parallel : new boolean[]{false, true}) {
+			final TryCollectors.Partition<Integer> partition =
+					attempts(parallel).collect(TryCollectors.partitioning());
+			assertEquals(expected, partition.getSuccesses());
+			assertEquals(1000, partition.getFailures().size());
+			assertEquals("For input string: \"x9\"",
+					partition.getFailures().get(0).getMessage());
+			assertThrows(UnsupportedOperationException.class,
+					() -> partition.getSuccesses().add(0));
+		}
+	}
+
+	@Test
+	@DisplayName("toList() test")
+	void toListTest() {
+		// the first failure in encounter order is returned
+		for (final boolean parallel : new boolean[]{false, true}) {
+			final Exception cause = assertNotSuccessful(
+					attempts(parallel).collect(TryCollectors.toList()));
+			assertEquals("For input string: \"x9\"", cause.getMessage());
+		}
+
+		// successes only
+		final List<Integer> expected = IntStream.range(0, 10000).boxed()
+				.collect(Collectors.toList());
+		for (final boolean parallel : new boolean[]{false, true}) {
+			final Stream<Integer> stream = expected.stream();
+			assertEquals(expected, assertSuccessful(
+					(parallel ? stream.parallel() : stream)
+							.map(i -> Try.get(() -> i))
+							.collect(TryCollectors.toList())));
+		}
+
+		// the failure due to a missing value is the shared one
+		assertSame(Try.empty(),
+				Stream.of(Try.get(() -> 1), Try.<Integer>empty())
+						.collect(TryCollectors.<Integer>toList()));
+
+		// empty stream
+		assertEquals(Collections.emptyList(), assertSuccessful(
+				Stream.<Try<Integer>>empty().collect(TryCollectors.toList())));
+		assertEquals(Arrays.asList(1, 2), assertSuccessful(
+				Stream.of(Try.get(() -> 1), Try.get(() -> 2))
+						.collect(TryCollectors.<Integer>toList())));
+	}
+}
@@ -0,0 +1,216 @@
+package eu.farsil.shelf.lambda;
+
+import eu.farsil.shelf.lambda.function.PredicateFailedException;
+import eu.farsil.shelf.lambda.function.ThrowingSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static eu.farsil.shelf.test.MoreAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Listener and metrics tests.
+ *
+ * @author Marco Buzzanca
+ */
+@DisplayName("Listener and metrics test")
+class TryMetricsTest {
+	@AfterEach
+	void tearDown() {
+		TryListener.uninstall();
+	}
+
+	@Test
+	@DisplayName("install() test")
+	void installTest() {
+		assertThrows(NullPointerException.class,
+				() -> TryListener.install(null));
+
+		// no counts unless installed
+		final TryMetrics metrics = TryMetrics.create();
+		Try.get(() -> {
+			throw new IOException();
+		});
+		assertEquals(0, metrics.snapshot().getTotalFailureCount());
+
+		TryListener.install(metrics);
+		Try.get(() -> {
+			throw new IOException();
+		});
+		assertEquals(1, metrics.snapshot().getFailureCount(IOException.class));
+
+		TryListener.uninstall();
+		Try.get(() -> {
+			throw new IOException();
+		});
+		assertEquals(1, metrics.snapshot().getFailureCount(IOException.class));
+	}
+
+	@Test
+	@DisplayName("notifications test")
+	void notificationsTest() {
+		final TryMetrics metrics = TryMetrics.create();
+		TryListener.install(metrics);
+
+		final Try<Integer> success = Try.success(1);
+		final Try<Integer> failure = Try.failure(new IOException());
+		success.map(x -> x / 0);
+		success.flatMap(x -> {
+			throw new IllegalStateException();
+		});
+		success.filter(x -> x < 0);
+		success.map(x -> null);
+		Try.<Integer>pipeline().map(x -> x / 0).apply(1);
+		failure.recover(e -> 0);
+		failure.flatRecover(e -> Try.success(0));
+		failure.recover(e -> {
+			throw new IllegalArgumentException();
+		});
+
+		// the factories and the failures passed through are not counted
+		failure.map(x -> x + 1);
+		Try.empty();
+
+		final TryMetrics.Snapshot snapshot = metrics.snapshot();
+		assertEquals(2,
+				snapshot.getFailureCount(ArithmeticException.class));
+		assertEquals(1,
+				snapshot.getFailureCount(IllegalStateException.class));
+		assertEquals(1,
+				snapshot.getFailureCount(PredicateFailedException.class));
+		assertEquals(1,
+				snapshot.getFailureCount(Exceptions.NO_VALUE.getClass()));
+		assertEquals(1,
+				snapshot.getFailureCount(IllegalArgumentException.class));
+		assertEquals(0, snapshot.getFailureCount(IOException.class));
+		assertEquals(6, snapshot.getTotalFailureCount());
+		assertEquals(2, snapshot.getRecoveryCount(IOException.class));
+		assertEquals(2, snapshot.getTotalRecoveryCount());
+		assertThrows(UnsupportedOperationException.class,
+				() -> snapshot.getFailures().clear());
+
+		// reset
+		metrics.reset();
+		assertEquals(0, metrics.snapshot().getTotalFailureCount());
+		assertEquals(0, metrics.snapshot().getTotalRecoveryCount());
+	}
+
+	@Test
+	@DisplayName("flatRecover() notifications test")
+	void flatRecoverTest() {
+		final TryMetrics metrics = TryMetrics.create();
+		TryListener.install(metrics);
+
+		final Try<Integer> failure = Try.failure(new IOException());
+		assertEquals(0, assertSuccessful(
+				failure.flatRecover(e -> Try.success(0))));
+		assertInstanceOf(IllegalStateException.class, assertNotSuccessful(
+				failure.flatRecover(e -> Try.failure(
+						new IllegalStateException()))));
+		assertSame(failure, failure.flatRecover(e -> failure));
+
+		// failed mappers do not recover the failure
+		final TryMetrics.Snapshot snapshot = metrics.snapshot();
+		assertEquals(1, snapshot.getRecoveryCount(IOException.class));
+		assertEquals(1, snapshot.getTotalRecoveryCount());
+		assertEquals(1,
+				snapshot.getFailureCount(IllegalStateException.class));
+		assertEquals(0, snapshot.getFailureCount(IOException.class));
+		assertEquals(1, snapshot.getTotalFailureCount());
+
+		// deferred outcomes are only notified once computed
+		final Try<Integer> deferred =
+				failure.flatRecover(e -> Try.defer(() -> Try.success(0)));
+		assertEquals(1, metrics.snapshot().getTotalRecoveryCount());
+		assertEquals(0, assertSuccessful(deferred));
+		assertEquals(2, metrics.snapshot().getTotalRecoveryCount());
+	}
+
+	@Test
+	@DisplayName("faulty listener test")
+	void faultyListenerTest() {
+		TryListener.install(cause -> {
+			throw new IllegalStateException();
+		});
+		assertInstanceOf(IOException.class, assertNotSuccessful(Try.get(() -> {
+			throw new IOException();
+		})));
+	}
+
+	@Test
+	@DisplayName("faulty intercept() test")
+	void faultyInterceptTest() {
+		final TryListener before = new TryListener() {
+			@Override
+			public <T> T intercept(final ThrowingSupplier<T> supplier) {
+				throw new IllegalStateException();
+			}
+
+			@Override
+			public void onFailure(final Exception cause) {
+			}
+		};
+		final TryListener after = new TryListener() {
+			@Override
+			public <T> T intercept(final ThrowingSupplier<T> supplier)
+					throws Exception {
+				try {
+					supplier.get();
+				} catch (final IOException e) {
+					throw new IllegalArgumentException(e);
+				}
+				throw new IllegalStateException();
+			}
+
+			@Override
+			public void onFailure(final Exception cause) {
+			}
+		};
+
+		// the outcome is the one of the computation
+		for (final TryListener listener : Arrays.asList(before, after,
+				before.andThen(after), after.andThen(before))) {
+			TryListener.install(listener);
+			final AtomicInteger count = new AtomicInteger();
+			assertEquals(1, assertSuccessful(Try.get(count::incrementAndGet)));
+			assertEquals(1, count.get());
+			assertInstanceOf(IOException.class, assertNotSuccessful(Try.get(() -> {
+				throw new IOException();
+			})));
+		}
+	}
+
+	@Test
+	@DisplayName("concurrent counts test")
+	void concurrentTest() throws InterruptedException {
+		final int threads = 8;
+		final int failures = 10_000;
+		final TryMetrics metrics = TryMetrics.create();
+		TryListener.install(metrics);
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			for (int i = 0; i < threads; i++) {
+				executor.execute(() -> {
+					for (int j = 0; j < failures; j++) {
+						Try.get(() -> {
+							throw new IOException();
+						});
+					}
+				});
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+		assertEquals((long) threads * failures,
+				metrics.snapshot().getFailureCount(IOException.class));
+	}
+}
@@ -0,0 +1,289 @@
+package eu.farsil.shelf.lambda;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static eu.farsil.shelf.test.MoreAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Scope tests.
+ *
+ * @author Marco Buzzanca
+ */
+@DisplayName("Scope test")
+class TryScopeTest {
+	/**
+	 * The latency of the slow computations, which the tests never wait for.
+	 */
+	private static final long SLOW_MILLIS = 10_000L;
+
+	@Test
+	@DisplayName("open() test")
+	void openTest() {
+		assertThrows(NullPointerException.class, () -> TryScope.open(null));
+		assertThrows(NullPointerException.class,
+				() -> TryScope.open(TryScope.Policy.FAIL_FAST, null));
+	}
+
+	@Test
+	@DisplayName("collect all test")
+	void collectAllTest() throws InterruptedException {
+		try (final TryScope<Integer> scope =
+				     TryScope.open(TryScope.Policy.COLLECT_ALL)) {
+			assertThrows(NullPointerException.class, () -> scope.fork(null));
+			assertThrows(IllegalStateException.class, scope::toTry);
+			scope.fork(() -> 1);
+			scope.fork(() -> {
+				Thread.sleep(50);
+				throw new IOException();
+			});
+			scope.fork(() -> {
+				Thread.sleep(100);
+				return 3;
+			});
+
+			// every outcome is collected, in fork order
+			final List<Try<Integer>> outcomes = scope.join();
+			assertEquals(3, outcomes.size());
+			assertEquals(1, assertSuccessful(outcomes.get(0)));
+			assertInstanceOf(IOException.class,
+					assertNotSuccessful(outcomes.get(1)));
+			assertEquals(3, assertSuccessful(outcomes.get(2)));
+			assertSame(outcomes, scope.join());
+			assertInstanceOf(IOException.class,
+					assertNotSuccessful(scope.toTry()));
+
+			// no more forks after the join
+			assertThrows(IllegalStateException.class, () -> scope.fork(() -> 4));
+		}
+	}
+
+	@Test
+	@DisplayName("fail fast test")
+	void failFastTest() throws InterruptedException {
+		final CountDownLatch started = new CountDownLatch(2);
+		final CountDownLatch interrupted = new CountDownLatch(2);
+		try (final TryScope<Integer> scope =
+				     TryScope.open(TryScope.Policy.FAIL_FAST)) {
+			for (int i = 0; i < 2; i++) {
+				scope.fork(() -> {
+					started.countDown();
+					try {
+						Thread.sleep(SLOW_MILLIS);
+					} catch (final InterruptedException e) {
+						interrupted.countDown();
+						throw e;
+					}
+					return 1;
+				});
+			}
+
+			// subtasks that start after the failure would not run at all
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+			scope.fork(() -> {
+				throw new IOException();
+			});
+
+			// the failure interrupts the other computations, and join() waits
+			// for them to terminate
+			final List<Try<Integer>> outcomes = scope.join();
+			assertEquals(0, interrupted.getCount());
+			assertInstanceOf(CancellationException.class,
+					assertNotSuccessful(outcomes.get(0)));
+			assertInstanceOf(CancellationException.class,
+					assertNotSuccessful(outcomes.get(1)));
+			assertInstanceOf(IOException.class,
+					assertNotSuccessful(outcomes.get(2)));
+			assertInstanceOf(IOException.class,
+					assertNotSuccessful(scope.toTry()));
+		}
+	}
+
+	@Test
+	@DisplayName("fail fast genuine failures test")
+	void failFastGenuineTest() throws InterruptedException {
+		final CountDownLatch started = new CountDownLatch(1);
+		try (final TryScope<Integer> scope =
+				     TryScope.open(TryScope.Policy.FAIL_FAST)) {
+			// ignores the interruption, then fails on its own
+			scope.fork(() -> {
+				started.countDown();
+				try {
+					Thread.sleep(SLOW_MILLIS);
+				} catch (final InterruptedException e) {
+					// the computation goes on
+				}
+				throw new IllegalStateException();
+			});
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+			scope.fork(() -> {
+				throw new IOException();
+			});
+
+			// only the failures due to the interruption are cancellations
+			final List<Try<Integer>> outcomes = scope.join();
+			assertInstanceOf(IllegalStateException.class,
+					assertNotSuccessful(outcomes.get(0)));
+			assertInstanceOf(IOException.class,
+					assertNotSuccessful(outcomes.get(1)));
+		}
+	}
+
+	@Test
+	@DisplayName("fail fast fork after failure test")
+	void failFastForkTest() throws InterruptedException {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch cancelled = new CountDownLatch(1);
+		final AtomicInteger calls = new AtomicInteger();
+		try (final TryScope<Integer> scope =
+				     TryScope.open(TryScope.Policy.FAIL_FAST)) {
+			scope.fork(() -> {
+				started.countDown();
+				try {
+					Thread.sleep(SLOW_MILLIS);
+				} catch (final InterruptedException e) {
+					cancelled.countDown();
+					throw e;
+				}
+				return 1;
+			});
+
+			// a subtask that starts after the failure would not run at all
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+			scope.fork(() -> {
+				throw new IOException();
+			});
+			assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+
+			// computations forked after the failure are not started
+			scope.fork(calls::incrementAndGet);
+			assertInstanceOf(CancellationException.class,
+					assertNotSuccessful(scope.join().get(2)));
+		}
+		assertEquals(0, calls.get());
+	}
+
+	@Test
+	@DisplayName("toTry() test")
+	void toTryTest() throws InterruptedException {
+		try (final TryScope<Integer> scope =
+				     TryScope.open(TryScope.Policy.FAIL_FAST)) {
+			for (int i = 0; i < 100; i++) {
+				final int value = i;
+				scope.fork(() -> value);
+			}
+			scope.join();
+			final List<Integer> values = assertSuccessful(scope.toTry());
+			assertEquals(100, values.size());
+			for (int i = 0; i < 100; i++) {
+				assertEquals(i, values.get(i));
+			}
+		}
+	}
+
+	@Test
+	@DisplayName("close() test")
+	void closeTest() throws InterruptedException {
+		// closing without joining cancels and awaits the computations
+		final CountDownLatch started = new CountDownLatch(1);
+		final AtomicInteger terminated = new AtomicInteger();
+		final TryScope<Integer> scope = TryScope.open(
+				TryScope.Policy.COLLECT_ALL);
+		scope.fork(() -> {
+			try {
+				started.countDown();
+				Thread.sleep(SLOW_MILLIS);
+				return 1;
+			} finally {
+				terminated.incrementAndGet();
+			}
+		});
+		started.await();
+		scope.close();
+		assertEquals(1, terminated.get());
+		scope.close();
+		assertThrows(IllegalStateException.class, scope::join);
+		assertThrows(IllegalStateException.class, () -> scope.fork(() -> 1));
+	}
+
+	@Test
+	@DisplayName("owner test")
+	void ownerTest() throws Exception {
+		// only the owner can use the scope
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		try (final TryScope<Integer> scope =
+				     TryScope.open(TryScope.Policy.COLLECT_ALL)) {
+			final Exception e = assertThrows(Exception.class, () -> executor
+					.submit(() -> scope.fork(() -> 1)).get());
+			assertInstanceOf(IllegalStateException.class, e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	@DisplayName("thread factory test")
+	void threadFactoryTest() throws InterruptedException {
+		final AtomicInteger created = new AtomicInteger();
+		final ThreadFactory factory = task -> {
+			created.incrementAndGet();
+			return new Thread(task, "custom");
+		};
+		try (final TryScope<String> scope =
+				     TryScope.open(TryScope.Policy.COLLECT_ALL, factory)) {
+			scope.fork(() -> Thread.currentThread().getName());
+			scope.fork(() -> Thread.currentThread().getName());
+			for (final Try<String> outcome : scope.join()) {
+				assertEquals("custom", assertSuccessful(outcome));
+			}
+		}
+		assertEquals(2, created.get());
+	}
+
+	@Test
+	@DisplayName("error test")
+	void errorTest() {
+		try (final TryScope<Integer> scope =
+				     TryScope.open(TryScope.Policy.COLLECT_ALL)) {
+			scope.fork(() -> {
+				throw new AssertionError();
+			});
+			assertThrows(AssertionError.class, scope::join);
+		}
+	}
+
+	@Test
+	@DisplayName("interrupted join() test")
+	void interruptedJoinTest() throws InterruptedException {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch interrupted = new CountDownLatch(1);
+		try (final TryScope<Integer> scope =
+				     TryScope.open(TryScope.Policy.COLLECT_ALL)) {
+			scope.fork(() -> {
+				try {
+					started.countDown();
+					Thread.sleep(SLOW_MILLIS);
+				} catch (final InterruptedException e) {
+					interrupted.countDown();
+					throw e;
+				}
+				return 1;
+			});
+			started.await();
+			Thread.currentThread().interrupt();
+			assertThrows(InterruptedException.class, scope::join);
+		}
+		assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+	}
+}
@@ -0,0 +1,151 @@
+package eu.farsil.shelf.lambda;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static eu.farsil.shelf.test.MoreAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stream operations tests.
+ *
+ * @author Marco Buzzanca
+ */
+@DisplayName("Stream operations test")
+class TryStreamsTest {
+	/**
+	 * Parses a non-negative integer.
+	 *
+	 * @param s the string to parse.
+	 * @return the integer, or {@code null} if the string is empty.
+	 * @throws IOException if the integer is negative.
+	 */
+	private static Integer parse(final String s) throws IOException {
+		if (s.isEmpty()) {
+			return null;
+		}
+		final int value = Integer.parseInt(s);
+		if (value < 0) {
+			throw new IOException(s);
+		}
+		return value;
+	}
+
+	@Test
+	@DisplayName("mapTry() test")
+	void mapTryTest() {
+		// null arguments
+		final Stream<String> stream = Stream.of("1");
+		assertThrows(NullPointerException.class,
+				() -> TryStreams.mapTry(null, TryStreamsTest::parse, e -> {
+				}));
+		assertThrows(NullPointerException.class,
+				() -> TryStreams.mapTry(stream, null, e -> {
+				}));
+		assertThrows(NullPointerException.class,
+				() -> TryStreams.mapTry(stream, TryStreamsTest::parse, null));
+
+		// only successes reach the stream, failures reach the sink
+		final List<Exception> failures = new ArrayList<>();
+		assertEquals(Arrays.asList(1, 3, 5), TryStreams.mapTry(
+				Stream.of("1", "a", "3", "-4", "", "5"),
+				TryStreamsTest::parse, failures::add)
+				.collect(Collectors.toList()));
+		assertEquals(3, failures.size());
+		assertInstanceOf(NumberFormatException.class, failures.get(0));
+		assertInstanceOf(IOException.class, failures.get(1));
+		assertSame(assertNotSuccessful(Try.empty()), failures.get(2));
+	}
+
+	@Test
+	@DisplayName("short-circuiting test")
+	void shortCircuitTest() {
+		// the failures before the first success are passed to the sink
+		final List<Exception> failures = new ArrayList<>();
+		assertEquals(Optional.of(3), TryStreams.mapTry(
+				Stream.of("a", "-1", "3", "b"), TryStreamsTest::parse,
+				failures::add).findFirst());
+		assertEquals(2, failures.size());
+
+		// the stream stops at the first success
+		final Spliterator<Integer> spliterator = TryStreams.mapTry(
+				Stream.of("1", "a", "3"), TryStreamsTest::parse, e -> {
+				}).spliterator();
+		assertTrue(spliterator.hasCharacteristics(Spliterator.NONNULL));
+		assertTrue(spliterator.tryAdvance(x -> assertEquals(1, x)));
+		assertTrue(spliterator.tryAdvance(x -> assertEquals(3, x)));
+		assertFalse(spliterator.tryAdvance(x -> fail("no more elements")));
+	}
+
+	@Test
+	@DisplayName("downstream exceptions are propagated test")
+	void downstreamTest() {
+		final List<Exception> failures = new ArrayList<>();
+		assertThrows(IllegalStateException.class, () -> TryStreams.mapTry(
+				Stream.of("1"), TryStreamsTest::parse, failures::add)
+				.forEach(x -> {
+					throw new IllegalStateException();
+				}));
+		assertTrue(failures.isEmpty());
+	}
+
+	@Test
+	@DisplayName("parallel stream test")
+	void parallelTest() {
+		// the sink is not thread-safe
+		final List<Exception> failures = new ArrayList<>();
+		final Stream<Integer> stream = TryStreams.mapTry(
+				IntStream.range(0, 100_000).boxed().parallel(),
+				x -> {
+					if (x % 10 == 0) {
+						throw new IOException();
+					}
+					return x;
+				}, failures::add);
+		assertTrue(stream.isParallel());
+		final List<Integer> results = stream.collect(Collectors.toList());
+		assertEquals(90_000, results.size());
+		assertEquals(10_000, failures.size());
+
+		// the encounter order of the successes is preserved
+		for (int i = 1; i < results.size(); i++) {
+			assertTrue(results.get(i - 1) < results.get(i));
+		}
+	}
+
+	@Test
+	@DisplayName("close test")
+	void closeTest() {
+		final AtomicBoolean closed = new AtomicBoolean();
+		TryStreams.mapTry(Stream.of("1").onClose(() -> closed.set(true)),
+				TryStreamsTest::parse, e -> {
+				}).close();
+		assertTrue(closed.get());
+	}
+
+	@Test
+	@DisplayName("listener notification test")
+	void listenerTest() {
+		final TryMetrics metrics = TryMetrics.create();
+		TryListener.install(metrics);
+		try {
+			assertEquals(1, TryStreams.mapTry(Stream.of("1", "a", "-1"),
+					TryStreamsTest::parse, e -> {
+					}).count());
+			assertEquals(2, metrics.snapshot().getTotalFailureCount());
+		} finally {
+			TryListener.uninstall();
+		}
+	}
+}
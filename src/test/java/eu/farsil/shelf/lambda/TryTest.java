@@ -5,11 +5,17 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static eu.farsil.shelf.mock.Functions.throwingSupplier;
 import static eu.farsil.shelf.test.MoreAssertions.*;
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 /**
@@ -19,6 +25,44 @@ import static org.mockito.Mockito.*;
  */
 @DisplayName("Attempt creation test")
 class TryTest {
+	@Test
+	@DisplayName("failure() test")
+	void failureTest() {
+		assertThrows(NullPointerException.class, () -> Try.failure(null));
+		final Exception cause = new IOException();
+		assertSame(cause, assertNotSuccessful(Try.failure(cause)));
+	}
+
+	@Test
+	@DisplayName("empty() test")
+	void emptyTest() {
+		// shared instance with a stackless cause
+		final Try<Integer> empty = Try.empty();
+		assertSame(empty, Try.<String>empty());
+		final Exception cause = assertNotSuccessful(empty);
+		assertInstanceOf(NoValueException.class, cause);
+		assertEquals("no value", cause.getMessage());
+		assertEquals(0, cause.getStackTrace().length);
+
+		// the shared cause does not accumulate suppressed exceptions
+		cause.addSuppressed(new IllegalStateException());
+		assertEquals(0, cause.getSuppressed().length);
+
+		// null results
+		assertSame(empty, Try.get(() -> null));
+		assertSame(empty, Try.success(1).map(x -> null));
+		assertSame(empty, Try.<Integer>pipeline().map(x -> null).apply(1));
+	}
+
+	@Test
+	@DisplayName("failureOf() test")
+	void failureOfTest() {
+		assertThrows(NullPointerException.class, () -> Try.failureOf(null));
+		final Try<Integer> failure = Try.failureOf(CachedFailure.NOT_FOUND);
+		assertSame(CachedFailure.NOT_FOUND, assertNotSuccessful(failure));
+		assertSame(failure, Try.<String>failureOf(CachedFailure.NOT_FOUND));
+	}
+
 	@Test
 	@DisplayName("get() test")
 	void getTest() throws Exception {
@@ -36,4 +80,128 @@ class TryTest {
 		assertInstanceOf(IOException.class, assertNotSuccessful(Try.get(mock)));
 		verify(mock, times(2)).get();
 	}
+
+	@Test
+	@DisplayName("sequence() test")
+	void sequenceTest() {
+		// null attempts
+		assertThrows(NullPointerException.class, () -> Try.sequence(null));
+
+		// successful attempts
+		assertEquals(Arrays.asList(1, 2), assertSuccessful(Try.sequence(
+				Arrays.asList(Try.get(() -> 1), Try.get(() -> 2)))));
+		assertEquals(Collections.emptyList(),
+				assertSuccessful(Try.sequence(Collections.emptyList())));
+
+		// the first failure is returned
+		final Exception first = new IOException();
+		assertSame(first, assertNotSuccessful(Try.sequence(Arrays.asList(
+				Try.get(() -> 1),
+				new Failure<Integer>(first),
+				new Failure<Integer>(new IllegalStateException())))));
+	}
+
+	@Test
+	@DisplayName("success() test")
+	void successTest() {
+		assertEquals(1, assertSuccessful(Try.success(1)));
+		assertThrows(NullPointerException.class, () -> Try.success(null));
+	}
+
+	@Test
+	@DisplayName("traverse() test")
+	void traverseTest() {
+		// null arguments
+		final List<String> inputs = Arrays.asList("1", "2", "3");
+		assertThrows(NullPointerException.class,
+				() -> Try.traverse((List<String>) null, Integer::parseInt));
+		assertThrows(NullPointerException.class,
+				() -> Try.traverse(inputs, null));
+
+		// successful function
+		assertEquals(Arrays.asList(1, 2, 3),
+				assertSuccessful(Try.traverse(inputs, Integer::parseInt)));
+
+		// the traversal stops at the first failure
+		final AtomicInteger calls = new AtomicInteger();
+		assertInstanceOf(NumberFormatException.class, assertNotSuccessful(
+				Try.traverse(Arrays.asList("1", "a", "3"), s -> {
+					calls.incrementAndGet();
+					return Integer.parseInt(s);
+				})));
+		assertEquals(2, calls.get());
+
+		// null results are failures
+		assertSame(Try.empty(), Try.traverse(inputs, s -> null));
+	}
+
+	@Test
+	@DisplayName("traverse() in parallel test")
+	void traverseParallelTest() {
+		final ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			// null arguments
+			final List<Integer> inputs = IntStream.range(0, 1000).boxed()
+					.collect(Collectors.toList());
+			assertThrows(NullPointerException.class,
+					() -> Try.traverse(null, x -> x, pool));
+			assertThrows(NullPointerException.class,
+					() -> Try.traverse(inputs, null, pool));
+			assertThrows(NullPointerException.class,
+					() -> Try.traverse(inputs, x -> x, null));
+
+			// successful function, order is preserved
+			assertEquals(inputs.stream().map(x -> x * 2)
+							.collect(Collectors.toList()),
+					assertSuccessful(Try.traverse(inputs, x -> x * 2, pool)));
+			assertEquals(Collections.emptyList(), assertSuccessful(
+					Try.traverse(Collections.emptyList(), x -> x, pool)));
+
+			// the remaining inputs are abandoned after the first failure
+			final AtomicInteger calls = new AtomicInteger();
+			assertInstanceOf(IOException.class, assertNotSuccessful(
+					Try.traverse(inputs, x -> {
+						calls.incrementAndGet();
+						if (x == 0) {
+							throw new IOException();
+						}
+						Thread.sleep(1);
+						return x;
+					}, pool)));
+			assertTrue(calls.get() < inputs.size() / 2);
+
+			// null results are failures
+			assertSame(Try.empty(), Try.traverse(inputs, x -> null, pool));
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	@DisplayName("traverseAll() test")
+	void traverseAllTest() {
+		final ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			// null arguments
+			final List<String> inputs = Arrays.asList("1", "a", "3");
+			assertThrows(NullPointerException.class,
+					() -> Try.traverseAll((List<String>) null,
+							Integer::parseInt, pool));
+			assertThrows(NullPointerException.class,
+					() -> Try.traverseAll(inputs, null, pool));
+			assertThrows(NullPointerException.class,
+					() -> Try.traverseAll(inputs, Integer::parseInt, null));
+
+			// every outcome is collected
+			final List<Try<Integer>> results =
+					Try.traverseAll(inputs, Integer::parseInt, pool);
+			assertEquals(3, results.size());
+			assertEquals(1, assertSuccessful(results.get(0)));
+			assertInstanceOf(NumberFormatException.class,
+					assertNotSuccessful(results.get(1)));
+			assertEquals(3, assertSuccessful(results.get(2)));
+		} finally {
+			pool.shutdownNow();
+		}
+	}
 }
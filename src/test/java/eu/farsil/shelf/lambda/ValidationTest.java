@@ -0,0 +1,113 @@
+package eu.farsil.shelf.lambda;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static eu.farsil.shelf.test.MoreAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Validation tests.
+ *
+ * @author Marco Buzzanca
+ */
+@DisplayName("Validation test")
+class ValidationTest {
+	/**
+	 * A validator of strings.
+	 */
+	private final Validator<String> validator = Validator.<String>builder()
+			.rule("must not be empty", s -> !s.isEmpty())
+			.rule("must be lowercase", s -> s.equals(s.toLowerCase()))
+			.rule("must be short", s -> s.length() < 5)
+			.rule("must be a number", s -> Integer.parseInt(s) >= 0)
+			.build();
+
+	@Test
+	@DisplayName("builder test")
+	void builderTest() {
+		assertThrows(NullPointerException.class,
+				() -> Validator.builder().rule(null, x -> true));
+		assertThrows(NullPointerException.class,
+				() -> Validator.builder().rule("rule", null));
+		assertThrows(NullPointerException.class,
+				() -> validator.validate(null));
+
+		// no rules
+		assertTrue(Validator.builder().build().validate(1).isValid());
+	}
+
+	@Test
+	@DisplayName("validate() test")
+	void validateTest() {
+		// valid value
+		final Validation<String> valid = validator.validate("12");
+		assertTrue(valid.isValid());
+		assertEquals(0, valid.getErrorCount());
+		assertEquals(Collections.emptyList(), valid.getErrors());
+		assertEquals("12", assertSuccessful(valid.toTry()));
+
+		// every broken rule is reported, in order
+		final Validation<String> invalid = validator.validate("ABCDEF");
+		assertFalse(invalid.isValid());
+		assertEquals(3, invalid.getErrorCount());
+		assertEquals(Arrays.asList("must be lowercase", "must be short",
+				"must be a number: java.lang.NumberFormatException: " +
+						"For input string: \"ABCDEF\""),
+				invalid.getErrors());
+	}
+
+	@Test
+	@DisplayName("many rules test")
+	void manyRulesTest() {
+		// more rules than the bits of a word
+		final Validator.Builder<Integer> builder = Validator.builder();
+		for (int i = 0; i < 150; i++) {
+			final int bound = i;
+			builder.rule("rule " + i, x -> x != bound && x != bound - 100);
+		}
+		final Validator<Integer> subject = builder.build();
+		assertEquals(Arrays.asList("rule 120"),
+				subject.validate(120).getErrors());
+		assertEquals(Arrays.asList("rule 20", "rule 120"),
+				subject.validate(20).getErrors());
+		assertEquals(2, subject.validate(20).getErrorCount());
+	}
+
+	@Test
+	@DisplayName("toTry() test")
+	void toTryTest() {
+		final ValidationException e = assertInstanceOf(
+				ValidationException.class,
+				assertNotSuccessful(validator.validate("A").toTry()));
+		assertEquals(Arrays.asList("must be lowercase",
+				"must be a number: java.lang.NumberFormatException: " +
+						"For input string: \"A\""), e.getErrors());
+		assertInstanceOf(NumberFormatException.class, e.getCause());
+		assertEquals(0, e.getStackTrace().length);
+		assertThrows(UnsupportedOperationException.class,
+				() -> e.getErrors().clear());
+	}
+
+	@Test
+	@DisplayName("fromTry() test")
+	void fromTryTest() {
+		assertThrows(NullPointerException.class,
+				() -> Validation.fromTry(null));
+
+		final Validation<Integer> valid = Validation.fromTry(Try.success(1));
+		assertTrue(valid.isValid());
+		assertEquals(1, assertSuccessful(valid.toTry()));
+
+		final IOException cause = new IOException("boom");
+		final Validation<Integer> invalid =
+				Validation.fromTry(Try.failure(cause));
+		assertFalse(invalid.isValid());
+		assertEquals(Arrays.asList(cause.toString()), invalid.getErrors());
+		assertSame(cause, assertNotSuccessful(invalid.toTry()).getCause());
+	}
+}
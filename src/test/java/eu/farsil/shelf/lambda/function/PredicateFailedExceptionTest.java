@@ -5,9 +5,9 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.Base64;
 
-import static org.junit.jupiter.api.Assertions.assertNull;
-import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Tests for the {@link PredicateFailedException} class.
@@ -16,6 +16,26 @@ import static org.junit.jupiter.api.Assertions.assertSame;
  */
 @DisplayName("Attempt failed test")
 class PredicateFailedExceptionTest {
+	/**
+	 * An instance whose value is {@code "abc"}, serialized by version 0.1.0
+	 * with an empty stack trace, in Base64.
+	 */
+	private static final String SERIALIZED_0_1_0 =
+			"rO0ABXNyADhldS5mYXJzaWwuc2hlbGYubGFtYmRhLmZ1bmN0aW9uLlByZWRp"
+					+ "Y2F0ZUZhaWxlZEV4Y2VwdGlvbvYcwMjfLuzkAgAAeHIAGmphdmEubGFuZy5S"
+					+ "dW50aW1lRXhjZXB0aW9unl8GRwo0g+UCAAB4cgATamF2YS5sYW5nLkV4Y2Vw"
+					+ "dGlvbtD9Hz4aOxzEAgAAeHIAE2phdmEubGFuZy5UaHJvd2FibGXVxjUnOXe4"
+					+ "ywMABEwABWNhdXNldAAVTGphdmEvbGFuZy9UaHJvd2FibGU7TAANZGV0YWls"
+					+ "TWVzc2FnZXQAEkxqYXZhL2xhbmcvU3RyaW5nO1sACnN0YWNrVHJhY2V0AB5b"
+					+ "TGphdmEvbGFuZy9TdGFja1RyYWNlRWxlbWVudDtMABRzdXBwcmVzc2VkRXhj"
+					+ "ZXB0aW9uc3QAEExqYXZhL3V0aWwvTGlzdDt4cHEAfgAIdAAKdmFsdWU6IGFi"
+					+ "Y3VyAB5bTGphdmEubGFuZy5TdGFja1RyYWNlRWxlbWVudDsCRio8PP0iOQIA"
+					+ "AHhwAAAAAHNyACZqYXZhLnV0aWwuQ29sbGVjdGlvbnMkVW5tb2RpZmlhYmxl"
+					+ "TGlzdPwPJTG17I4QAgABTAAEbGlzdHEAfgAHeHIALGphdmEudXRpbC5Db2xs"
+					+ "ZWN0aW9ucyRVbm1vZGlmaWFibGVDb2xsZWN0aW9uGUIAgMte9x4CAAFMAAFj"
+					+ "dAAWTGphdmEvdXRpbC9Db2xsZWN0aW9uO3hwc3IAE2phdmEudXRpbC5BcnJh"
+					+ "eUxpc3R4gdIdmcdhnQMAAUkABHNpemV4cAAAAAB3BAAAAAB4cQB+ABF4";
+
 	@Test
 	@DisplayName("getValue() test")
 	void getValueTest() throws IOException, ClassNotFoundException {
@@ -27,10 +47,85 @@ class PredicateFailedExceptionTest {
 		final PredicateFailedException ex = new PredicateFailedException(value);
 		assertSame(value, ex.getValue());
 
-		// value does not survive serialization
+		// a value that is not serializable does not survive serialization
 		final PredicateFailedException deserialized =
 				Serialization.fromByteArray(PredicateFailedException.class,
 						Serialization.toByteArray(ex));
 		assertNull(deserialized.getValue());
+
+		// unless it is serializable
+		assertEquals("a", Serialization.fromByteArray(
+				PredicateFailedException.class, Serialization.toByteArray(
+						new PredicateFailedException("a"))).getValue());
+	}
+
+	@Test
+	@DisplayName("getMessage() test")
+	void getMessageTest() throws IOException, ClassNotFoundException {
+		// null value
+		assertNull(new PredicateFailedException(null).getMessage());
+
+		// message is built lazily, only once
+		final int[] calls = {0};
+		final Object value = new Object() {
+			@Override
+			public String toString() {
+				calls[0]++;
+				return "abcdef";
+			}
+		};
+		final PredicateFailedException ex = new PredicateFailedException(value);
+		assertEquals(0, calls[0]);
+		assertEquals("value: abcdef", ex.getMessage());
+		assertEquals("value: abcdef", ex.getMessage());
+		assertEquals(1, calls[0]);
+
+		// truncated message
+		assertEquals("value: abc...",
+				new PredicateFailedException(value, true, 3).getMessage());
+		assertEquals("value: abcdef",
+				new PredicateFailedException(value, true, 6).getMessage());
+		assertThrows(IllegalArgumentException.class,
+				() -> new PredicateFailedException(value, true, -1));
+
+		// message survives serialization
+		final PredicateFailedException deserialized =
+				Serialization.fromByteArray(PredicateFailedException.class,
+						Serialization.toByteArray(
+								new PredicateFailedException(value)));
+		assertEquals("value: abcdef", deserialized.getMessage());
+	}
+
+	@Test
+	@DisplayName("0.1.0 serialized form test")
+	void compatibilityTest() throws IOException, ClassNotFoundException {
+		final PredicateFailedException deserialized =
+				Serialization.fromByteArray(PredicateFailedException.class,
+						Base64.getDecoder().decode(SERIALIZED_0_1_0));
+		assertNull(deserialized.getValue());
+		assertEquals("value: abc", deserialized.getMessage());
+
+		// it can be serialized again in the current form
+		final PredicateFailedException again =
+				Serialization.fromByteArray(PredicateFailedException.class,
+						Serialization.toByteArray(deserialized));
+		assertNull(again.getValue());
+		assertEquals("value: abc", again.getMessage());
+	}
+
+	@Test
+	@DisplayName("stack trace test")
+	void stackTraceTest() {
+		// writable stack trace
+		assertNotEquals(0, new PredicateFailedException(1).getStackTrace().length);
+		assertNotEquals(0,
+				new PredicateFailedException(1, true).getStackTrace().length);
+
+		// non-writable stack trace
+		final PredicateFailedException ex = new PredicateFailedException(1,
+				false);
+		assertEquals(0, ex.getStackTrace().length);
+		assertEquals(1, ex.getValue());
+		assertEquals("value: 1", ex.getMessage());
 	}
 }
\ No newline at end of file
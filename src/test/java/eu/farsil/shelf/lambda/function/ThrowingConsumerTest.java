@@ -0,0 +1,69 @@
+package eu.farsil.shelf.lambda.function;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static eu.farsil.shelf.test.MoreAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the adapters of the {@link ThrowingConsumer} interface.
+ *
+ * @author Marco Buzzanca
+ */
+@DisplayName("Throwing consumer test")
+class ThrowingConsumerTest {
+	/**
+	 * The values accepted by {@link #add(Integer)}.
+	 */
+	private final List<Integer> values = new ArrayList<>();
+
+	/**
+	 * Adds a non-negative integer to {@link #values}.
+	 *
+	 * @param value the integer.
+	 * @throws IOException if the integer is negative.
+	 */
+	private void add(final Integer value) throws IOException {
+		if (value < 0) {
+			throw new IOException();
+		}
+		values.add(value);
+	}
+
+	@Test
+	@DisplayName("sneaky() test")
+	void sneakyTest() {
+		assertThrows(NullPointerException.class,
+				() -> ThrowingConsumer.sneaky(null));
+		final Consumer<Integer> subject = ThrowingConsumer.sneaky(this::add);
+		Arrays.asList(1, 2).forEach(subject);
+		assertEquals(Arrays.asList(1, 2), values);
+
+		// exceptions are thrown as they are
+		assertThrows(IOException.class, () -> subject.accept(-1));
+		assertThrows(NullPointerException.class, () -> subject.accept(null));
+	}
+
+	@Test
+	@DisplayName("unchecked() test")
+	void uncheckedTest() {
+		assertThrows(NullPointerException.class,
+				() -> ThrowingConsumer.unchecked(null));
+		final Consumer<Integer> subject =
+				ThrowingConsumer.unchecked(this::add);
+		Arrays.asList(1, 2).forEach(subject);
+		assertEquals(Arrays.asList(1, 2), values);
+
+		// checked exceptions are wrapped, unchecked ones are not
+		assertInstanceOf(IOException.class, assertThrows(
+				UncheckedException.class, () -> subject.accept(-1)).getCause());
+		assertThrows(NullPointerException.class, () -> subject.accept(null));
+	}
+}
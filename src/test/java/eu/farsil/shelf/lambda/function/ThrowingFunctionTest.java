@@ -0,0 +1,89 @@
+package eu.farsil.shelf.lambda.function;
+
+import eu.farsil.shelf.lambda.Try;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static eu.farsil.shelf.test.MoreAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the adapters of the {@link ThrowingFunction} interface.
+ *
+ * @author Marco Buzzanca
+ */
+@DisplayName("Throwing function test")
+class ThrowingFunctionTest {
+	/**
+	 * Parses a non-negative integer.
+	 *
+	 * @param s the string to parse.
+	 * @return the integer.
+	 * @throws IOException if the integer is negative.
+	 */
+	private static Integer parse(final String s) throws IOException {
+		final int value = Integer.parseInt(s);
+		if (value < 0) {
+			throw new IOException(s);
+		}
+		return value;
+	}
+
+	@Test
+	@DisplayName("lifted() test")
+	void liftedTest() {
+		assertThrows(NullPointerException.class,
+				() -> ThrowingFunction.lifted(null));
+		final Function<String, Try<Integer>> subject =
+				ThrowingFunction.lifted(ThrowingFunctionTest::parse);
+		assertThrows(NullPointerException.class, () -> subject.apply(null));
+
+		// failures do not interrupt the stream
+		final List<Try<Integer>> results = Arrays.asList("1", "-2", "a")
+				.stream().map(subject).collect(Collectors.toList());
+		assertEquals(1, assertSuccessful(results.get(0)));
+		assertInstanceOf(IOException.class,
+				assertNotSuccessful(results.get(1)));
+		assertInstanceOf(NumberFormatException.class,
+				assertNotSuccessful(results.get(2)));
+	}
+
+	@Test
+	@DisplayName("sneaky() test")
+	void sneakyTest() {
+		assertThrows(NullPointerException.class,
+				() -> ThrowingFunction.sneaky(null));
+		final Function<String, Integer> subject =
+				ThrowingFunction.sneaky(ThrowingFunctionTest::parse);
+		assertEquals(1, subject.apply("1"));
+
+		// exceptions are thrown as they are
+		assertThrows(IOException.class, () -> subject.apply("-1"));
+		assertThrows(NumberFormatException.class, () -> subject.apply("a"));
+	}
+
+	@Test
+	@DisplayName("unchecked() test")
+	void uncheckedTest() {
+		assertThrows(NullPointerException.class,
+				() -> ThrowingFunction.unchecked(null));
+		final Function<String, Integer> subject =
+				ThrowingFunction.unchecked(ThrowingFunctionTest::parse);
+		assertEquals(Arrays.asList(1, 2), Arrays.asList("1", "2").stream()
+				.map(subject).collect(Collectors.toList()));
+
+		// checked exceptions are wrapped, unchecked ones are not
+		final UncheckedException ex = assertThrows(UncheckedException.class,
+				() -> subject.apply("-1"));
+		assertInstanceOf(IOException.class, ex.getCause());
+		assertEquals("-1", ex.getCause().getMessage());
+		assertEquals(0, ex.getStackTrace().length);
+		assertThrows(NumberFormatException.class, () -> subject.apply("a"));
+	}
+}
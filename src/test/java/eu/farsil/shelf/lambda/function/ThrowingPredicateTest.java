@@ -0,0 +1,82 @@
+package eu.farsil.shelf.lambda.function;
+
+import eu.farsil.shelf.lambda.Try;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static eu.farsil.shelf.test.MoreAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the adapters of the {@link ThrowingPredicate} interface.
+ *
+ * @author Marco Buzzanca
+ */
+@DisplayName("Throwing predicate test")
+class ThrowingPredicateTest {
+	/**
+	 * Tests whether an integer is even.
+	 *
+	 * @param value the integer.
+	 * @return whether the integer is even.
+	 * @throws IOException if the integer is negative.
+	 */
+	private static boolean isEven(final Integer value) throws IOException {
+		if (value < 0) {
+			throw new IOException();
+		}
+		return value % 2 == 0;
+	}
+
+	@Test
+	@DisplayName("lifted() test")
+	void liftedTest() {
+		assertThrows(NullPointerException.class,
+				() -> ThrowingPredicate.lifted(null));
+		final Function<Integer, Try<Integer>> subject =
+				ThrowingPredicate.lifted(ThrowingPredicateTest::isEven);
+		assertThrows(NullPointerException.class, () -> subject.apply(null));
+		assertEquals(2, assertSuccessful(subject.apply(2)));
+		assertEquals(1, assertInstanceOf(PredicateFailedException.class,
+				assertNotSuccessful(subject.apply(1))).getValue());
+		assertInstanceOf(IOException.class,
+				assertNotSuccessful(subject.apply(-1)));
+	}
+
+	@Test
+	@DisplayName("sneaky() test")
+	void sneakyTest() {
+		assertThrows(NullPointerException.class,
+				() -> ThrowingPredicate.sneaky(null));
+		final Predicate<Integer> subject =
+				ThrowingPredicate.sneaky(ThrowingPredicateTest::isEven);
+		assertEquals(Arrays.asList(2, 4), Arrays.asList(1, 2, 3, 4).stream()
+				.filter(subject).collect(Collectors.toList()));
+
+		// exceptions are thrown as they are
+		assertThrows(IOException.class, () -> subject.test(-1));
+		assertThrows(NullPointerException.class, () -> subject.test(null));
+	}
+
+	@Test
+	@DisplayName("unchecked() test")
+	void uncheckedTest() {
+		assertThrows(NullPointerException.class,
+				() -> ThrowingPredicate.unchecked(null));
+		final Predicate<Integer> subject =
+				ThrowingPredicate.unchecked(ThrowingPredicateTest::isEven);
+		assertTrue(subject.test(2));
+		assertFalse(subject.test(1));
+
+		// checked exceptions are wrapped, unchecked ones are not
+		assertInstanceOf(IOException.class, assertThrows(
+				UncheckedException.class, () -> subject.test(-1)).getCause());
+		assertThrows(NullPointerException.class, () -> subject.test(null));
+	}
+}
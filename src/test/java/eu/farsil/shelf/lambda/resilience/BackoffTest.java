@@ -0,0 +1,90 @@
+package eu.farsil.shelf.lambda.resilience;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Backoff tests.
+ *
+ * @author Marco Buzzanca
+ */
+@DisplayName("Backoff test")
+class BackoffTest {
+	@Test
+	@DisplayName("decorrelatedJitter() test")
+	void decorrelatedJitterTest() {
+		// invalid arguments
+		final Duration base = Duration.ofMillis(10);
+		final Duration max = Duration.ofMillis(100);
+		assertThrows(NullPointerException.class,
+				() -> Backoff.decorrelatedJitter(null, max));
+		assertThrows(NullPointerException.class,
+				() -> Backoff.decorrelatedJitter(base, null));
+		assertThrows(IllegalArgumentException.class,
+				() -> Backoff.decorrelatedJitter(max, base));
+
+		// each delay is between the base and three times the previous one
+		final Backoff subject = Backoff.decorrelatedJitter(base, max);
+		long previous = 0L;
+		for (int retry = 1; retry <= 1000; retry++) {
+			final long delay = subject.delay(retry, previous);
+			assertTrue(delay >= base.toNanos());
+			assertTrue(delay <= max.toNanos());
+			assertTrue(delay <= Math.max(base.toNanos(), previous) * 3);
+			previous = delay;
+		}
+
+		// a base equal to the maximum gives a constant delay
+		assertEquals(max.toNanos(),
+				Backoff.decorrelatedJitter(max, max).delay(1, 0L));
+	}
+
+	@Test
+	@DisplayName("exponential() test")
+	void exponentialTest() {
+		// invalid arguments
+		final Duration initial = Duration.ofNanos(10);
+		final Duration max = Duration.ofNanos(100);
+		assertThrows(NullPointerException.class,
+				() -> Backoff.exponential(null, 2.0, max));
+		assertThrows(NullPointerException.class,
+				() -> Backoff.exponential(initial, 2.0, null));
+		assertThrows(IllegalArgumentException.class,
+				() -> Backoff.exponential(initial, 0.5, max));
+		assertThrows(IllegalArgumentException.class,
+				() -> Backoff.exponential(initial, Double.NaN, max));
+		assertThrows(IllegalArgumentException.class,
+				() -> Backoff.exponential(Duration.ofNanos(-1), 2.0, max));
+
+		// the delay doubles up to the maximum
+		final Backoff subject = Backoff.exponential(initial, 2.0, max);
+		assertEquals(10L, subject.delay(1, 0L));
+		assertEquals(20L, subject.delay(2, 10L));
+		assertEquals(40L, subject.delay(3, 20L));
+		assertEquals(80L, subject.delay(4, 40L));
+		assertEquals(100L, subject.delay(5, 80L));
+		assertEquals(100L, subject.delay(Integer.MAX_VALUE, 100L));
+	}
+
+	@Test
+	@DisplayName("fixed() test")
+	void fixedTest() {
+		assertThrows(NullPointerException.class, () -> Backoff.fixed(null));
+		assertThrows(IllegalArgumentException.class,
+				() -> Backoff.fixed(Duration.ofMillis(-1)));
+		assertEquals(5_000_000L,
+				Backoff.fixed(Duration.ofMillis(5)).delay(3, 5_000_000L));
+		assertEquals(Long.MAX_VALUE,
+				Backoff.fixed(Duration.ofSeconds(Long.MAX_VALUE)).delay(1, 0L));
+	}
+
+	@Test
+	@DisplayName("none() test")
+	void noneTest() {
+		assertEquals(0L, Backoff.none().delay(1, 0L));
+	}
+}
@@ -0,0 +1,173 @@
+package eu.farsil.shelf.lambda.resilience;
+
+import eu.farsil.shelf.lambda.Try;
+import eu.farsil.shelf.mock.ManualTicker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static eu.farsil.shelf.test.MoreAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bulkhead tests.
+ *
+ * @author Marco Buzzanca
+ */
+@DisplayName("Bulkhead test")
+class BulkheadTest {
+	/**
+	 * The threshold of the adaptive bulkheads, in nanoseconds.
+	 */
+	private static final long THRESHOLD = 1_000_000L;
+
+	/**
+	 * Performs a call that takes the specified time.
+	 *
+	 * @param subject the bulkhead.
+	 * @param ticker the ticker of the bulkhead.
+	 * @param nanos the duration of the call.
+	 * @return the outcome of the call.
+	 */
+	private static Try<Integer> call(final Bulkhead subject,
+			final ManualTicker ticker, final long nanos) {
+		return subject.get(() -> {
+			ticker.advance(nanos);
+			return 1;
+		});
+	}
+
+	@Test
+	@DisplayName("of() test")
+	void ofTest() throws Exception {
+		// invalid limit
+		assertThrows(IllegalArgumentException.class, () -> Bulkhead.of(0));
+
+		// null supplier
+		final Bulkhead subject = Bulkhead.of(2);
+		assertThrows(NullPointerException.class, () -> subject.get(null));
+		assertEquals(2, subject.getLimit());
+
+		// calls within the limit are performed, the others are rejected
+		final CountDownLatch entered = new CountDownLatch(2);
+		final CountDownLatch exit = new CountDownLatch(1);
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			final Future<Try<Integer>> first = executor.submit(
+					() -> subject.get(() -> block(entered, exit)));
+			final Future<Try<Integer>> second = executor.submit(
+					() -> subject.get(() -> block(entered, exit)));
+			entered.await();
+			assertEquals(2, subject.getActive());
+			final Exception rejection = assertInstanceOf(
+					BulkheadFullException.class,
+					assertNotSuccessful(subject.get(() -> 1)));
+			assertEquals(0, rejection.getStackTrace().length);
+			exit.countDown();
+			assertEquals(1, assertSuccessful(first.get()));
+			assertEquals(1, assertSuccessful(second.get()));
+		} finally {
+			executor.shutdownNow();
+		}
+
+		// permits are released, even by failures
+		assertEquals(0, subject.getActive());
+		assertInstanceOf(IOException.class, assertNotSuccessful(subject.get(
+				() -> {
+					throw new IOException();
+				})));
+		assertThrows(AssertionError.class, () -> subject.get(() -> {
+			throw new AssertionError();
+		}));
+		assertEquals(0, subject.getActive());
+		assertEquals(1, assertSuccessful(subject.get(() -> 1)));
+	}
+
+	@Test
+	@DisplayName("adaptive() test")
+	void adaptiveTest() {
+		// invalid arguments
+		final Duration threshold = Duration.ofNanos(THRESHOLD);
+		assertThrows(IllegalArgumentException.class,
+				() -> Bulkhead.adaptive(0, 1, threshold));
+		assertThrows(IllegalArgumentException.class,
+				() -> Bulkhead.adaptive(2, 1, threshold));
+		assertThrows(NullPointerException.class,
+				() -> Bulkhead.adaptive(1, 1, null));
+		assertThrows(IllegalArgumentException.class,
+				() -> Bulkhead.adaptive(1, 1, Duration.ofNanos(-1)));
+		assertThrows(NullPointerException.class,
+				() -> Bulkhead.adaptive(1, 1, threshold, null));
+
+		// the limit starts at the minimum
+		final ManualTicker ticker = new ManualTicker();
+		final Bulkhead subject = Bulkhead.adaptive(1, 4, threshold, ticker);
+		assertEquals(1, subject.getLimit());
+
+		// a saturated bulkhead rejects the calls
+		assertInstanceOf(BulkheadFullException.class,
+				assertNotSuccessful(subject.get(
+						() -> subject.get(() -> 1).orElseThrow())).getCause());
+
+		// fast calls increase the limit while it is at most twice the calls
+		// in progress, which are one at a time
+		for (int i = 0; i < 10; i++) {
+			assertEquals(1, assertSuccessful(call(subject, ticker, 0L)));
+		}
+		assertEquals(3, subject.getLimit());
+
+		// but not beyond the maximum
+		for (int i = 0; i < 10; i++) {
+			subject.get(() -> subject.get(() -> 1).orElseThrow());
+		}
+		assertEquals(4, subject.getLimit());
+
+		// slow calls decrease the limit down to the minimum
+		call(subject, ticker, THRESHOLD + 1);
+		assertEquals(3, subject.getLimit());
+		for (int i = 0; i < 100; i++) {
+			call(subject, ticker, THRESHOLD + 1);
+		}
+		assertEquals(1, subject.getLimit());
+		assertEquals(0, subject.getActive());
+	}
+
+	@Test
+	@DisplayName("adaptive() idle test")
+	void adaptiveIdleTest() throws Exception {
+		// fast calls do not increase the limit if it is not the bottleneck
+		final ManualTicker ticker = new ManualTicker();
+		final Bulkhead subject = Bulkhead.adaptive(4, 8,
+				Duration.ofNanos(THRESHOLD), ticker);
+		for (int i = 0; i < 10; i++) {
+			call(subject, ticker, 0L);
+		}
+		assertEquals(4, subject.getLimit());
+
+		// the limit increases when the calls are concurrent
+		assertSuccessful(subject.get(() -> call(subject, ticker, 0L)
+				.orElseThrow()));
+		assertEquals(5, subject.getLimit());
+	}
+
+	/**
+	 * Signals that a call has entered, and waits for the signal to exit.
+	 *
+	 * @param entered the latch counted down on entry.
+	 * @param exit the latch awaited before exiting.
+	 * @return 1.
+	 * @throws InterruptedException if interrupted while waiting.
+	 */
+	private static int block(final CountDownLatch entered,
+			final CountDownLatch exit) throws InterruptedException {
+		entered.countDown();
+		exit.await();
+		return 1;
+	}
+}
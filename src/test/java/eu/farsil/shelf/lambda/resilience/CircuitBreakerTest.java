@@ -0,0 +1,237 @@
+package eu.farsil.shelf.lambda.resilience;
+
+import eu.farsil.shelf.lambda.Try;
+import eu.farsil.shelf.lambda.function.ThrowingSupplier;
+import eu.farsil.shelf.mock.ManualTicker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static eu.farsil.shelf.mock.Functions.throwingSupplier;
+import static eu.farsil.shelf.test.MoreAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Circuit breaker tests.
+ *
+ * @author Marco Buzzanca
+ */
+@DisplayName("Circuit breaker test")
+class CircuitBreakerTest {
+	/**
+	 * Fails a call through the specified circuit breaker.
+	 *
+	 * @param subject the circuit breaker.
+	 * @return the outcome of the call.
+	 */
+	private static Try<Integer> fail(final CircuitBreaker subject) {
+		return subject.get(() -> {
+			throw new IOException();
+		});
+	}
+
+	/**
+	 * Returns a circuit breaker that opens when half of at least 4 calls in
+	 * the last 10 seconds failed, and cools down for 1 second.
+	 *
+	 * @param ticker the source of time.
+	 * @return the circuit breaker.
+	 */
+	private static CircuitBreaker subject(final Ticker ticker) {
+		return CircuitBreaker.builder()
+				.failureRateThreshold(0.5)
+				.minimumCalls(4)
+				.window(Duration.ofSeconds(10), 10)
+				.cooldown(Duration.ofSeconds(1))
+				.ticker(ticker)
+				.build();
+	}
+
+	@Test
+	@DisplayName("builder() test")
+	void builderTest() {
+		final CircuitBreaker.Builder subject = CircuitBreaker.builder();
+		assertThrows(IllegalArgumentException.class,
+				() -> subject.failureRateThreshold(0.0));
+		assertThrows(IllegalArgumentException.class,
+				() -> subject.failureRateThreshold(1.5));
+		assertThrows(IllegalArgumentException.class,
+				() -> subject.failureRateThreshold(Double.NaN));
+		assertThrows(IllegalArgumentException.class,
+				() -> subject.minimumCalls(0));
+		assertThrows(NullPointerException.class, () -> subject.window(null, 1));
+		assertThrows(IllegalArgumentException.class,
+				() -> subject.window(Duration.ZERO, 1));
+		assertThrows(IllegalArgumentException.class,
+				() -> subject.window(Duration.ofSeconds(1), 0));
+		assertThrows(NullPointerException.class, () -> subject.cooldown(null));
+		assertThrows(IllegalArgumentException.class,
+				() -> subject.cooldown(Duration.ofSeconds(-1)));
+		assertThrows(NullPointerException.class, () -> subject.ticker(null));
+	}
+
+	@Test
+	@DisplayName("get() test")
+	void getTest() throws Exception {
+		// null supplier
+		final CircuitBreaker subject = subject(new ManualTicker());
+		assertThrows(NullPointerException.class, () -> subject.get(null));
+
+		// closed circuit
+		final ThrowingSupplier<Integer> mock = throwingSupplier();
+		when(mock.get()).thenReturn(1);
+		assertEquals(1, assertSuccessful(subject.get(mock)));
+		assertInstanceOf(IOException.class, assertNotSuccessful(fail(subject)));
+		assertEquals(CircuitBreaker.State.CLOSED, subject.getState());
+
+		// the rate is not significant until there are enough calls
+		assertInstanceOf(IOException.class, assertNotSuccessful(fail(subject)));
+		assertEquals(CircuitBreaker.State.CLOSED, subject.getState());
+		assertInstanceOf(IOException.class, assertNotSuccessful(fail(subject)));
+		assertEquals(CircuitBreaker.State.OPEN, subject.getState());
+
+		// open circuit, the supplier is not called
+		reset(mock);
+		final Exception rejection = assertInstanceOf(
+				CallNotPermittedException.class,
+				assertNotSuccessful(subject.get(mock)));
+		assertEquals(0, rejection.getStackTrace().length);
+		assertSame(rejection, assertNotSuccessful(subject.get(mock)));
+		verifyZeroInteractions(mock);
+	}
+
+	@Test
+	@DisplayName("half-open test")
+	void halfOpenTest() throws Exception {
+		final ManualTicker ticker = new ManualTicker();
+		final CircuitBreaker subject = subject(ticker);
+		for (int i = 0; i < 4; i++) {
+			fail(subject);
+		}
+		assertEquals(CircuitBreaker.State.OPEN, subject.getState());
+
+		// the circuit stays open during the cooldown
+		ticker.advance(999_999_999L);
+		assertInstanceOf(CallNotPermittedException.class,
+				assertNotSuccessful(subject.get(() -> 1)));
+
+		// a failed probe opens the circuit again
+		ticker.advance(1L);
+		assertInstanceOf(IOException.class, assertNotSuccessful(fail(subject)));
+		assertEquals(CircuitBreaker.State.OPEN, subject.getState());
+		assertInstanceOf(CallNotPermittedException.class,
+				assertNotSuccessful(subject.get(() -> 1)));
+
+		// only one probe at a time, the others are rejected
+		ticker.advance(1_000_000_000L);
+		final AtomicReference<Try<Integer>> concurrent =
+				new AtomicReference<>();
+		assertEquals(1, assertSuccessful(subject.get(() -> {
+			assertEquals(CircuitBreaker.State.HALF_OPEN, subject.getState());
+			concurrent.set(subject.get(() -> 2));
+			return 1;
+		})));
+		assertInstanceOf(CallNotPermittedException.class,
+				assertNotSuccessful(concurrent.get()));
+
+		// a successful probe closes the circuit with an empty window
+		assertEquals(CircuitBreaker.State.CLOSED, subject.getState());
+		assertInstanceOf(IOException.class, assertNotSuccessful(fail(subject)));
+		assertEquals(CircuitBreaker.State.CLOSED, subject.getState());
+	}
+
+	@Test
+	@DisplayName("probe error test")
+	void probeErrorTest() {
+		final ManualTicker ticker = new ManualTicker();
+		final CircuitBreaker subject = subject(ticker);
+		for (int i = 0; i < 4; i++) {
+			fail(subject);
+		}
+		ticker.advance(1_000_000_000L);
+
+		// an error thrown by a probe is a failure
+		assertThrows(AssertionError.class, () -> subject.get(() -> {
+			throw new AssertionError();
+		}));
+		assertEquals(CircuitBreaker.State.OPEN, subject.getState());
+	}
+
+	@Test
+	@DisplayName("sliding window test")
+	void slidingWindowTest() {
+		// failures older than the window are forgotten
+		final ManualTicker ticker = new ManualTicker();
+		final CircuitBreaker subject = subject(ticker);
+		fail(subject);
+		fail(subject);
+		fail(subject);
+		ticker.advance(10_000_000_000L);
+		fail(subject);
+		assertEquals(CircuitBreaker.State.CLOSED, subject.getState());
+		subject.get(() -> 1);
+		fail(subject);
+		assertEquals(CircuitBreaker.State.CLOSED, subject.getState());
+		fail(subject);
+		assertEquals(CircuitBreaker.State.OPEN, subject.getState());
+	}
+
+	@Test
+	@DisplayName("decorate() test")
+	void decorateTest() {
+		final CircuitBreaker subject = subject(new ManualTicker());
+		assertThrows(NullPointerException.class, () -> subject.decorate(null));
+		final Function<String, Try<Integer>> parse =
+				subject.decorate(Integer::parseInt);
+		assertEquals(1, assertSuccessful(parse.apply("1")));
+		for (int i = 0; i < 3; i++) {
+			assertInstanceOf(NumberFormatException.class,
+					assertNotSuccessful(parse.apply("a")));
+		}
+		assertInstanceOf(CallNotPermittedException.class,
+				assertNotSuccessful(parse.apply("1")));
+	}
+
+	@Test
+	@DisplayName("concurrent get() test")
+	void concurrentGetTest() throws InterruptedException {
+		// every thread fails, so the circuit must eventually open
+		final CircuitBreaker subject = CircuitBreaker.builder()
+				.minimumCalls(100)
+				.build();
+		final AtomicInteger calls = new AtomicInteger();
+		final CountDownLatch start = new CountDownLatch(1);
+		final List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			threads.add(new Thread(() -> {
+				try {
+					start.await();
+				} catch (final InterruptedException e) {
+					return;
+				}
+				for (int j = 0; j < 1000; j++) {
+					subject.get(() -> {
+						calls.incrementAndGet();
+						throw new IOException();
+					});
+				}
+			}));
+		}
+		threads.forEach(Thread::start);
+		start.countDown();
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(CircuitBreaker.State.OPEN, subject.getState());
+		assertTrue(calls.get() < 8000);
+	}
+}
@@ -0,0 +1,83 @@
+package eu.farsil.shelf.lambda.resilience;
+
+import eu.farsil.shelf.mock.ManualTicker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Retry budget tests.
+ *
+ * @author Marco Buzzanca
+ */
+@DisplayName("Retry budget test")
+class RetryBudgetTest {
+	@Test
+	@DisplayName("of() test")
+	void ofTest() {
+		final Ticker ticker = new ManualTicker();
+		assertThrows(NullPointerException.class,
+				() -> RetryBudget.of(1, 1.0, null));
+		assertThrows(IllegalArgumentException.class,
+				() -> RetryBudget.of(0, 1.0, ticker));
+		assertThrows(IllegalArgumentException.class,
+				() -> RetryBudget.of(1, 0.0, ticker));
+		assertThrows(IllegalArgumentException.class,
+				() -> RetryBudget.of(1, Double.NaN, ticker));
+	}
+
+	@Test
+	@DisplayName("tryAcquire() test")
+	void tryAcquireTest() {
+		// the budget starts full
+		final ManualTicker ticker = new ManualTicker();
+		final RetryBudget subject = RetryBudget.of(3, 10.0, ticker);
+		assertTrue(subject.tryAcquire());
+		assertTrue(subject.tryAcquire());
+		assertTrue(subject.tryAcquire());
+		assertFalse(subject.tryAcquire());
+
+		// a token is replenished every 100 ms
+		ticker.advance(99_000_000L);
+		assertFalse(subject.tryAcquire());
+		ticker.advance(1_000_000L);
+		assertTrue(subject.tryAcquire());
+		assertFalse(subject.tryAcquire());
+
+		// tokens do not accumulate beyond the capacity
+		ticker.advance(10_000_000_000L);
+		assertTrue(subject.tryAcquire());
+		assertTrue(subject.tryAcquire());
+		assertTrue(subject.tryAcquire());
+		assertFalse(subject.tryAcquire());
+	}
+
+	@Test
+	@DisplayName("concurrent tryAcquire() test")
+	void concurrentTryAcquireTest() throws InterruptedException {
+		// no more tokens than the capacity are handed out
+		final RetryBudget subject = RetryBudget.of(1000, 1e-3,
+				new ManualTicker());
+		final AtomicInteger acquired = new AtomicInteger();
+		final List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			threads.add(new Thread(() -> {
+				for (int j = 0; j < 1000; j++) {
+					if (subject.tryAcquire()) {
+						acquired.incrementAndGet();
+					}
+				}
+			}));
+		}
+		threads.forEach(Thread::start);
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(1000, acquired.get());
+	}
+}
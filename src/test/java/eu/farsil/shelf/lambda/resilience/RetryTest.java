@@ -0,0 +1,219 @@
+package eu.farsil.shelf.lambda.resilience;
+
+import eu.farsil.shelf.lambda.Try;
+import eu.farsil.shelf.lambda.function.ThrowingSupplier;
+import eu.farsil.shelf.mock.ManualTicker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static eu.farsil.shelf.mock.Functions.throwingSupplier;
+import static eu.farsil.shelf.test.MoreAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Retry policy tests.
+ *
+ * @author Marco Buzzanca
+ */
+@DisplayName("Retry policy test")
+class RetryTest {
+	@Test
+	@DisplayName("builder() test")
+	void builderTest() {
+		final Retry.Builder subject = Retry.builder();
+		assertThrows(IllegalArgumentException.class,
+				() -> subject.maxAttempts(0));
+		assertThrows(NullPointerException.class, () -> subject.maxElapsed(null));
+		assertThrows(IllegalArgumentException.class,
+				() -> subject.maxElapsed(Duration.ofSeconds(-1)));
+		assertThrows(NullPointerException.class, () -> subject.backoff(null));
+		assertThrows(NullPointerException.class, () -> subject.budget(null));
+		assertThrows(NullPointerException.class, () -> subject.ticker(null));
+		assertThrows(NullPointerException.class,
+				() -> subject.retryOn((Class<? extends Exception>) null));
+		assertThrows(NullPointerException.class,
+				() -> subject.retryOn((Predicate<Exception>) null));
+	}
+
+	@Test
+	@DisplayName("get() test")
+	void getTest() throws Exception {
+		// null supplier
+		final ManualTicker ticker = new ManualTicker();
+		final Retry subject = Retry.builder()
+				.maxAttempts(3)
+				.backoff(Backoff.fixed(Duration.ofMillis(10)))
+				.ticker(ticker)
+				.build();
+		assertThrows(NullPointerException.class, () -> subject.get(null));
+
+		// success at the first attempt
+		final ThrowingSupplier<Integer> mock = throwingSupplier();
+		when(mock.get()).thenReturn(1);
+		assertEquals(1, assertSuccessful(subject.get(mock)));
+		verify(mock).get();
+		assertEquals(0L, ticker.getSlept());
+
+		// success at the third attempt
+		reset(mock);
+		when(mock.get()).thenThrow(new IOException())
+				.thenThrow(new IOException()).thenReturn(1);
+		assertEquals(1, assertSuccessful(subject.get(mock)));
+		verify(mock, times(3)).get();
+		assertEquals(20_000_000L, ticker.getSlept());
+
+		// the last failure is returned after the maximum number of attempts
+		reset(mock);
+		final Exception last = new IllegalStateException();
+		when(mock.get()).thenThrow(new IOException())
+				.thenThrow(new IOException()).thenThrow(last);
+		assertSame(last, assertNotSuccessful(subject.get(mock)));
+		verify(mock, times(3)).get();
+	}
+
+	@Test
+	@DisplayName("retryOn() test")
+	void retryOnTest() throws Exception {
+		final Retry subject = Retry.builder()
+				.maxAttempts(5)
+				.retryOn(IOException.class)
+				.retryOn(e -> e instanceof IllegalStateException)
+				.build();
+
+		// retryable causes
+		final ThrowingSupplier<Integer> mock = throwingSupplier();
+		when(mock.get()).thenThrow(new IOException())
+				.thenThrow(new IllegalStateException()).thenReturn(1);
+		assertEquals(1, assertSuccessful(subject.get(mock)));
+		verify(mock, times(3)).get();
+
+		// a cause that is not retryable stops the retries
+		reset(mock);
+		when(mock.get()).thenThrow(new IllegalArgumentException())
+				.thenReturn(1);
+		assertInstanceOf(IllegalArgumentException.class,
+				assertNotSuccessful(subject.get(mock)));
+		verify(mock).get();
+	}
+
+	@Test
+	@DisplayName("maxElapsed() test")
+	void maxElapsedTest() throws Exception {
+		// each attempt takes 40 ms, and is followed by a 10 ms delay
+		final ManualTicker ticker = new ManualTicker();
+		final Retry subject = Retry.builder()
+				.maxAttempts(Integer.MAX_VALUE)
+				.maxElapsed(Duration.ofMillis(120))
+				.backoff(Backoff.fixed(Duration.ofMillis(10)))
+				.ticker(ticker)
+				.build();
+		final ThrowingSupplier<Integer> mock = throwingSupplier();
+		when(mock.get()).then(invocation -> {
+			ticker.advance(40_000_000L);
+			throw new IOException();
+		});
+
+		// attempts start at 0, 50 and 100 ms, the next one would start at 150
+		assertInstanceOf(IOException.class,
+				assertNotSuccessful(subject.get(mock)));
+		verify(mock, times(3)).get();
+	}
+
+	@Test
+	@DisplayName("budget() test")
+	void budgetTest() throws Exception {
+		// two retries are available, shared by every call
+		final ManualTicker ticker = new ManualTicker();
+		final Retry subject = Retry.builder()
+				.maxAttempts(10)
+				.budget(RetryBudget.of(2, 1.0, ticker))
+				.ticker(ticker)
+				.build();
+		final ThrowingSupplier<Integer> mock = throwingSupplier();
+		doThrow(IOException.class).when(mock).get();
+		assertInstanceOf(IOException.class,
+				assertNotSuccessful(subject.get(mock)));
+		verify(mock, times(3)).get();
+
+		// once the budget is exhausted, failures are not retried
+		assertInstanceOf(IOException.class,
+				assertNotSuccessful(subject.get(mock)));
+		verify(mock, times(4)).get();
+
+		// the budget is replenished over time
+		ticker.advance(1_000_000_000L);
+		assertInstanceOf(IOException.class,
+				assertNotSuccessful(subject.get(mock)));
+		verify(mock, times(6)).get();
+	}
+
+	@Test
+	@DisplayName("interrupted get() test")
+	void interruptedGetTest() {
+		final Retry subject = Retry.builder()
+				.backoff(Backoff.fixed(Duration.ofSeconds(10)))
+				.build();
+		Thread.currentThread().interrupt();
+		try {
+			assertInstanceOf(InterruptedException.class,
+					assertNotSuccessful(subject.get(() -> {
+						throw new IOException();
+					})));
+			assertTrue(Thread.currentThread().isInterrupted());
+		} finally {
+			Thread.interrupted();
+		}
+	}
+
+	@Test
+	@DisplayName("getAsync() test")
+	void getAsyncTest() throws Exception {
+		final ScheduledExecutorService scheduler =
+				Executors.newSingleThreadScheduledExecutor();
+		try {
+			// null arguments
+			final Retry subject = Retry.builder()
+					.maxAttempts(3)
+					.backoff(Backoff.fixed(Duration.ofMillis(1)))
+					.build();
+			assertThrows(NullPointerException.class,
+					() -> subject.getAsync(null, scheduler));
+			assertThrows(NullPointerException.class,
+					() -> subject.getAsync(() -> 1, null));
+
+			// success at the third attempt
+			final ThrowingSupplier<Integer> mock = throwingSupplier();
+			when(mock.get()).thenThrow(new IOException())
+					.thenThrow(new IOException()).thenReturn(1);
+			final CompletableFuture<Try<Integer>> future =
+					subject.getAsync(mock, scheduler);
+			assertEquals(1, assertSuccessful(future.get(5, TimeUnit.SECONDS)));
+			verify(mock, times(3)).get();
+
+			// the last failure is returned after the maximum number of attempts
+			reset(mock);
+			doThrow(IOException.class).when(mock).get();
+			assertInstanceOf(IOException.class, assertNotSuccessful(
+					subject.getAsync(mock, scheduler).get(5, TimeUnit.SECONDS)));
+			verify(mock, times(3)).get();
+
+			// a rejected attempt is a failure
+			scheduler.shutdown();
+			assertInstanceOf(RejectedExecutionException.class,
+					assertNotSuccessful(subject.getAsync(mock, scheduler)
+							.get(5, TimeUnit.SECONDS)));
+		} finally {
+			scheduler.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package eu.farsil.shelf.mock;
+
+import eu.farsil.shelf.lambda.resilience.Ticker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link Ticker} whose time only advances when it is told to, either by
+ * {@link #advance(long)} or by sleeping, which returns immediately.
+ *
+ * @author Marco Buzzanca
+ */
+public class ManualTicker implements Ticker {
+	/**
+	 * The current time, in nanoseconds.
+	 */
+	private final AtomicLong now = new AtomicLong();
+
+	/**
+	 * The total time slept, in nanoseconds.
+	 */
+	private final AtomicLong slept = new AtomicLong();
+
+	/**
+	 * Advances the time.
+	 *
+	 * @param nanos the time to add, in nanoseconds.
+	 */
+	public void advance(final long nanos) {
+		now.addAndGet(nanos);
+	}
+
+	/**
+	 * Returns the total time slept on this ticker.
+	 *
+	 * @return the time slept, in nanoseconds.
+	 */
+	public long getSlept() {
+		return slept.get();
+	}
+
+	@Override
+	public long nanoTime() {
+		return now.get();
+	}
+
+	@Override
+	public void sleep(final long nanos) {
+		slept.addAndGet(nanos);
+		advance(nanos);
+	}
+}
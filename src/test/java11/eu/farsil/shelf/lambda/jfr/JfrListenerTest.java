@@ -0,0 +1,165 @@
+package eu.farsil.shelf.lambda.jfr;
+
+import eu.farsil.shelf.lambda.Try;
+import eu.farsil.shelf.lambda.TryListener;
+import eu.farsil.shelf.lambda.function.PredicateFailedException;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JDK Flight Recorder listener tests.
+ *
+ * @author Marco Buzzanca
+ */
+@DisplayName("JDK Flight Recorder listener test")
+class JfrListenerTest {
+	@AfterEach
+	void tearDown() {
+		TryListener.uninstall();
+	}
+
+	/**
+	 * Stops the specified recording, and returns its events.
+	 *
+	 * @param recording the recording.
+	 * @return the events.
+	 * @throws IOException if the recording cannot be read.
+	 */
+	private static List<RecordedEvent> stop(final Recording recording)
+			throws IOException {
+		recording.stop();
+		final Path file = Files.createTempFile("shelf", ".jfr");
+		try {
+			recording.dump(file);
+			return RecordingFile.readAllEvents(file);
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	/**
+	 * Returns the events with the specified name.
+	 *
+	 * @param events the events.
+	 * @param name the name of the events.
+	 * @return the events with the name.
+	 */
+	private static List<RecordedEvent> filter(final List<RecordedEvent> events,
+			final String name) {
+		return events.stream()
+				.filter(e -> e.getEventType().getName().equals(name))
+				.collect(Collectors.toList());
+	}
+
+	@Test
+	@DisplayName("failure events test")
+	void failureTest() throws IOException {
+		TryListener.install(JfrListener.create());
+		try (final Recording recording = new Recording()) {
+			recording.enable(FailureEvent.NAME);
+			recording.enable(RecoveryEvent.NAME);
+			recording.start();
+			Try.get(() -> {
+				throw new IOException("boom");
+			}).recover(e -> 0);
+			final List<RecordedEvent> events = stop(recording);
+			final List<RecordedEvent> failures =
+					filter(events, FailureEvent.NAME);
+			assertEquals(1, failures.size());
+			assertEquals(IOException.class.getName(), failures.get(0)
+					.getClass("exceptionClass").getName());
+			assertEquals("boom", failures.get(0).getString("message"));
+			assertNotNull(failures.get(0).getStackTrace());
+			assertEquals(1, filter(events, RecoveryEvent.NAME).size());
+		}
+	}
+
+	@Test
+	@DisplayName("failure event messages test")
+	void messageTest() throws IOException {
+		TryListener.install(JfrListener.create());
+		try (final Recording recording = new Recording()) {
+			recording.enable(FailureEvent.NAME);
+			recording.start();
+
+			// long messages are truncated
+			final char[] chars = new char[JfrListener.MAX_MESSAGE_LENGTH + 1];
+			Arrays.fill(chars, 'x');
+			final String message = new String(chars);
+			Try.get(() -> {
+				throw new IOException(message);
+			});
+
+			// messages built on demand are not built
+			final int[] calls = {0};
+			final Object value = new Object() {
+				@Override
+				public String toString() {
+					calls[0]++;
+					return "value";
+				}
+			};
+			Try.get(() -> {
+				throw new PredicateFailedException(value);
+			});
+
+			final List<RecordedEvent> failures =
+					filter(stop(recording), FailureEvent.NAME);
+			assertEquals(2, failures.size());
+			assertEquals(message.substring(0, JfrListener.MAX_MESSAGE_LENGTH),
+					failures.get(0).getString("message"));
+			assertNull(failures.get(1).getString("message"));
+			assertEquals(0, calls[0]);
+		}
+	}
+
+	@Test
+	@DisplayName("slow supplier events test")
+	void slowSupplierTest() throws IOException {
+		TryListener.install(JfrListener.create());
+		try (final Recording recording = new Recording()) {
+			recording.enable(SlowSupplierEvent.NAME)
+					.withThreshold(Duration.ofMillis(50));
+			recording.start();
+			assertEquals(1, Try.get(() -> 1).orElseThrow());
+			assertEquals(2, Try.get(() -> {
+				Thread.sleep(100);
+				return 2;
+			}).orElseThrow());
+			final List<RecordedEvent> events =
+					filter(stop(recording), SlowSupplierEvent.NAME);
+			assertEquals(1, events.size());
+			assertTrue(events.get(0).getBoolean("successful"));
+			assertTrue(events.get(0).getDuration()
+					.compareTo(Duration.ofMillis(50)) >= 0);
+		}
+	}
+
+	@Test
+	@DisplayName("disabled events test")
+	void disabledTest() throws IOException {
+		TryListener.install(JfrListener.create());
+		try (final Recording recording = new Recording()) {
+			recording.disable(FailureEvent.NAME);
+			recording.start();
+			Try.get(() -> {
+				throw new IOException();
+			});
+			assertTrue(filter(stop(recording), FailureEvent.NAME).isEmpty());
+		}
+	}
+}
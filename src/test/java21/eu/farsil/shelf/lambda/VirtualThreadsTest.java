@@ -0,0 +1,38 @@
+package eu.farsil.shelf.lambda;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static eu.farsil.shelf.test.MoreAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Virtual threads tests, which run against the classes for Java 21.
+ *
+ * @author Marco Buzzanca
+ */
+@DisplayName("Virtual threads test")
+class VirtualThreadsTest {
+	@Test
+	@DisplayName("default factory test")
+	void factoryTest() throws InterruptedException {
+		assertTrue(TryScope.isVirtual());
+
+		// the computations of a scope run on virtual threads by default
+		try (final TryScope<Thread> scope =
+				     TryScope.open(TryScope.Policy.COLLECT_ALL)) {
+			scope.fork(Thread::currentThread);
+			scope.fork(Thread::currentThread);
+			final List<Try<Thread>> outcomes = scope.join();
+			for (final Try<Thread> outcome : outcomes) {
+				final Thread thread = assertSuccessful(outcome);
+				assertTrue(thread.isVirtual());
+				assertTrue(thread.getName().startsWith("shelf-scope-"));
+			}
+			assertNotSame(assertSuccessful(outcomes.get(0)),
+					assertSuccessful(outcomes.get(1)));
+		}
+	}
+}
@@ -0,0 +1,355 @@
+package eu.farsil.shelf.lambda.flow;
+
+import eu.farsil.shelf.lambda.Try;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+import static eu.farsil.shelf.test.MoreAssertions.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Flow adapters tests.
+ *
+ * @author Marco Buzzanca
+ */
+@DisplayName("Flow adapters test")
+class TryFlowTest {
+	/**
+	 * Parses an integer, failing on negative ones.
+	 *
+	 * @param value the value.
+	 * @return the value.
+	 * @throws IOException if the value is negative.
+	 */
+	private static int check(final int value) throws IOException {
+		if (value < 0) {
+			throw new IOException();
+		}
+		return value;
+	}
+
+	@Test
+	@DisplayName("map() test")
+	void mapTest() {
+		assertThrows(NullPointerException.class, () -> TryFlow.map(null));
+		assertThrows(NullPointerException.class, () -> TryFlow.map(null, 1));
+		assertThrows(IllegalArgumentException.class,
+				() -> TryFlow.map(TryFlowTest::check, 0));
+	}
+
+	@Test
+	@DisplayName("failures do not terminate the stream test")
+	void failureTest() {
+		final Flow.Processor<Integer, Try<Integer>> processor =
+				TryFlow.map(TryFlowTest::check);
+		final Source source = new Source(1, -2, 3, -4, 5);
+		final Sink sink = new Sink(Long.MAX_VALUE);
+		source.subscribe(processor);
+		processor.subscribe(sink);
+
+		assertEquals(5, sink.items.size());
+		assertEquals(1, assertSuccessful(sink.items.get(0)));
+		assertInstanceOf(IOException.class,
+				assertNotSuccessful(sink.items.get(1)));
+		assertEquals(3, assertSuccessful(sink.items.get(2)));
+		assertInstanceOf(IOException.class,
+				assertNotSuccessful(sink.items.get(3)));
+		assertEquals(5, assertSuccessful(sink.items.get(4)));
+		assertTrue(sink.completed);
+		assertNull(sink.error);
+	}
+
+	@Test
+	@DisplayName("backpressure test")
+	void backpressureTest() {
+		final Flow.Processor<Integer, Try<Integer>> processor =
+				TryFlow.map(TryFlowTest::check, 4);
+		final Source source = new Source(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+		final Sink sink = new Sink(0);
+		processor.subscribe(sink);
+		source.subscribe(processor);
+
+		// the first batch is requested and buffered, but not emitted
+		assertEquals(List.of(4L), source.requests);
+		assertTrue(sink.items.isEmpty());
+
+		// three quarters of the batch are replenished once emitted
+		sink.subscription.request(2);
+		assertEquals(2, sink.items.size());
+		assertEquals(List.of(4L), source.requests);
+		sink.subscription.request(1);
+		assertEquals(3, sink.items.size());
+		assertEquals(List.of(4L, 3L), source.requests);
+
+		// completion is delayed until the buffered items are emitted
+		sink.subscription.request(6);
+		assertEquals(9, sink.items.size());
+		assertFalse(sink.completed);
+		sink.subscription.request(1);
+		assertEquals(10, sink.items.size());
+		assertTrue(sink.completed);
+		for (int i = 0; i < 10; i++) {
+			assertEquals(i + 1, assertSuccessful(sink.items.get(i)));
+		}
+	}
+
+	@Test
+	@DisplayName("batch test")
+	void batchTest() {
+		final Flow.Processor<Integer, Try<Integer>> processor =
+				TryFlow.map(TryFlowTest::check, 1);
+		final Source source = new Source(1, 2, 3);
+		final Sink sink = new Sink(Long.MAX_VALUE);
+		source.subscribe(processor);
+		processor.subscribe(sink);
+
+		// a batch of one requests the items one at a time
+		assertEquals(List.of(1L, 1L, 1L, 1L), source.requests);
+		assertEquals(3, sink.items.size());
+		assertTrue(sink.completed);
+	}
+
+	@Test
+	@DisplayName("cancel test")
+	void cancelTest() {
+		final Flow.Processor<Integer, Try<Integer>> processor =
+				TryFlow.map(TryFlowTest::check, 2);
+		final Source source = new Source(1, 2, 3);
+		final Sink sink = new Sink(1);
+		source.subscribe(processor);
+		processor.subscribe(sink);
+
+		assertEquals(1, sink.items.size());
+		sink.subscription.cancel();
+		assertTrue(source.cancelled);
+		sink.subscription.request(2);
+		assertEquals(1, sink.items.size());
+		assertFalse(sink.completed);
+	}
+
+	@Test
+	@DisplayName("upstream error test")
+	void errorTest() {
+		final Flow.Processor<Integer, Try<Integer>> processor =
+				TryFlow.map(TryFlowTest::check);
+		final Source source = new Source(1, 2);
+		source.error = new IllegalStateException();
+		final Sink sink = new Sink(0);
+		source.subscribe(processor);
+		processor.subscribe(sink);
+
+		// the error follows the buffered items
+		assertNull(sink.error);
+		sink.subscription.request(2);
+		assertEquals(2, sink.items.size());
+		assertSame(source.error, sink.error);
+		assertFalse(sink.completed);
+	}
+
+	@Test
+	@DisplayName("invalid request test")
+	void invalidRequestTest() {
+		final Flow.Processor<Integer, Try<Integer>> processor =
+				TryFlow.map(TryFlowTest::check, 2);
+		final Source source = new Source(1, 2, 3);
+		final Sink sink = new Sink(0);
+		source.subscribe(processor);
+		processor.subscribe(sink);
+
+		// the stream is terminated, regardless of the buffered items
+		sink.subscription.request(0);
+		assertTrue(source.cancelled);
+		assertInstanceOf(IllegalArgumentException.class, sink.error);
+		assertTrue(sink.items.isEmpty());
+	}
+
+	@Test
+	@DisplayName("single subscriber test")
+	void singleSubscriberTest() {
+		final Flow.Processor<Integer, Try<Integer>> processor =
+				TryFlow.map(TryFlowTest::check);
+		processor.subscribe(new Sink(0));
+		final Sink other = new Sink(0);
+		processor.subscribe(other);
+		assertInstanceOf(IllegalStateException.class, other.error);
+
+		// a second upstream is cancelled
+		new Source(1).subscribe(processor);
+		final Source source = new Source(1);
+		source.subscribe(processor);
+		assertTrue(source.cancelled);
+	}
+
+	@Test
+	@DisplayName("asynchronous publisher test")
+	void asynchronousTest() throws InterruptedException {
+		final int count = 10_000;
+		final Flow.Processor<Integer, Try<Integer>> processor =
+				TryFlow.map(TryFlowTest::check, 16);
+		final CountDownLatch done = new CountDownLatch(1);
+		final Sink sink = new Sink(Long.MAX_VALUE) {
+			@Override
+			public void onComplete() {
+				super.onComplete();
+				done.countDown();
+			}
+		};
+		processor.subscribe(sink);
+		try (final SubmissionPublisher<Integer> publisher =
+				     new SubmissionPublisher<>()) {
+			publisher.subscribe(processor);
+			for (int i = 0; i < count; i++) {
+				publisher.submit(i % 2 == 0 ? i : -i);
+			}
+		}
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+		assertEquals(count, sink.items.size());
+		for (int i = 0; i < count; i++) {
+			assertEquals(i % 2 == 0, sink.items.get(i).isSuccessful());
+		}
+	}
+
+	/**
+	 * A synchronous publisher of a fixed sequence of items, which records
+	 * the requests of its subscriber.
+	 */
+	private static final class Source implements Flow.Publisher<Integer> {
+		/**
+		 * The items.
+		 */
+		final int[] values;
+
+		/**
+		 * The requests.
+		 */
+		final List<Long> requests = new ArrayList<>();
+
+		/**
+		 * The error signalled after the items, or {@code null} to complete.
+		 */
+		Throwable error;
+
+		/**
+		 * Whether the subscription has been cancelled.
+		 */
+		boolean cancelled;
+
+		/**
+		 * Builds a publisher.
+		 *
+		 * @param values the items.
+		 */
+		Source(final int... values) {
+			this.values = values;
+		}
+
+		@Override
+		public void subscribe(final Flow.Subscriber<? super Integer> subscriber) {
+			subscriber.onSubscribe(new Flow.Subscription() {
+				private int index;
+
+				private long demand;
+
+				private boolean emitting;
+
+				@Override
+				public void cancel() {
+					cancelled = true;
+				}
+
+				@Override
+				public void request(final long n) {
+					requests.add(n);
+					demand += n;
+					if (emitting) {
+						return;
+					}
+					emitting = true;
+					while (demand > 0 && index < values.length && !cancelled) {
+						demand--;
+						subscriber.onNext(values[index++]);
+					}
+					if (index == values.length && !cancelled) {
+						cancelled = true;
+						if (error == null) {
+							subscriber.onComplete();
+						} else {
+							subscriber.onError(error);
+						}
+					}
+					emitting = false;
+				}
+			});
+		}
+	}
+
+	/**
+	 * A subscriber that records the signals it receives.
+	 */
+	private static class Sink implements Flow.Subscriber<Try<Integer>> {
+		/**
+		 * The items.
+		 */
+		final List<Try<Integer>> items = new ArrayList<>();
+
+		/**
+		 * The initial request.
+		 */
+		final long initial;
+
+		/**
+		 * The subscription.
+		 */
+		Flow.Subscription subscription;
+
+		/**
+		 * Whether the stream has completed.
+		 */
+		volatile boolean completed;
+
+		/**
+		 * The error that terminated the stream.
+		 */
+		volatile Throwable error;
+
+		/**
+		 * Builds a subscriber.
+		 *
+		 * @param initial the initial request.
+		 */
+		Sink(final long initial) {
+			this.initial = initial;
+		}
+
+		@Override
+		public void onComplete() {
+			completed = true;
+		}
+
+		@Override
+		public void onError(final Throwable throwable) {
+			error = throwable;
+		}
+
+		@Override
+		public void onNext(final Try<Integer> item) {
+			items.add(item);
+		}
+
+		@Override
+		public void onSubscribe(final Flow.Subscription subscription) {
+			this.subscription = subscription;
+			if (initial > 0) {
+				subscription.request(initial);
+			}
+		}
+	}
+}